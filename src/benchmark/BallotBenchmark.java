@@ -0,0 +1,234 @@
+package benchmark;
+
+import controller.BallotEngine;
+import controller.ManagerController;
+import database.BTOApplicationDatabase;
+import entity.*;
+import enums.*;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Throughput benchmark of {@link BallotEngine} on oversubscribed projects.
+ *
+ * <p>Creates projects with a different number of two-room units each and 600
+ * three-room units, and the given number of pending applications for each
+ * project, stored in a shuffled order. It then ballots all projects in
+ * parallel and checks that every flat type has exactly as many successful
+ * applications as units and that nothing is left pending. Afterwards it checks
+ * that:</p>
+ * <ul>
+ *   <li>a second ballot of the same projects changes nothing;</li>
+ *   <li>the same seed on a single thread gives the same result, and another
+ *       seed a different one;</li>
+ *   <li>a manager settling applications by hand while the ballot runs never
+ *       settles an application the ballot also settled, and the ballot never
+ *       gives out more units than are left after the manager's approvals.</li>
+ * </ul>
+ * <p>The benchmark exits with status 1 if any check fails.</p>
+ *
+ * <h2>Usage Example:</h2>
+ * <pre>{@code
+ * java -Xmx4g -cp bin benchmark.BallotBenchmark 100 50000
+ * }</pre>
+ *
+ * @author BTO Management System Team
+ * @version 2.0
+ * @since 2.0
+ * @see BallotEngine
+ */
+public class BallotBenchmark {
+
+	private static final int TWO_ROOM_UNITS = 400;
+	private static final int THREE_ROOM_UNITS = 600;
+	private static final long SEED = 42L;
+
+	private BallotBenchmark() {
+	}
+
+	/**
+	 * Runs the benchmark.
+	 *
+	 * @param args the number of projects (default 100) and of applications per project (default 50000)
+	 * @throws InterruptedException if interrupted while waiting for the manager thread
+	 */
+	public static void main(String[] args) throws InterruptedException {
+		int projectCount = args.length > 0 ? Integer.parseInt(args[0]) : 100;
+		int perProject = args.length > 1 ? Integer.parseInt(args[1]) : 50000;
+		BTOApplication.setDatabase(new BTOApplicationDatabase());
+
+		long start = System.nanoTime();
+		List<Project> projects = generate(projectCount, perProject);
+		System.out.printf("Loaded %,d applications for %d projects in %d ms%n",
+				(long) projectCount * perProject, projectCount, (System.nanoTime() - start) / 1_000_000);
+
+		int failures = 0;
+		BallotEngine engine = new BallotEngine();
+		start = System.nanoTime();
+		List<BallotEngine.BallotResult> results = engine.drawAll(projects, SEED);
+		long parallelNanos = System.nanoTime() - start;
+		for (BallotEngine.BallotResult result : results) {
+			String failure = check(result, perProject);
+			if (failure != null) {
+				System.out.println(result.getProject().getProjectName() + " failed: " + failure);
+				failures++;
+			}
+		}
+		System.out.printf("Parallel ballot on %d threads: %d ms (%,.0f applications/s)%n", ForkJoinPool.commonPool().getParallelism(),
+				parallelNanos / 1_000_000, (double) projectCount * perProject / (parallelNanos / 1e9));
+
+		int redrawn = settled(engine.drawAll(projects, SEED));
+		System.out.println("Second ballot settled " + redrawn + " applications");
+		if (redrawn != 0) {
+			failures++;
+		}
+
+		reset(projects);
+		start = System.nanoTime();
+		boolean same = fingerprint(new BallotEngine(new ForkJoinPool(1)).drawAll(projects, SEED)) == fingerprint(results);
+		System.out.printf("Ballot on 1 thread: %d ms, same result: %b%n", (System.nanoTime() - start) / 1_000_000, same);
+		reset(projects);
+		boolean different = fingerprint(engine.drawAll(projects, SEED + 1)) != fingerprint(results);
+		System.out.println("Other seed gives a different result: " + different);
+		if (!same || !different) {
+			failures++;
+		}
+
+		reset(projects);
+		failures += checkSettlingByHand(engine, projects);
+
+		if (failures > 0) {
+			System.out.println(failures + " checks failed");
+			System.exit(1);
+		}
+	}
+
+	private static List<Project> generate(int projectCount, int perProject) {
+		List<Applicant> applicants = new ArrayList<>(perProject);
+		for (int i = 0; i < perProject; i++) {
+			applicants.add(new Applicant("Applicant " + i, String.format("S%07dA", i), 25 + i % 30, MarriageStatusEnum.MARRIED, "password", null, null, null, null));
+		}
+		LocalDate today = LocalDate.now();
+		List<Project> projects = new ArrayList<>(projectCount);
+		for (int p = 0; p < projectCount; p++) {
+			ArrayList<FlatType> flatTypes = new ArrayList<>();
+			flatTypes.add(new FlatType(TWO_ROOM_UNITS + p, TWO_ROOM_UNITS + p, 300000, FlatTypeEnum.TWO_ROOM));
+			flatTypes.add(new FlatType(THREE_ROOM_UNITS, THREE_ROOM_UNITS, 400000, FlatTypeEnum.THREE_ROOM));
+			Project project = new Project("Project " + p, "Yishun", today, today.plusDays(30), flatTypes, null, 2, new ArrayList<>(), VisibilityEnum.VISIBLE);
+			projects.add(project);
+			List<BTOApplication> applications = new ArrayList<>(perProject);
+			for (int i = 0; i < perProject; i++) {
+				BTOApplication application = new BTOApplication("BTO-APP-" + p + "-" + i, null, project, i % 3 == 0 ? FlatTypeEnum.THREE_ROOM : FlatTypeEnum.TWO_ROOM);
+				application.setApplicant(applicants.get(i));
+				applications.add(application);
+			}
+			// Stored out of order, so the result cannot depend on the load order
+			Collections.shuffle(applications, new Random(p));
+			BTOApplication.addAllToDatabase(applications);
+		}
+		return projects;
+	}
+
+	/**
+	 * Checks the outcome of one project's ballot.
+	 *
+	 * @return a description of what went wrong, or null if the ballot is right
+	 */
+	private static String check(BallotEngine.BallotResult result, int perProject) {
+		Project project = result.getProject();
+		int twoRoom = project.getFlatTypes().get(0).getNumUnits();
+		int successful = BTOApplication.findApplicationsByProjectAndStatus(project, BTOApplicationStatusEnum.SUCCESSFUL).size();
+		int pending = BTOApplication.findApplicationsByProjectAndStatus(project, BTOApplicationStatusEnum.PENDING).size();
+		if (result.countSuccessful(FlatTypeEnum.TWO_ROOM) != twoRoom || result.countSuccessful(FlatTypeEnum.THREE_ROOM) != THREE_ROOM_UNITS
+				|| settled(Collections.singletonList(result)) != perProject || successful != twoRoom + THREE_ROOM_UNITS || pending != 0) {
+			return result.countSuccessful(FlatTypeEnum.TWO_ROOM) + " two-room and " + result.countSuccessful(FlatTypeEnum.THREE_ROOM)
+					+ " three-room successful, " + successful + " stored successful, " + pending + " pending";
+		}
+		return null;
+	}
+
+	/**
+	 * Ballots the projects while a manager approves or rejects their pending
+	 * applications one by one, and checks that each application was settled
+	 * exactly once, either by the ballot or by hand. Once the ballot has given
+	 * out units of a flat type, no later approval by hand is possible, so the
+	 * flat type must not have more successful applications than units.
+	 *
+	 * @return 1 if the check failed, otherwise 0
+	 */
+	private static int checkSettlingByHand(BallotEngine engine, List<Project> projects) throws InterruptedException {
+		List<BTOApplication> pending = new ArrayList<>();
+		for (Project project : projects) {
+			pending.addAll(BTOApplication.findApplicationsByProjectAndStatus(project, BTOApplicationStatusEnum.PENDING));
+		}
+		Collections.shuffle(pending, new Random(SEED));
+		Set<BTOApplication> byHand = Collections.newSetFromMap(new IdentityHashMap<>());
+		ManagerController controller = new ManagerController();
+		Thread manager = new Thread(() -> {
+			for (int i = 0; i < pending.size(); i++) {
+				if (controller.processApplication(pending.get(i), i % 2 == 0)) {
+					byHand.add(pending.get(i));
+				}
+			}
+		}, "manager");
+		manager.start();
+		List<BallotEngine.BallotResult> results = engine.drawAll(projects, SEED);
+		manager.join();
+
+		int twice = 0;
+		int byBallot = 0;
+		int overAllocated = 0;
+		for (BallotEngine.BallotResult result : results) {
+			List<BTOApplication> successful = BTOApplication.findApplicationsByProjectAndStatus(result.getProject(), BTOApplicationStatusEnum.SUCCESSFUL);
+			for (FlatType flatType : result.getProject().getFlatTypes()) {
+				long stored = successful.stream().filter(application -> application.getFlatType() == flatType.getType()).count();
+				if (result.countSuccessful(flatType.getType()) > 0 && stored > flatType.getNumUnits()) {
+					overAllocated++;
+				}
+			}
+			for (BTOApplication application : result.getSuccessful()) {
+				twice += byHand.contains(application) ? 1 : 0;
+			}
+			for (BTOApplication application : result.getUnsuccessful()) {
+				twice += byHand.contains(application) ? 1 : 0;
+			}
+			byBallot += result.getSuccessful().size() + result.getUnsuccessful().size();
+		}
+		System.out.printf("Ballot with a manager settling by hand: %,d by ballot, %,d by hand, %d settled twice, %,d of %,d settled, %d flat types over-allocated%n",
+				byBallot, byHand.size(), twice, byBallot + byHand.size() - twice, pending.size(), overAllocated);
+		return twice == 0 && overAllocated == 0 && byBallot + byHand.size() == pending.size() ? 0 : 1;
+	}
+
+	private static int settled(List<BallotEngine.BallotResult> results) {
+		int settled = 0;
+		for (BallotEngine.BallotResult result : results) {
+			settled += result.getSuccessful().size() + result.getUnsuccessful().size();
+		}
+		return settled;
+	}
+
+	/**
+	 * Puts every settled application of the projects back to pending.
+	 */
+	private static void reset(List<Project> projects) {
+		for (Project project : projects) {
+			for (BTOApplicationStatusEnum status : new BTOApplicationStatusEnum[] { BTOApplicationStatusEnum.SUCCESSFUL, BTOApplicationStatusEnum.UNSUCCESSFUL }) {
+				Map<BTOApplicationStatusEnum, List<BTOApplication>> outcomes = new EnumMap<>(BTOApplicationStatusEnum.class);
+				outcomes.put(BTOApplicationStatusEnum.PENDING, BTOApplication.findApplicationsByProjectAndStatus(project, status));
+				BTOApplication.changeStatuses(status, outcomes);
+			}
+		}
+	}
+
+	private static long fingerprint(List<BallotEngine.BallotResult> results) {
+		long fingerprint = 1;
+		for (BallotEngine.BallotResult result : results) {
+			for (BTOApplication application : result.getSuccessful()) {
+				fingerprint = fingerprint * 31 + application.getApplicationID().hashCode();
+			}
+			fingerprint = fingerprint * 17 + result.getUnsuccessful().size();
+		}
+		return fingerprint;
+	}
+}
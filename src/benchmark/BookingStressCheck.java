@@ -0,0 +1,159 @@
+package benchmark;
+
+import controller.OfficerController;
+import entity.*;
+import enums.*;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import main.Main;
+
+/**
+ * Stress check that officers confirming bookings at the same time never book
+ * more units than a project has.
+ *
+ * <p>Each round creates a project with 100 two-room units and 1000 pending
+ * bookings for it, then lets 16 officers, one per thread, process every
+ * booking in their own random order through
+ * {@link OfficerController#processBooking(Officer, Booking)}. So officers race
+ * both for the same booking and for the last units. After each round exactly
+ * 100 bookings must be confirmed, by exactly as many successful calls, with
+ * 100 applications booked, and the flat type must have no unit left available
+ * or reserved. The check exits with status 1 if any round fails.</p>
+ *
+ * <h2>Usage Example:</h2>
+ * <pre>{@code
+ * java -cp bin benchmark.BookingStressCheck 20
+ * }</pre>
+ *
+ * @author BTO Management System Team
+ * @version 2.0
+ * @since 2.0
+ * @see FlatInventory
+ */
+public class BookingStressCheck {
+
+	private static final int THREADS = 16;
+	private static final int BOOKINGS = 1000;
+	private static final int UNITS = 100;
+
+	private BookingStressCheck() {
+	}
+
+	/**
+	 * Runs the stress check.
+	 *
+	 * @param args the number of rounds (default 20)
+	 * @throws InterruptedException if interrupted while waiting for the officers
+	 */
+	public static void main(String[] args) throws InterruptedException {
+		int rounds = args.length > 0 ? Integer.parseInt(args[0]) : 20;
+		Main.initializeDatabases();
+		OfficerController controller = new OfficerController();
+		ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+
+		int failures = 0;
+		long start = System.nanoTime();
+		try {
+			for (int round = 0; round < rounds; round++) {
+				String failure = runRound(round, controller, executor);
+				if (failure != null) {
+					System.out.println("Round " + round + " failed: " + failure);
+					failures++;
+				}
+			}
+		} finally {
+			executor.shutdown();
+		}
+
+		System.out.printf("%d rounds of %d officers confirming %d bookings for %d units in %d ms: %d failed%n",
+				rounds, THREADS, BOOKINGS, UNITS, (System.nanoTime() - start) / 1_000_000, failures);
+		if (failures > 0) {
+			System.exit(1);
+		}
+	}
+
+	/**
+	 * Runs one round.
+	 *
+	 * @return a description of what went wrong, or null if the round passed
+	 */
+	private static String runRound(int round, OfficerController controller, ExecutorService executor) throws InterruptedException {
+		LocalDate today = LocalDate.now();
+		Manager manager = new Manager("Manager " + round, String.format("T%07dM", round), 45, "password", MarriageStatusEnum.MARRIED, null, null);
+		Manager.addToDatabase(manager);
+		ArrayList<FlatType> flatTypes = new ArrayList<>();
+		flatTypes.add(new FlatType(UNITS, UNITS, 300000, FlatTypeEnum.TWO_ROOM));
+		Project project = new Project("Stress Project " + round, "Yishun", today, today.plusDays(30), flatTypes, manager, THREADS, new ArrayList<>(), VisibilityEnum.VISIBLE);
+		manager.getManagedProjects().add(project);
+		Project.addToDatabase(project);
+
+		List<Officer> officers = new ArrayList<>();
+		for (int i = 0; i < THREADS; i++) {
+			Officer officer = new Officer("Officer " + round + "-" + i, String.format("T%03d%04dO", round, i), 30, "password", MarriageStatusEnum.MARRIED, null, null, null, null, null);
+			officer.assignToProject(project);
+			Officer.addToDatabase(officer);
+			officers.add(officer);
+		}
+
+		List<Booking> bookings = new ArrayList<>();
+		for (int i = 0; i < BOOKINGS; i++) {
+			Applicant applicant = new Applicant("Applicant " + round + "-" + i, String.format("S%03d%04dA", round, i), 35, MarriageStatusEnum.MARRIED, "password", null, null, null, null);
+			Applicant.addToDatabase(applicant);
+			BTOApplication application = new BTOApplication("BTO-STRESS-" + round + "-" + i, null, project, FlatTypeEnum.TWO_ROOM);
+			application.setApplicant(applicant);
+			applicant.addApplication(application);
+			application.setStatus(BTOApplicationStatusEnum.SUCCESSFUL);
+			BTOApplication.addToDatabase(application);
+			Booking booking = new Booking("BKG-STRESS-" + round + "-" + i, today, application, null, FlatTypeEnum.TWO_ROOM, BookingStatusEnum.PENDING);
+			Booking.addToDatabase(booking);
+			bookings.add(booking);
+		}
+
+		// Every officer processes every booking, in an order of its own, all starting together
+		AtomicInteger confirmed = new AtomicInteger();
+		CountDownLatch ready = new CountDownLatch(THREADS);
+		CountDownLatch go = new CountDownLatch(1);
+		List<Future<?>> workers = new ArrayList<>();
+		for (int i = 0; i < THREADS; i++) {
+			Officer officer = officers.get(i);
+			List<Booking> order = new ArrayList<>(bookings);
+			Collections.shuffle(order, new Random(round * 1000L + i));
+			workers.add(executor.submit(() -> {
+				ready.countDown();
+				go.await();
+				for (Booking booking : order) {
+					if (controller.processBooking(officer, booking)) {
+						confirmed.incrementAndGet();
+					}
+				}
+				return null;
+			}));
+		}
+		ready.await();
+		go.countDown();
+		for (Future<?> worker : workers) {
+			try {
+				worker.get();
+			} catch (ExecutionException e) {
+				return "officer thread threw " + e.getCause();
+			}
+		}
+
+		int confirmedBookings = 0;
+		for (Booking booking : bookings) {
+			if (booking.getStatus() == BookingStatusEnum.CONFIRMED) {
+				confirmedBookings++;
+			}
+		}
+		int booked = BTOApplication.findApplicationsByProjectAndStatus(project, BTOApplicationStatusEnum.BOOKED).size();
+		FlatType flatType = project.getFlatTypes().get(0);
+		if (confirmed.get() != UNITS || confirmedBookings != UNITS || booked != UNITS
+				|| flatType.getAvailableUnits() != 0 || flatType.getReservedUnits() != 0) {
+			return confirmed.get() + " confirmations, " + confirmedBookings + " confirmed bookings, " + booked + " booked applications, "
+					+ flatType.getAvailableUnits() + " units available, " + flatType.getReservedUnits() + " reserved";
+		}
+		return null;
+	}
+}
@@ -0,0 +1,157 @@
+package benchmark;
+
+import database.*;
+import entity.*;
+import enums.MarriageStatusEnum;
+import java.util.ArrayList;
+import java.util.SplittableRandom;
+import utils.Auth;
+
+/**
+ * Login-throughput benchmark of the {@link IdentityDirectory} against the
+ * list scans the role-specific logins used to make.
+ *
+ * <p>Loads a million users, mostly applicants with some officers and managers,
+ * then logs in with a mix of correct passwords, wrong passwords and unknown
+ * NRICs. The directory path is a single {@link Auth#authenticate(String, String)}
+ * lookup; the list path scans the applicants, then the managers, then the
+ * officers with {@link Auth#authenticate(ArrayList, String, String)}, as the
+ * three login strategies did. The list path is only run for a small sample of
+ * logins, since each failed login walks every user. Both paths must accept
+ * the same logins.</p>
+ *
+ * <h2>Usage Example:</h2>
+ * <pre>{@code
+ * java -Xmx3g -cp bin benchmark.LoginBenchmark 1000000
+ * }</pre>
+ *
+ * @author BTO Management System Team
+ * @version 2.0
+ * @since 2.0
+ * @see Auth
+ */
+public class LoginBenchmark {
+
+	private static final int ROUNDS = 5;
+	private static final int LOGINS = 1_000_000;
+	private static final int SCAN_LOGINS = 200;
+
+	private LoginBenchmark() {
+	}
+
+	/**
+	 * Runs the benchmark.
+	 *
+	 * @param args the number of users to load (default 1000000)
+	 */
+	public static void main(String[] args) {
+		int users = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+		int managers = Math.max(1, users / 1000);
+		int officers = Math.max(1, users / 100);
+		int applicants = Math.max(1, users - managers - officers);
+
+		ApplicantDatabase applicantDatabase = new ApplicantDatabase();
+		OfficerDatabase officerDatabase = new OfficerDatabase();
+		ManagerDatabase managerDatabase = new ManagerDatabase();
+		Applicant.setDatabase(applicantDatabase);
+		Officer.setDatabase(officerDatabase);
+		Manager.setDatabase(managerDatabase);
+
+		long start = System.nanoTime();
+		ArrayList<Applicant> applicantList = new ArrayList<>(applicants);
+		for (int i = 0; i < applicants; i++) {
+			applicantList.add(new Applicant("Applicant " + i, nric('S', i), 21 + i % 40, MarriageStatusEnum.SINGLE, "pw" + i, null, null, null, null));
+		}
+		ArrayList<Officer> officerList = new ArrayList<>(officers);
+		for (int i = 0; i < officers; i++) {
+			officerList.add(new Officer("Officer " + i, nric('T', i), 30, "pw" + i, MarriageStatusEnum.MARRIED, null, null, null, null, null));
+		}
+		ArrayList<Manager> managerList = new ArrayList<>(managers);
+		for (int i = 0; i < managers; i++) {
+			managerList.add(new Manager("Manager " + i, nric('G', i), 45, "pw" + i, MarriageStatusEnum.MARRIED, null, null));
+		}
+		applicantDatabase.setApplicants(applicantList);
+		officerDatabase.setOfficers(officerList);
+		managerDatabase.setManagers(managerList);
+		System.out.printf("Loaded %,d users (%,d applicants, %,d officers, %,d managers) in %d ms, %,d NRICs in the directory%n",
+				applicants + officers + managers, applicants, officers, managers, (System.nanoTime() - start) / 1_000_000, IdentityDirectory.size());
+
+		String[][] logins = logins(LOGINS, applicants, officers, managers);
+
+		long directoryNanos = Long.MAX_VALUE;
+		int directoryAccepted = 0;
+		// The first rounds warm up the JIT; the best round is reported
+		for (int round = 0; round < ROUNDS; round++) {
+			start = System.nanoTime();
+			int accepted = 0;
+			for (String[] login : logins) {
+				if (Auth.authenticate(login[0], login[1]) != null) {
+					accepted++;
+				}
+			}
+			directoryNanos = Math.min(directoryNanos, System.nanoTime() - start);
+			directoryAccepted = accepted;
+		}
+
+		// The list scans are slow enough that one round of a sample is plenty
+		ArrayList<Applicant> allApplicants = Applicant.getAllApplicants();
+		ArrayList<Manager> allManagers = Manager.getAllManagers();
+		ArrayList<Officer> allOfficers = Officer.getAllOfficers();
+		start = System.nanoTime();
+		int mismatches = 0;
+		for (int i = 0; i < SCAN_LOGINS; i++) {
+			String[] login = logins[i];
+			User user = Auth.authenticate(allApplicants, login[0], login[1]);
+			if (user == null) {
+				user = Auth.authenticate(allManagers, login[0], login[1]);
+			}
+			if (user == null) {
+				user = Auth.authenticate(allOfficers, login[0], login[1]);
+			}
+			IdentityDirectory.Account account = Auth.authenticate(login[0], login[1]);
+			if ((user == null) != (account == null) || (user != null && user != account.getUser())) {
+				mismatches++;
+			}
+		}
+		long scanNanos = System.nanoTime() - start;
+		if (mismatches > 0) {
+			throw new IllegalStateException(mismatches + " logins differ between the directory and the list scans");
+		}
+
+		double directoryPerSecond = logins.length / (directoryNanos / 1e9);
+		double scanPerSecond = SCAN_LOGINS / (scanNanos / 1e9);
+		System.out.printf("%-12s %,14.0f logins/s  %8.3f us/login  (%,d of %,d accepted)%n", "directory", directoryPerSecond,
+				directoryNanos / 1e3 / logins.length, directoryAccepted, logins.length);
+		System.out.printf("%-12s %,14.0f logins/s  %8.3f us/login  (%,d sampled)%n", "list scans", scanPerSecond,
+				scanNanos / 1e3 / SCAN_LOGINS, SCAN_LOGINS);
+		System.out.printf("Speedup: %.0fx%n", directoryPerSecond / scanPerSecond);
+	}
+
+	/**
+	 * Builds the NRIC and password of each login: 70% correct, 20% with a wrong
+	 * password and 10% with an unknown NRIC, spread over all roles.
+	 */
+	private static String[][] logins(int count, int applicants, int officers, int managers) {
+		SplittableRandom random = new SplittableRandom(11);
+		String[][] logins = new String[count][];
+		for (int i = 0; i < count; i++) {
+			int kind = random.nextInt(10);
+			int role = random.nextInt(100);
+			char prefix = role < 98 ? 'S' : role < 99 ? 'T' : 'G';
+			int users = prefix == 'S' ? applicants : prefix == 'T' ? officers : managers;
+			int user = random.nextInt(users);
+			if (kind == 9) {
+				logins[i] = new String[] { nric('F', user), "pw" + user };
+			} else if (kind >= 7) {
+				logins[i] = new String[] { nric(prefix, user), "wrong" };
+			} else {
+				logins[i] = new String[] { nric(prefix, user), "pw" + user };
+			}
+		}
+		return logins;
+	}
+
+	private static String nric(char prefix, int number) {
+		return prefix + String.format("%07d", number) + "A";
+	}
+}
@@ -0,0 +1,207 @@
+package benchmark;
+
+import entity.*;
+import enums.*;
+import java.io.*;
+import java.nio.file.*;
+import java.nio.file.attribute.FileTime;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import main.Main;
+import utils.ApplicationConstants;
+import utils.FileHandler;
+import utils.SnapshotHandler;
+
+/**
+ * Startup load benchmark of the binary snapshot against the CSV data files.
+ *
+ * <p>Generates applicants, managers, projects, BTO applications and enquiries,
+ * writes them to a temporary data folder as CSV files and as a snapshot, then
+ * loads the folder several times each way and reports the best time of each.
+ * Both loads must give the same number of records, so the comparison is like
+ * for like.</p>
+ *
+ * <p>Finally one CSV file is rewritten with the same size and modification time
+ * as before, then with the same size and a new modification time, to check that
+ * the snapshot is still used in the first case and no longer in the second.</p>
+ *
+ * <h2>Usage Example:</h2>
+ * <pre>{@code
+ * java -cp bin benchmark.SnapshotLoadBenchmark 200000
+ * }</pre>
+ *
+ * @author BTO Management System Team
+ * @version 2.0
+ * @since 2.0
+ * @see SnapshotHandler
+ */
+public class SnapshotLoadBenchmark {
+
+	private static final int ROUNDS = 5;
+
+	private SnapshotLoadBenchmark() {
+	}
+
+	/**
+	 * Runs the benchmark.
+	 *
+	 * @param args the number of applicants to generate (default 100000)
+	 * @throws IOException if the temporary data folder cannot be written
+	 */
+	public static void main(String[] args) throws IOException {
+		int applicants = args.length > 0 ? Integer.parseInt(args[0]) : 100000;
+		Path dataFolder = Files.createTempDirectory("snapshot-benchmark");
+		String dataPath = dataFolder.toString();
+
+		Main.initializeDatabases();
+		generate(applicants);
+		writeCsvFiles(dataPath);
+		if (!SnapshotHandler.writeSnapshot(dataPath)) {
+			throw new IllegalStateException("Snapshot could not be written");
+		}
+		System.out.printf("Generated %,d applicants with their applications and enquiries (%.1f MB of CSV, %.1f MB of snapshot)%n",
+				applicants, csvBytes(dataFolder) / (1024.0 * 1024.0),
+				Files.size(dataFolder.resolve(ApplicationConstants.SNAPSHOT_FILE)) / (1024.0 * 1024.0));
+
+		long csvNanos = Long.MAX_VALUE;
+		long snapshotNanos = Long.MAX_VALUE;
+		int csvRecords = 0;
+		int snapshotRecords = 0;
+		// The first rounds warm up the JIT; the best round of each is reported
+		PrintStream out = System.out;
+		for (int round = 0; round < ROUNDS; round++) {
+			System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+			try {
+				Main.initializeDatabases();
+				long start = System.nanoTime();
+				if (!FileHandler.readAllData(dataPath)) {
+					throw new IllegalStateException("CSV files could not be read");
+				}
+				csvNanos = Math.min(csvNanos, System.nanoTime() - start);
+				csvRecords = countRecords();
+
+				Main.initializeDatabases();
+				start = System.nanoTime();
+				if (!SnapshotHandler.isSnapshotCurrent(dataPath) || !SnapshotHandler.readSnapshot(dataPath)) {
+					throw new IllegalStateException("Snapshot could not be read");
+				}
+				snapshotNanos = Math.min(snapshotNanos, System.nanoTime() - start);
+				snapshotRecords = countRecords();
+			} finally {
+				System.setOut(out);
+			}
+		}
+		if (csvRecords != snapshotRecords) {
+			throw new IllegalStateException("Loads disagree: " + csvRecords + " vs " + snapshotRecords + " records");
+		}
+
+		System.out.printf("%-10s %8.0f ms  %,d records%n", "CSV files", csvNanos / 1e6, csvRecords);
+		System.out.printf("%-10s %8.0f ms  %,d records%n", "snapshot", snapshotNanos / 1e6, snapshotRecords);
+		System.out.printf("Speedup: %.1fx%n", (double) csvNanos / snapshotNanos);
+
+		checkStaleness(dataFolder.resolve(ApplicationConstants.ENQUIRY_FILE), dataPath);
+		deleteFolder(dataFolder);
+	}
+
+	private static void generate(int applicants) {
+		LocalDate today = LocalDate.now();
+		int projects = Math.max(1, applicants / 1000);
+		ArrayList<Project> projectList = new ArrayList<>(projects);
+		// A manager handles one project per application period
+		for (int p = 0; p < projects; p++) {
+			Manager manager = new Manager("Manager " + p, nric('T', p), 40, "password", MarriageStatusEnum.MARRIED, null, null);
+			Manager.addToDatabase(manager);
+			ArrayList<FlatType> flatTypes = new ArrayList<>();
+			flatTypes.add(new FlatType(500, 500, 250000, FlatTypeEnum.TWO_ROOM));
+			flatTypes.add(new FlatType(500, 500, 400000, FlatTypeEnum.THREE_ROOM));
+			Project project = new Project("Project " + p, "Neighbourhood " + p % 25, today, today.plusDays(30), flatTypes, manager, 3, new ArrayList<>(), VisibilityEnum.VISIBLE);
+			manager.getManagedProjects().add(project);
+			Project.addToDatabase(project);
+			projectList.add(project);
+		}
+		for (int i = 0; i < applicants; i++) {
+			Applicant applicant = new Applicant("Applicant " + i, nric('S', i), 21 + i % 40, i % 2 == 0 ? MarriageStatusEnum.MARRIED : MarriageStatusEnum.SINGLE,
+					"password", null, null, null, null);
+			Applicant.addToDatabase(applicant);
+			Project project = projectList.get(i % projectList.size());
+			BTOApplication application = new BTOApplication("BTO-APP-" + i, null, project, i % 3 == 0 ? FlatTypeEnum.THREE_ROOM : FlatTypeEnum.TWO_ROOM);
+			application.setApplicant(applicant);
+			applicant.addApplication(application);
+			BTOApplication.addToDatabase(application);
+			if (i % 2 == 0) {
+				Enquiry enquiry = new Enquiry("ENQ-" + i, today, "When is the key collection for \"" + project.getProjectName() + "\", roughly?",
+						null, null, applicant, project, EnquiryStatusEnum.PENDING, null);
+				applicant.addEnquiry(enquiry);
+				Enquiry.addToDatabase(enquiry);
+			}
+		}
+	}
+
+	private static String nric(char prefix, int number) {
+		return prefix + String.format("%07d", number) + "A";
+	}
+
+	private static void writeCsvFiles(String dataPath) {
+		PrintStream out = System.out;
+		System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+		try {
+			FileHandler.writeApplicantData(dataPath + File.separator + ApplicationConstants.APPLICANT_FILE);
+			FileHandler.writeOfficerData(dataPath + File.separator + ApplicationConstants.OFFICER_FILE);
+			FileHandler.writeManagerData(dataPath + File.separator + ApplicationConstants.MANAGER_FILE);
+			FileHandler.writeProjectData(dataPath + File.separator + ApplicationConstants.PROJECT_FILE);
+			FileHandler.writeBTOApplicationData(dataPath + File.separator + ApplicationConstants.BTO_APPLICATION_FILE);
+			FileHandler.writeOfficerApplicationData(dataPath + File.separator + ApplicationConstants.OFFICER_APPLICATION_FILE);
+			FileHandler.writeBookingData(dataPath + File.separator + ApplicationConstants.BOOKING_FILE);
+			FileHandler.writeReceiptData(dataPath + File.separator + ApplicationConstants.RECEIPT_FILE);
+			FileHandler.writeEnquiryData(dataPath + File.separator + ApplicationConstants.ENQUIRY_FILE);
+		} finally {
+			System.setOut(out);
+		}
+	}
+
+	private static int countRecords() {
+		return Applicant.getAllApplicants().size() + Manager.getAllManagers().size() + Project.getAllProjects().size()
+				+ BTOApplication.getAllApplications().size() + Enquiry.getAllEnquiries().size();
+	}
+
+	/**
+	 * Edits one character of a CSV file in place, keeping its size, and checks
+	 * that only a changed modification time makes the snapshot stale.
+	 */
+	private static void checkStaleness(Path csvFile, String dataPath) throws IOException {
+		FileTime modified = Files.getLastModifiedTime(csvFile);
+		byte[] bytes = Files.readAllBytes(csvFile);
+		int index = bytes.length - 2;
+		bytes[index] = (byte) (bytes[index] == 'X' ? 'Y' : 'X');
+		Files.write(csvFile, bytes);
+
+		Files.setLastModifiedTime(csvFile, modified);
+		boolean unchangedTimeCurrent = SnapshotHandler.isSnapshotCurrent(dataPath);
+		Files.setLastModifiedTime(csvFile, FileTime.fromMillis(modified.toMillis() + 1));
+		boolean changedTimeCurrent = SnapshotHandler.isSnapshotCurrent(dataPath);
+		System.out.println("Same-size edit, same time: snapshot current=" + unchangedTimeCurrent
+				+ "; same-size edit, new time: snapshot current=" + changedTimeCurrent);
+		if (changedTimeCurrent) {
+			throw new IllegalStateException("Snapshot still current after its CSV file changed");
+		}
+	}
+
+	private static long csvBytes(Path dataFolder) throws IOException {
+		long bytes = 0;
+		try (DirectoryStream<Path> files = Files.newDirectoryStream(dataFolder, "*.csv")) {
+			for (Path file : files) {
+				bytes += Files.size(file);
+			}
+		}
+		return bytes;
+	}
+
+	private static void deleteFolder(Path dataFolder) throws IOException {
+		try (DirectoryStream<Path> files = Files.newDirectoryStream(dataFolder)) {
+			for (Path file : files) {
+				Files.delete(file);
+			}
+		}
+		Files.delete(dataFolder);
+	}
+}
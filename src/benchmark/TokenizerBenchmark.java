@@ -0,0 +1,120 @@
+package benchmark;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import utils.CsvTokenizer;
+
+/**
+ * Parse-throughput benchmark of {@link CsvTokenizer} against the regular
+ * expression the data file readers used to split lines with.
+ *
+ * <p>Generates an enquiry-like CSV file with quoted content, doubled quotes and
+ * commas inside quotes, then reads it several times with each parser and reports
+ * records per second and MB/s. Multi-line content is left out of the file, since
+ * the line-based regex path cannot read it at all. Both parsers must agree on the
+ * number of fields read, so the comparison is like for like.</p>
+ *
+ * <h2>Usage Example:</h2>
+ * <pre>{@code
+ * java -cp bin benchmark.TokenizerBenchmark 1000000
+ * }</pre>
+ *
+ * @author BTO Management System Team
+ * @version 2.0
+ * @since 2.0
+ * @see CsvTokenizer
+ */
+public class TokenizerBenchmark {
+
+	/**
+	 * The lookahead expression of the previous line-splitting readers.
+	 */
+	private static final String REGEX = ",(?=(?:[^\"]*\"[^\"]*\")*[^\"]*$)";
+
+	private static final int ROUNDS = 5;
+
+	private TokenizerBenchmark() {
+	}
+
+	/**
+	 * Runs the benchmark.
+	 *
+	 * @param args the number of records to generate (default 200000)
+	 * @throws IOException if the temporary file cannot be written or read
+	 */
+	public static void main(String[] args) throws IOException {
+		int records = args.length > 0 ? Integer.parseInt(args[0]) : 200000;
+		File file = File.createTempFile("tokenizer-benchmark", ".csv");
+		file.deleteOnExit();
+		generate(file, records);
+		double megabytes = file.length() / (1024.0 * 1024.0);
+		System.out.printf("Generated %,d records (%.1f MB)%n", records, megabytes);
+
+		long regexFields = 0;
+		long tokenizerFields = 0;
+		long regexNanos = Long.MAX_VALUE;
+		long tokenizerNanos = Long.MAX_VALUE;
+		// The first rounds warm up the JIT; the best round of each is reported
+		for (int round = 0; round < ROUNDS; round++) {
+			long start = System.nanoTime();
+			regexFields = readWithRegex(file);
+			regexNanos = Math.min(regexNanos, System.nanoTime() - start);
+
+			start = System.nanoTime();
+			tokenizerFields = readWithTokenizer(file);
+			tokenizerNanos = Math.min(tokenizerNanos, System.nanoTime() - start);
+		}
+		if (regexFields != tokenizerFields) {
+			throw new IllegalStateException("Parsers disagree: " + regexFields + " vs " + tokenizerFields + " fields");
+		}
+
+		report("regex split", records, megabytes, regexNanos);
+		report("CsvTokenizer", records, megabytes, tokenizerNanos);
+		System.out.printf("Speedup: %.1fx%n", (double) regexNanos / tokenizerNanos);
+	}
+
+	private static void generate(File file, int records) throws IOException {
+		Random random = new Random(1);
+		try (Writer out = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(file), StandardCharsets.UTF_8))) {
+			out.write("Enquiry ID,NRIC,Project,Date,Content,Status,Reply,Reply Date\n");
+			for (int i = 0; i < records; i++) {
+				StringBuilder content = new StringBuilder("\"When does the ");
+				for (int words = random.nextInt(20); words > 0; words--) {
+					content.append("project, ");
+				}
+				content.append("\"\"Acacia Breeze\"\" open?\"");
+				out.write("ENQ-" + i + ",S" + (1000000 + random.nextInt(9000000)) + "A,Acacia Breeze,2025-03-"
+						+ (10 + random.nextInt(20)) + "," + content + ",PENDING,,\n");
+			}
+		}
+	}
+
+	private static long readWithRegex(File file) throws IOException {
+		long fields = 0;
+		try (BufferedReader reader = new BufferedReader(new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8))) {
+			reader.readLine();
+			String line;
+			while ((line = reader.readLine()) != null) {
+				fields += line.split(REGEX, -1).length;
+			}
+		}
+		return fields;
+	}
+
+	private static long readWithTokenizer(File file) throws IOException {
+		long fields = 0;
+		try (CsvTokenizer tokenizer = new CsvTokenizer(new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8))) {
+			tokenizer.nextRecord();
+			while (tokenizer.nextRecord()) {
+				fields += tokenizer.getFieldCount();
+			}
+		}
+		return fields;
+	}
+
+	private static void report(String parser, int records, double megabytes, long nanos) {
+		double seconds = nanos / 1e9;
+		System.out.printf("%-14s %8.0f ms  %,12.0f records/s  %7.1f MB/s%n", parser, nanos / 1e6, records / seconds, megabytes / seconds);
+	}
+}
@@ -28,7 +28,8 @@ import java.util.Scanner;
  *       initial data from CSV files</li>
  *   <li><strong>Login:</strong> Select "Login" to authenticate with NRIC and password</li>
  *   <li><strong>Use System:</strong> Access role-specific features</li>
- *   <li><strong>Save Data:</strong> Before exiting, export data to preserve changes</li>
+ *   <li><strong>Save Data:</strong> Changes are saved in the background; export
+ *       data only to copy it to another folder</li>
  *   <li><strong>Exit:</strong> Select "Exit Program" to terminate</li>
  * </ol>
  * 
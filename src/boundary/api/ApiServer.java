@@ -0,0 +1,667 @@
+package boundary.api;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import controller.*;
+import database.IdentityDirectory;
+import entity.*;
+import enums.*;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import utils.Auth;
+
+/**
+ * Headless HTTP API exposing the applicant, officer and manager operations,
+ * for serving many users from one JVM instead of one console session.
+ *
+ * <p>The server uses the JDK's built-in {@link HttpServer} and handles every
+ * request on its own virtual thread, so thousands of concurrent requests cost
+ * no more than thousands of small objects. All requests share the in-memory
+ * databases, which are safe to read and change from many threads at once, and
+ * go through the same controllers as the console views, so the same rules
+ * apply and every change is journalled and autosaved.</p>
+ *
+ * <h2>Protocol:</h2>
+ * <p>Parameters are sent as a query string or, for {@code POST}, as a
+ * {@code application/x-www-form-urlencoded} body. {@code POST /api/login} with
+ * {@code nric} and {@code password} returns a token, which is then sent with
+ * every other request as {@code Authorization: Bearer <token>}. Responses are
+ * JSON; failures are {@code {"error": "..."}} with a 4xx status.</p>
+ *
+ * <table border="1">
+ *   <caption>Endpoints</caption>
+ *   <tr><th>Request</th><th>Roles</th><th>Parameters</th></tr>
+ *   <tr><td>POST /api/login</td><td>any</td><td>nric, password</td></tr>
+ *   <tr><td>POST /api/logout</td><td>any</td><td></td></tr>
+ *   <tr><td>GET /api/projects</td><td>any</td><td></td></tr>
+ *   <tr><td>GET /api/applications</td><td>any</td><td>project (manager)</td></tr>
+ *   <tr><td>POST /api/applications</td><td>applicant, officer</td><td>project, flatType</td></tr>
+ *   <tr><td>GET /api/applications/intake</td><td>applicant, officer</td><td>ticket</td></tr>
+ *   <tr><td>POST /api/applications/withdraw</td><td>applicant, officer</td><td>application</td></tr>
+ *   <tr><td>POST /api/applications/process</td><td>manager</td><td>application, approve</td></tr>
+ *   <tr><td>POST /api/withdrawals/process</td><td>manager</td><td>application, approve</td></tr>
+ *   <tr><td>POST /api/ballot</td><td>manager</td><td>project, seed</td></tr>
+ *   <tr><td>POST /api/bookings</td><td>applicant, officer</td><td>application</td></tr>
+ *   <tr><td>POST /api/bookings/process</td><td>officer</td><td>application</td></tr>
+ *   <tr><td>GET /api/enquiries</td><td>any</td><td></td></tr>
+ *   <tr><td>POST /api/enquiries</td><td>applicant, officer</td><td>project, content</td></tr>
+ *   <tr><td>POST /api/enquiries/reply</td><td>officer, manager</td><td>enquiry, reply</td></tr>
+ * </table>
+ *
+ * <h2>Usage Example:</h2>
+ * <pre>{@code
+ * Main.initialize();
+ * ApiServer server = new ApiServer(ApplicationConstants.API_PORT, ApplicationConstants.API_SESSION_TIMEOUT_MILLIS);
+ * server.start();
+ * // curl -d "nric=S1234567A&password=password" http://localhost:8080/api/login
+ * }</pre>
+ *
+ * @author BTO Management System Team
+ * @version 2.0
+ * @since 2.0
+ * @see main.ServerMain
+ * @see ApiSessions
+ */
+public class ApiServer {
+
+	/**
+	 * Connections the operating system may queue while all are being accepted.
+	 */
+	private static final int BACKLOG = 4096;
+
+	/**
+	 * Largest request body read, in bytes.
+	 */
+	private static final int MAX_BODY_BYTES = 64 * 1024;
+
+	private final HttpServer server;
+	private final ExecutorService executor;
+	private final ApiSessions sessions;
+	private final ApplicationIntake intake = new ApplicationIntake();
+	private final Map<String, Route> routes = new HashMap<>();
+
+	private final ApplicantController applicantController = new ApplicantController();
+	private final OfficerController officerController = new OfficerController();
+	private final ManagerController managerController = new ManagerController();
+
+	/**
+	 * Creates a server listening on a port. The databases must already be loaded.
+	 *
+	 * @param port the port to listen on; 0 picks a free port
+	 * @param sessionTimeoutMillis time in milliseconds after which an unused session expires
+	 * @throws IOException if the port cannot be bound
+	 */
+	public ApiServer(int port, long sessionTimeoutMillis) throws IOException {
+		this.server = HttpServer.create(new InetSocketAddress(port), BACKLOG);
+		this.executor = Executors.newVirtualThreadPerTaskExecutor();
+		this.sessions = new ApiSessions(sessionTimeoutMillis);
+		this.server.setExecutor(this.executor);
+		this.server.createContext("/api/", this::handle);
+		registerRoutes();
+	}
+
+	/**
+	 * Starts the application intake and accepts requests.
+	 */
+	public void start() {
+		this.intake.start();
+		this.server.start();
+	}
+
+	/**
+	 * Stops accepting requests, lets running requests finish for up to the given
+	 * time, waits for the request threads to end and stores the applications
+	 * still in the application intake. When this returns, no request makes any
+	 * further change.
+	 *
+	 * @param delaySeconds the longest time to wait for running requests
+	 */
+	public void stop(int delaySeconds) {
+		this.server.stop(delaySeconds);
+		this.executor.shutdown();
+		try {
+			this.executor.awaitTermination(delaySeconds, TimeUnit.SECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		this.intake.shutdown();
+	}
+
+	/**
+	 * Gets the port the server listens on.
+	 *
+	 * @return the bound port
+	 */
+	public int getPort() {
+		return this.server.getAddress().getPort();
+	}
+
+	/**
+	 * Gets the login sessions of the server.
+	 *
+	 * @return the session store
+	 */
+	public ApiSessions getSessions() {
+		return this.sessions;
+	}
+
+	// ============================================================================
+	// ROUTES
+	// ============================================================================
+
+	private void registerRoutes() {
+		route("POST", "/api/login", false, this::login);
+		route("POST", "/api/logout", true, this::logout);
+		route("GET", "/api/projects", true, this::listProjects);
+		route("GET", "/api/applications", true, this::listApplications);
+		route("POST", "/api/applications", true, this::createApplication);
+		route("GET", "/api/applications/intake", true, this::findIntakeTicket);
+		route("POST", "/api/applications/withdraw", true, this::requestWithdrawal);
+		route("POST", "/api/applications/process", true, this::processApplication);
+		route("POST", "/api/withdrawals/process", true, this::processWithdrawal);
+		route("POST", "/api/ballot", true, this::runBallot);
+		route("POST", "/api/bookings", true, this::bookFlat);
+		route("POST", "/api/bookings/process", true, this::processBooking);
+		route("GET", "/api/enquiries", true, this::listEnquiries);
+		route("POST", "/api/enquiries", true, this::submitEnquiry);
+		route("POST", "/api/enquiries/reply", true, this::replyToEnquiry);
+	}
+
+	private void route(String method, String path, boolean requiresLogin, Handler handler) {
+		this.routes.put(method + " " + path, new Route(requiresLogin, handler));
+	}
+
+	private Object login(Request request) {
+		IdentityDirectory.Account account = Auth.authenticate(request.require("nric"), request.require("password"));
+		if (account == null) {
+			throw new ApiException(401, "Invalid NRIC or password");
+		}
+		ApiSessions.Session session = this.sessions.open(account);
+		Map<String, Object> body = new LinkedHashMap<>();
+		body.put("token", session.getToken());
+		body.put("role", session.getRole());
+		body.put("name", session.getUser().getName());
+		return body;
+	}
+
+	private Object logout(Request request) {
+		this.sessions.close(request.session.getToken());
+		return message("Logged out");
+	}
+
+	private Object listProjects(Request request) {
+		switch (request.session.getRole()) {
+			case APPLICANT:
+				return projects(this.applicantController.getEligibleProjects(request.applicant()));
+			case OFFICER:
+				return projects(this.officerController.getEligibleProjects(request.officer()));
+			default:
+				return projects(this.managerController.getAllProjects());
+		}
+	}
+
+	private Object listApplications(Request request) {
+		switch (request.session.getRole()) {
+			case APPLICANT:
+				return applications(this.applicantController.getApplications(request.applicant()));
+			case OFFICER:
+				return applications(this.officerController.getApplications(request.officer()));
+			default:
+				Project project = request.managedProject("project");
+				return applications(this.managerController.getApplicationsByProject(project));
+		}
+	}
+
+	/**
+	 * Queues the application in the intake and answers at once with its ticket,
+	 * which the client polls until the application is accepted or rejected.
+	 */
+	private Object createApplication(Request request) {
+		Applicant applicant = request.applicant();
+		Project project = request.project("project");
+		FlatTypeEnum flatType = request.enumValue("flatType", FlatTypeEnum.class);
+		ApplicationIntake.Ticket ticket = this.intake.submit(applicant, project, flatType);
+		if (ticket.getStatus() == IntakeStatusEnum.REJECTED) {
+			throw new ApiException(503, ticket.getReason());
+		}
+		request.status = 202;
+		return ticket(ticket);
+	}
+
+	/**
+	 * Answers with the progress of a queued application. A ticket dropped after
+	 * its retention time is answered with 410, so the client stops polling.
+	 */
+	private Object findIntakeTicket(Request request) {
+		String ticketID = request.require("ticket");
+		ApplicationIntake.Ticket ticket = this.intake.findTicket(ticketID);
+		if (ticket == null && this.intake.isTicketExpired(ticketID)) {
+			throw new ApiException(410, "Ticket " + ticketID + " has expired");
+		}
+		ticket = request.find("ticket", ticket);
+		if (!ticket.getApplicant().getNric().equals(request.session.getUser().getNric())) {
+			throw new ApiException(403, "Not your application");
+		}
+		return ticket(ticket);
+	}
+
+	private Object requestWithdrawal(Request request) {
+		BTOApplication application = request.ownApplication("application");
+		boolean done = request.session.getRole() == IdentityDirectory.Role.OFFICER
+				? this.officerController.requestWithdrawal(application)
+				: this.applicantController.requestWithdrawal(application);
+		return outcome(done, application(application), "Withdrawal could not be requested");
+	}
+
+	private Object processApplication(Request request) {
+		BTOApplication application = request.managedApplication("application");
+		boolean done = this.managerController.processApplication(application, request.bool("approve"));
+		return outcome(done, application(application), "Application is not pending");
+	}
+
+	private Object processWithdrawal(Request request) {
+		BTOApplication application = request.managedApplication("application");
+		boolean done = this.managerController.processWithdrawal(application, request.bool("approve"));
+		return outcome(done, application(application), "No pending withdrawal request");
+	}
+
+	private Object runBallot(Request request) {
+		Project project = request.managedProject("project");
+		long seed;
+		try {
+			seed = Long.parseLong(request.require("seed"));
+		} catch (NumberFormatException e) {
+			throw new ApiException(400, "Parameter seed must be a whole number");
+		}
+		BallotEngine.BallotResult result = this.managerController.runBallot(Collections.singletonList(project), seed).get(0);
+		Map<String, Object> body = new LinkedHashMap<>();
+		body.put("project", project.getProjectName());
+		body.put("seed", seed);
+		body.put("successful", applications(result.getSuccessful()));
+		body.put("unsuccessful", applications(result.getUnsuccessful()));
+		return body;
+	}
+
+	private Object bookFlat(Request request) {
+		BTOApplication application = request.ownApplication("application");
+		FlatType flatType = findFlatType(application.getProject(), application.getFlatType());
+		if (flatType == null) {
+			throw new ApiException(409, "Project no longer offers " + application.getFlatType());
+		}
+		boolean done = request.session.getRole() == IdentityDirectory.Role.OFFICER
+				? this.officerController.bookFlat(application, flatType)
+				: this.applicantController.bookFlat(application, flatType);
+		return outcome(done, application(application), "Flat could not be booked");
+	}
+
+	private Object processBooking(Request request) {
+		Officer officer = request.officer();
+		BTOApplication application = request.find("application", BTOApplication.findApplicationByID(request.require("application")));
+		Booking booking = Booking.findBookingByApplication(application);
+		if (booking == null) {
+			throw new ApiException(404, "No booking for application " + application.getApplicationID());
+		}
+		boolean done = this.officerController.processBooking(officer, booking);
+		return outcome(done, application(application), "Booking could not be confirmed");
+	}
+
+	private Object listEnquiries(Request request) {
+		switch (request.session.getRole()) {
+			case APPLICANT:
+				return enquiries(this.applicantController.getEnquiries(request.applicant()));
+			case OFFICER:
+				return enquiries(this.officerController.getEnquiriesByOfficerProjects(request.officer()));
+			default:
+				return enquiries(this.managerController.getEnquiriesByManagedProjects(request.manager()));
+		}
+	}
+
+	private Object submitEnquiry(Request request) {
+		Project project = request.project("project");
+		String content = request.require("content");
+		Enquiry enquiry = request.session.getRole() == IdentityDirectory.Role.OFFICER
+				? this.officerController.submitEnquiry(request.officer(), project, content)
+				: this.applicantController.submitEnquiry(request.applicant(), project, content);
+		if (enquiry == null) {
+			throw new ApiException(409, "Enquiry could not be submitted");
+		}
+		return enquiry(enquiry);
+	}
+
+	private Object replyToEnquiry(Request request) {
+		Enquiry enquiry = request.find("enquiry", Enquiry.findEnquiriesByEnquiryID(request.require("enquiry")));
+		String reply = request.require("reply");
+		boolean done;
+		if (request.session.getRole() == IdentityDirectory.Role.OFFICER) {
+			done = this.officerController.replyToEnquiry(request.officer(), enquiry, reply);
+		} else {
+			done = this.managerController.replyToEnquiry(request.manager(), enquiry, reply);
+		}
+		return outcome(done, enquiry(enquiry), "Enquiry could not be replied to");
+	}
+
+	private static FlatType findFlatType(Project project, FlatTypeEnum type) {
+		if (project != null && project.getFlatTypes() != null) {
+			for (FlatType flatType : project.getFlatTypes()) {
+				if (flatType != null && flatType.getType() == type) {
+					return flatType;
+				}
+			}
+		}
+		return null;
+	}
+
+	// ============================================================================
+	// RESPONSES
+	// ============================================================================
+
+	private static Object outcome(boolean done, Object result, String failure) {
+		if (!done) {
+			throw new ApiException(409, failure);
+		}
+		return result;
+	}
+
+	private static Map<String, Object> message(String text) {
+		Map<String, Object> body = new LinkedHashMap<>();
+		body.put("message", text);
+		return body;
+	}
+
+	private static List<Object> projects(Collection<Project> projects) {
+		List<Object> result = new ArrayList<>(projects.size());
+		for (Project project : projects) {
+			Map<String, Object> body = new LinkedHashMap<>();
+			body.put("name", project.getProjectName());
+			body.put("neighborhood", project.getNeighborhood());
+			body.put("applicationStartDate", project.getApplicationStartDate());
+			body.put("applicationEndDate", project.getApplicationEndDate());
+			body.put("visibility", project.getVisibility());
+			List<Object> flatTypes = new ArrayList<>();
+			if (project.getFlatTypes() != null) {
+				for (FlatType flatType : project.getFlatTypes()) {
+					Map<String, Object> flat = new LinkedHashMap<>();
+					flat.put("type", flatType.getType());
+					flat.put("numUnits", flatType.getNumUnits());
+					flat.put("availableUnits", flatType.getAvailableUnits());
+					flat.put("sellingPrice", flatType.getSellingPrice());
+					flatTypes.add(flat);
+				}
+			}
+			body.put("flatTypes", flatTypes);
+			result.add(body);
+		}
+		return result;
+	}
+
+	private static Map<String, Object> ticket(ApplicationIntake.Ticket ticket) {
+		Map<String, Object> body = new LinkedHashMap<>();
+		body.put("ticket", ticket.getTicketID());
+		body.put("status", ticket.getStatus());
+		body.put("reason", ticket.getReason());
+		body.put("application", ticket.getApplication() != null ? application(ticket.getApplication()) : null);
+		return body;
+	}
+
+	private static List<Object> applications(Collection<BTOApplication> applications) {
+		List<Object> result = new ArrayList<>(applications.size());
+		for (BTOApplication application : applications) {
+			result.add(application(application));
+		}
+		return result;
+	}
+
+	private static Map<String, Object> application(BTOApplication application) {
+		Map<String, Object> body = new LinkedHashMap<>();
+		body.put("id", application.getApplicationID());
+		body.put("applicant", application.getApplicant() != null ? application.getApplicant().getNric() : null);
+		body.put("project", application.getProject() != null ? application.getProject().getProjectName() : null);
+		body.put("flatType", application.getFlatType());
+		body.put("status", application.getStatus());
+		body.put("withdrawalStatus", application.getWithdrawalStatus());
+		body.put("applicationDate", application.getApplicationDate());
+		return body;
+	}
+
+	private static List<Object> enquiries(Collection<Enquiry> enquiries) {
+		List<Object> result = new ArrayList<>(enquiries.size());
+		for (Enquiry enquiry : enquiries) {
+			result.add(enquiry(enquiry));
+		}
+		return result;
+	}
+
+	private static Map<String, Object> enquiry(Enquiry enquiry) {
+		Map<String, Object> body = new LinkedHashMap<>();
+		body.put("id", enquiry.getEnquiryID());
+		body.put("project", enquiry.getProject() != null ? enquiry.getProject().getProjectName() : null);
+		body.put("submittedBy", enquiry.getSubmittedBy() != null ? enquiry.getSubmittedBy().getNric() : null);
+		body.put("date", enquiry.getDateTime());
+		body.put("content", enquiry.getContent());
+		body.put("status", enquiry.getStatus());
+		body.put("reply", enquiry.getReply());
+		body.put("replyDate", enquiry.getReplyDate());
+		return body;
+	}
+
+	// ============================================================================
+	// REQUEST HANDLING
+	// ============================================================================
+
+	/**
+	 * Runs on the request's own virtual thread.
+	 */
+	private void handle(HttpExchange exchange) throws IOException {
+		int status = 200;
+		Object body;
+		try {
+			String path = exchange.getRequestURI().getPath();
+			Route route = this.routes.get(exchange.getRequestMethod() + " " + path);
+			if (route == null) {
+				throw new ApiException(routes.keySet().stream().anyMatch(key -> key.endsWith(" " + path)) ? 405 : 404, "No such endpoint");
+			}
+			Request request = new Request(readParameters(exchange));
+			if (route.requiresLogin) {
+				request.session = this.sessions.find(bearerToken(exchange));
+				if (request.session == null) {
+					throw new ApiException(401, "Not logged in");
+				}
+			}
+			body = route.handler.handle(request);
+			status = request.status;
+		} catch (ApiException e) {
+			status = e.status;
+			body = error(e.getMessage());
+		} catch (RuntimeException e) {
+			status = 500;
+			body = error("Internal error");
+			e.printStackTrace();
+		}
+
+		byte[] bytes = Json.stringify(body).getBytes(StandardCharsets.UTF_8);
+		exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+		exchange.sendResponseHeaders(status, bytes.length);
+		try (OutputStream out = exchange.getResponseBody()) {
+			out.write(bytes);
+		}
+	}
+
+	private static Map<String, Object> error(String text) {
+		Map<String, Object> body = new LinkedHashMap<>();
+		body.put("error", text);
+		return body;
+	}
+
+	private static String bearerToken(HttpExchange exchange) {
+		String header = exchange.getRequestHeaders().getFirst("Authorization");
+		if (header == null || !header.regionMatches(true, 0, "Bearer ", 0, 7)) {
+			return null;
+		}
+		return header.substring(7).trim();
+	}
+
+	/**
+	 * Reads the parameters of the query string and of a form body.
+	 */
+	private static Map<String, String> readParameters(HttpExchange exchange) throws IOException {
+		Map<String, String> parameters = new HashMap<>();
+		parseForm(exchange.getRequestURI().getRawQuery(), parameters);
+		try (InputStream in = exchange.getRequestBody()) {
+			byte[] bytes = in.readNBytes(MAX_BODY_BYTES + 1);
+			if (bytes.length > MAX_BODY_BYTES) {
+				throw new ApiException(413, "Request body too large");
+			}
+			parseForm(new String(bytes, StandardCharsets.UTF_8), parameters);
+		}
+		return parameters;
+	}
+
+	private static void parseForm(String form, Map<String, String> parameters) {
+		if (form == null || form.isEmpty()) {
+			return;
+		}
+		for (String pair : form.split("&")) {
+			int equals = pair.indexOf('=');
+			String name = URLDecoder.decode(equals >= 0 ? pair.substring(0, equals) : pair, StandardCharsets.UTF_8);
+			String value = equals >= 0 ? URLDecoder.decode(pair.substring(equals + 1), StandardCharsets.UTF_8) : "";
+			if (!name.isEmpty()) {
+				parameters.put(name, value);
+			}
+		}
+	}
+
+	@FunctionalInterface
+	private interface Handler {
+		Object handle(Request request);
+	}
+
+	private static final class Route {
+		private final boolean requiresLogin;
+		private final Handler handler;
+
+		private Route(boolean requiresLogin, Handler handler) {
+			this.requiresLogin = requiresLogin;
+			this.handler = handler;
+		}
+	}
+
+	/**
+	 * Failure reported to the client with an HTTP status and message.
+	 */
+	private static final class ApiException extends RuntimeException {
+		private static final long serialVersionUID = 1L;
+
+		private final int status;
+
+		private ApiException(int status, String message) {
+			super(message);
+			this.status = status;
+		}
+	}
+
+	/**
+	 * Parameters and session of a request, with lookups that fail with the
+	 * matching HTTP status.
+	 */
+	private static final class Request {
+		private final Map<String, String> parameters;
+		private ApiSessions.Session session;
+		private int status = 200;
+
+		private Request(Map<String, String> parameters) {
+			this.parameters = parameters;
+		}
+
+		String require(String name) {
+			String value = parameters.get(name);
+			if (value == null || value.trim().isEmpty()) {
+				throw new ApiException(400, "Missing parameter: " + name);
+			}
+			return value.trim();
+		}
+
+		boolean bool(String name) {
+			String value = require(name);
+			if (!value.equalsIgnoreCase("true") && !value.equalsIgnoreCase("false")) {
+				throw new ApiException(400, "Parameter " + name + " must be true or false");
+			}
+			return Boolean.parseBoolean(value);
+		}
+
+		<E extends Enum<E>> E enumValue(String name, Class<E> type) {
+			String value = require(name);
+			try {
+				return Enum.valueOf(type, value.toUpperCase());
+			} catch (IllegalArgumentException e) {
+				throw new ApiException(400, "Unknown " + name + ": " + value);
+			}
+		}
+
+		<T> T find(String name, T found) {
+			if (found == null) {
+				throw new ApiException(404, "Unknown " + name + ": " + parameters.get(name));
+			}
+			return found;
+		}
+
+		Project project(String name) {
+			return find(name, Project.findProjectByName(require(name)));
+		}
+
+		Project managedProject(String name) {
+			Project project = project(name);
+			checkManages(project);
+			return project;
+		}
+
+		BTOApplication ownApplication(String name) {
+			BTOApplication application = find(name, BTOApplication.findApplicationByID(require(name)));
+			if (application.getApplicant() == null || !application.getApplicant().getNric().equals(applicant().getNric())) {
+				throw new ApiException(403, "Not your application");
+			}
+			return application;
+		}
+
+		BTOApplication managedApplication(String name) {
+			BTOApplication application = find(name, BTOApplication.findApplicationByID(require(name)));
+			checkManages(application.getProject());
+			return application;
+		}
+
+		Applicant applicant() {
+			if (session.getRole() == IdentityDirectory.Role.MANAGER) {
+				throw new ApiException(403, "Only applicants and officers may do this");
+			}
+			return (Applicant) session.getUser();
+		}
+
+		Officer officer() {
+			if (session.getRole() != IdentityDirectory.Role.OFFICER) {
+				throw new ApiException(403, "Only officers may do this");
+			}
+			return (Officer) session.getUser();
+		}
+
+		Manager manager() {
+			if (session.getRole() != IdentityDirectory.Role.MANAGER) {
+				throw new ApiException(403, "Only managers may do this");
+			}
+			return (Manager) session.getUser();
+		}
+
+		private void checkManages(Project project) {
+			Manager manager = manager();
+			if (project == null || project.getManager() == null || !project.getManager().getNric().equals(manager.getNric())) {
+				throw new ApiException(403, "Not a project you manage");
+			}
+		}
+	}
+}
@@ -0,0 +1,155 @@
+package boundary.api;
+
+import database.IdentityDirectory;
+import entity.User;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Login sessions of the HTTP API, keyed by a random bearer token.
+ *
+ * <p>Each login gets its own session, so one user may be logged in from
+ * several clients at once. Sessions are kept in a concurrent map and can be
+ * looked up by any number of request threads without locking. A session that
+ * has not been used for the configured timeout expires; expired sessions are
+ * dropped when they are next looked up and in a sweep run at most once per
+ * timeout period on login.</p>
+ *
+ * @author BTO Management System Team
+ * @version 2.0
+ * @since 2.0
+ * @see ApiServer
+ */
+public class ApiSessions {
+
+	private static final int TOKEN_BYTES = 24;
+
+	private final Map<String, Session> sessions = new ConcurrentHashMap<>();
+	private final SecureRandom random = new SecureRandom();
+	private final long timeoutMillis;
+	private volatile long nextSweepAt;
+
+	/**
+	 * Creates an empty session store.
+	 *
+	 * @param timeoutMillis time in milliseconds after which an unused session expires
+	 */
+	public ApiSessions(long timeoutMillis) {
+		this.timeoutMillis = timeoutMillis;
+		this.nextSweepAt = System.currentTimeMillis() + timeoutMillis;
+	}
+
+	/**
+	 * Starts a session for a logged-in account.
+	 *
+	 * @param account the account that logged in
+	 * @return the new session
+	 */
+	public Session open(IdentityDirectory.Account account) {
+		sweepIfDue();
+		byte[] bytes = new byte[TOKEN_BYTES];
+		random.nextBytes(bytes);
+		Session session = new Session(Base64.getUrlEncoder().withoutPadding().encodeToString(bytes), account.getUser(), account.getRole());
+		sessions.put(session.token, session);
+		return session;
+	}
+
+	/**
+	 * Finds the session of a token and marks it as used.
+	 *
+	 * @param token the bearer token sent by the client
+	 * @return the session, or null if the token is unknown or its session has expired
+	 */
+	public Session find(String token) {
+		Session session = token != null ? sessions.get(token) : null;
+		if (session == null) {
+			return null;
+		}
+		long now = System.currentTimeMillis();
+		if (now - session.lastUsed > timeoutMillis) {
+			sessions.remove(token, session);
+			return null;
+		}
+		session.lastUsed = now;
+		return session;
+	}
+
+	/**
+	 * Ends a session.
+	 *
+	 * @param token the bearer token of the session
+	 * @return true if the session was open
+	 */
+	public boolean close(String token) {
+		return token != null && sessions.remove(token) != null;
+	}
+
+	/**
+	 * Returns the number of open sessions, including expired ones not dropped yet.
+	 *
+	 * @return the session count
+	 */
+	public int size() {
+		return sessions.size();
+	}
+
+	private void sweepIfDue() {
+		long now = System.currentTimeMillis();
+		if (now < nextSweepAt) {
+			return;
+		}
+		nextSweepAt = now + timeoutMillis;
+		Iterator<Session> iterator = sessions.values().iterator();
+		while (iterator.hasNext()) {
+			if (now - iterator.next().lastUsed > timeoutMillis) {
+				iterator.remove();
+			}
+		}
+	}
+
+	/**
+	 * A logged-in user and the role they logged in with.
+	 */
+	public static class Session {
+		private final String token;
+		private final User user;
+		private final IdentityDirectory.Role role;
+		private volatile long lastUsed = System.currentTimeMillis();
+
+		private Session(String token, User user, IdentityDirectory.Role role) {
+			this.token = token;
+			this.user = user;
+			this.role = role;
+		}
+
+		/**
+		 * Gets the bearer token of the session.
+		 *
+		 * @return the token
+		 */
+		public String getToken() {
+			return this.token;
+		}
+
+		/**
+		 * Gets the logged-in user.
+		 *
+		 * @return the user
+		 */
+		public User getUser() {
+			return this.user;
+		}
+
+		/**
+		 * Gets the role the user logged in with.
+		 *
+		 * @return the role
+		 */
+		public IdentityDirectory.Role getRole() {
+			return this.role;
+		}
+	}
+}
@@ -0,0 +1,119 @@
+package boundary.api;
+
+import java.util.*;
+
+/**
+ * Minimal JSON encoder for the responses of the HTTP API.
+ *
+ * <p>Responses are built from maps, lists and plain values, so no JSON library
+ * is needed. Maps become objects with their keys in iteration order, so a
+ * {@link LinkedHashMap} keeps fields in the order they were put. Enums, dates
+ * and other values are written as their string form.</p>
+ *
+ * <h2>Usage Example:</h2>
+ * <pre>{@code
+ * Map<String, Object> body = new LinkedHashMap<>();
+ * body.put("status", BTOApplicationStatusEnum.PENDING);
+ * body.put("units", 3);
+ * String json = Json.stringify(body); // {"status":"PENDING","units":3}
+ * }</pre>
+ *
+ * @author BTO Management System Team
+ * @version 2.0
+ * @since 2.0
+ * @see ApiServer
+ */
+public class Json {
+
+	/**
+	 * Private constructor to prevent instantiation of this utility class.
+	 */
+	private Json() {
+	}
+
+	/**
+	 * Encodes a value as JSON.
+	 *
+	 * @param value a map, collection, array, string, number, boolean or null; anything else is written as its string form
+	 * @return the JSON text
+	 */
+	public static String stringify(Object value) {
+		StringBuilder out = new StringBuilder();
+		write(value, out);
+		return out.toString();
+	}
+
+	private static void write(Object value, StringBuilder out) {
+		if (value == null) {
+			out.append("null");
+		} else if (value instanceof Map) {
+			out.append('{');
+			boolean first = true;
+			for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+				if (!first) {
+					out.append(',');
+				}
+				first = false;
+				writeString(String.valueOf(entry.getKey()), out);
+				out.append(':');
+				write(entry.getValue(), out);
+			}
+			out.append('}');
+		} else if (value instanceof Iterable) {
+			out.append('[');
+			boolean first = true;
+			for (Object item : (Iterable<?>) value) {
+				if (!first) {
+					out.append(',');
+				}
+				first = false;
+				write(item, out);
+			}
+			out.append(']');
+		} else if (value instanceof Object[]) {
+			write(Arrays.asList((Object[]) value), out);
+		} else if (value instanceof Boolean || value instanceof Integer || value instanceof Long) {
+			out.append(value);
+		} else if (value instanceof Number) {
+			double number = ((Number) value).doubleValue();
+			if (Double.isFinite(number)) {
+				out.append(value);
+			} else {
+				out.append("null");
+			}
+		} else {
+			writeString(value.toString(), out);
+		}
+	}
+
+	private static void writeString(String text, StringBuilder out) {
+		out.append('"');
+		for (int i = 0; i < text.length(); i++) {
+			char c = text.charAt(i);
+			switch (c) {
+				case '"':
+					out.append("\\\"");
+					break;
+				case '\\':
+					out.append("\\\\");
+					break;
+				case '\n':
+					out.append("\\n");
+					break;
+				case '\r':
+					out.append("\\r");
+					break;
+				case '\t':
+					out.append("\\t");
+					break;
+				default:
+					if (c < 0x20) {
+						out.append(String.format("\\u%04x", (int) c));
+					} else {
+						out.append(c);
+					}
+			}
+		}
+		out.append('"');
+	}
+}
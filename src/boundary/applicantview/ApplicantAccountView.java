@@ -124,15 +124,14 @@ public class ApplicantAccountView implements IDisplayable {
         System.out.print("Marital Status [" + currentApplicant.getMaritalStatus() + "] (SINGLE/MARRIED): ");
         String maritalStatusStr = scanner.nextLine().trim().toUpperCase();
         
-        // Update applicant information
-        if (!name.isEmpty()) {
-            currentApplicant.setName(name);
-        }
+        // Work out the new applicant information
+        String newName = name.isEmpty() ? currentApplicant.getName() : name;
+        int newAge = currentApplicant.getAge();
+        MarriageStatusEnum newMaritalStatus = currentApplicant.getMaritalStatus();
         
         if (!ageStr.isEmpty()) {
             try {
-                int age = Integer.parseInt(ageStr);
-                currentApplicant.setAge(age);
+                newAge = Integer.parseInt(ageStr);
             } catch (NumberFormatException e) {
                 System.out.println("Invalid age format. Age not updated.");
             }
@@ -140,13 +139,14 @@ public class ApplicantAccountView implements IDisplayable {
         
         if (!maritalStatusStr.isEmpty()) {
             try {
-                MarriageStatusEnum maritalStatus = MarriageStatusEnum.valueOf(maritalStatusStr);
-                currentApplicant.setMaritalStatus(maritalStatus);
+                newMaritalStatus = MarriageStatusEnum.valueOf(maritalStatusStr);
             } catch (IllegalArgumentException e) {
                 System.out.println("Invalid marital status. Marital status not updated.");
             }
         }
         
+        // Save changes
+        applicantController.editProfile(currentApplicant, newName, currentApplicant.getNric(), newAge, newMaritalStatus);
         System.out.println("Profile updated successfully!");
     }
 
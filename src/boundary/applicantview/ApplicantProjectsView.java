@@ -3,7 +3,9 @@ package boundary.applicantview;
 import controller.*;
 import entity.*;
 import interfaces.*;
+import enums.*;
 import java.util.ArrayList;
+import java.util.Map;
 import java.util.Scanner;
 
 /**
@@ -107,6 +109,14 @@ public class ApplicantProjectsView implements IDisplayable {
 		// Create a new filter
 		Filter filter = new Filter();
 		
+		// Show the choices available before any criteria are entered
+		FilterResult choices = applicantController.getFilteredProjectsWithFacets(currentApplicant, filter);
+		if (choices.getProjects().isEmpty()) {
+			System.out.println("No eligible projects available at this time.");
+			return;
+		}
+		displayFacets(choices);
+		
 		// Get filter criteria
 		System.out.println("Enter filter criteria (leave blank to skip):");
 		
@@ -150,13 +160,41 @@ public class ApplicantProjectsView implements IDisplayable {
 		}
 		
 		// Get filtered projects
-		ArrayList<Project> filteredProjects = applicantController.getFilteredProjects(currentApplicant, filter);
+		FilterResult result = applicantController.getFilteredProjectsWithFacets(currentApplicant, filter);
+		ArrayList<Project> filteredProjects = result.getProjects();
 		
 		System.out.println("\n===== FILTERED PROJECTS =====");
 		if (filteredProjects.isEmpty()) {
 			System.out.println("No projects match your filter criteria.");
 		} else {
 			displayProjects(filteredProjects);
+			System.out.println("\nRefine your search:");
+			displayFacets(result);
+		}
+	}
+
+	/**
+	 * Displays how many projects of a filter result fall in each neighborhood,
+	 * offer each flat type and have flats in each price range, so the applicant
+	 * can see how each further choice would narrow the result.
+	 * 
+	 * @param result The filter result whose counts to display
+	 */
+	private void displayFacets(FilterResult result) {
+		System.out.println("  Neighborhoods:");
+		for (Map.Entry<String, Integer> entry : result.getNeighborhoodCounts().entrySet()) {
+			System.out.printf("    %-20s (%d)\n", entry.getKey(), entry.getValue());
+		}
+		
+		System.out.println("  Flat Types with units available:");
+		for (Map.Entry<FlatTypeEnum, Integer> entry : result.getFlatTypeCounts().entrySet()) {
+			System.out.printf("    %-20s (%d)\n", entry.getKey(), entry.getValue());
+		}
+		
+		System.out.println("  Price Ranges with units available:");
+		for (Map.Entry<Double, Integer> entry : result.getPriceBucketCounts().entrySet()) {
+			String range = String.format("$%.0f - $%.0f", entry.getKey(), entry.getKey() + result.getPriceBucketSize());
+			System.out.printf("    %-20s (%d)\n", range, entry.getValue());
 		}
 	}
 
@@ -241,19 +241,7 @@ public class FileHandlerReadView implements IDisplayable {
 		System.out.println("Reading All Data...");
 		String folderPath = (filepath != null && !filepath.isEmpty()) ? filepath : ApplicationConstants.DEFAULT_DATA_PATH;
 		try {
-			// Call all individual read methods since there's no readAllData method
-			boolean applicantSuccess = FileHandler.readApplicantData(folderPath + "ApplicantList.csv");
-			boolean officerSuccess = FileHandler.readOfficerData(folderPath + "OfficerList.csv");
-			boolean managerSuccess = FileHandler.readManagerData(folderPath + "ManagerList.csv");
-			boolean projectSuccess = FileHandler.readProjectData(folderPath + "ProjectList.csv");
-			boolean btoSuccess = FileHandler.readBTOApplicationData(folderPath + "ApplicationList.csv");
-			boolean officerAppSuccess = FileHandler.readOfficerApplicationData(folderPath + "OfficerApplicationList.csv");
-			boolean bookingSuccess = FileHandler.readBookingData(folderPath + "BookingList.csv");
-			boolean receiptSuccess = FileHandler.readReceiptData(folderPath + "ReceiptList.csv");
-			boolean enquirySuccess = FileHandler.readEnquiryData(folderPath + "EnquiryList.csv");
-			
-			if (applicantSuccess && officerSuccess && managerSuccess && projectSuccess &&
-					btoSuccess && officerAppSuccess && bookingSuccess && receiptSuccess && enquirySuccess) {
+			if (FileHandler.readAllData(folderPath)) {
 				System.out.println("All data read successfully.");
 			} else {
 				System.out.println("Failed to read all data.");
@@ -252,18 +252,13 @@ public class ManagerManageProjectsView implements IDisplayable {
         Project newProject = null;
         try {
             newProject = managerController.createProject(currentManager, projectName, neighborhood, 
-                    applicationStartDate, applicationEndDate, officerSlots, visibility);
+                    applicationStartDate, applicationEndDate, officerSlots, visibility, flatTypes);
         } catch (Exception e) {
             System.out.println("Error creating project: " + e.getMessage());
             return;
         }
 
         if (newProject != null) {
-            // Add flat types to project
-            for (FlatType flatType : flatTypes) {
-                newProject.addFlatType(flatType);
-            }
-            
             System.out.println("Project created successfully: " + newProject.getProjectName());
         } else {
             // The project creation has already printed the error message, no need to add a generic error
@@ -1,5 +1,6 @@
 package controller;
 
+import database.IdentityDirectory;
 import interfaces.IAuth;
 import boundary.applicantview.*;
 import entity.*;
@@ -18,7 +19,7 @@ public class ApplicantAuth implements IAuth {
      */
     @Override
     public User authenticate(String nric, String password) {
-        Applicant user = (Applicant)Auth.authenticate(Applicant.getAllApplicants(), nric, password);
+        Applicant user = (Applicant)Auth.authenticate(IdentityDirectory.Role.APPLICANT, nric, password);
             if (user != null) {
             DisplayMenu.displayMenu(new ApplicantView(user));
         }
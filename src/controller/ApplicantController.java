@@ -3,9 +3,13 @@ package controller;
 import entity.*;
 import enums.*;
 import utils.ApplicationConstants;
+import utils.Journal;
 import utils.ValidationUtils;
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
 
 /**
  * Controller class for managing all applicant-related business logic in the BTO Management System.
@@ -76,17 +80,22 @@ public class ApplicantController {
 	 * @return List of projects the applicant is eligible to apply for
 	 */
 	public ArrayList<Project> getEligibleProjects(Applicant applicant) {
-		ArrayList<Project> allProjects = Project.getAllProjects();
-		ArrayList<Project> eligibleProjects = new ArrayList<>();
+		Set<Project> eligibleProjects = Collections.newSetFromMap(new IdentityHashMap<>());
 		
-		for (Project project : allProjects) {
-			// Check if project is visible or if applicant has already applied for it
-			if ((project.getVisibility() == VisibilityEnum.VISIBLE && isEligibleForProject(applicant, project)) || hasAppliedForProject(applicant, project)) {
-				eligibleProjects.add(project);
+		// Visible projects open today with a flat type for the applicant's profile come from the eligibility matrix
+		eligibleProjects.addAll(Project.findEligibleProjectsOpenOn(applicant.getMaritalStatus(), applicant.getAge(), LocalDate.now(), VisibilityEnum.VISIBLE));
+		
+		// Projects the applicant has already applied for are always included
+		for (BTOApplication app : BTOApplication.findApplicationsByApplicantNric(applicant.getNric())) {
+			if (app.getStatus() != BTOApplicationStatusEnum.WITHDRAWN && app.getStatus() != BTOApplicationStatusEnum.UNSUCCESSFUL && app.getProject() != null) {
+				Project project = Project.findProjectByName(app.getProject().getProjectName());
+				if (project != null) {
+					eligibleProjects.add(project);
+				}
 			}
 		}
 		
-		return eligibleProjects;
+		return Project.inDatabaseOrder(eligibleProjects);
 	}
 
 	/**
@@ -97,16 +106,20 @@ public class ApplicantController {
 	 * @return List of projects matching the filter criteria
 	 */
 	public ArrayList<Project> getFilteredProjects(Applicant applicant, Filter filter) {
-		ArrayList<Project> allProjects = getEligibleProjects(applicant);
-		ArrayList<Project> filteredProjects = new ArrayList<>();
-		
-		for (Project project : allProjects) {
-			if (project.getVisibility() == VisibilityEnum.VISIBLE && filter.matchesProject(project)) {
-				filteredProjects.add(project);
-			}
-		}
-		
-		return filteredProjects;
+		return Project.findProjectsMatching(filter, VisibilityEnum.VISIBLE, getEligibleProjects(applicant));
+	}
+
+	/**
+	 * Filters eligible projects based on specified criteria and counts the
+	 * matching projects per neighborhood, flat type and price range, so the
+	 * applicant can see how each further choice would narrow the result.
+	 * 
+	 * @param applicant The applicant whose eligible projects should be filtered
+	 * @param filter The filter criteria to apply
+	 * @return The projects matching the filter criteria, with their facet counts
+	 */
+	public FilterResult getFilteredProjectsWithFacets(Applicant applicant, Filter filter) {
+		return Project.findProjectsMatchingWithFacets(filter, VisibilityEnum.VISIBLE, getEligibleProjects(applicant), ApplicationConstants.PRICE_FACET_BUCKET_SIZE);
 	}
 
 	/**
@@ -165,6 +178,7 @@ public class ApplicantController {
 		boolean added = BTOApplication.addToDatabase(application);
 		if (added) {
 			applicant.addApplication(application);
+			Journal.recordPut(application);
 			return application;
 		}
 		
@@ -205,6 +219,7 @@ public class ApplicantController {
 		
 		// Update withdrawal status to pending
 		application.setWithdrawalStatus(WithdrawalStatusEnum.PENDING);
+		Journal.recordPut(application);
 		return true;
 	}
 
@@ -245,10 +260,9 @@ public class ApplicantController {
 			}
 		}
 
-		Project project = application.getProject();
-		// Check if available flatType
-		for (FlatType flatType2 : project.getFlatTypes()){
-			if (flatType2.getType() == flatType.getType() && flatType2.getAvailableUnits() <=0) return false;
+		// Check if a unit of the flat type is neither booked nor being confirmed for someone else
+		if (!FlatInventory.hasAvailable(application.getProject(), flatType.getType())) {
+			return false;
 		}
 		
 		// Create a new booking with pending status
@@ -264,6 +278,7 @@ public class ApplicantController {
 		if (success) {
 			// Add booking to applicant's bookings list
 			applicant.addBooking(booking);
+			Journal.recordPut(booking);
 		}
 		
 		return success;
@@ -295,6 +310,7 @@ public class ApplicantController {
 		boolean added = Enquiry.addToDatabase(enquiry);
 		if (added) {
 			applicant.addEnquiry(enquiry);
+			Journal.recordPut(enquiry);
 			return enquiry;
 		}
 		
@@ -337,6 +353,7 @@ public class ApplicantController {
 		}
 		
 		enquiry.setContent(newContent);
+		Journal.recordPut(enquiry);
 		return true;
 	}
 
@@ -351,7 +368,11 @@ public class ApplicantController {
 			return false;
 		}
 		
-		return Enquiry.removeFromDatabase(enquiry);
+		boolean removed = Enquiry.removeFromDatabase(enquiry);
+		if (removed) {
+			Journal.recordDelete(enquiry);
+		}
+		return removed;
 	}
 
 	/**
@@ -368,9 +389,30 @@ public class ApplicantController {
 		}
 		
 		applicant.setPassword(password);
+		Journal.recordPut(applicant);
 		return true;
 	}
 
+	/**
+	 * Edits an applicant's profile information.
+	 * 
+	 * @param applicant The applicant whose profile to edit
+	 * @param name The new name
+	 * @param nric The new NRIC
+	 * @param age The new age
+	 * @param maritalStatus The new marital status
+	 */
+	public void editProfile(Applicant applicant, String name, String nric, int age, MarriageStatusEnum maritalStatus) {
+		if (applicant != null) {
+			String previousNric = applicant.getNric();
+			applicant.setName(name);
+			applicant.setNric(nric);
+			applicant.setAge(age);
+			applicant.setMaritalStatus(maritalStatus);
+			Journal.recordRename(previousNric, applicant);
+		}
+	}
+
 	/**
 	 * Checks if an applicant is eligible for a specific project.
 	 * 
@@ -425,11 +467,12 @@ public class ApplicantController {
 			return false;
 		}
 		
-		ArrayList<BTOApplication> allApplications = BTOApplication.getAllApplications();
+		// Only the applications submitted under the applicant's NRIC need to be checked
+		ArrayList<BTOApplication> applicantApplications = BTOApplication.findApplicationsByApplicantNric(applicant.getNric());
 		
-		for (BTOApplication app : allApplications) {
+		for (BTOApplication app : applicantApplications) {
 			if (app.getStatus() != BTOApplicationStatusEnum.WITHDRAWN && app.getStatus() != BTOApplicationStatusEnum.UNSUCCESSFUL){
-				if (app.getApplicant().getNric().equals(applicant.getNric()) && app.getProject().getProjectName().equals(project.getProjectName())) {
+				if (app.getProject() != null && app.getProject().getProjectName().equals(project.getProjectName())) {
 					return true;
 				}
 			}
@@ -449,13 +492,8 @@ public class ApplicantController {
 	public boolean hasActiveApplications(Applicant applicant) {
 		ArrayList<BTOApplication> applications = applicant.getApplications();
         for (BTOApplication app : applications) {
-            // Consider an application active if it's pending or successful and not withdrawn
-            if ((app.getStatus() == BTOApplicationStatusEnum.PENDING || 
-                app.getStatus() == BTOApplicationStatusEnum.SUCCESSFUL||
-				app.getStatus() == BTOApplicationStatusEnum.BOOKED) && 
-                (app.getWithdrawalStatus() == WithdrawalStatusEnum.NA||
-				app.getWithdrawalStatus() == WithdrawalStatusEnum.PENDING ||
-				app.getWithdrawalStatus() == WithdrawalStatusEnum.REJECTED)) {
+            // Consider an application active if it's pending, successful or booked and not withdrawn
+            if (app.isActive()) {
                 return true;
             }
         }
@@ -480,23 +518,8 @@ public class ApplicantController {
 	 * @see #isEligibleForProject(Applicant, Project)
 	 */
 	public static boolean isEligibleForFlatType(Applicant applicant, FlatTypeEnum flatType) {
-		// Singles must be 35+ and can only apply for 2-room flats
-        if (applicant.getMaritalStatus() == MarriageStatusEnum.SINGLE) {
-            if (applicant.getAge() < ApplicationConstants.MIN_AGE_SINGLE_APPLICANT) {
-                return false;
-            }
-            
-            if (flatType != FlatTypeEnum.TWO_ROOM) {
-                return false;
-            }
-        }
-		else if (applicant.getMaritalStatus() == MarriageStatusEnum.MARRIED){
-			if (applicant.getAge() < ApplicationConstants.MIN_AGE_MARRIED_APPLICANT) {
-				return false;
-			}
-		}
-        
-        return true; // Eligible for flat type
+		// Singles must be 35+ and can only apply for 2-room flats; married applicants must be 21+
+		return Applicant.isEligibleForFlatType(applicant.getMaritalStatus(), applicant.getAge(), flatType);
 	}
 
 	/**
@@ -0,0 +1,555 @@
+package controller;
+
+import entity.*;
+import enums.*;
+import database.ChangeTracker;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+import utils.ApplicationConstants;
+import utils.Journal;
+
+/**
+ * Intake pipeline for BTO applications, for the surge of submissions when a
+ * popular project opens.
+ *
+ * <p>{@link ApplicantController#createApplication(Applicant, Project, FlatTypeEnum)}
+ * checks, stores and journals each application on the caller's thread, so
+ * thousands of simultaneous submissions each take the database's write lock and
+ * write to the journal one by one. The intake instead hands each submitter a
+ * {@link Ticket} at once and works in three stages:</p>
+ * <ol>
+ *   <li>Submissions wait in a bounded queue; when it is full, further
+ *       submissions are turned away as busy instead of piling up.</li>
+ *   <li>Validation threads check eligibility in parallel, reading only
+ *       the indexed database.</li>
+ *   <li>A single commit thread takes the validated applications in batches,
+ *       rechecks the one-active-application rule against the database and
+ *       earlier applications in the batch, and stores each batch with one write
+ *       to the database, one journal append and one autosave notification.</li>
+ * </ol>
+ * <p>Submitters follow their ticket until it is {@link IntakeStatusEnum#ACCEPTED}
+ * or {@link IntakeStatusEnum#REJECTED}, either by waiting on it or by looking it
+ * up again with {@link #findTicket(String)}. A ticket is kept for
+ * {@link ApplicationConstants#INTAKE_TICKET_RETENTION_MILLIS} after it is
+ * settled and then dropped, so the intake does not hold on to every submission
+ * it has ever taken; {@link #isTicketExpired(String)} tells a dropped ticket
+ * from one that was never handed out.</p>
+ *
+ * <h2>Usage Example:</h2>
+ * <pre>{@code
+ * ApplicationIntake intake = new ApplicationIntake();
+ * intake.start();
+ * ApplicationIntake.Ticket ticket = intake.submit(applicant, project, FlatTypeEnum.TWO_ROOM);
+ * if (ticket.await(5000) == IntakeStatusEnum.ACCEPTED) {
+ *     BTOApplication application = ticket.getApplication();
+ * }
+ * intake.shutdown();
+ * }</pre>
+ *
+ * @author BTO Management System Team
+ * @version 2.0
+ * @since 2.0
+ * @see ApplicantController#createApplication(Applicant, Project, FlatTypeEnum)
+ * @see Journal#recordPut(Object...)
+ */
+public class ApplicationIntake {
+
+	private final BlockingQueue<Ticket> submitted;
+	private final BlockingQueue<Ticket> validated = new LinkedBlockingQueue<>();
+	private final Map<String, Ticket> tickets = new ConcurrentHashMap<>();
+	private final Queue<Ticket> settled = new ConcurrentLinkedQueue<>();
+	private final AtomicLong ticketSequence = new AtomicLong();
+	private final long createdMillis = System.currentTimeMillis();
+	private long applicationSequence;
+	private final int validationThreads;
+	private final int batchSize;
+	private final long batchWaitMillis;
+	private final long ticketRetentionMillis;
+	private final List<Thread> validators = new ArrayList<>();
+	private Thread committer;
+	private volatile boolean running;
+	private volatile boolean committing;
+
+	/**
+	 * Creates an intake with the default queue size and batch size, validating
+	 * on one thread per processor.
+	 */
+	public ApplicationIntake() {
+		this(ApplicationConstants.INTAKE_QUEUE_CAPACITY, Runtime.getRuntime().availableProcessors(),
+				ApplicationConstants.INTAKE_BATCH_SIZE, ApplicationConstants.INTAKE_BATCH_WAIT_MILLIS);
+	}
+
+	/**
+	 * Creates an intake that keeps settled tickets for the default time.
+	 *
+	 * @param capacity the number of submissions that may wait to be validated
+	 * @param validationThreads the number of threads validating submissions
+	 * @param batchSize the largest number of applications stored together
+	 * @param batchWaitMillis the time to wait for more applications before storing a batch that is not full
+	 */
+	public ApplicationIntake(int capacity, int validationThreads, int batchSize, long batchWaitMillis) {
+		this(capacity, validationThreads, batchSize, batchWaitMillis, ApplicationConstants.INTAKE_TICKET_RETENTION_MILLIS);
+	}
+
+	/**
+	 * Creates an intake.
+	 *
+	 * @param capacity the number of submissions that may wait to be validated
+	 * @param validationThreads the number of threads validating submissions
+	 * @param batchSize the largest number of applications stored together
+	 * @param batchWaitMillis the time to wait for more applications before storing a batch that is not full
+	 * @param ticketRetentionMillis the time an accepted or rejected ticket can still be looked up
+	 */
+	public ApplicationIntake(int capacity, int validationThreads, int batchSize, long batchWaitMillis, long ticketRetentionMillis) {
+		this.submitted = new ArrayBlockingQueue<>(Math.max(1, capacity));
+		this.validationThreads = Math.max(1, validationThreads);
+		this.batchSize = Math.max(1, batchSize);
+		this.batchWaitMillis = Math.max(0, batchWaitMillis);
+		this.ticketRetentionMillis = Math.max(0, ticketRetentionMillis);
+	}
+
+	// ============================================================================
+	// LIFECYCLE
+	// ============================================================================
+
+	/**
+	 * Starts the validation and commit threads. Does nothing if already started.
+	 */
+	public synchronized void start() {
+		if (running) {
+			return;
+		}
+		running = true;
+		committing = true;
+		for (int i = 0; i < validationThreads; i++) {
+			validators.add(startWorker(this::validate, "intake-validator-" + i));
+		}
+		committer = startWorker(this::commit, "intake-committer");
+	}
+
+	/**
+	 * Stops taking submissions, finishes the ones already queued and stops the
+	 * threads. Does nothing if the intake is not running.
+	 */
+	public synchronized void shutdown() {
+		if (!running) {
+			return;
+		}
+		running = false;
+		try {
+			// Validators finish the queued submissions before the committer stops,
+			// so every validated application is still stored
+			for (Thread validator : validators) {
+				validator.interrupt();
+			}
+			for (Thread validator : validators) {
+				validator.join();
+			}
+			committing = false;
+			committer.join();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		validators.clear();
+		committer = null;
+	}
+
+	private Thread startWorker(Runnable loop, String name) {
+		Thread thread = new Thread(loop, name);
+		thread.setDaemon(true);
+		thread.start();
+		return thread;
+	}
+
+	// ============================================================================
+	// SUBMISSION
+	// ============================================================================
+
+	/**
+	 * Submits an application. Returns at once; the application is validated and
+	 * stored in the background.
+	 *
+	 * @param applicant The applicant or officer applying for a BTO flat
+	 * @param project The project being applied for
+	 * @param flatType The type of flat being applied for
+	 * @return the ticket of the submission; already rejected if the intake is busy or not running
+	 */
+	public Ticket submit(Applicant applicant, Project project, FlatTypeEnum flatType) {
+		Ticket ticket = new Ticket(ApplicationConstants.INTAKE_TICKET_ID_PREFIX + System.currentTimeMillis() + "-" + ticketSequence.incrementAndGet(),
+				applicant, project, flatType);
+		evictExpiredTickets();
+		tickets.put(ticket.ticketID, ticket);
+		if (!running) {
+			reject(ticket, "Application intake is not running");
+		} else if (!submitted.offer(ticket)) {
+			reject(ticket, "Too many applications are being submitted; please try again later");
+		} else if (!running && submitted.remove(ticket)) {
+			// Shut down while the ticket was being queued, and no validator took it
+			reject(ticket, "Application intake is not running");
+		}
+		return ticket;
+	}
+
+	/**
+	 * Finds a ticket handed out by {@link #submit(Applicant, Project, FlatTypeEnum)}.
+	 *
+	 * @param ticketID the ID of the ticket
+	 * @return the ticket, or null if the ID is unknown or the ticket has expired
+	 */
+	public Ticket findTicket(String ticketID) {
+		evictExpiredTickets();
+		return ticketID != null ? tickets.get(ticketID) : null;
+	}
+
+	/**
+	 * Checks whether a ticket was handed out by this intake but has since been
+	 * dropped, having been settled longer ago than the retention time.
+	 *
+	 * @param ticketID the ID of the ticket
+	 * @return true if the ticket existed and has expired; false if it is still
+	 *         kept or was never handed out by this intake
+	 */
+	public boolean isTicketExpired(String ticketID) {
+		if (ticketID == null || !ticketID.startsWith(ApplicationConstants.INTAKE_TICKET_ID_PREFIX)) {
+			return false;
+		}
+		// The ID holds the time it was handed out and its number in this intake's sequence
+		String[] parts = ticketID.substring(ApplicationConstants.INTAKE_TICKET_ID_PREFIX.length()).split("-");
+		if (parts.length != 2) {
+			return false;
+		}
+		try {
+			long issuedMillis = Long.parseLong(parts[0]);
+			long sequence = Long.parseLong(parts[1]);
+			return issuedMillis >= createdMillis && sequence >= 1 && sequence <= ticketSequence.get()
+					&& !tickets.containsKey(ticketID);
+		} catch (NumberFormatException e) {
+			return false;
+		}
+	}
+
+	/**
+	 * Returns the number of submissions waiting to be validated or stored.
+	 *
+	 * @return the backlog of the intake
+	 */
+	public int getBacklog() {
+		return submitted.size() + validated.size();
+	}
+
+	// ============================================================================
+	// VALIDATION
+	// ============================================================================
+
+	private void validate() {
+		while (running || !submitted.isEmpty()) {
+			Ticket ticket;
+			try {
+				ticket = running ? submitted.take() : submitted.poll();
+			} catch (InterruptedException e) {
+				continue;
+			}
+			if (ticket == null) {
+				continue;
+			}
+			try {
+				String reason = checkEligibility(ticket);
+				if (reason != null) {
+					reject(ticket, reason);
+				} else {
+					validated.add(ticket);
+				}
+			} catch (RuntimeException e) {
+				reject(ticket, "Application could not be validated");
+			}
+		}
+	}
+
+	/**
+	 * Checks the rules that need no coordination with other submissions.
+	 *
+	 * @return the reason the submission is rejected, or null if it is valid
+	 */
+	private static String checkEligibility(Ticket ticket) {
+		Applicant applicant = ticket.applicant;
+		Project project = ticket.project;
+		if (applicant == null || project == null || ticket.flatType == null) {
+			return "Applicant, project and flat type are required";
+		}
+		if (applicant instanceof Officer) {
+			Officer officer = (Officer) applicant;
+			if (officer.isAssignedToProject(project) || !OfficerController.isEligibleForProject(officer, project)) {
+				return "Not eligible for this project";
+			}
+		} else if (!ApplicantController.isEligibleForProject(applicant, project)) {
+			return "Not eligible for this project";
+		}
+		if (!offers(project, ticket.flatType)) {
+			return "Project does not offer " + ticket.flatType;
+		}
+		if (!Applicant.isEligibleForFlatType(applicant.getMaritalStatus(), applicant.getAge(), ticket.flatType)) {
+			return "Not eligible for " + ticket.flatType;
+		}
+		if (hasActiveApplication(applicant)) {
+			return "An active application already exists";
+		}
+		return null;
+	}
+
+	private static boolean offers(Project project, FlatTypeEnum type) {
+		if (project.getFlatTypes() == null) {
+			return false;
+		}
+		for (FlatType flatType : project.getFlatTypes()) {
+			if (flatType != null && flatType.getType() == type) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static boolean hasActiveApplication(Applicant applicant) {
+		for (BTOApplication application : BTOApplication.findApplicationsByApplicantNric(applicant.getNric())) {
+			if (application.isActive()) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	// ============================================================================
+	// COMMIT
+	// ============================================================================
+
+	private void commit() {
+		List<Ticket> batch = new ArrayList<>(batchSize);
+		while (committing || !validated.isEmpty()) {
+			try {
+				Ticket first = validated.poll(batchWaitMillis + 100, TimeUnit.MILLISECONDS);
+				evictExpiredTickets();
+				if (first == null) {
+					continue;
+				}
+				batch.add(first);
+				// Give the validators a moment to fill the batch
+				if (batchWaitMillis > 0 && validated.size() < batchSize - 1) {
+					Thread.sleep(batchWaitMillis);
+				}
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				return;
+			}
+			validated.drainTo(batch, batchSize - batch.size());
+			if (!batch.isEmpty()) {
+				commitBatch(batch);
+				batch.clear();
+			}
+		}
+	}
+
+	/**
+	 * Stores a batch of validated applications. The one-active-application rule
+	 * is checked again here, on the only thread storing intake applications, so
+	 * two submissions by the same applicant cannot both be accepted.
+	 */
+	private void commitBatch(List<Ticket> batch) {
+		List<Ticket> accepted = new ArrayList<>(batch.size());
+		List<BTOApplication> applications = new ArrayList<>(batch.size());
+		Set<String> applicantsInBatch = new HashSet<>();
+		for (Ticket ticket : batch) {
+			if (!applicantsInBatch.add(ticket.applicant.getNric()) || hasActiveApplication(ticket.applicant)) {
+				reject(ticket, "An active application already exists");
+				continue;
+			}
+			// The applicant is set afterwards, so the application joins the applicant's list only once stored
+			BTOApplication application = new BTOApplication(nextApplicationID(), null, ticket.project, ticket.flatType);
+			application.setApplicant(ticket.applicant);
+			application.setApplicationDate(LocalDate.now());
+			application.setStatus(BTOApplicationStatusEnum.PENDING);
+			application.setWithdrawalStatus(WithdrawalStatusEnum.NA);
+			accepted.add(ticket);
+			applications.add(application);
+		}
+		if (applications.isEmpty()) {
+			return;
+		}
+
+		try {
+			ChangeTracker.coalesce(() -> {
+				BTOApplication.addAllToDatabase(applications);
+				for (BTOApplication application : applications) {
+					application.getApplicant().addApplication(application);
+				}
+				Journal.recordPut(applications.toArray());
+			});
+		} catch (RuntimeException e) {
+			for (Ticket ticket : accepted) {
+				reject(ticket, "Application could not be stored");
+			}
+			return;
+		}
+		for (int i = 0; i < accepted.size(); i++) {
+			accept(accepted.get(i), applications.get(i));
+		}
+	}
+
+	/**
+	 * Returns a new application ID. A batch is created within a millisecond or
+	 * two, so IDs are numbered in sequence instead of drawn at random, and the
+	 * number is skipped if an application already has the ID.
+	 */
+	private String nextApplicationID() {
+		String applicationID;
+		do {
+			applicationID = ApplicationConstants.BTO_APPLICATION_ID_PREFIX + System.currentTimeMillis() + "-" + (++applicationSequence);
+		} while (BTOApplication.findApplicationByID(applicationID) != null);
+		return applicationID;
+	}
+
+	// ============================================================================
+	// SETTLEMENT
+	// ============================================================================
+
+	private void accept(Ticket ticket, BTOApplication application) {
+		ticket.accept(application);
+		settled.add(ticket);
+	}
+
+	private void reject(Ticket ticket, String reason) {
+		ticket.reject(reason);
+		settled.add(ticket);
+	}
+
+	/**
+	 * Drops the tickets settled longer ago than the retention time. Tickets are
+	 * queued in the order they were settled, so only the oldest need checking.
+	 */
+	private void evictExpiredTickets() {
+		long cutoff = System.currentTimeMillis() - ticketRetentionMillis;
+		Ticket ticket;
+		while ((ticket = settled.peek()) != null && ticket.settledMillis <= cutoff && settled.remove(ticket)) {
+			tickets.remove(ticket.ticketID);
+		}
+	}
+
+	// ============================================================================
+	// TICKET
+	// ============================================================================
+
+	/**
+	 * Receipt for a submitted application, through which the submitter follows
+	 * it until it is stored or rejected.
+	 */
+	public static class Ticket {
+		private final String ticketID;
+		private final Applicant applicant;
+		private final Project project;
+		private final FlatTypeEnum flatType;
+		private final CountDownLatch done = new CountDownLatch(1);
+		private volatile IntakeStatusEnum status = IntakeStatusEnum.QUEUED;
+		private volatile BTOApplication application;
+		private volatile String reason;
+		private volatile long settledMillis;
+
+		private Ticket(String ticketID, Applicant applicant, Project project, FlatTypeEnum flatType) {
+			this.ticketID = ticketID;
+			this.applicant = applicant;
+			this.project = project;
+			this.flatType = flatType;
+		}
+
+		/**
+		 * Gets the ID of the ticket.
+		 *
+		 * @return the ticket ID
+		 */
+		public String getTicketID() {
+			return this.ticketID;
+		}
+
+		/**
+		 * Gets the applicant who submitted the application.
+		 *
+		 * @return the applicant
+		 */
+		public Applicant getApplicant() {
+			return this.applicant;
+		}
+
+		/**
+		 * Gets the project applied for.
+		 *
+		 * @return the project
+		 */
+		public Project getProject() {
+			return this.project;
+		}
+
+		/**
+		 * Gets the flat type applied for.
+		 *
+		 * @return the flat type
+		 */
+		public FlatTypeEnum getFlatType() {
+			return this.flatType;
+		}
+
+		/**
+		 * Gets the progress of the submission.
+		 *
+		 * @return QUEUED until the submission is accepted or rejected
+		 */
+		public IntakeStatusEnum getStatus() {
+			return this.status;
+		}
+
+		/**
+		 * Gets the application created for the submission.
+		 *
+		 * @return the stored application, or null unless the status is ACCEPTED
+		 */
+		public BTOApplication getApplication() {
+			return this.application;
+		}
+
+		/**
+		 * Gets the reason the submission was rejected.
+		 *
+		 * @return the reason, or null unless the status is REJECTED
+		 */
+		public String getReason() {
+			return this.reason;
+		}
+
+		/**
+		 * Waits until the submission has been accepted or rejected.
+		 *
+		 * @param timeoutMillis the longest time to wait in milliseconds
+		 * @return the status of the submission; still QUEUED if the time ran out
+		 */
+		public IntakeStatusEnum await(long timeoutMillis) {
+			try {
+				done.await(timeoutMillis, TimeUnit.MILLISECONDS);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			return this.status;
+		}
+
+		private void accept(BTOApplication application) {
+			this.application = application;
+			this.settledMillis = System.currentTimeMillis();
+			this.status = IntakeStatusEnum.ACCEPTED;
+			done.countDown();
+		}
+
+		private void reject(String reason) {
+			this.reason = reason;
+			this.settledMillis = System.currentTimeMillis();
+			this.status = IntakeStatusEnum.REJECTED;
+			done.countDown();
+		}
+	}
+}
@@ -1,7 +1,9 @@
 package controller;
 
+import database.IdentityDirectory;
 import entity.*;
 import interfaces.IAuth;
+import utils.Auth;
 
 /**
  * Central authentication controller for the BTO Management System.
@@ -13,9 +15,9 @@ import interfaces.IAuth;
  * <h2>Authentication Flow:</h2>
  * <ol>
  *   <li>Validate input credentials (non-null, non-empty)</li>
- *   <li>Attempt authentication as Applicant using {@link ApplicantAuth}</li>
- *   <li>If not found, attempt authentication as Manager using {@link ManagerAuth}</li>
- *   <li>If not found, attempt authentication as Officer using {@link OfficerAuth}</li>
+ *   <li>Look up the account in the {@link IdentityDirectory} with a single NRIC lookup</li>
+ *   <li>Dispatch on the account's role to {@link ApplicantAuth}, {@link ManagerAuth}
+ *       or {@link OfficerAuth}, which opens the matching view</li>
  *   <li>Return authentication result</li>
  * </ol>
  * 
@@ -75,9 +77,10 @@ public class AuthController {
     /**
      * Main authentication method that verifies credentials and redirects to appropriate view.
      * 
-     * <p>This method attempts to authenticate the user against all user databases
-     * in sequence: Applicant, Manager, then Officer. The first successful match
-     * determines the user's role and triggers the appropriate menu display.</p>
+     * <p>This method looks the NRIC up in the identity directory, which covers
+     * all user databases. The first account whose password matches determines
+     * the user's role and triggers the appropriate menu display. Should several
+     * accounts share an NRIC, they are tried in the following order.</p>
      * 
      * <h3>Authentication Order:</h3>
      * <ol>
@@ -86,9 +89,9 @@ public class AuthController {
      *   <li><strong>Officer:</strong> Staff who process applications and bookings</li>
      * </ol>
      * 
-     * <p><strong>Note:</strong> Officers are also Applicants (inheritance), so they
-     * may be authenticated as Applicants first. The auth controllers handle this
-     * by checking the most specific type first.</p>
+     * <p><strong>Note:</strong> Officers are also Applicants (inheritance), but the
+     * role comes from the database an account is stored in, so officers log in
+     * as officers.</p>
      * 
      * @param nric     the NRIC identification number provided by the user;
      *                 must be non-null and non-empty
@@ -108,11 +111,14 @@ public class AuthController {
             return false;
         }
  
-        // Try to authenticate as different user types using strategy pattern
-        User user = null;
-        if (user == null) user = authenticateUser(nric, password, new ApplicantAuth());
-        if (user == null) user = authenticateUser(nric, password, new ManagerAuth());
-        if (user == null) user = authenticateUser(nric, password, new OfficerAuth());
+        // One directory lookup finds the account and the role it logs in with
+        IdentityDirectory.Account account = Auth.authenticate(nric, password);
+        if (account == null) {
+            return false;
+        }
+
+        // Dispatch to the authentication strategy of that role
+        User user = authenticateUser(nric, password, strategyFor(account.getRole()));
 
         return (user != null);
     }
@@ -136,4 +142,21 @@ public class AuthController {
     private static User authenticateUser(String nric, String password, IAuth authController) {
         return authController.authenticate(nric, password);
     }
+
+    /**
+     * Selects the authentication strategy for a role.
+     * 
+     * @param role the role of the account logging in
+     * @return the strategy that opens the view for that role
+     */
+    private static IAuth strategyFor(IdentityDirectory.Role role) {
+        switch (role) {
+            case MANAGER:
+                return new ManagerAuth();
+            case OFFICER:
+                return new OfficerAuth();
+            default:
+                return new ApplicantAuth();
+        }
+    }
 }
\ No newline at end of file
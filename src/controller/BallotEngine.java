@@ -0,0 +1,266 @@
+package controller;
+
+import database.ChangeTracker;
+import entity.*;
+import enums.*;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+import utils.Journal;
+
+/**
+ * Ballot that settles all pending applications of oversubscribed projects at once.
+ *
+ * <p>Approving applications one at a time with
+ * {@link ManagerController#processApplication(BTOApplication, boolean)} does
+ * not scale to thousands of applicants per project. For each flat type of a
+ * project, the ballot puts the pending applications in a random order and
+ * marks as many as there are units left {@link BTOApplicationStatusEnum#SUCCESSFUL},
+ * and the rest {@link BTOApplicationStatusEnum#UNSUCCESSFUL}. Units left are
+ * {@link FlatType#getNumUnits()} less the applications already successful or
+ * booked, so a project can be balloted again for applications submitted later.</p>
+ *
+ * <h2>Reproducibility:</h2>
+ * <p>The order is drawn from a seed. Applications are first sorted by ID, and
+ * each project and flat type is drawn with its own random generator, derived
+ * from the seed, the project name and the flat type. Drawing the same
+ * applications with the same seed therefore gives the same result, whatever
+ * order the applications were loaded in and however the projects are spread
+ * over threads, so a published seed lets anyone check a ballot.</p>
+ *
+ * <h2>Parallelism:</h2>
+ * <p>Projects are drawn in parallel on a {@link ForkJoinPool}. Each project's
+ * outcome is stored in one write to the database and one journal append.
+ * Applications with a pending withdrawal request are left pending for the
+ * manager to settle first. The draw itself runs outside any lock; the units
+ * left are then counted and the winners picked under the database's write
+ * lock, the same lock
+ * {@link ManagerController#processApplication(BTOApplication, boolean)} takes,
+ * so an application settled by hand while its project is being drawn is passed
+ * over in favour of the next one drawn.</p>
+ *
+ * <h2>Usage Example:</h2>
+ * <pre>{@code
+ * BallotEngine engine = new BallotEngine();
+ * BallotEngine.BallotResult result = engine.draw(project, 20250415L);
+ * int winners = result.getSuccessful().size();
+ * }</pre>
+ *
+ * @author BTO Management System Team
+ * @version 2.0
+ * @since 2.0
+ * @see ManagerController#runBallot(Collection, long)
+ */
+public class BallotEngine {
+
+	private final ForkJoinPool pool;
+
+	/**
+	 * Creates a ballot engine that draws projects on the common fork-join pool.
+	 */
+	public BallotEngine() {
+		this(ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * Creates a ballot engine that draws projects on the given pool.
+	 *
+	 * @param pool the pool to draw projects on
+	 */
+	public BallotEngine(ForkJoinPool pool) {
+		this.pool = pool;
+	}
+
+	/**
+	 * Draws the ballot of one project.
+	 *
+	 * @param project the project to draw
+	 * @param seed the seed of the random order
+	 * @return the outcome of the ballot
+	 */
+	public BallotResult draw(Project project, long seed) {
+		return drawAll(Collections.singletonList(project), seed).get(0);
+	}
+
+	/**
+	 * Draws the ballots of several projects in parallel.
+	 *
+	 * @param projects the projects to draw
+	 * @param seed the seed of the random order, shared by all projects
+	 * @return the outcome of each ballot, in the order of the projects
+	 */
+	public ArrayList<BallotResult> drawAll(Collection<Project> projects, long seed) {
+		List<RecursiveTask<BallotResult>> tasks = new ArrayList<>(projects.size());
+		for (Project project : projects) {
+			tasks.add(new RecursiveTask<BallotResult>() {
+				@Override
+				protected BallotResult compute() {
+					return drawProject(project, seed);
+				}
+			});
+		}
+		pool.invoke(new RecursiveTask<Void>() {
+			@Override
+			protected Void compute() {
+				ForkJoinTask.invokeAll(tasks);
+				return null;
+			}
+		});
+
+		ArrayList<BallotResult> results = new ArrayList<>(tasks.size());
+		for (RecursiveTask<BallotResult> task : tasks) {
+			results.add(task.join());
+		}
+		return results;
+	}
+
+	private static BallotResult drawProject(Project project, long seed) {
+		// Group the pending applications by flat type, in ID order
+		Map<FlatTypeEnum, List<BTOApplication>> pending = new EnumMap<>(FlatTypeEnum.class);
+		for (BTOApplication application : BTOApplication.findApplicationsByProjectAndStatus(project, BTOApplicationStatusEnum.PENDING)) {
+			WithdrawalStatusEnum withdrawal = application.getWithdrawalStatus();
+			if (application.getFlatType() != null && withdrawal != WithdrawalStatusEnum.PENDING && withdrawal != WithdrawalStatusEnum.APPROVED) {
+				pending.computeIfAbsent(application.getFlatType(), type -> new ArrayList<>()).add(application);
+			}
+		}
+
+		for (Map.Entry<FlatTypeEnum, List<BTOApplication>> entry : pending.entrySet()) {
+			List<BTOApplication> drawn = entry.getValue();
+			drawn.sort(Comparator.comparing(BTOApplication::getApplicationID, Comparator.nullsFirst(Comparator.naturalOrder())));
+			shuffle(drawn, new SplittableRandom(seedOf(seed, project, entry.getKey())));
+		}
+
+		// The units left are counted and the winners picked under one write lock
+		Map<BTOApplicationStatusEnum, List<BTOApplication>> outcomes = new EnumMap<>(BTOApplicationStatusEnum.class);
+		ChangeTracker.coalesce(() -> {
+			outcomes.putAll(BTOApplication.settleBallot(pending, type -> unitsLeft(project, type)));
+			List<BTOApplication> changed = new ArrayList<>(outcomes.get(BTOApplicationStatusEnum.SUCCESSFUL));
+			changed.addAll(outcomes.get(BTOApplicationStatusEnum.UNSUCCESSFUL));
+			Journal.recordPut(changed.toArray());
+		});
+		return new BallotResult(project, seed, outcomes.get(BTOApplicationStatusEnum.SUCCESSFUL), outcomes.get(BTOApplicationStatusEnum.UNSUCCESSFUL));
+	}
+
+	/**
+	 * Returns the units of a flat type not yet taken by successful or booked applications.
+	 */
+	private static int unitsLeft(Project project, FlatTypeEnum type) {
+		int units = 0;
+		if (project.getFlatTypes() != null) {
+			for (FlatType flatType : project.getFlatTypes()) {
+				if (flatType != null && flatType.getType() == type) {
+					units += flatType.getNumUnits();
+				}
+			}
+		}
+		for (BTOApplicationStatusEnum status : EnumSet.of(BTOApplicationStatusEnum.SUCCESSFUL, BTOApplicationStatusEnum.BOOKED)) {
+			for (BTOApplication application : BTOApplication.findApplicationsByProjectAndStatus(project, status)) {
+				if (application.getFlatType() == type && application.isActive()) {
+					units--;
+				}
+			}
+		}
+		return Math.max(0, units);
+	}
+
+	/**
+	 * Derives the seed of one project and flat type, so that each draw is
+	 * independent of which other projects are drawn and in what order.
+	 */
+	private static long seedOf(long seed, Project project, FlatTypeEnum type) {
+		String name = project.getProjectName() != null ? project.getProjectName() : "";
+		long mixed = seed;
+		mixed = mix(mixed + name.hashCode());
+		mixed = mix(mixed + type.ordinal());
+		return mixed;
+	}
+
+	/**
+	 * Scrambles the bits of a value (the finalizer of the SplitMix64 generator).
+	 */
+	private static long mix(long z) {
+		z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+		z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+		return z ^ (z >>> 31);
+	}
+
+	/**
+	 * Puts a list in a random order (Fisher-Yates shuffle).
+	 */
+	private static <T> void shuffle(List<T> list, SplittableRandom random) {
+		for (int i = list.size() - 1; i > 0; i--) {
+			Collections.swap(list, i, random.nextInt(i + 1));
+		}
+	}
+
+	/**
+	 * The outcome of the ballot of one project.
+	 */
+	public static class BallotResult {
+		private final Project project;
+		private final long seed;
+		private final List<BTOApplication> successful;
+		private final List<BTOApplication> unsuccessful;
+
+		private BallotResult(Project project, long seed, List<BTOApplication> successful, List<BTOApplication> unsuccessful) {
+			this.project = project;
+			this.seed = seed;
+			this.successful = Collections.unmodifiableList(successful);
+			this.unsuccessful = Collections.unmodifiableList(unsuccessful);
+		}
+
+		/**
+		 * Gets the project that was drawn.
+		 *
+		 * @return the project
+		 */
+		public Project getProject() {
+			return this.project;
+		}
+
+		/**
+		 * Gets the seed the ballot was drawn with.
+		 *
+		 * @return the seed
+		 */
+		public long getSeed() {
+			return this.seed;
+		}
+
+		/**
+		 * Gets the applications marked successful, by flat type and in the order drawn.
+		 *
+		 * @return an unmodifiable list of the successful applications
+		 */
+		public List<BTOApplication> getSuccessful() {
+			return this.successful;
+		}
+
+		/**
+		 * Gets the applications marked unsuccessful, by flat type and in the
+		 * order drawn, which is also the order of the waiting list.
+		 *
+		 * @return an unmodifiable list of the unsuccessful applications
+		 */
+		public List<BTOApplication> getUnsuccessful() {
+			return this.unsuccessful;
+		}
+
+		/**
+		 * Counts the successful applications for a flat type.
+		 *
+		 * @param type the flat type
+		 * @return the number of units allocated by the ballot
+		 */
+		public int countSuccessful(FlatTypeEnum type) {
+			int count = 0;
+			for (BTOApplication application : this.successful) {
+				if (application.getFlatType() == type) {
+					count++;
+				}
+			}
+			return count;
+		}
+	}
+}
@@ -1,5 +1,6 @@
 package controller;
 
+import database.IdentityDirectory;
 import interfaces.IAuth;
 import utils.Auth;
 import utils.DisplayMenu;
@@ -18,7 +19,7 @@ public class ManagerAuth implements IAuth {
      */
     @Override
     public User authenticate(String nric, String password) {
-        Manager user = (Manager)Auth.authenticate(Manager.getAllManagers(), nric, password);
+        Manager user = (Manager)Auth.authenticate(IdentityDirectory.Role.MANAGER, nric, password);
                 if (user != null) {
             DisplayMenu.displayMenu(new ManagerView(user));
         }
@@ -2,9 +2,14 @@ package controller;
 
 import entity.*;
 import enums.*;
+import utils.Journal;
 import utils.ValidationUtils;
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
 
 /**
  * Controller class for Manager-specific operations in the BTO Management System.
@@ -85,16 +90,7 @@ public class ManagerController {
 	 * @return List of projects that match the filter criteria
 	 */
 	public ArrayList<Project> getFilteredProjects(Filter filter) {
-		ArrayList<Project> allProjects = Project.getAllProjects();
-		ArrayList<Project> filteredProjects = new ArrayList<>();
-		
-		for (Project project : allProjects) {
-			if (filter.matchesProject(project)) {
-				filteredProjects.add(project);
-			}
-		}
-		
-		return filteredProjects;
+		return Project.findProjectsMatching(filter);
 	}
 
 	/**
@@ -129,12 +125,14 @@ public class ManagerController {
 			return false;
 		}
 		
+		String previousName = project.getProjectName();
 		project.setProjectName(projectName);
 		project.setNeighborhood(neighborhood);
 		project.setApplicationStartDate(applicationStartDate);
 		project.setApplicationEndDate(applicationEndDate);
 		project.setFlatTypes(flatTypes);
 		
+		Journal.recordRename(previousName, project);
 		return true;
 	}
 
@@ -150,7 +148,11 @@ public class ManagerController {
 			return false;
 		}
 		
-		return Project.removeFromDatabase(project);
+		boolean removed = Project.removeFromDatabase(project);
+		if (removed) {
+			Journal.recordDelete(project);
+		}
+		return removed;
 	}
 
 	/**
@@ -167,6 +169,7 @@ public class ManagerController {
 		}
 		
 		project.setVisibility(visibility);
+		Journal.recordPut(project);
 		return true;
 	}
 
@@ -184,6 +187,25 @@ public class ManagerController {
 	 * @return The newly created Project object, or null if creation failed
 	 */
 	public Project createProject(Manager manager, String projectName, String neighborhood, LocalDate applicationStartDate, LocalDate applicationEndDate, int officerSlots, VisibilityEnum visibility) {
+		return createProject(manager, projectName, neighborhood, applicationStartDate, applicationEndDate, officerSlots, visibility, null);
+	}
+
+	/**
+	 * Creates a new housing project with its flat types in the system.
+	 * The flat types are added before the project is stored, so the project
+	 * is recorded once, complete.
+	 * 
+	 * @param manager The manager who will oversee this project
+	 * @param projectName Name of the new project
+	 * @param neighborhood Location/area of the project
+	 * @param applicationStartDate Date when applications will begin
+	 * @param applicationEndDate Date when applications will close
+	 * @param officerSlots Number of officers needed for this project
+	 * @param visibility Initial visibility status for the project
+	 * @param flatTypes The flat types offered by the project, or null for none
+	 * @return The newly created Project object, or null if creation failed
+	 */
+	public Project createProject(Manager manager, String projectName, String neighborhood, LocalDate applicationStartDate, LocalDate applicationEndDate, int officerSlots, VisibilityEnum visibility, Collection<FlatType> flatTypes) {
 		// Basic validation
 		if (manager == null || projectName == null || neighborhood == null || 
 				applicationStartDate == null || applicationEndDate == null) {
@@ -204,6 +226,11 @@ public class ManagerController {
 		project.setApplicationEndDate(applicationEndDate);
 		project.setOfficerSlots(officerSlots);
 		project.setVisibility(visibility);
+		if (flatTypes != null) {
+			for (FlatType flatType : flatTypes) {
+				project.addFlatType(flatType);
+			}
+		}
 		
 		// Add to database
 		boolean added = Project.addToDatabase(project);
@@ -212,6 +239,7 @@ public class ManagerController {
 			// Set the manager and add project to manager's list
 			project.setManager(manager);
 			manager.addProject(project);
+			Journal.recordPut(project);
 			return project;
 		}
 		
@@ -230,15 +258,9 @@ public class ManagerController {
 	private boolean canManageProject(Manager manager, LocalDate startDate, LocalDate endDate) {
 		ArrayList<Project> managedProjects = getManagedProjects(manager);
 		
-		// Check for date conflicts
-		for (Project managedProject : managedProjects) {
-			// Check if application periods overlap
-			LocalDate existingStart = managedProject.getApplicationStartDate();
-			LocalDate existingEnd = managedProject.getApplicationEndDate();
-			
-			// Check for overlap
-			if ((startDate.isBefore(existingEnd) || startDate.isEqual(existingEnd)) && 
-				(endDate.isAfter(existingStart) || endDate.isEqual(existingStart))) {
+		// Check for date conflicts with the projects whose application periods overlap
+		for (Project project : Project.findProjectsWithApplicationPeriodOverlapping(startDate, endDate)) {
+			if (managedProjects.contains(project)) {
 				return false;
 			}
 		}
@@ -254,16 +276,7 @@ public class ManagerController {
 	 * @return List of BTO applications for the specified project
 	 */
 	public ArrayList<BTOApplication> getApplicationsByProject(Project project) {
-		ArrayList<BTOApplication> allApplications = BTOApplication.getAllApplications();
-		ArrayList<BTOApplication> projectApplications = new ArrayList<>();
-		
-		for (BTOApplication app : allApplications) {
-			if (app.getProject().getProjectName().equals(project.getProjectName())) {
-				projectApplications.add(app);
-			}
-		}
-		
-		return projectApplications;
+		return BTOApplication.findApplicationsByProject(project);
 	}
 
 	/**
@@ -279,21 +292,33 @@ public class ManagerController {
 			return false;
 		}
 		
-		// Check if application is pending
-		if (application.getStatus() != BTOApplicationStatusEnum.PENDING) {
+		// Only a pending application is settled; a ballot running at the same time may settle it first
+		BTOApplicationStatusEnum status = approve ? BTOApplicationStatusEnum.SUCCESSFUL : BTOApplicationStatusEnum.UNSUCCESSFUL;
+		if (!application.changeStatus(BTOApplicationStatusEnum.PENDING, status)) {
 			return false;
 		}
 		
-		// Update status
-		if (approve) {
-			application.setStatus(BTOApplicationStatusEnum.SUCCESSFUL);
-		} else {
-			application.setStatus(BTOApplicationStatusEnum.UNSUCCESSFUL);
-		}
-		
+		Journal.recordPut(application);
 		return true;
 	}
 
+	/**
+	 * Settles all pending applications of the given projects by ballot, drawn
+	 * in parallel. For each flat type, as many applications as there are units
+	 * left are marked successful and the rest unsuccessful.
+	 * 
+	 * @param projects The projects to ballot
+	 * @param seed The seed of the random order; the same seed gives the same result
+	 * @return The outcome of each ballot, in the order of the projects
+	 * @see BallotEngine
+	 */
+	public ArrayList<BallotEngine.BallotResult> runBallot(Collection<Project> projects, long seed) {
+		if (projects == null || projects.isEmpty()) {
+			return new ArrayList<>();
+		}
+		return new BallotEngine().drawAll(projects, seed);
+	}
+
 	/**
 	 * Processes a withdrawal request from an applicant.
 	 * Allows managers to approve or reject requested withdrawals.
@@ -307,32 +332,24 @@ public class ManagerController {
 			return false;
 		}
 		
-		// Check if application has a pending withdrawal request
-		if (application.getWithdrawalStatus() != WithdrawalStatusEnum.PENDING) {
+		// Settle the pending withdrawal request, unless another manager already did
+		WithdrawalStatusEnum outcome = approved ? WithdrawalStatusEnum.APPROVED : WithdrawalStatusEnum.REJECTED;
+		if (!application.changeWithdrawalStatus(WithdrawalStatusEnum.PENDING, outcome)) {
 			return false;
 		}
 		
-		// Update withdrawal status
 		if (approved) {
-			application.setWithdrawalStatus(WithdrawalStatusEnum.APPROVED);
-			
 			// If the application is booked, increase available units
 			if (application.getStatus() == BTOApplicationStatusEnum.BOOKED) {
-				// Find the flat type in the project
-				for (FlatType flatType : application.getProject().getFlatTypes()) {
-					if (flatType.getType() == application.getFlatType()) {
-						flatType.increaseAvailableUnits();
-						break;
-					}
-				}
+				// Return the booked unit to the project's inventory
+				FlatInventory.restock(application.getProject(), application.getFlatType());
 
 				// Update application status to withdrawn
 				application.setStatus(BTOApplicationStatusEnum.WITHDRAWN);
 			}
-		} else {
-			application.setWithdrawalStatus(WithdrawalStatusEnum.REJECTED);
 		}
 		
+		Journal.recordPut(application, application.getProject());
 		return true;
 	}
 
@@ -400,6 +417,7 @@ public class ManagerController {
 	        application.setStatus(OfficerApplicationStatusEnum.REJECTED);
 	    }
 	    
+	    Journal.recordPut(application, project);
 	    return true;
 	}
 
@@ -438,36 +456,13 @@ public class ManagerController {
 		ArrayList<Applicant> allApplicants = generateApplicantReport();
 		ArrayList<Applicant> filteredApplicants = new ArrayList<>();
 		
+		// Look up the applicants and officers matching the age and marital status filters in the indexes
+		Set<Applicant> matchingUsers = Collections.newSetFromMap(new IdentityHashMap<>());
+		matchingUsers.addAll(Applicant.findApplicantsByAgesAndMaritalStatuses(filter.getAge(), filter.getMaritalStatus()));
+		matchingUsers.addAll(Officer.findOfficersByAgesAndMaritalStatuses(filter.getAge(), filter.getMaritalStatus()));
+		
 		for (Applicant applicant : allApplicants) {
-			boolean matchesFilter = true;
-			
-			// Filter by age if specified
-			if (filter.getAge() != null && !filter.getAge().isEmpty()) {
-				boolean ageMatches = false;
-				for (Integer age : filter.getAge()) {
-					if (applicant.getAge() == age) {
-						ageMatches = true;
-						break;
-					}
-				}
-				if (!ageMatches) {
-					matchesFilter = false;
-				}
-			}
-			
-			// Filter by marital status if specified
-			if (matchesFilter && filter.getMaritalStatus() != null && !filter.getMaritalStatus().isEmpty()) {
-				boolean statusMatches = false;
-				for (MarriageStatusEnum status : filter.getMaritalStatus()) {
-					if (applicant.getMaritalStatus() == status) {
-						statusMatches = true;
-						break;
-					}
-				}
-				if (!statusMatches) {
-					matchesFilter = false;
-				}
-			}
+			boolean matchesFilter = matchingUsers.contains(applicant);
 			
 			// Check application details if needed for project name and flat type filters
 			if (matchesFilter && (filter.getProjectName() != null || filter.getFlatType() != null) && 
@@ -524,25 +519,7 @@ public class ManagerController {
 	 * @param manager
 	 */
 	public ArrayList<Enquiry> getPendingEnquiriesByManagedProjects(Manager manager) {
-		ArrayList<Enquiry> allEnquiries = getEnquiriesByManagedProjects(manager);
-		ArrayList<Enquiry> pendingEnquiries = new ArrayList<>();
-		
-		// Get all projects managed by this manager
-		ArrayList<Project> managedProjects = manager.getManagedProjects();
-		
-		for (Enquiry enquiry : allEnquiries) {
-			if (enquiry.getStatus() == EnquiryStatusEnum.PENDING) {
-				// Check if enquiry is for a project managed by this manager
-				for (Project project : managedProjects) {
-					if (enquiry.getProject().getProjectName().equals(project.getProjectName())) {
-						pendingEnquiries.add(enquiry);
-						break;
-					}
-				}
-			}
-		}
-		
-		return pendingEnquiries;
+		return Enquiry.findEnquiriesByProjectsAndStatus(manager.getManagedProjects(), EnquiryStatusEnum.PENDING);
 	}
 
 	/**
@@ -602,6 +579,7 @@ public class ManagerController {
 		enquiry.setReplyDate(LocalDate.now());
 		enquiry.setStatus(EnquiryStatusEnum.REPLIED);
 		
+		Journal.recordPut(enquiry);
 		return true;
 	}
 	
@@ -635,6 +613,7 @@ public class ManagerController {
 		}
 		
 		manager.setPassword(newPassword);
+		Journal.recordPut(manager);
 		return true;
 	}
 	
@@ -648,10 +627,12 @@ public class ManagerController {
 	 */
 	public void editProfile(Manager manager, String name, String nric, int age, MarriageStatusEnum maritalStatus) {
 		if (manager != null) {
+			String previousNric = manager.getNric();
 			manager.setName(name);
 			manager.setNric(nric);
 			manager.setAge(age);
 			manager.setMaritalStatus(maritalStatus);
+			Journal.recordRename(previousNric, manager);
 		}
 	}
 
@@ -1,5 +1,6 @@
 package controller;
 
+import database.IdentityDirectory;
 import interfaces.IAuth;
 import boundary.officerview.*;
 import entity.*;
@@ -18,7 +19,7 @@ public class OfficerAuth implements IAuth {
      */
     @Override
     public User authenticate(String nric, String password) {
-        Officer user = (Officer)Auth.authenticate(Officer.getAllOfficers(), nric, password);
+        Officer user = (Officer)Auth.authenticate(IdentityDirectory.Role.OFFICER, nric, password);
         if (user != null) {
             DisplayMenu.displayMenu(new OfficerView(user));
         }
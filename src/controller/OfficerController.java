@@ -2,8 +2,12 @@ package controller;
 
 import entity.*;
 import enums.*;
+import utils.Journal;
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
 
 /**
  * Controller class for managing all officer-related business logic in the BTO Management System.
@@ -76,16 +80,7 @@ public class OfficerController {
 	 * @return List of visible projects in the system
 	 */
 	public ArrayList<Project> getAllVisibleProjects() {
-		ArrayList<Project> allProjects = Project.getAllProjects();
-		ArrayList<Project> visibleProjects = new ArrayList<>();
-		
-		for (Project project : allProjects) {
-			if (project.getVisibility() == VisibilityEnum.VISIBLE) {
-				visibleProjects.add(project);
-			}
-		}
-		
-		return visibleProjects;
+		return Project.findProjectsByVisibility(VisibilityEnum.VISIBLE);
 	}
 
 	/**
@@ -120,16 +115,7 @@ public class OfficerController {
 	 * @return List of projects matching the filter criteria
 	 */
 	public ArrayList<Project> getFilteredProjects(Officer officer, Filter filter) {
-		ArrayList<Project> allProjects = getEligibleProjects(officer);
-		ArrayList<Project> filteredProjects = new ArrayList<>();
-		
-		for (Project project : allProjects) {
-			if (project.getVisibility() == VisibilityEnum.VISIBLE && filter.matchesProject(project)) {
-				filteredProjects.add(project);
-			}
-		}
-		
-		return filteredProjects;
+		return Project.findProjectsMatching(filter, VisibilityEnum.VISIBLE, getEligibleProjects(officer));
 	}
 
 	/**
@@ -198,6 +184,7 @@ public class OfficerController {
 		boolean added = OfficerApplication.addToDatabase(application);
 		
 		if (added) {
+			Journal.recordPut(application);
 			return application;
 		}
 		
@@ -230,34 +217,24 @@ public class OfficerController {
 	        return false;
 	    }
 
-		// Check if flatType has enoughh units
-		boolean flatTypeCheck = false;
-		for (FlatType flatType : project.getFlatTypes()){
-			if (booking.getFlatType() == flatType.getType() && flatType.getAvailableUnits() > 0) flatTypeCheck = true;
+		// Reserve a unit first so that officers confirming bookings at once cannot oversell
+		if (!FlatInventory.reserve(project, booking.getFlatType())) {
+			return false;
 		}
-		if (!flatTypeCheck) return false;
 
-	    // Set processing officer and confirm booking
+	    // Confirm the booking unless another officer already processed it
+	    if (!booking.changeStatus(BookingStatusEnum.PENDING, BookingStatusEnum.CONFIRMED)) {
+	        FlatInventory.release(project, booking.getFlatType());
+	        return false;
+	    }
+	    FlatInventory.commit(project, booking.getFlatType());
 	    booking.setProcessingOfficer(officer);
-	    booking.setStatus(BookingStatusEnum.CONFIRMED);
 	    
 	    // Update application status to BOOKED
 	    BTOApplication application = booking.getApplication();
 	    application.setStatus(BTOApplicationStatusEnum.BOOKED);
 	    
-	    // Update flat type availability
-	    FlatType flatType = null;
-	    for (FlatType ft : project.getFlatTypes()) {
-	        if (ft.getType() == booking.getFlatType()) {
-	            flatType = ft;
-	            break;
-	        }
-	    }
-	    
-	    if (flatType != null) {
-	        flatType.decreaseAvailableUnits();
-	    }
-	    
+	    Journal.recordPut(booking, application, project);
 	    return true;
 	}
 
@@ -296,6 +273,7 @@ public class OfficerController {
 	    // Add the application to the database
 	    boolean added = BTOApplication.addToDatabase(application);
 	    if (added) {
+	        Journal.recordPut(application);
 	        return application;
 	    }
 	    
@@ -327,6 +305,7 @@ public class OfficerController {
 		
 		// Update withdrawal status to pending
 		application.setWithdrawalStatus(WithdrawalStatusEnum.PENDING);
+		Journal.recordPut(application);
 		return true;
 	}
 
@@ -345,8 +324,7 @@ public class OfficerController {
 			return false;
 		}
 		
-		// Check if flat type is available
-		if (flatType == null || flatType.getAvailableUnits() <= 0) {
+		if (flatType == null) {
 			return false;
 		}
 		
@@ -362,10 +340,10 @@ public class OfficerController {
 			}
 		}
 
+		// Reserve a unit of the flat type so it cannot be sold twice
 		Project project = application.getProject();
-		// Check if available flatType
-		for (FlatType flatType2 : project.getFlatTypes()){
-			if (flatType2.getType() == flatType.getType() && flatType2.getAvailableUnits() <=0) return false;
+		if (!FlatInventory.reserve(project, flatType.getType())) {
+			return false;
 		}
 		
 		// Create a new booking with pending status
@@ -382,18 +360,17 @@ public class OfficerController {
 			// Add booking to officer's bookings list
 			officer.addBooking(booking);
 			
-			// Update flat type availability
-			boolean updated = flatType.decreaseAvailableUnits();
-			if (!updated) {
-				return false;
-			}
+			// Book the reserved unit
+			FlatInventory.commit(project, flatType.getType());
 			
 			// Update application status
 			application.setStatus(BTOApplicationStatusEnum.BOOKED);
 			
+			Journal.recordPut(booking, application, project);
 			return true;
 		}
 		
+		FlatInventory.release(project, flatType.getType());
 		return false;
 	}
 
@@ -423,6 +400,7 @@ public class OfficerController {
 		boolean added = Enquiry.addToDatabase(enquiry);
 		
 		if (added) {
+			Journal.recordPut(enquiry);
 			return enquiry;
 		}
 		
@@ -465,6 +443,7 @@ public class OfficerController {
 		}
 		
 		enquiry.setContent(newContent);
+		Journal.recordPut(enquiry);
 		return true;
 	}
 
@@ -479,7 +458,11 @@ public class OfficerController {
 			return false;
 		}
 		
-		return Enquiry.removeFromDatabase(enquiry);
+		boolean removed = Enquiry.removeFromDatabase(enquiry);
+		if (removed) {
+			Journal.recordDelete(enquiry);
+		}
+		return removed;
 	}
 
 	/**
@@ -503,16 +486,7 @@ public class OfficerController {
 	 * @return List of all applications for the project
 	 */
 	public ArrayList<BTOApplication> getApplicationsByProject(Project project) {
-		ArrayList<BTOApplication> allApplications = BTOApplication.getAllApplications();
-		ArrayList<BTOApplication> projectApplications = new ArrayList<>();
-		
-		for (BTOApplication app : allApplications) {
-			if (app.getProject().getProjectName().equals(project.getProjectName())) {
-				projectApplications.add(app);
-			}
-		}
-		
-		return projectApplications;
+		return BTOApplication.findApplicationsByProject(project);
 	}
 	
 	/**
@@ -523,17 +497,7 @@ public class OfficerController {
 	 * @return List of applications matching the project and status
 	 */
 	public ArrayList<BTOApplication> getApplicationsByProjectAndStatus(Project project, BTOApplicationStatusEnum status) {
-		ArrayList<BTOApplication> allApplications = BTOApplication.getAllApplications();
-		ArrayList<BTOApplication> filteredApplications = new ArrayList<>();
-		
-		for (BTOApplication app : allApplications) {
-			if (app.getProject().getProjectName().equals(project.getProjectName()) &&
-					app.getStatus() == status) {
-				filteredApplications.add(app);
-			}
-		}
-		
-		return filteredApplications;
+		return BTOApplication.findApplicationsByProjectAndStatus(project, status);
 	}
 
 	/**
@@ -584,18 +548,7 @@ public class OfficerController {
 	 * @return List of pending enquiries for the project
 	 */
 	public ArrayList<Enquiry> getPendingEnquiriesByProject(Project project) {
-		ArrayList<Enquiry> allEnquiries = Enquiry.getAllEnquiries();
-		ArrayList<Enquiry> pendingEnquiries = new ArrayList<>();
-		
-		for (Enquiry enquiry : allEnquiries) {
-			if (enquiry.getProject() != null && 
-					enquiry.getProject().getProjectName().equals(project.getProjectName()) &&
-					enquiry.getStatus() == EnquiryStatusEnum.PENDING) {
-				pendingEnquiries.add(enquiry);
-			}
-		}
-		
-		return pendingEnquiries;
+		return Enquiry.findEnquiriesByProjectsAndStatus(Collections.singletonList(project), EnquiryStatusEnum.PENDING);
 	}
 
 	/**
@@ -605,28 +558,12 @@ public class OfficerController {
 	 * @return List of pending enquiries for projects managed by the officer
 	 */
 	public ArrayList<Enquiry> getPendingEnquiriesByOfficerProjects(Officer officer) {
-		ArrayList<Enquiry> allEnquiries = Enquiry.getAllEnquiries();
-		ArrayList<Enquiry> pendingEnquiries = new ArrayList<>();
-		
 		ArrayList<Project> assignedProjects = officer.getAssignedProjects();
 		if (assignedProjects == null || assignedProjects.isEmpty()) {
-			return pendingEnquiries;
-		}
-		
-		for (Enquiry enquiry : allEnquiries) {
-			if (enquiry.getProject() != null && 
-				enquiry.getStatus() == EnquiryStatusEnum.PENDING) {
-				// Check if the enquiry is for any of the officer's assigned projects
-				for (Project project : assignedProjects) {
-					if (enquiry.getProject().getProjectName().equals(project.getProjectName())) {
-						pendingEnquiries.add(enquiry);
-						break;
-					}
-				}
-			}
+			return new ArrayList<>();
 		}
 		
-		return pendingEnquiries;
+		return Enquiry.findEnquiriesByProjectsAndStatus(assignedProjects, EnquiryStatusEnum.PENDING);
 	}
 
 	/**
@@ -691,6 +628,7 @@ public class OfficerController {
 		enquiry.setReplyDate(LocalDate.now());
 		enquiry.setStatus(EnquiryStatusEnum.REPLIED);
 		
+		Journal.recordPut(enquiry);
 		return true;
 	}
 
@@ -705,10 +643,12 @@ public class OfficerController {
 	 */
 	public void editProfile(Officer officer, String name, String nric, int age, MarriageStatusEnum maritalStatus) {
 		if (officer != null) {
+			String previousNric = officer.getNric();
 			officer.setName(name);
 			officer.setNric(nric);
 			officer.setAge(age);
 			officer.setMaritalStatus(maritalStatus);
+			Journal.recordRename(previousNric, officer);
 		}
 	}
 
@@ -732,6 +672,7 @@ public class OfficerController {
 		}
 		
 		officer.setPassword(newPassword);
+		Journal.recordPut(officer);
 		return true;
 	}
 	
@@ -806,11 +747,12 @@ public class OfficerController {
 			return false;
 		}
 		
-		ArrayList<BTOApplication> allApplications = BTOApplication.getAllApplications();
+		// Only the applications submitted under the officer's NRIC need to be checked
+		ArrayList<BTOApplication> officerApplications = BTOApplication.findApplicationsByApplicantNric(officer.getNric());
 		
-		for (BTOApplication app : allApplications) {
+		for (BTOApplication app : officerApplications) {
 			if (app.getStatus() != BTOApplicationStatusEnum.WITHDRAWN && app.getStatus() != BTOApplicationStatusEnum.UNSUCCESSFUL){
-				if (app.getApplicant().getNric().equals(officer.getNric()) && app.getProject().getProjectName().equals(project.getProjectName())) {
+				if (app.getProject() != null && app.getProject().getProjectName().equals(project.getProjectName())) {
 					return true;
 				}
 			}
@@ -831,13 +773,8 @@ public class OfficerController {
 		ArrayList<BTOApplication> applications = officer.getApplications();
 		
         for (BTOApplication app : applications) {
-            // Consider an application active if it's pending or successful and not withdrawn
-            if ((app.getStatus() == BTOApplicationStatusEnum.PENDING || 
-                app.getStatus() == BTOApplicationStatusEnum.SUCCESSFUL||
-				app.getStatus() == BTOApplicationStatusEnum.BOOKED) && 
-                (app.getWithdrawalStatus() == WithdrawalStatusEnum.NA||
-				app.getWithdrawalStatus() == WithdrawalStatusEnum.PENDING ||
-				app.getWithdrawalStatus() == WithdrawalStatusEnum.REJECTED)) {
+            // Consider an application active if it's pending, successful or booked and not withdrawn
+            if (app.isActive()) {
                 return true;
             }
 		}
@@ -856,22 +793,8 @@ public class OfficerController {
 	 * @return True if the officer is eligible, false otherwise
 	 */
 	public static boolean isEligibleForFlatType(Officer officer, FlatTypeEnum flatType) {
-		// Singles must be 35+ and can only apply for 2-room flats
-        if (officer.getMaritalStatus() == MarriageStatusEnum.SINGLE) {
-            if (officer.getAge() < 35) {
-                return false;
-            }
-            
-            if (flatType != FlatTypeEnum.TWO_ROOM) {
-                return false;
-            }
-        }
-		else if (officer.getMaritalStatus() == MarriageStatusEnum.MARRIED){
-			if (officer.getAge() < 21) {
-				return false;
-			}
-		}
-		return true; // Eligible for the flat type
+		// Singles must be 35+ and can only apply for 2-room flats; married applicants must be 21+
+		return Applicant.isEligibleForFlatType(officer.getMaritalStatus(), officer.getAge(), flatType);
 	}
 
 	/**
@@ -912,13 +835,19 @@ public class OfficerController {
 	    
 	    // Add receipt to database
 	    boolean success = Receipt.addToDatabase(receipt);
+	    if (success) {
+	        Journal.recordPut(receipt);
+	    }
 	    
 	    return success ? receipt : null;
 	}
 
 	/**
      * Checks if an officer is eligible to register for a project.
-     * Verifies the officer is not already assigned and the project has slots.
+     * Verifies the officer is not already assigned and the project has slots,
+     * and that registering would not cause a conflict of interest: the officer
+     * must not have applied for the project, nor manage another project whose
+     * application period overlaps it.
      * 
      * @param officer The officer to check
      * @param project The project to register for
@@ -935,7 +864,15 @@ public class OfficerController {
 			return false;
 		}
 
-		// Add additional eligibility criteria as needed
+		// Check if officer has applied for this project as an applicant
+		if (hasAppliedForProject(officer, project)) {
+			return false;
+		}
+
+		// Check if officer already manages a project in an overlapping application period
+		if (officer.hasAssignedProjectOverlapping(project.getApplicationStartDate(), project.getApplicationEndDate())) {
+			return false;
+		}
 
 		return true;
 	}
@@ -949,35 +886,44 @@ public class OfficerController {
 	 * @return List of projects the officer is eligible to apply for
 	 */
 	public ArrayList<Project> getEligibleProjects(Officer officer) {
-		ArrayList<Project> allProjects = Project.getAllProjects();
-		ArrayList<Project> eligibleProjects = new ArrayList<>();
+		Set<Project> eligibleProjects = Collections.newSetFromMap(new IdentityHashMap<>());
 		
-		for (Project project : allProjects) {
-			// Check if project is visible or if officer has already applied for it
-			if ((project.getVisibility() == VisibilityEnum.VISIBLE && isEligibleForProject(officer, project)) || hasAppliedForProject(officer, project)) {
+		// Projects open today with a flat type for the officer's profile come from the eligibility matrix
+		for (Project project : Project.findEligibleProjectsOpenOn(officer.getMaritalStatus(), officer.getAge(), LocalDate.now(), null)) {
+			// Officers cannot apply for a project they are attached to
+			if (!officer.isAssignedToProject(project)) {
 				eligibleProjects.add(project);
 			}
 		}
 		
-		return eligibleProjects;
+		// Projects the officer has already applied for are always included
+		for (BTOApplication app : BTOApplication.findApplicationsByApplicantNric(officer.getNric())) {
+			if (app.getStatus() != BTOApplicationStatusEnum.WITHDRAWN && app.getStatus() != BTOApplicationStatusEnum.UNSUCCESSFUL && app.getProject() != null) {
+				Project project = Project.findProjectByName(app.getProject().getProjectName());
+				if (project != null) {
+					eligibleProjects.add(project);
+				}
+			}
+		}
+		
+		return Project.inDatabaseOrder(eligibleProjects);
 	}
 	
+	/**
+	 * Retrieves the visible projects an officer can register to handle.
+	 * 
+	 * @param officer The officer to check eligibility for
+	 * @return List of projects the officer is eligible to register for
+	 * @see #isEligibleForProjectRegistration(Officer, Project)
+	 */
 	public ArrayList<Project> getEligibleProjectForRegistration(Officer officer) {
 		// Get available projects
 		ArrayList<Project> availableProjects = getAllVisibleProjects();
 		ArrayList<Project> eligibleProjects = new ArrayList<>();
 		
 		for (Project project : availableProjects) {
-			// Skip projects the officer is already assigned to
-			if (officer.isAssignedToProject(project)) {
-				continue;
-			}
-			
-			int usedSlots = project.getAssignedOfficers().size();
-			int availableSlots = project.getOfficerSlots() - usedSlots;
-			
-			// Only show projects with available slots
-			if (availableSlots > 0 && isEligibleForProjectRegistration(officer, project)) {
+			// Checks assignment, available slots and conflicts of interest against the officer's indexes
+			if (isEligibleForProjectRegistration(officer, project)) {
 				eligibleProjects.add(project);
 			}
 		}
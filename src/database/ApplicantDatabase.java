@@ -3,6 +3,7 @@ package database;
 import interfaces.*;
 import java.util.*;
 import entity.*;
+import enums.*;
 
 /**
  * Database management class for Applicant entities in the BTO system.
@@ -14,33 +15,175 @@ public class ApplicantDatabase implements IDatabasePrintable {
 	/**
 	 * Collection of all applicants in the system
 	 */
-	private ArrayList<Applicant> applicants;
+	private final IndexedRepository<Applicant> applicants;
+
+	/**
+	 * Indexes on the fields applicants are looked up by.
+	 */
+	private final IndexedRepository.UniqueIndex<String, Applicant> byName;
+	private final IndexedRepository.UniqueIndex<String, Applicant> byNric;
+	private final IndexedRepository.Index<Integer, Applicant> byAge;
+	private final IndexedRepository.EnumIndex<MarriageStatusEnum, Applicant> byMaritalStatus;
+
+	/**
+	 * Changes to the applicants since they were last written to their data file.
+	 */
+	private final ChangeTracker<Applicant> changes = new ChangeTracker<>();
 
 	/**
 	 * Default constructor that initializes an empty applicant database.
 	 * Creates a new empty collection to store applicant records.
 	 */
 	public ApplicantDatabase() {
-		this.applicants = new ArrayList<>();
+		this.applicants = new IndexedRepository<>();
+		this.byName = applicants.addUniqueIndex(User::getName);
+		this.byNric = applicants.addUniqueNricIndex(User::getNric);
+		this.byAge = applicants.addIndex(User::getAge);
+		this.byMaritalStatus = applicants.addEnumIndex(MarriageStatusEnum.class, User::getMaritalStatus);
 	}
 
 	/**
 	 * Updates the entire collection of applicants in the database.
 	 * Replaces any existing applicants with the provided collection.
+	 * Tracked changes are cleared, as the new collection is taken to match the data file.
 	 * 
 	 * @param applicants The new collection of applicants to store
 	 */
 	public void setApplicants(ArrayList<Applicant> applicants) {
-		this.applicants = applicants;
+		this.applicants.setAll(applicants);
+		this.changes.clear();
+		IdentityDirectory.registerAll(IdentityDirectory.Role.APPLICANT, this.applicants.snapshot());
 	}
 
 	/**
 	 * Retrieves the complete collection of applicants from the database.
 	 * 
-	 * @return List of all applicants currently in the database
+	 * @return List of all applicants currently in the database; a new list, so changing it does not change the database
 	 */
 	public ArrayList<Applicant> getApplicants() {
-		return this.applicants;
+		return this.applicants.getAll();
+	}
+
+	/**
+	 * Retrieves the changes to the applicants since they were last written.
+	 * 
+	 * @return the change tracker of this database
+	 */
+	public ChangeTracker<Applicant> getChanges() {
+		return this.changes;
+	}
+
+	/**
+	 * Adds an applicant to the database, its indexes and the identity directory.
+	 * 
+	 * @param applicant The applicant to add
+	 * @return true if added, false if null or already in the database
+	 */
+	public boolean add(Applicant applicant) {
+		if (!this.applicants.add(applicant)) {
+			return false;
+		}
+		IdentityDirectory.register(IdentityDirectory.Role.APPLICANT, applicant);
+		return true;
+	}
+
+	/**
+	 * Removes an applicant from the database, its indexes and the identity directory.
+	 * 
+	 * @param applicant The applicant to remove
+	 * @return true if removed, false if not in the database
+	 */
+	public boolean remove(Applicant applicant) {
+		if (!this.applicants.remove(applicant)) {
+			return false;
+		}
+		IdentityDirectory.unregister(applicant);
+		return true;
+	}
+
+	/**
+	 * Checks whether an applicant is in the database.
+	 * 
+	 * @param applicant The applicant to look for
+	 * @return true if this exact applicant is stored
+	 */
+	public boolean contains(Applicant applicant) {
+		return this.applicants.contains(applicant);
+	}
+
+	/**
+	 * Updates the indexes and the identity directory after an indexed field of an applicant has changed.
+	 * 
+	 * @param applicant The changed applicant
+	 */
+	public void reindex(Applicant applicant) {
+		this.applicants.reindex(applicant);
+		IdentityDirectory.rekey(applicant);
+	}
+
+	/**
+	 * Finds the applicant with the given name.
+	 * 
+	 * @param name The name to look up
+	 * @return The matching applicant, or null if none
+	 */
+	public Applicant findByName(String name) {
+		return this.byName.find(name);
+	}
+
+	/**
+	 * Finds the applicant with the given NRIC.
+	 * 
+	 * @param nric The NRIC to look up
+	 * @return The matching applicant, or null if none
+	 */
+	public Applicant findByNric(String nric) {
+		return this.byNric.find(nric);
+	}
+
+	/**
+	 * Finds the applicants with the given age.
+	 * 
+	 * @param age The age to look up
+	 * @return A new list of matching applicants, in the order they were indexed
+	 */
+	public ArrayList<Applicant> findByAge(int age) {
+		return this.byAge.findAll(age);
+	}
+
+	/**
+	 * Finds the applicants with the given marital status.
+	 * 
+	 * @param maritalStatus The marital status to look up
+	 * @return A new list of matching applicants, in the order they were indexed
+	 */
+	public ArrayList<Applicant> findByMaritalStatus(MarriageStatusEnum maritalStatus) {
+		return this.byMaritalStatus.findAll(maritalStatus);
+	}
+
+	/**
+	 * Finds the applicants with one of the given ages and one of the given marital statuses.
+	 * The conditions are combined as bitmaps of the age and marital status indexes.
+	 * 
+	 * @param ages The ages to accept; null or empty accepts any age
+	 * @param maritalStatuses The marital statuses to accept; null or empty accepts any status
+	 * @return A new list of matching applicants, in the order they were added
+	 */
+	public ArrayList<Applicant> findByAgesAndMaritalStatuses(Collection<Integer> ages, Collection<MarriageStatusEnum> maritalStatuses) {
+		return this.applicants.read(() -> {
+			BitSet rows = this.applicants.allRows();
+			if (ages != null && !ages.isEmpty()) {
+				BitSet ageRows = new BitSet();
+				for (Integer age : ages) {
+					ageRows.or(this.byAge.rows(age));
+				}
+				rows.and(ageRows);
+			}
+			if (maritalStatuses != null && !maritalStatuses.isEmpty()) {
+				rows.and(this.byMaritalStatus.rowsAnyOf(maritalStatuses));
+			}
+			return this.applicants.select(rows);
+		});
 	}
 
 	/**
@@ -51,13 +194,13 @@ public class ApplicantDatabase implements IDatabasePrintable {
 	@Override
 	public void printData() {
 		System.out.println("===================== APPLICANT DATABASE =====================");
-		if (applicants.isEmpty()) {
+		if (applicants.size() == 0) {
 			System.out.println("No applicants found in the database.");
 		} else {
 			System.out.printf("%-20s %-15s %-5s %-10s %-20s %-20s\n", "Name", "NRIC", "Age", "Marital Status", "Applications", "Enquiries");
 			System.out.println("------------------------------------------------------------");
 			
-			for (Applicant applicant : applicants) {
+			for (Applicant applicant : applicants.snapshot()) {
 				System.out.printf("%-20s %-15s %-5d %-10s %-20d %-20d\n", applicant.getName(), applicant.getNric(), applicant.getAge(), applicant.getMaritalStatus(), applicant.getApplications().size(), applicant.getEnquiries().size());
 			}
 		}
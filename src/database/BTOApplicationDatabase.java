@@ -3,6 +3,10 @@ package database;
 import interfaces.*;
 import java.util.*;
 import entity.*;
+import enums.BTOApplicationStatusEnum;
+import enums.FlatTypeEnum;
+import java.time.LocalDate;
+import java.util.function.ToIntFunction;
 
 /**
  * Database class for managing BTO applications in the system.
@@ -14,31 +18,284 @@ public class BTOApplicationDatabase implements IDatabasePrintable {
 	/**
 	 * Collection of all BTO applications in the system
 	 */
-	private ArrayList<BTOApplication> applications;
+	private final IndexedRepository<BTOApplication> applications;
+
+	/**
+	 * Indexes on the fields applications are looked up by.
+	 */
+	private final IndexedRepository.UniqueIndex<String, BTOApplication> byID;
+	private final IndexedRepository.DateIndex<BTOApplication> byDate;
+	private final IndexedRepository.Index<String, BTOApplication> byApplicantNric;
+	private final IndexedRepository.Index<Project, BTOApplication> byProject;
+	private final IndexedRepository.Index<ProjectStatusKey, BTOApplication> byProjectAndStatus;
+	private final IndexedRepository.EnumIndex<BTOApplicationStatusEnum, BTOApplication> byStatus;
+
+	/**
+	 * Changes to the applications since they were last written to their data file.
+	 */
+	private final ChangeTracker<BTOApplication> changes = new ChangeTracker<>();
 
 	/**
 	 * Default constructor that initializes an empty applications collection
 	 */
 	public BTOApplicationDatabase() {
-		this.applications = new ArrayList<>();
+		this.applications = new IndexedRepository<>();
+		this.byID = applications.addUniqueIndex(BTOApplication::getApplicationID);
+		this.byDate = applications.addDateIndex(BTOApplication::getApplicationDate);
+		this.byApplicantNric = applications.addNricIndex(application -> application.getApplicant() != null ? application.getApplicant().getNric() : null);
+		this.byProject = applications.addIndex(BTOApplication::getProject);
+		this.byProjectAndStatus = applications.addIndex(ProjectStatusKey::of);
+		this.byStatus = applications.addEnumIndex(BTOApplicationStatusEnum.class, BTOApplication::getStatus);
 	}
 
 	/**
-	 * Sets the applications collection to a new list
+	 * Sets the applications collection to a new list.
+	 * Tracked changes are cleared, as the new collection is taken to match the data file.
 	 * 
 	 * @param applications The new list of BTO applications to use
 	 */
 	public void setApplications(ArrayList<BTOApplication> applications) {
-		this.applications = applications;
+		this.applications.setAll(applications);
+		this.changes.clear();
 	}
 
 	/**
 	 * Retrieves the complete list of BTO applications
 	 * 
-	 * @return ArrayList containing all BTO applications in the database
+	 * @return ArrayList containing all BTO applications in the database; a new list, so changing it does not change the database
 	 */
 	public ArrayList<BTOApplication> getApplications() {
-		return this.applications;
+		return this.applications.getAll();
+	}
+
+	/**
+	 * Retrieves the changes to the applications since they were last written.
+	 * 
+	 * @return the change tracker of this database
+	 */
+	public ChangeTracker<BTOApplication> getChanges() {
+		return this.changes;
+	}
+
+	/**
+	 * Adds an application to the database and its indexes.
+	 * 
+	 * @param application The application to add
+	 * @return true if added, false if null or already in the database
+	 */
+	public boolean add(BTOApplication application) {
+		return this.applications.add(application);
+	}
+
+	/**
+	 * Adds several applications to the database and its indexes in one write.
+	 *
+	 * @param applications The applications to add
+	 * @return A new list of the applications that were added
+	 */
+	public ArrayList<BTOApplication> addAll(Collection<BTOApplication> applications) {
+		return this.applications.addAll(applications);
+	}
+
+	/**
+	 * Removes an application from the database and its indexes.
+	 * 
+	 * @param application The application to remove
+	 * @return true if removed, false if not in the database
+	 */
+	public boolean remove(BTOApplication application) {
+		return this.applications.remove(application);
+	}
+
+	/**
+	 * Checks whether an application is in the database.
+	 * 
+	 * @param application The application to look for
+	 * @return true if this exact application is stored
+	 */
+	public boolean contains(BTOApplication application) {
+		return this.applications.contains(application);
+	}
+
+	/**
+	 * Updates the indexes after an indexed field of an application has changed.
+	 * 
+	 * @param application The changed application
+	 */
+	public void reindex(BTOApplication application) {
+		this.applications.reindex(application);
+	}
+
+	/**
+	 * Changes the status of an application only if it still has the expected
+	 * status. The check and the change run under the write lock, so they cannot
+	 * interleave with {@link #changeStatuses(BTOApplicationStatusEnum, Map)}.
+	 *
+	 * @param application The application to change
+	 * @param expected The status the application must still have
+	 * @param status The new status of the application
+	 * @return true if the status was changed, false if the application no longer had the expected status
+	 */
+	public boolean changeStatus(BTOApplication application, BTOApplicationStatusEnum expected, BTOApplicationStatusEnum status) {
+		return this.applications.write(() -> {
+			if (application.getStatus() != expected) {
+				return false;
+			}
+			application.setStatus(status);
+			return true;
+		});
+	}
+
+	/**
+	 * Changes the status of many applications in one write, so readers see
+	 * either none or all of the changes. An application is only changed if it
+	 * is in the database and still has the expected status.
+	 *
+	 * @param expected The status the applications must still have
+	 * @param outcomes The applications to change, by their new status
+	 * @return A new list of the applications that were changed
+	 */
+	public ArrayList<BTOApplication> changeStatuses(BTOApplicationStatusEnum expected, Map<BTOApplicationStatusEnum, ? extends Collection<BTOApplication>> outcomes) {
+		return this.applications.write(() -> {
+			ArrayList<BTOApplication> changed = new ArrayList<>();
+			for (Map.Entry<BTOApplicationStatusEnum, ? extends Collection<BTOApplication>> outcome : outcomes.entrySet()) {
+				for (BTOApplication application : outcome.getValue()) {
+					if (application.getStatus() == expected && this.applications.contains(application)) {
+						// Reindexing runs directly, as this thread already holds the write lock
+						application.setStatus(outcome.getKey());
+						changed.add(application);
+					}
+				}
+			}
+			return changed;
+		});
+	}
+
+	/**
+	 * Settles a ballot in one write. For each flat type, the drawn applications
+	 * that are still pending are marked successful in the drawn order until the
+	 * units left are taken, and the rest unsuccessful. The units left are
+	 * counted under the same write lock, so an application approved by hand just
+	 * before is counted and an application settled by hand is passed over.
+	 *
+	 * @param drawn The applications of each flat type, in the drawn order
+	 * @param unitsLeft Counts the units of a flat type not yet taken; called under the write lock
+	 * @return The applications that were changed, by their new status
+	 */
+	public Map<BTOApplicationStatusEnum, List<BTOApplication>> settleBallot(Map<FlatTypeEnum, ? extends List<BTOApplication>> drawn,
+			ToIntFunction<FlatTypeEnum> unitsLeft) {
+		return this.applications.write(() -> {
+			List<BTOApplication> successful = new ArrayList<>();
+			List<BTOApplication> unsuccessful = new ArrayList<>();
+			for (Map.Entry<FlatTypeEnum, ? extends List<BTOApplication>> entry : drawn.entrySet()) {
+				int units = unitsLeft.applyAsInt(entry.getKey());
+				for (BTOApplication application : entry.getValue()) {
+					if (application.getStatus() != BTOApplicationStatusEnum.PENDING || !this.applications.contains(application)) {
+						continue;
+					}
+					if (units > 0) {
+						application.setStatus(BTOApplicationStatusEnum.SUCCESSFUL);
+						successful.add(application);
+						units--;
+					} else {
+						application.setStatus(BTOApplicationStatusEnum.UNSUCCESSFUL);
+						unsuccessful.add(application);
+					}
+				}
+			}
+			Map<BTOApplicationStatusEnum, List<BTOApplication>> outcomes = new EnumMap<>(BTOApplicationStatusEnum.class);
+			outcomes.put(BTOApplicationStatusEnum.SUCCESSFUL, successful);
+			outcomes.put(BTOApplicationStatusEnum.UNSUCCESSFUL, unsuccessful);
+			return outcomes;
+		});
+	}
+
+	/**
+	 * Finds the application with the given ID.
+	 * 
+	 * @param applicationID The application ID to look up
+	 * @return The matching application, or null if none
+	 */
+	public BTOApplication findByID(String applicationID) {
+		return this.byID.find(applicationID);
+	}
+
+	/**
+	 * Finds the applications with the given date.
+	 * 
+	 * @param date The application date to look up
+	 * @return A new list of matching applications, in the order they were indexed
+	 */
+	public ArrayList<BTOApplication> findByDate(LocalDate date) {
+		return this.byDate.findOn(date);
+	}
+
+	/**
+	 * Finds the applications submitted within a date range, in date order.
+	 * 
+	 * @param from The first date of the range, inclusive; null for no lower bound
+	 * @param to The last date of the range, inclusive; null for no upper bound
+	 * @return A new list of matching applications, ordered by date
+	 */
+	public ArrayList<BTOApplication> findByDateBetween(LocalDate from, LocalDate to) {
+		return this.byDate.findBetween(from, to);
+	}
+
+	/**
+	 * Finds the applications with the given applicant.
+	 * 
+	 * @param applicant The applicant who applied
+	 * @return A new list of matching applications, in the order they were indexed
+	 */
+	public ArrayList<BTOApplication> findByApplicant(Applicant applicant) {
+		ArrayList<BTOApplication> result = this.byApplicantNric.findAll(applicant.getNric());
+		// Another account could share the NRIC
+		result.removeIf(application -> application.getApplicant() != applicant);
+		return result;
+	}
+
+	/**
+	 * Finds the applications of the applicant with the given NRIC.
+	 * 
+	 * @param nric The NRIC of the applicant who applied
+	 * @return A new list of matching applications, in the order they were indexed
+	 */
+	public ArrayList<BTOApplication> findByApplicantNric(String nric) {
+		return this.byApplicantNric.findAll(nric);
+	}
+
+	/**
+	 * Finds the applications with the given project.
+	 * 
+	 * @param project The project applied for
+	 * @return A new list of matching applications, in the order they were indexed
+	 */
+	public ArrayList<BTOApplication> findByProject(Project project) {
+		return this.byProject.findAll(project);
+	}
+
+	/**
+	 * Finds the applications with the given status.
+	 * 
+	 * @param status The application status to look up
+	 * @return A new list of matching applications, in the order they were added
+	 */
+	public ArrayList<BTOApplication> findByStatus(BTOApplicationStatusEnum status) {
+		return this.byStatus.findAll(status);
+	}
+
+	/**
+	 * Finds the applications for the given project that have the given status.
+	 * 
+	 * @param project The project applied for
+	 * @param status The application status
+	 * @return A new list of matching applications, in the order they were indexed
+	 */
+	public ArrayList<BTOApplication> findByProjectAndStatus(Project project, BTOApplicationStatusEnum status) {
+		if (project == null || status == null) {
+			return new ArrayList<>();
+		}
+		return this.byProjectAndStatus.findAll(new ProjectStatusKey(project, status));
 	}
 
 	/**
@@ -48,13 +305,13 @@ public class BTOApplicationDatabase implements IDatabasePrintable {
 	@Override
 	public void printData() {
 		System.out.println("===================== BTO APPLICATION DATABASE =====================");
-		if (applications.isEmpty()) {
+		if (applications.size() == 0) {
 			System.out.println("No BTO applications found in the database.");
 		} else {
 			System.out.printf("%-15s %-20s %-20s %-10s %-15s %-15s\n", "Date", "Applicant", "Project", "Flat Type", "Status", "Withdrawal");
 			System.out.println("------------------------------------------------------------------");
 			
-			for (BTOApplication application : applications) {
+			for (BTOApplication application : applications.snapshot()) {
 				String applicantName = application.getApplicant() != null ? application.getApplicant().getName() : "N/A";
 				String projectName = application.getProject() != null ? application.getProject().getProjectName() : "N/A";
 						
@@ -63,4 +320,42 @@ public class BTOApplicationDatabase implements IDatabasePrintable {
 		}
 		System.out.println("===================================================================");
 	}
+
+	/**
+	 * Key of the composite project and status index. Projects are compared by
+	 * identity, like in the project index.
+	 */
+	private static final class ProjectStatusKey {
+		private final Project project;
+		private final BTOApplicationStatusEnum status;
+
+		private ProjectStatusKey(Project project, BTOApplicationStatusEnum status) {
+			this.project = project;
+			this.status = status;
+		}
+
+		/**
+		 * Returns the key of an application, or null if its project or status is not set.
+		 */
+		private static ProjectStatusKey of(BTOApplication application) {
+			if (application.getProject() == null || application.getStatus() == null) {
+				return null;
+			}
+			return new ProjectStatusKey(application.getProject(), application.getStatus());
+		}
+
+		@Override
+		public boolean equals(Object other) {
+			if (!(other instanceof ProjectStatusKey)) {
+				return false;
+			}
+			ProjectStatusKey key = (ProjectStatusKey) other;
+			return this.project == key.project && this.status == key.status;
+		}
+
+		@Override
+		public int hashCode() {
+			return System.identityHashCode(this.project) * 31 + this.status.hashCode();
+		}
+	}
 }
\ No newline at end of file
@@ -3,6 +3,8 @@ package database;
 import entity.*;
 import interfaces.*;
 import java.util.*;
+import java.time.LocalDate;
+import enums.*;
 
 /**
  * Database management class for Booking records in the BTO system.
@@ -15,33 +17,163 @@ public class BookingDatabase implements IDatabasePrintable {
 	/**
 	 * Collection of all flat bookings in the system
 	 */
-	private ArrayList<Booking> bookings;
+	private final IndexedRepository<Booking> bookings;
+
+	/**
+	 * Indexes on the fields bookings are looked up by.
+	 */
+	private final IndexedRepository.UniqueIndex<BTOApplication, Booking> byApplication;
+	private final IndexedRepository.DateIndex<Booking> byDate;
+	private final IndexedRepository.Index<Officer, Booking> byOfficer;
+	private final IndexedRepository.EnumIndex<FlatTypeEnum, Booking> byFlatType;
+	private final IndexedRepository.EnumIndex<BookingStatusEnum, Booking> byStatus;
+
+	/**
+	 * Changes to the bookings since they were last written to their data file.
+	 */
+	private final ChangeTracker<Booking> changes = new ChangeTracker<>();
 
 	/**
 	 * Default constructor that initializes an empty booking database.
 	 * Creates a new collection to store booking records.
 	 */
 	public BookingDatabase() {
-		this.bookings = new ArrayList<>();
+		this.bookings = new IndexedRepository<>();
+		this.byApplication = bookings.addUniqueIndex(Booking::getApplication);
+		this.byDate = bookings.addDateIndex(Booking::getBookingDateTime);
+		this.byOfficer = bookings.addIndex(Booking::getProcessingOfficer);
+		this.byFlatType = bookings.addEnumIndex(FlatTypeEnum.class, Booking::getFlatType);
+		this.byStatus = bookings.addEnumIndex(BookingStatusEnum.class, Booking::getStatus);
 	}
 
 	/**
 	 * Updates the entire collection of bookings in the database.
 	 * Replaces any existing bookings with the provided collection.
+	 * Tracked changes are cleared, as the new collection is taken to match the data file.
 	 * 
 	 * @param bookings The new collection of bookings to store
 	 */
 	public void setBookings(ArrayList<Booking> bookings) {
-		this.bookings = bookings;
+		this.bookings.setAll(bookings);
+		this.changes.clear();
 	}
 
 	/**
 	 * Retrieves the complete collection of bookings from the database.
 	 * 
-	 * @return List of all bookings currently in the database
+	 * @return List of all bookings currently in the database; a new list, so changing it does not change the database
 	 */
 	public ArrayList<Booking> getBookings() {
-		return this.bookings;
+		return this.bookings.getAll();
+	}
+
+	/**
+	 * Retrieves the changes to the bookings since they were last written.
+	 * 
+	 * @return the change tracker of this database
+	 */
+	public ChangeTracker<Booking> getChanges() {
+		return this.changes;
+	}
+
+	/**
+	 * Adds a booking to the database and its indexes.
+	 * 
+	 * @param booking The booking to add
+	 * @return true if added, false if null or already in the database
+	 */
+	public boolean add(Booking booking) {
+		return this.bookings.add(booking);
+	}
+
+	/**
+	 * Removes a booking from the database and its indexes.
+	 * 
+	 * @param booking The booking to remove
+	 * @return true if removed, false if not in the database
+	 */
+	public boolean remove(Booking booking) {
+		return this.bookings.remove(booking);
+	}
+
+	/**
+	 * Checks whether a booking is in the database.
+	 * 
+	 * @param booking The booking to look for
+	 * @return true if this exact booking is stored
+	 */
+	public boolean contains(Booking booking) {
+		return this.bookings.contains(booking);
+	}
+
+	/**
+	 * Updates the indexes after an indexed field of a booking has changed.
+	 * 
+	 * @param booking The changed booking
+	 */
+	public void reindex(Booking booking) {
+		this.bookings.reindex(booking);
+	}
+
+	/**
+	 * Finds the booking with the given application.
+	 * 
+	 * @param application The application the booking was made for
+	 * @return The matching booking, or null if none
+	 */
+	public Booking findByApplication(BTOApplication application) {
+		return this.byApplication.find(application);
+	}
+
+	/**
+	 * Finds the bookings with the given date.
+	 * 
+	 * @param date The booking date to look up
+	 * @return A new list of matching bookings, in the order they were indexed
+	 */
+	public ArrayList<Booking> findByDate(LocalDate date) {
+		return this.byDate.findOn(date);
+	}
+
+	/**
+	 * Finds the bookings made within a date range, in date order.
+	 * 
+	 * @param from The first date of the range, inclusive; null for no lower bound
+	 * @param to The last date of the range, inclusive; null for no upper bound
+	 * @return A new list of matching bookings, ordered by date
+	 */
+	public ArrayList<Booking> findByDateBetween(LocalDate from, LocalDate to) {
+		return this.byDate.findBetween(from, to);
+	}
+
+	/**
+	 * Finds the bookings with the given officer.
+	 * 
+	 * @param officer The processing officer
+	 * @return A new list of matching bookings, in the order they were indexed
+	 */
+	public ArrayList<Booking> findByOfficer(Officer officer) {
+		return this.byOfficer.findAll(officer);
+	}
+
+	/**
+	 * Finds the bookings with the given flat type.
+	 * 
+	 * @param flatType The flat type booked
+	 * @return A new list of matching bookings, in the order they were indexed
+	 */
+	public ArrayList<Booking> findByFlatType(FlatTypeEnum flatType) {
+		return this.byFlatType.findAll(flatType);
+	}
+
+	/**
+	 * Finds the bookings with the given status.
+	 * 
+	 * @param status The booking status to look up
+	 * @return A new list of matching bookings, in the order they were indexed
+	 */
+	public ArrayList<Booking> findByStatus(BookingStatusEnum status) {
+		return this.byStatus.findAll(status);
 	}
 
 	/**
@@ -53,13 +185,13 @@ public class BookingDatabase implements IDatabasePrintable {
 	@Override
 	public void printData() {
 		System.out.println("===================== BOOKING DATABASE =====================");
-		if (bookings.isEmpty()) {
+		if (bookings.size() == 0) {
 			System.out.println("No bookings found in the database.");
 		} else {
 			System.out.printf("%-15s %-20s %-20s %-10s %-15s\n", "Date", "Applicant", "Project", "Flat Type", "Status");
 			System.out.println("------------------------------------------------------------");
 			
-			for (Booking booking : bookings) {
+			for (Booking booking : bookings.snapshot()) {
 				String applicantName = booking.getApplication() != null && booking.getApplication().getApplicant() != null ? booking.getApplication().getApplicant().getName() : "N/A";
 				String projectName = booking.getApplication() != null && booking.getApplication().getProject() != null ? booking.getApplication().getProject().getProjectName() : "N/A";
 						
@@ -0,0 +1,225 @@
+package database;
+
+import java.util.*;
+
+/**
+ * Tracks which records of a database have changed since its data file was last written.
+ *
+ * <p>Records added since the last save can be appended to the end of the data
+ * file. Any other change, i.e. a modified or removed record or a change to data
+ * the rows refer to, means the file has to be rewritten. Records that are added
+ * and then modified before the next save are still appended, with their latest
+ * state, since rows are formatted when they are written.</p>
+ *
+ * <p>Records are tracked by identity, so two records that happen to be equal are
+ * never confused. All state is guarded by the tracker's lock, because a save may
+ * run on a background thread while the controllers keep changing the database.</p>
+ *
+ * <p>A change listener, shared by all trackers, is told about every change so
+ * that saves can be scheduled. It is called without holding the tracker's lock.
+ * Changes made inside {@link #coalesce(Runnable)} are reported once, when the
+ * outermost call returns, so a batch of changes counts as one change.</p>
+ *
+ * <h2>Usage Example:</h2>
+ * <pre>{@code
+ * ChangeTracker.Changes<Receipt> changes = receiptDatabase.getChanges().drain();
+ * if (changes.requiresRewrite()) {
+ *     // rewrite the whole file
+ * } else if (!changes.getAdded().isEmpty()) {
+ *     // append changes.getAdded()
+ * }
+ * }</pre>
+ *
+ * @param <T> the type of record held by the database
+ * @author BTO Management System Team
+ * @version 2.0
+ * @since 2.0
+ */
+public class ChangeTracker<T> {
+
+	private final List<T> added = new ArrayList<>();
+	private final Set<T> addedSet = Collections.newSetFromMap(new IdentityHashMap<>());
+	private final Set<T> modified = Collections.newSetFromMap(new IdentityHashMap<>());
+	private boolean stale;
+
+	private static volatile Runnable changeListener;
+
+	/**
+	 * Per thread: the nesting depth of {@link #coalesce(Runnable)} calls, and 1
+	 * if a change was held back while coalescing.
+	 */
+	private static final ThreadLocal<int[]> coalescing = ThreadLocal.withInitial(() -> new int[2]);
+
+	/**
+	 * Sets the listener told about changes to any database, e.g. to schedule a save.
+	 *
+	 * @param listener the listener, or null to remove it
+	 */
+	public static void setChangeListener(Runnable listener) {
+		changeListener = listener;
+	}
+
+	/**
+	 * Runs a batch of changes, telling the change listener about them once when
+	 * the batch is done instead of once per change.
+	 *
+	 * @param batch the changes to make
+	 */
+	public static void coalesce(Runnable batch) {
+		int[] state = coalescing.get();
+		state[0]++;
+		try {
+			batch.run();
+		} finally {
+			if (--state[0] == 0 && state[1] != 0) {
+				state[1] = 0;
+				notifyListener();
+			}
+		}
+	}
+
+	/**
+	 * Records a new record that has not been written yet.
+	 *
+	 * @param record the added record
+	 */
+	public void markAdded(T record) {
+		synchronized (this) {
+			if (addedSet.add(record)) {
+				added.add(record);
+			}
+		}
+		notifyListener();
+	}
+
+	/**
+	 * Records a change to a record that may already have been written.
+	 * Changes to records that have not been written yet need no tracking.
+	 *
+	 * @param record the modified record
+	 */
+	public void markModified(T record) {
+		synchronized (this) {
+			if (!addedSet.contains(record)) {
+				modified.add(record);
+			}
+		}
+		notifyListener();
+	}
+
+	/**
+	 * Records the removal of a record. Removing a record that has not been written
+	 * yet simply forgets it; otherwise the file has to be rewritten.
+	 *
+	 * @param record the removed record
+	 */
+	public void markRemoved(T record) {
+		synchronized (this) {
+			if (addedSet.remove(record)) {
+				added.remove(record);
+			} else {
+				modified.remove(record);
+				stale = true;
+			}
+		}
+		notifyListener();
+	}
+
+	/**
+	 * Forces the next save to rewrite the file, e.g. because data the rows refer
+	 * to by name has been renamed, or because an earlier save failed.
+	 */
+	public void markStale() {
+		synchronized (this) {
+			stale = true;
+		}
+		notifyListener();
+	}
+
+	/**
+	 * Checks whether anything has changed since the last save.
+	 *
+	 * @return true if the data file is out of date
+	 */
+	public synchronized boolean isDirty() {
+		return stale || !modified.isEmpty() || !added.isEmpty();
+	}
+
+	/**
+	 * Forgets all tracked changes, e.g. after the database has been loaded from
+	 * or fully written to its data file.
+	 */
+	public synchronized void clear() {
+		added.clear();
+		addedSet.clear();
+		modified.clear();
+		stale = false;
+	}
+
+	/**
+	 * Returns the tracked changes and starts tracking afresh. Changes made while
+	 * the returned changes are being written are tracked for the next save.
+	 *
+	 * @return the changes since the last save
+	 */
+	public synchronized Changes<T> drain() {
+		Changes<T> changes = new Changes<>(new ArrayList<>(added), stale || !modified.isEmpty());
+		clear();
+		return changes;
+	}
+
+	private static void notifyListener() {
+		int[] state = coalescing.get();
+		if (state[0] > 0) {
+			state[1] = 1;
+			return;
+		}
+		Runnable listener = changeListener;
+		if (listener != null) {
+			listener.run();
+		}
+	}
+
+	/**
+	 * The changes to a database between two saves.
+	 *
+	 * @param <T> the type of record held by the database
+	 */
+	public static class Changes<T> {
+
+		private final List<T> added;
+		private final boolean requiresRewrite;
+
+		private Changes(List<T> added, boolean requiresRewrite) {
+			this.added = added;
+			this.requiresRewrite = requiresRewrite;
+		}
+
+		/**
+		 * Returns the records added since the last save, in the order they were added.
+		 *
+		 * @return the added records
+		 */
+		public List<T> getAdded() {
+			return added;
+		}
+
+		/**
+		 * Checks whether the file has to be rewritten rather than appended to.
+		 *
+		 * @return true if existing rows changed or were removed
+		 */
+		public boolean requiresRewrite() {
+			return requiresRewrite;
+		}
+
+		/**
+		 * Checks whether there is nothing to write.
+		 *
+		 * @return true if nothing changed
+		 */
+		public boolean isEmpty() {
+			return !requiresRewrite && added.isEmpty();
+		}
+	}
+}
@@ -0,0 +1,131 @@
+package database;
+
+import entity.*;
+import enums.*;
+import java.util.*;
+import utils.ApplicationConstants;
+
+/**
+ * Precomputed eligibility of every project for each applicant profile class.
+ *
+ * <p>Whether an applicant may apply for a project only depends on the
+ * applicant's marital status and age and on the project's flat types; see
+ * {@link Applicant#isEligibleForAnyFlatType(MarriageStatusEnum, int, Project)}.
+ * The rules only compare the age with
+ * {@link ApplicationConstants#MIN_AGE_MARRIED_APPLICANT} and
+ * {@link ApplicationConstants#MIN_AGE_SINGLE_APPLICANT}, so all ages between
+ * two of these limits form one age band with the same eligibility. The matrix
+ * keeps one bitmap of project rows per marital status and age band, and
+ * listing the projects an applicant is eligible for becomes a lookup.</p>
+ *
+ * <p>The matrix is an index of the project repository, so only the column of
+ * a refiled project is checked again, such as after its flat types change;
+ * no other project is looked at. Visibility and application period are left
+ * to the other project indexes and combined with the matrix per lookup.</p>
+ *
+ * @author BTO Management System Team
+ * @version 2.0
+ * @since 2.0
+ * @see ProjectDatabase#findEligibleOpenOn(MarriageStatusEnum, int, java.time.LocalDate, VisibilityEnum)
+ */
+public class EligibilityMatrix extends IndexedRepository.RowIndex<Project> {
+
+	/**
+	 * Lowest age of each age band but the first, in ascending order.
+	 */
+	private static final int[] AGE_LIMITS = ageLimits();
+
+	/**
+	 * Marital statuses of the profile classes; the last class is for applicants without one.
+	 */
+	private static final MarriageStatusEnum[] STATUSES = Arrays.copyOf(MarriageStatusEnum.values(), MarriageStatusEnum.values().length + 1);
+
+	/**
+	 * Rows of the eligible projects, by profile class.
+	 */
+	private final BitSet[] eligible = new BitSet[STATUSES.length * (AGE_LIMITS.length + 1)];
+
+	private final IndexedRepository<Project> repository;
+
+	EligibilityMatrix(IndexedRepository<Project> repository) {
+		this.repository = repository;
+		for (int i = 0; i < eligible.length; i++) {
+			eligible[i] = new BitSet();
+		}
+	}
+
+	/**
+	 * Returns the rows of the projects an applicant of a given profile may
+	 * apply for, regardless of visibility and application period.
+	 *
+	 * @param maritalStatus the marital status of the applicant
+	 * @param age the age of the applicant
+	 * @return a new bitmap of the eligible rows
+	 */
+	public BitSet rows(MarriageStatusEnum maritalStatus, int age) {
+		BitSet rows = eligible[profileClass(maritalStatus, ageBand(age))];
+		return repository.lookup(() -> (BitSet) rows.clone());
+	}
+
+	@Override
+	void insert(Project project, int row) {
+		for (int i = 0; i < eligible.length; i++) {
+			if (isEligible(project, i)) {
+				eligible[i].set(row);
+			}
+		}
+	}
+
+	@Override
+	void delete(int row) {
+		for (BitSet rows : eligible) {
+			rows.clear(row);
+		}
+	}
+
+	@Override
+	void update(Project project, int row) {
+		for (int i = 0; i < eligible.length; i++) {
+			eligible[i].set(row, isEligible(project, i));
+		}
+	}
+
+	@Override
+	void clear() {
+		for (BitSet rows : eligible) {
+			rows.clear();
+		}
+	}
+
+	/**
+	 * Checks a project for a profile class, using the lowest age of its age band.
+	 */
+	private static boolean isEligible(Project project, int profileClass) {
+		int band = profileClass % (AGE_LIMITS.length + 1);
+		int age = band == 0 ? AGE_LIMITS[0] - 1 : AGE_LIMITS[band - 1];
+		return Applicant.isEligibleForAnyFlatType(STATUSES[profileClass / (AGE_LIMITS.length + 1)], age, project);
+	}
+
+	private static int profileClass(MarriageStatusEnum maritalStatus, int band) {
+		int status = maritalStatus != null ? maritalStatus.ordinal() : STATUSES.length - 1;
+		return status * (AGE_LIMITS.length + 1) + band;
+	}
+
+	private static int ageBand(int age) {
+		int band = 0;
+		while (band < AGE_LIMITS.length && age >= AGE_LIMITS[band]) {
+			band++;
+		}
+		return band;
+	}
+
+	private static int[] ageLimits() {
+		TreeSet<Integer> limits = new TreeSet<>(Arrays.asList(ApplicationConstants.MIN_AGE_MARRIED_APPLICANT, ApplicationConstants.MIN_AGE_SINGLE_APPLICANT));
+		int[] result = new int[limits.size()];
+		int i = 0;
+		for (int limit : limits) {
+			result[i++] = limit;
+		}
+		return result;
+	}
+}
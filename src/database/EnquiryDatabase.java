@@ -3,6 +3,8 @@ package database;
 import interfaces.*;
 import java.util.*;
 import entity.*;
+import java.time.LocalDate;
+import enums.*;
 
 /**
  * Database class for managing enquiries in the system.
@@ -14,31 +16,215 @@ public class EnquiryDatabase implements IDatabasePrintable {
 	/**
 	 * Collection of all enquiries in the system
 	 */
-	private ArrayList<Enquiry> enquiries;
+	private final IndexedRepository<Enquiry> enquiries;
+
+	/**
+	 * Indexes on the fields enquiries are looked up by.
+	 */
+	private final IndexedRepository.UniqueIndex<String, Enquiry> byID;
+	private final IndexedRepository.DateIndex<Enquiry> bySubmittedDate;
+	private final IndexedRepository.Index<Applicant, Enquiry> bySubmitter;
+	private final IndexedRepository.Index<User, Enquiry> byRespondent;
+	private final IndexedRepository.DateIndex<Enquiry> byReplyDate;
+	private final IndexedRepository.Index<Project, Enquiry> byProject;
+	private final IndexedRepository.EnumIndex<EnquiryStatusEnum, Enquiry> byStatus;
+
+	/**
+	 * Changes to the enquiries since they were last written to their data file.
+	 */
+	private final ChangeTracker<Enquiry> changes = new ChangeTracker<>();
 
 	/**
 	 * Default constructor that initializes an empty enquiries collection
 	 */
 	public EnquiryDatabase() {
-		this.enquiries = new ArrayList<>();
+		this.enquiries = new IndexedRepository<>();
+		this.byID = enquiries.addUniqueIndex(Enquiry::getEnquiryID);
+		this.bySubmittedDate = enquiries.addDateIndex(Enquiry::getDateTime);
+		this.bySubmitter = enquiries.addIndex(Enquiry::getSubmittedBy);
+		this.byRespondent = enquiries.addIndex(Enquiry::getRespondent);
+		this.byReplyDate = enquiries.addDateIndex(Enquiry::getReplyDate);
+		this.byProject = enquiries.addIndex(Enquiry::getProject);
+		this.byStatus = enquiries.addEnumIndex(EnquiryStatusEnum.class, Enquiry::getStatus);
 	}
 
 	/**
-	 * Sets the enquiries collection to a new list
+	 * Sets the enquiries collection to a new list.
+	 * Tracked changes are cleared, as the new collection is taken to match the data file.
 	 * 
 	 * @param enquiries The new list of enquiries to use
 	 */
 	public void setEnquiries(ArrayList<Enquiry> enquiries) {
-		this.enquiries = enquiries;
+		this.enquiries.setAll(enquiries);
+		this.changes.clear();
 	}
 
 	/**
 	 * Retrieves the complete list of enquiries
 	 * 
-	 * @return ArrayList containing all enquiries in the database
+	 * @return ArrayList containing all enquiries in the database; a new list, so changing it does not change the database
 	 */
 	public ArrayList<Enquiry> getEnquiries() {
-		return this.enquiries;
+		return this.enquiries.getAll();
+	}
+
+	/**
+	 * Retrieves the changes to the enquiries since they were last written.
+	 * 
+	 * @return the change tracker of this database
+	 */
+	public ChangeTracker<Enquiry> getChanges() {
+		return this.changes;
+	}
+
+	/**
+	 * Adds an enquiry to the database and its indexes.
+	 * 
+	 * @param enquiry The enquiry to add
+	 * @return true if added, false if null or already in the database
+	 */
+	public boolean add(Enquiry enquiry) {
+		return this.enquiries.add(enquiry);
+	}
+
+	/**
+	 * Removes an enquiry from the database and its indexes.
+	 * 
+	 * @param enquiry The enquiry to remove
+	 * @return true if removed, false if not in the database
+	 */
+	public boolean remove(Enquiry enquiry) {
+		return this.enquiries.remove(enquiry);
+	}
+
+	/**
+	 * Checks whether an enquiry is in the database.
+	 * 
+	 * @param enquiry The enquiry to look for
+	 * @return true if this exact enquiry is stored
+	 */
+	public boolean contains(Enquiry enquiry) {
+		return this.enquiries.contains(enquiry);
+	}
+
+	/**
+	 * Updates the indexes after an indexed field of an enquiry has changed.
+	 * 
+	 * @param enquiry The changed enquiry
+	 */
+	public void reindex(Enquiry enquiry) {
+		this.enquiries.reindex(enquiry);
+	}
+
+	/**
+	 * Finds the enquiry with the given ID.
+	 * 
+	 * @param enquiryID The enquiry ID to look up
+	 * @return The matching enquiry, or null if none
+	 */
+	public Enquiry findByID(String enquiryID) {
+		return this.byID.find(enquiryID);
+	}
+
+	/**
+	 * Finds the enquiries with the given submitted date.
+	 * 
+	 * @param date The submission date to look up
+	 * @return A new list of matching enquiries, in the order they were indexed
+	 */
+	public ArrayList<Enquiry> findBySubmittedDate(LocalDate date) {
+		return this.bySubmittedDate.findOn(date);
+	}
+
+	/**
+	 * Finds the enquiries submitted within a date range, in date order.
+	 * 
+	 * @param from The first date of the range, inclusive; null for no lower bound
+	 * @param to The last date of the range, inclusive; null for no upper bound
+	 * @return A new list of matching enquiries, ordered by date
+	 */
+	public ArrayList<Enquiry> findBySubmittedDateBetween(LocalDate from, LocalDate to) {
+		return this.bySubmittedDate.findBetween(from, to);
+	}
+
+	/**
+	 * Finds the enquiries with the given submitter.
+	 * 
+	 * @param submitter The applicant who submitted the enquiries
+	 * @return A new list of matching enquiries, in the order they were indexed
+	 */
+	public ArrayList<Enquiry> findBySubmitter(Applicant submitter) {
+		return this.bySubmitter.findAll(submitter);
+	}
+
+	/**
+	 * Finds the enquiries with the given respondent.
+	 * 
+	 * @param respondent The user who replied
+	 * @return A new list of matching enquiries, in the order they were indexed
+	 */
+	public ArrayList<Enquiry> findByRespondent(User respondent) {
+		return this.byRespondent.findAll(respondent);
+	}
+
+	/**
+	 * Finds the enquiries with the given reply date.
+	 * 
+	 * @param date The reply date to look up
+	 * @return A new list of matching enquiries, in the order they were indexed
+	 */
+	public ArrayList<Enquiry> findByReplyDate(LocalDate date) {
+		return this.byReplyDate.findOn(date);
+	}
+
+	/**
+	 * Finds the enquiries replied to within a date range, in date order.
+	 * 
+	 * @param from The first date of the range, inclusive; null for no lower bound
+	 * @param to The last date of the range, inclusive; null for no upper bound
+	 * @return A new list of matching enquiries, ordered by date
+	 */
+	public ArrayList<Enquiry> findByReplyDateBetween(LocalDate from, LocalDate to) {
+		return this.byReplyDate.findBetween(from, to);
+	}
+
+	/**
+	 * Finds the enquiries with the given project.
+	 * 
+	 * @param project The project enquired about
+	 * @return A new list of matching enquiries, in the order they were indexed
+	 */
+	public ArrayList<Enquiry> findByProject(Project project) {
+		return this.byProject.findAll(project);
+	}
+
+	/**
+	 * Finds the enquiries with the given status.
+	 * 
+	 * @param status The enquiry status to look up
+	 * @return A new list of matching enquiries, in the order they were indexed
+	 */
+	public ArrayList<Enquiry> findByStatus(EnquiryStatusEnum status) {
+		return this.byStatus.findAll(status);
+	}
+
+	/**
+	 * Finds the enquiries about any of the given projects that have the given status.
+	 * The conditions are combined as bitmaps of the project and status indexes.
+	 * 
+	 * @param projects The projects enquired about
+	 * @param status The enquiry status to look up
+	 * @return A new list of matching enquiries, in the order they were added
+	 */
+	public ArrayList<Enquiry> findByProjectsAndStatus(Collection<Project> projects, EnquiryStatusEnum status) {
+		return this.enquiries.read(() -> {
+			BitSet rows = new BitSet();
+			for (Project project : projects) {
+				rows.or(this.byProject.rows(project));
+			}
+			rows.and(this.byStatus.rows(status));
+			return this.enquiries.select(rows);
+		});
 	}
 
 	/**
@@ -48,13 +234,13 @@ public class EnquiryDatabase implements IDatabasePrintable {
 	@Override
 	public void printData() {
 		System.out.println("===================== ENQUIRY DATABASE =====================");
-		if (enquiries.isEmpty()) {
+		if (enquiries.size() == 0) {
 			System.out.println("No enquiries found in the database.");
 		} else {
 			System.out.printf("%-15s %-15s %-20s %-20s %-15s %-20s\n", "Enquiry ID", "Date", "Submitter", "Project", "Status", "Respondent");
 			System.out.println("------------------------------------------------------------");
 			
-			for (Enquiry enquiry : enquiries) {
+			for (Enquiry enquiry : enquiries.snapshot()) {
 				String submitterName = enquiry.getSubmittedBy() != null ? enquiry.getSubmittedBy().getName() : "N/A";
 				String projectName = enquiry.getProject() != null ? enquiry.getProject().getProjectName() : "N/A";
 				String respondentName = enquiry.getRespondent() != null ? enquiry.getRespondent().getName() : "N/A";
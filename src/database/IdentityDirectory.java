@@ -0,0 +1,215 @@
+package database;
+
+import entity.*;
+import java.util.*;
+
+/**
+ * Directory of every user account in the system, keyed by NRIC.
+ *
+ * <p>Applicants, officers and managers are stored in separate databases, so a
+ * login used to scan each user list in turn. The directory maps each NRIC to
+ * the accounts registered under it, together with the role of the database the
+ * account belongs to, so a login is a single hash lookup that also tells which
+ * view to open. Well-formed NRICs are hashed as {@code long} codes; see
+ * {@link NricKeyedMap}.</p>
+ *
+ * <p>The directory is kept up to date by {@link ApplicantDatabase},
+ * {@link OfficerDatabase} and {@link ManagerDatabase}: loading a database
+ * replaces all accounts of its role, adding or removing a user registers or
+ * drops the account, and a change of NRIC moves it to its new key.</p>
+ *
+ * <p>An NRIC normally belongs to one account. Should several accounts share an
+ * NRIC, they are kept in login order (applicant, manager, officer), which is
+ * the order in which the user lists used to be searched.</p>
+ *
+ * @author BTO Management System Team
+ * @version 2.0
+ * @since 2.0
+ * @see utils.Auth
+ */
+public class IdentityDirectory {
+
+	/**
+	 * The role an account was registered with, in login order.
+	 */
+	public enum Role {
+		APPLICANT, MANAGER, OFFICER
+	}
+
+	/**
+	 * Accounts by NRIC: a single {@link Account}, or an {@code Account[]} in
+	 * login order when several accounts share the NRIC.
+	 */
+	private static final Map<String, Object> accountsByNric = new NricKeyedMap<>();
+	private static final Map<User, Account> accountsByUser = new IdentityHashMap<>();
+
+	/**
+	 * Private constructor to prevent instantiation of this utility class.
+	 */
+	private IdentityDirectory() {
+	}
+
+	// ============================================================================
+	// LOOKUP
+	// ============================================================================
+
+	/**
+	 * Returns the accounts registered under an NRIC, in login order.
+	 *
+	 * @param nric the NRIC to look up
+	 * @return the matching accounts, empty if none
+	 */
+	public static synchronized List<Account> lookup(String nric) {
+		Object entry = nric != null ? accountsByNric.get(nric) : null;
+		if (entry == null) {
+			return Collections.emptyList();
+		}
+		if (entry instanceof Account) {
+			return Collections.singletonList((Account) entry);
+		}
+		return Arrays.asList(((Account[]) entry).clone());
+	}
+
+	/**
+	 * Returns the number of registered accounts.
+	 *
+	 * @return the account count
+	 */
+	public static synchronized int size() {
+		return accountsByUser.size();
+	}
+
+	// ============================================================================
+	// MAINTENANCE - called by the user databases
+	// ============================================================================
+
+	/**
+	 * Replaces all accounts of a role, e.g. after a user database has been loaded.
+	 *
+	 * @param role the role of the database
+	 * @param users the users now held by the database
+	 */
+	static synchronized void registerAll(Role role, Collection<? extends User> users) {
+		List<Account> stale = new ArrayList<>();
+		for (Account account : accountsByUser.values()) {
+			if (account.role == role) {
+				stale.add(account);
+			}
+		}
+		for (Account account : stale) {
+			remove(account);
+		}
+		for (User user : users) {
+			add(new Account(user, role));
+		}
+	}
+
+	/**
+	 * Registers a user added to the database of the given role.
+	 *
+	 * @param role the role of the database
+	 * @param user the added user
+	 */
+	static synchronized void register(Role role, User user) {
+		Account existing = accountsByUser.get(user);
+		if (existing != null) {
+			remove(existing);
+		}
+		add(new Account(user, role));
+	}
+
+	/**
+	 * Drops a user removed from its database.
+	 *
+	 * @param user the removed user
+	 */
+	static synchronized void unregister(User user) {
+		Account account = accountsByUser.get(user);
+		if (account != null) {
+			remove(account);
+		}
+	}
+
+	/**
+	 * Moves a user to its current NRIC after it has changed.
+	 *
+	 * @param user the changed user
+	 */
+	static synchronized void rekey(User user) {
+		Account account = accountsByUser.get(user);
+		if (account != null && !Objects.equals(account.nric, user.getNric())) {
+			remove(account);
+			add(new Account(user, account.role));
+		}
+	}
+
+	private static void add(Account account) {
+		accountsByUser.put(account.user, account);
+		if (account.nric == null) {
+			return;
+		}
+		Object entry = accountsByNric.get(account.nric);
+		if (entry == null) {
+			accountsByNric.put(account.nric, account);
+			return;
+		}
+		Account[] current = entry instanceof Account ? new Account[] { (Account) entry } : (Account[]) entry;
+		Account[] accounts = Arrays.copyOf(current, current.length + 1);
+		int i = accounts.length - 1;
+		// Keep login order; accounts of the same role stay in the order they were added
+		while (i > 0 && accounts[i - 1].role.compareTo(account.role) > 0) {
+			accounts[i] = accounts[i - 1];
+			i--;
+		}
+		accounts[i] = account;
+		accountsByNric.put(account.nric, accounts);
+	}
+
+	private static void remove(Account account) {
+		accountsByUser.remove(account.user);
+		if (account.nric == null) {
+			return;
+		}
+		Object entry = accountsByNric.get(account.nric);
+		if (entry == account) {
+			accountsByNric.remove(account.nric);
+		} else if (entry instanceof Account[]) {
+			List<Account> accounts = new ArrayList<>(Arrays.asList((Account[]) entry));
+			accounts.remove(account);
+			accountsByNric.put(account.nric, accounts.size() == 1 ? accounts.get(0) : accounts.toArray(new Account[0]));
+		}
+	}
+
+	/**
+	 * A user account and the role it logs in with.
+	 */
+	public static class Account {
+		private final User user;
+		private final Role role;
+		private final String nric;
+
+		private Account(User user, Role role) {
+			this.user = user;
+			this.role = role;
+			this.nric = user.getNric();
+		}
+
+		/**
+		 * Gets the user holding this account.
+		 *
+		 * @return the user
+		 */
+		public User getUser() {
+			return this.user;
+		}
+
+		/**
+		 * Gets the role the account logs in with.
+		 *
+		 * @return the role
+		 */
+		public Role getRole() {
+			return this.role;
+		}
+	}
+}
@@ -0,0 +1,1328 @@
+package database;
+
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Record store shared by the database classes, with hash indexes that are kept
+ * up to date as records are added, removed and changed.
+ *
+ * <p>Each database declares the fields its records are looked up by as indexes.
+ * A {@link UniqueIndex} is for fields that identify a record, such as an ID or
+ * NRIC; an {@link Index} is for fields many records share, such as a status or
+ * project. Lookups are hash lookups instead of scans over all records.</p>
+ *
+ * <p>Indexes are updated incrementally: adding or removing a record updates
+ * every index, and an entity whose indexed field changes calls
+ * {@link #reindex(Object)} so the record moves to its new key. Each index
+ * remembers the key it filed a record under, so no old value has to be passed
+ * in. Records are compared by identity, like the entities themselves.</p>
+ *
+ * <p>Fields holding a small enum, such as a status or flat type, can instead be
+ * declared as an {@link EnumIndex}, which keeps one bitmap of row numbers per
+ * constant. Every record gets a row number when it is added; rows follow the
+ * order of the records, and are renumbered when many records have been
+ * removed. Bitmaps of several constants or several enum indexes can be
+ * combined with {@link BitSet#or(BitSet)} and {@link BitSet#and(BitSet)}, and
+ * any {@link Index} lookup can join in through {@link Index#rows(Object)};
+ * {@link #select(BitSet)} turns the result back into records.</p>
+ *
+ * <p>Date fields can be declared as a {@link DateIndex}, which keeps its keys
+ * sorted by epoch day and answers range queries in date order. A pair of
+ * start and end dates can be declared as an {@link IntervalIndex}, which finds
+ * the records whose period contains a date or overlaps a range.</p>
+ *
+ * <p>Records holding several items, such as a project and its flat types, can
+ * declare an {@link EnumRangeIndex} on the items, which finds the rows holding
+ * an item of a given kind whose value, such as a price, lies in a range.</p>
+ *
+ * <p>A repository can be shared by many threads. Writes, i.e. adding,
+ * removing and refiling records, are serialized by the repository's lock; a
+ * thread may nest writes, and reads within them. Point lookups that touch a
+ * single hash map or bitmap, such as {@link Index#findAll(Object)} or
+ * {@link EnumIndex#count(Enum)}, take no lock: they run optimistically and
+ * are only run again under the read lock if a write overlapped them. Queries
+ * that combine several structures or walk a tree, such as
+ * {@link #select(BitSet)} or {@link DateIndex#findBetween(LocalDate, LocalDate)},
+ * take the read lock, as a half-written structure could make them fail or
+ * loop before a write could be detected. Lookups that combine several indexes,
+ * such as bitmaps joined and passed to {@link #select(BitSet)}, should run as
+ * one {@link #read(Supplier)} so that the rows cannot be renumbered between
+ * them. {@link #getAll()} returns a copy of a snapshot of the records that is
+ * shared by all readers until the next write.</p>
+ *
+ * <h2>Usage Example:</h2>
+ * <pre>{@code
+ * IndexedRepository<Booking> bookings = new IndexedRepository<>();
+ * IndexedRepository.Index<BookingStatusEnum, Booking> byStatus = bookings.addIndex(Booking::getStatus);
+ *
+ * bookings.add(booking);
+ * booking.setStatus(BookingStatusEnum.CONFIRMED); // calls bookings.reindex(booking)
+ * ArrayList<Booking> confirmed = byStatus.findAll(BookingStatusEnum.CONFIRMED);
+ *
+ * IndexedRepository.EnumIndex<FlatTypeEnum, Booking> byFlatType = bookings.addEnumIndex(FlatTypeEnum.class, Booking::getFlatType);
+ * BitSet rows = byFlatType.rows(FlatTypeEnum.TWO_ROOM);
+ * rows.and(byStatus.rows(BookingStatusEnum.PENDING));
+ * ArrayList<Booking> pendingTwoRoom = bookings.select(rows);
+ * }</pre>
+ *
+ * @param <T> the type of record held by the repository
+ * @author BTO Management System Team
+ * @version 2.0
+ * @since 2.0
+ */
+public class IndexedRepository<T> {
+
+	/**
+	 * Removed rows are only renumbered once at least this many have built up.
+	 */
+	private static final int MIN_ROWS_TO_COMPACT = 64;
+
+	private final List<Index<?, T>> indexes = new ArrayList<>();
+	private final List<RowIndex<T>> rowIndexes = new ArrayList<>();
+
+	/**
+	 * Row number of each record, which also tells which records are held.
+	 */
+	private final Map<T, Integer> rowIds = new IdentityHashMap<>();
+
+	/**
+	 * Record of each row number, in the order of the records; null for a removed record.
+	 */
+	private ArrayList<T> rows = new ArrayList<>();
+	private int removedRows;
+
+	/**
+	 * Serializes writers; point lookups validate against it instead of locking.
+	 */
+	private final StampedLock lock = new StampedLock();
+
+	/**
+	 * Number of read locks held by each thread, so that nested reads do not
+	 * queue behind a waiting writer.
+	 */
+	private final ThreadLocal<int[]> readDepth = ThreadLocal.withInitial(() -> new int[1]);
+
+	/**
+	 * The thread holding the write lock, so that it can nest writes and reads.
+	 */
+	private volatile Thread writer;
+
+	/**
+	 * Number of writes so far, telling readers whether the snapshot is current.
+	 */
+	private volatile long version;
+	private volatile Snapshot<T> snapshot = new Snapshot<>(0L, Collections.emptyList());
+
+	// ============================================================================
+	// INDEX DECLARATION
+	// ============================================================================
+
+	/**
+	 * Declares an index on a field shared by many records. Records whose key is
+	 * null are not indexed.
+	 *
+	 * @param keyExtractor reads the indexed field from a record
+	 * @return the new index, already holding the current records
+	 */
+	public <K> Index<K, T> addIndex(Function<? super T, ? extends K> keyExtractor) {
+		return register(new Index<>(this, keyExtractor, new HashMap<>()));
+	}
+
+	/**
+	 * Declares an index on a field that identifies a record. Should several
+	 * records share a key anyway, the one indexed first is found, matching
+	 * the first-match behaviour of a scan.
+	 *
+	 * @param keyExtractor reads the indexed field from a record
+	 * @return the new index, already holding the current records
+	 */
+	public <K> UniqueIndex<K, T> addUniqueIndex(Function<? super T, ? extends K> keyExtractor) {
+		return register(new UniqueIndex<>(this, keyExtractor, new HashMap<>()));
+	}
+
+	/**
+	 * Declares an index on an NRIC shared by many records. Well-formed NRICs are
+	 * hashed and stored as {@code long} codes; see {@link NricKeyedMap}.
+	 *
+	 * @param keyExtractor reads the NRIC from a record
+	 * @return the new index, already holding the current records
+	 */
+	public Index<String, T> addNricIndex(Function<? super T, String> keyExtractor) {
+		return register(new Index<>(this, keyExtractor, new NricKeyedMap<>()));
+	}
+
+	/**
+	 * Declares an index on an NRIC that identifies a record. Well-formed NRICs
+	 * are hashed and stored as {@code long} codes; see {@link NricKeyedMap}.
+	 *
+	 * @param keyExtractor reads the NRIC from a record
+	 * @return the new index, already holding the current records
+	 */
+	public UniqueIndex<String, T> addUniqueNricIndex(Function<? super T, String> keyExtractor) {
+		return register(new UniqueIndex<>(this, keyExtractor, new NricKeyedMap<>()));
+	}
+
+	/**
+	 * Declares a bitmap index on an enum field. Records whose key is null are
+	 * not indexed.
+	 *
+	 * @param type the enum class of the field
+	 * @param keyExtractor reads the indexed field from a record
+	 * @return the new index, already holding the current records
+	 */
+	public <E extends Enum<E>> EnumIndex<E, T> addEnumIndex(Class<E> type, Function<? super T, E> keyExtractor) {
+		return registerRows(new EnumIndex<>(this, type, keyExtractor));
+	}
+
+	/**
+	 * Declares a sorted index on the items of a record, e.g. the flat types of
+	 * a project, by an enum field and a numeric value of each item. Items whose
+	 * value is NaN are not indexed, as no range contains them.
+	 *
+	 * @param type the enum class of the item field
+	 * @param itemsExtractor reads the items from a record; may return null
+	 * @param keyExtractor reads the enum field from an item
+	 * @param valueExtractor reads the numeric value from an item
+	 * @return the new index, already holding the current records
+	 */
+	public <E extends Enum<E>, V> EnumRangeIndex<E, T> addEnumRangeIndex(Class<E> type, Function<? super T, ? extends Collection<? extends V>> itemsExtractor, Function<? super V, E> keyExtractor, ToDoubleFunction<? super V> valueExtractor) {
+		return registerRows(new EnumRangeIndex<>(this, type, record -> {
+			Collection<? extends V> items = itemsExtractor.apply(record);
+			List<EnumRangeIndex.Item> filed = new ArrayList<>();
+			if (items != null) {
+				for (V item : items) {
+					if (item != null) {
+						E key = keyExtractor.apply(item);
+						filed.add(new EnumRangeIndex.Item(key != null ? key.ordinal() : -1, valueExtractor.applyAsDouble(item)));
+					}
+				}
+			}
+			return filed;
+		}));
+	}
+
+	/**
+	 * Declares a sorted index on a date field, for lookups by date range.
+	 * Records whose date is null are not indexed.
+	 *
+	 * @param dateExtractor reads the indexed date from a record
+	 * @return the new index, already holding the current records
+	 */
+	public DateIndex<T> addDateIndex(Function<? super T, LocalDate> dateExtractor) {
+		return register(new DateIndex<>(this, dateExtractor, new TreeMap<>()));
+	}
+
+	/**
+	 * Declares an interval index on a period given by a start and end date, for
+	 * finding the records whose period contains a date or overlaps a range.
+	 * Records whose start or end date is null are not indexed.
+	 *
+	 * @param startExtractor reads the first day of the period from a record
+	 * @param endExtractor reads the last day of the period from a record
+	 * @return the new index, already holding the current records
+	 */
+	public IntervalIndex<T> addIntervalIndex(Function<? super T, LocalDate> startExtractor, Function<? super T, LocalDate> endExtractor) {
+		return register(new IntervalIndex<>(this, startExtractor, endExtractor, new IntervalTreeMap<>()));
+	}
+
+	private <I extends Index<?, T>> I register(I index) {
+		return write(() -> {
+			for (T record : rows) {
+				if (record != null) {
+					index.insert(record);
+				}
+			}
+			indexes.add(index);
+			return index;
+		});
+	}
+
+	/**
+	 * Declares an index kept by row number, already holding the current records.
+	 */
+	<I extends RowIndex<T>> I registerRows(I index) {
+		return write(() -> {
+			for (int row = 0; row < rows.size(); row++) {
+				if (rows.get(row) != null) {
+					index.insert(rows.get(row), row);
+				}
+			}
+			rowIndexes.add(index);
+			return index;
+		});
+	}
+
+	// ============================================================================
+	// RECORDS
+	// ============================================================================
+
+	/**
+	 * Returns the records, in the order they were added.
+	 *
+	 * @return a new list of the records; changing it does not change the repository
+	 */
+	public ArrayList<T> getAll() {
+		return new ArrayList<>(snapshot());
+	}
+
+	/**
+	 * Returns the records as they were after the last write, in the order they
+	 * were added. The list is shared by all readers until the next write, so
+	 * it can be iterated while other threads change the repository.
+	 *
+	 * @return an unmodifiable list of the records
+	 */
+	public List<T> snapshot() {
+		Snapshot<T> current = snapshot;
+		if (current.version != version) {
+			current = read(() -> new Snapshot<>(version, Collections.unmodifiableList(heldRecords())));
+			snapshot = current;
+		}
+		return current.records;
+	}
+
+	/**
+	 * Replaces all records and rebuilds the indexes. A record listed more than
+	 * once is only added once.
+	 *
+	 * @param records the new records; the list itself is not kept
+	 */
+	public void setAll(List<T> records) {
+		write(() -> {
+			rowIds.clear();
+			rows = new ArrayList<>(records != null ? records.size() : 0);
+			removedRows = 0;
+			for (Index<?, T> index : indexes) {
+				index.clear();
+			}
+			for (RowIndex<T> index : rowIndexes) {
+				index.clear();
+			}
+			if (records != null) {
+				for (T record : records) {
+					if (record != null && !rowIds.containsKey(record)) {
+						insert(record);
+					}
+				}
+			}
+			return null;
+		});
+	}
+
+	/**
+	 * Checks whether a record is held by the repository.
+	 *
+	 * @param record the record to look for
+	 * @return true if this exact record has been added
+	 */
+	public boolean contains(T record) {
+		return lookup(() -> rowIds.containsKey(record));
+	}
+
+	/**
+	 * Returns the number of records.
+	 *
+	 * @return the record count
+	 */
+	public int size() {
+		return lookup(rowIds::size);
+	}
+
+	/**
+	 * Adds a record and files it in every index.
+	 *
+	 * @param record the record to add
+	 * @return false if the record was null or already held
+	 */
+	public boolean add(T record) {
+		if (record == null) {
+			return false;
+		}
+		return write(() -> {
+			if (rowIds.containsKey(record)) {
+				return false;
+			}
+			insert(record);
+			return true;
+		});
+	}
+
+	/**
+	 * Adds several records in one write, so readers see either none or all of them.
+	 *
+	 * @param records the records to add
+	 * @return a new list of the records that were added; null records, records
+	 *         already held and repeats are left out
+	 */
+	public ArrayList<T> addAll(Collection<? extends T> records) {
+		return write(() -> {
+			ArrayList<T> added = new ArrayList<>(records.size());
+			for (T record : records) {
+				if (record != null && !rowIds.containsKey(record)) {
+					insert(record);
+					added.add(record);
+				}
+			}
+			return added;
+		});
+	}
+
+	/**
+	 * Removes a record and drops it from every index.
+	 *
+	 * @param record the record to remove
+	 * @return false if the record was not held
+	 */
+	public boolean remove(T record) {
+		if (record == null) {
+			return false;
+		}
+		return write(() -> {
+			Integer row = rowIds.remove(record);
+			if (row == null) {
+				return false;
+			}
+			for (Index<?, T> index : indexes) {
+				index.delete(record);
+			}
+			for (RowIndex<T> index : rowIndexes) {
+				index.delete(row);
+			}
+			rows.set(row, null);
+			removedRows++;
+			if (removedRows >= MIN_ROWS_TO_COMPACT && removedRows * 2 > rows.size()) {
+				compactRows();
+			}
+			return true;
+		});
+	}
+
+	/**
+	 * Moves a record to its current keys after one of its indexed fields has
+	 * changed. Does nothing for records that are not held, e.g. entities still
+	 * being built.
+	 *
+	 * @param record the changed record
+	 */
+	public void reindex(T record) {
+		if (record == null || !contains(record)) {
+			return;
+		}
+		write(() -> {
+			Integer row = rowIds.get(record);
+			if (row != null) {
+				for (Index<?, T> index : indexes) {
+					index.update(record);
+				}
+				for (RowIndex<T> index : rowIndexes) {
+					index.update(record, row);
+				}
+			}
+			return null;
+		});
+	}
+
+	// ============================================================================
+	// CONCURRENCY
+	// ============================================================================
+
+	/**
+	 * Runs a query against a consistent state of the repository under the read
+	 * lock, so that no write can run at the same time. Reads nested in a read
+	 * or write of the same thread run directly. A query must not change anything.
+	 *
+	 * @param query the query to run
+	 * @return the result of the query
+	 */
+	public <R> R read(Supplier<R> query) {
+		if (writer == Thread.currentThread()) {
+			return query.get();
+		}
+		int[] depth = readDepth.get();
+		if (depth[0] > 0) {
+			return query.get();
+		}
+		long stamp = lock.readLock();
+		depth[0]++;
+		try {
+			return query.get();
+		} finally {
+			depth[0]--;
+			lock.unlockRead(stamp);
+		}
+	}
+
+	/**
+	 * Runs a point lookup on a single hash map or bitmap without taking a lock.
+	 * The lookup runs optimistically first; if a write overlapped it, its
+	 * result is dropped and it runs again under the read lock. It may see a
+	 * half-written structure on its first run, so anything it throws then,
+	 * errors included, is dropped as well. Queries that walk a tree or combine
+	 * several structures must use {@link #read(Supplier)} instead, as they
+	 * could loop on a half-written structure.
+	 *
+	 * @param query the lookup to run
+	 * @return the result of the lookup
+	 */
+	<R> R lookup(Supplier<R> query) {
+		if (writer == Thread.currentThread()) {
+			return query.get();
+		}
+		long stamp = lock.tryOptimisticRead();
+		if (stamp != 0L) {
+			try {
+				R result = query.get();
+				if (lock.validate(stamp)) {
+					return result;
+				}
+			} catch (RuntimeException | Error e) {
+				if (lock.validate(stamp)) {
+					throw e;
+				}
+			}
+		}
+		return read(query);
+	}
+
+	/**
+	 * Runs a change to the repository while holding its write lock, so that
+	 * no other write runs at the same time. Writes by the thread already
+	 * holding the lock run directly.
+	 *
+	 * @param update the change to make
+	 * @return the result of the change
+	 */
+	public <R> R write(Supplier<R> update) {
+		if (writer == Thread.currentThread()) {
+			return update.get();
+		}
+		long stamp = lock.writeLock();
+		writer = Thread.currentThread();
+		try {
+			return update.get();
+		} finally {
+			version++;
+			writer = null;
+			lock.unlockWrite(stamp);
+		}
+	}
+
+	// ============================================================================
+	// ROWS
+	// ============================================================================
+
+	/**
+	 * Returns the records in a set of rows, e.g. a combination of bitmaps from
+	 * {@link EnumIndex#rows(Enum)} and {@link Index#rows(Object)}.
+	 *
+	 * @param selected the row numbers to return
+	 * @return a new list of the records, in the order they were added
+	 */
+	public ArrayList<T> select(BitSet selected) {
+		return read(() -> {
+			ArrayList<T> result = new ArrayList<>(selected.cardinality());
+			for (int row = selected.nextSetBit(0); row >= 0 && row < rows.size(); row = selected.nextSetBit(row + 1)) {
+				T record = rows.get(row);
+				if (record != null) {
+					result.add(record);
+				}
+			}
+			return result;
+		});
+	}
+
+	/**
+	 * Returns the rows of some of the held records, e.g. to return them in the
+	 * order they were added with {@link #select(BitSet)}.
+	 *
+	 * @param selected the records; records that are not held are ignored
+	 * @return a new bitmap of their rows
+	 */
+	public BitSet rowsOf(Collection<? extends T> selected) {
+		return read(() -> {
+			BitSet result = new BitSet(rows.size());
+			for (T record : selected) {
+				Integer row = record != null ? rowIds.get(record) : null;
+				if (row != null) {
+					result.set(row);
+				}
+			}
+			return result;
+		});
+	}
+
+	/**
+	 * Returns the rows of all held records, e.g. to negate a bitmap with
+	 * {@link BitSet#andNot(BitSet)}.
+	 *
+	 * @return a new bitmap of the rows in use
+	 */
+	public BitSet allRows() {
+		return read(() -> {
+			BitSet all = new BitSet(rows.size());
+			for (int row = 0; row < rows.size(); row++) {
+				if (rows.get(row) != null) {
+					all.set(row);
+				}
+			}
+			return all;
+		});
+	}
+
+	/**
+	 * Lists the held records in row order, which is the order they were added.
+	 */
+	private ArrayList<T> heldRecords() {
+		ArrayList<T> held = new ArrayList<>(rowIds.size());
+		for (T record : rows) {
+			if (record != null) {
+				held.add(record);
+			}
+		}
+		return held;
+	}
+
+	/**
+	 * Gives a new record the next row and files it in every index.
+	 */
+	private void insert(T record) {
+		int row = rows.size();
+		rowIds.put(record, row);
+		rows.add(record);
+		for (Index<?, T> index : indexes) {
+			index.insert(record);
+		}
+		for (RowIndex<T> index : rowIndexes) {
+			index.insert(record, row);
+		}
+	}
+
+	/**
+	 * Renumbers the rows without the removed records and rebuilds the bitmaps,
+	 * so that the bitmaps stay dense.
+	 */
+	private void compactRows() {
+		rows = heldRecords();
+		removedRows = 0;
+		for (RowIndex<T> index : rowIndexes) {
+			index.clear();
+		}
+		for (int row = 0; row < rows.size(); row++) {
+			T record = rows.get(row);
+			rowIds.put(record, row);
+			for (RowIndex<T> index : rowIndexes) {
+				index.insert(record, row);
+			}
+		}
+	}
+
+	// ============================================================================
+	// INDEXES
+	// ============================================================================
+
+	/**
+	 * Hash index from a field value to the records holding it, in the order
+	 * they were filed under that value.
+	 *
+	 * <p>Most keys of a unique index, and many of an ordinary one, map to a
+	 * single record, which is stored directly; a bucket is only allocated once
+	 * a second record shares the key.</p>
+	 *
+	 * @param <K> the type of the indexed field
+	 * @param <T> the type of record
+	 */
+	public static class Index<K, T> {
+
+		final IndexedRepository<T> repository;
+		private final Function<? super T, ? extends K> keyExtractor;
+		private final Map<K, Object> entries;
+		private final Map<T, K> keys = new IdentityHashMap<>();
+
+		private Index(IndexedRepository<T> repository, Function<? super T, ? extends K> keyExtractor, Map<K, Object> entries) {
+			this.repository = repository;
+			this.keyExtractor = keyExtractor;
+			this.entries = entries;
+		}
+
+		/**
+		 * Returns the records filed under a key.
+		 *
+		 * @param key the field value to look up
+		 * @return a new list of matching records, empty if none
+		 */
+		@SuppressWarnings("unchecked")
+		public ArrayList<T> findAll(K key) {
+			return repository.lookup(() -> {
+				Object entry = key != null ? entries.get(key) : null;
+				if (entry == null) {
+					return new ArrayList<>();
+				}
+				if (entry instanceof Bucket) {
+					return new ArrayList<>(((Bucket<T>) entry).records);
+				}
+				ArrayList<T> result = new ArrayList<>(1);
+				result.add((T) entry);
+				return result;
+			});
+		}
+
+		/**
+		 * Adds the records of an entry to a list, in the order they were filed.
+		 */
+		@SuppressWarnings("unchecked")
+		static <T> void collect(Object entry, List<T> result) {
+			if (entry instanceof Bucket) {
+				result.addAll(((Bucket<T>) entry).records);
+			} else if (entry != null) {
+				result.add((T) entry);
+			}
+		}
+
+		/**
+		 * Returns the number of records filed under a key.
+		 *
+		 * @param key the field value to count
+		 * @return the number of matching records
+		 */
+		public int count(K key) {
+			return repository.lookup(() -> {
+				Object entry = key != null ? entries.get(key) : null;
+				if (entry == null) {
+					return 0;
+				}
+				return entry instanceof Bucket ? ((Bucket<?>) entry).records.size() : 1;
+			});
+		}
+
+		/**
+		 * Returns the rows of the records filed under a key, to be combined
+		 * with the bitmaps of an {@link EnumIndex}.
+		 *
+		 * @param key the field value to look up
+		 * @return a new bitmap of the matching rows
+		 */
+		@SuppressWarnings("unchecked")
+		public BitSet rows(K key) {
+			return repository.read(() -> {
+				BitSet result = new BitSet();
+				Object entry = key != null ? entries.get(key) : null;
+				if (entry instanceof Bucket) {
+					for (T record : ((Bucket<T>) entry).records) {
+						result.set(repository.rowIds.get(record));
+					}
+				} else if (entry != null) {
+					result.set(repository.rowIds.get((T) entry));
+				}
+				return result;
+			});
+		}
+
+		/**
+		 * Returns the first record filed under a key.
+		 *
+		 * @param key the field value to look up
+		 * @return the matching record, or null if none
+		 */
+		@SuppressWarnings("unchecked")
+		protected T findFirst(K key) {
+			return repository.lookup(() -> {
+				Object entry = key != null ? entries.get(key) : null;
+				if (entry instanceof Bucket) {
+					return ((Bucket<T>) entry).records.iterator().next();
+				}
+				return (T) entry;
+			});
+		}
+
+		@SuppressWarnings("unchecked")
+		void insert(T record) {
+			K key = keyExtractor.apply(record);
+			if (key == null) {
+				return;
+			}
+			keys.put(record, key);
+			Object entry = entries.get(key);
+			if (entry == null) {
+				entries.put(key, record);
+			} else if (entry instanceof Bucket) {
+				((Bucket<T>) entry).records.add(record);
+			} else {
+				Bucket<T> bucket = new Bucket<>();
+				bucket.records.add((T) entry);
+				bucket.records.add(record);
+				entries.put(key, bucket);
+			}
+		}
+
+		@SuppressWarnings("unchecked")
+		void delete(T record) {
+			K key = keys.remove(record);
+			if (key == null) {
+				return;
+			}
+			Object entry = entries.get(key);
+			if (entry instanceof Bucket) {
+				Set<T> bucket = ((Bucket<T>) entry).records;
+				bucket.remove(record);
+				if (bucket.size() == 1) {
+					entries.put(key, bucket.iterator().next());
+				}
+			} else if (entry == record) {
+				entries.remove(key);
+			}
+		}
+
+		void update(T record) {
+			if (!Objects.equals(keys.get(record), keyExtractor.apply(record))) {
+				delete(record);
+				insert(record);
+			}
+		}
+
+		void clear() {
+			entries.clear();
+			keys.clear();
+		}
+	}
+
+	/**
+	 * Hash index on a field that identifies a record.
+	 *
+	 * @param <K> the type of the indexed field
+	 * @param <T> the type of record
+	 */
+	public static class UniqueIndex<K, T> extends Index<K, T> {
+
+		private UniqueIndex(IndexedRepository<T> repository, Function<? super T, ? extends K> keyExtractor, Map<K, Object> entries) {
+			super(repository, keyExtractor, entries);
+		}
+
+		/**
+		 * Returns the record identified by a key.
+		 *
+		 * @param key the field value to look up
+		 * @return the matching record, or null if none
+		 */
+		public T find(K key) {
+			return findFirst(key);
+		}
+	}
+
+	/**
+	 * Index on a date field whose keys are kept sorted by epoch day.
+	 *
+	 * <p>Besides lookups by a single date, the index answers range queries by
+	 * walking the days in the range, so the records come out in date order
+	 * without sorting and the time taken depends on the number of days and
+	 * records returned rather than on the size of the database. Records on the
+	 * same day are returned in the order they were filed.</p>
+	 *
+	 * @param <T> the type of record
+	 */
+	public static class DateIndex<T> extends Index<Long, T> {
+
+		private final NavigableMap<Long, Object> days;
+
+		private DateIndex(IndexedRepository<T> repository, Function<? super T, LocalDate> dateExtractor, TreeMap<Long, Object> days) {
+			super(repository, record -> {
+				LocalDate date = dateExtractor.apply(record);
+				return date != null ? date.toEpochDay() : null;
+			}, days);
+			this.days = days;
+		}
+
+		/**
+		 * Returns the records on a date.
+		 *
+		 * @param date the date to look up
+		 * @return a new list of matching records, empty if none
+		 */
+		public ArrayList<T> findOn(LocalDate date) {
+			return date != null ? findAll(date.toEpochDay()) : new ArrayList<>();
+		}
+
+		/**
+		 * Returns the records dated within a range, in date order.
+		 *
+		 * @param from the first date of the range, inclusive; null for no lower bound
+		 * @param to the last date of the range, inclusive; null for no upper bound
+		 * @return a new list of matching records, empty if none or if the range is empty
+		 */
+		public ArrayList<T> findBetween(LocalDate from, LocalDate to) {
+			return repository.read(() -> {
+				ArrayList<T> result = new ArrayList<>();
+				if (from != null && to != null && from.isAfter(to)) {
+					return result;
+				}
+				NavigableMap<Long, Object> range = days;
+				if (from != null) {
+					range = range.tailMap(from.toEpochDay(), true);
+				}
+				if (to != null) {
+					range = range.headMap(to.toEpochDay(), true);
+				}
+				for (Object entry : range.values()) {
+					collect(entry, result);
+				}
+				return result;
+			});
+		}
+	}
+
+	/**
+	 * Index on a period between two dates, kept in an {@link IntervalTreeMap}
+	 * keyed by epoch day.
+	 *
+	 * <p>Finding the records whose period contains a date, or overlaps a range
+	 * of dates, takes O(log n + k) time for k matches. Records are returned in
+	 * order of period start; records with the same period in the order they
+	 * were filed.</p>
+	 *
+	 * @param <T> the type of record
+	 */
+	public static class IntervalIndex<T> extends Index<IntervalTreeMap.Interval, T> {
+
+		private final IntervalTreeMap<Object> periods;
+
+		private IntervalIndex(IndexedRepository<T> repository, Function<? super T, LocalDate> startExtractor, Function<? super T, LocalDate> endExtractor, IntervalTreeMap<Object> periods) {
+			super(repository, record -> {
+				LocalDate start = startExtractor.apply(record);
+				LocalDate end = endExtractor.apply(record);
+				return start != null && end != null ? new IntervalTreeMap.Interval(start.toEpochDay(), end.toEpochDay()) : null;
+			}, periods);
+			this.periods = periods;
+		}
+
+		/**
+		 * Returns the records whose period contains a date.
+		 *
+		 * @param date the date to look up
+		 * @return a new list of matching records, empty if none
+		 */
+		public ArrayList<T> findContaining(LocalDate date) {
+			return repository.read(() -> {
+				ArrayList<T> result = new ArrayList<>();
+				if (date != null) {
+					for (Object entry : periods.findContaining(date.toEpochDay())) {
+						collect(entry, result);
+					}
+				}
+				return result;
+			});
+		}
+
+		/**
+		 * Returns the records whose period shares at least one day with a range.
+		 *
+		 * @param from the first date of the range, inclusive
+		 * @param to the last date of the range, inclusive
+		 * @return a new list of matching records, empty if none
+		 */
+		public ArrayList<T> findOverlapping(LocalDate from, LocalDate to) {
+			return repository.read(() -> {
+				ArrayList<T> result = new ArrayList<>();
+				if (from != null && to != null) {
+					for (Object entry : periods.findOverlapping(from.toEpochDay(), to.toEpochDay())) {
+						collect(entry, result);
+					}
+				}
+				return result;
+			});
+		}
+	}
+
+	/**
+	 * Index kept by row number rather than by record, so that it can hold
+	 * bitmaps of rows. Rebuilt by the repository when the rows are renumbered.
+	 *
+	 * @param <T> the type of record
+	 */
+	abstract static class RowIndex<T> {
+
+		abstract void insert(T record, int row);
+
+		abstract void delete(int row);
+
+		abstract void update(T record, int row);
+
+		abstract void clear();
+	}
+
+	/**
+	 * Bitmap index on an enum field: one bitmap of row numbers per constant.
+	 *
+	 * <p>Enum fields have only a few values shared by many records, so a
+	 * bitmap per value is smaller than a bucket of references and lets
+	 * conditions on several values or fields be combined a word at a time.
+	 * Removed records leave gaps that are closed by renumbering the rows,
+	 * which keeps the bitmaps dense.</p>
+	 *
+	 * @param <E> the enum type of the indexed field
+	 * @param <T> the type of record
+	 */
+	public static class EnumIndex<E extends Enum<E>, T> extends RowIndex<T> {
+
+		private final IndexedRepository<T> repository;
+		private final Function<? super T, E> keyExtractor;
+		private final BitSet[] bitmaps;
+
+		private EnumIndex(IndexedRepository<T> repository, Class<E> type, Function<? super T, E> keyExtractor) {
+			this.repository = repository;
+			this.keyExtractor = keyExtractor;
+			this.bitmaps = new BitSet[type.getEnumConstants().length];
+			for (int i = 0; i < bitmaps.length; i++) {
+				bitmaps[i] = new BitSet();
+			}
+		}
+
+		/**
+		 * Returns the records holding a value.
+		 *
+		 * @param value the field value to look up
+		 * @return a new list of matching records, in the order they were added
+		 */
+		public ArrayList<T> findAll(E value) {
+			return repository.read(() -> value != null ? repository.select(bitmaps[value.ordinal()]) : new ArrayList<>());
+		}
+
+		/**
+		 * Returns the number of records holding a value.
+		 *
+		 * @param value the field value to count
+		 * @return the number of matching records
+		 */
+		public int count(E value) {
+			return repository.lookup(() -> value != null ? bitmaps[value.ordinal()].cardinality() : 0);
+		}
+
+		/**
+		 * Returns the rows of the records holding a value.
+		 *
+		 * @param value the field value to look up
+		 * @return a new bitmap of the matching rows
+		 */
+		public BitSet rows(E value) {
+			return repository.lookup(() -> value != null ? (BitSet) bitmaps[value.ordinal()].clone() : new BitSet());
+		}
+
+		/**
+		 * Returns the rows of the records holding any of several values.
+		 *
+		 * @param values the field values to look up
+		 * @return a new bitmap of the matching rows
+		 */
+		public BitSet rowsAnyOf(Collection<? extends E> values) {
+			return repository.lookup(() -> {
+				BitSet result = new BitSet();
+				for (E value : values) {
+					if (value != null) {
+						result.or(bitmaps[value.ordinal()]);
+					}
+				}
+				return result;
+			});
+		}
+
+		@Override
+		void insert(T record, int row) {
+			E key = keyExtractor.apply(record);
+			if (key != null) {
+				bitmaps[key.ordinal()].set(row);
+			}
+		}
+
+		@Override
+		void delete(int row) {
+			for (BitSet bitmap : bitmaps) {
+				bitmap.clear(row);
+			}
+		}
+
+		@Override
+		void update(T record, int row) {
+			E key = keyExtractor.apply(record);
+			if (key != null && bitmaps[key.ordinal()].get(row)) {
+				return;
+			}
+			delete(row);
+			if (key != null) {
+				bitmaps[key.ordinal()].set(row);
+			}
+		}
+
+		@Override
+		void clear() {
+			for (BitSet bitmap : bitmaps) {
+				bitmap.clear();
+			}
+		}
+	}
+
+	/**
+	 * Sorted index on the items of a record, e.g. the flat types of a project,
+	 * by an enum field and a numeric value of each item.
+	 *
+	 * <p>For every constant the index keeps the item values in a sorted map,
+	 * each value with a bitmap of the rows holding an item of that constant and
+	 * value. Finding the rows with an item of some constants whose value lies
+	 * in a range only visits the values in the range, and the result can be
+	 * combined with the bitmaps of other indexes. A record is found once
+	 * however many of its items match.</p>
+	 *
+	 * @param <E> the enum type of the item field
+	 * @param <T> the type of record
+	 */
+	public static class EnumRangeIndex<E extends Enum<E>, T> extends RowIndex<T> {
+
+		private final IndexedRepository<T> repository;
+		private final Function<? super T, List<Item>> itemsExtractor;
+
+		/**
+		 * Rows by item value, one map per constant; the last map holds the
+		 * items without a key.
+		 */
+		private final NavigableMap<Double, BitSet>[] values;
+
+		/**
+		 * Rows holding at least one item, by constant.
+		 */
+		private final BitSet[] bitmaps;
+		private final Map<Integer, List<Item>> filed = new HashMap<>();
+
+		@SuppressWarnings("unchecked")
+		private EnumRangeIndex(IndexedRepository<T> repository, Class<E> type, Function<? super T, List<Item>> itemsExtractor) {
+			this.repository = repository;
+			this.itemsExtractor = itemsExtractor;
+			int constants = type.getEnumConstants().length;
+			this.values = (NavigableMap<Double, BitSet>[]) new NavigableMap<?, ?>[constants + 1];
+			this.bitmaps = new BitSet[constants];
+			for (int i = 0; i < values.length; i++) {
+				values[i] = new TreeMap<>();
+			}
+			for (int i = 0; i < bitmaps.length; i++) {
+				bitmaps[i] = new BitSet();
+			}
+		}
+
+		/**
+		 * Returns the rows of the records holding an item of a constant.
+		 *
+		 * @param key the item field value to look up
+		 * @return a new bitmap of the matching rows
+		 */
+		public BitSet rows(E key) {
+			return repository.lookup(() -> key != null ? (BitSet) bitmaps[key.ordinal()].clone() : new BitSet());
+		}
+
+		/**
+		 * Returns the number of records holding an item of a constant.
+		 *
+		 * @param key the item field value to count
+		 * @return the number of matching records
+		 */
+		public int count(E key) {
+			return repository.lookup(() -> key != null ? bitmaps[key.ordinal()].cardinality() : 0);
+		}
+
+		/**
+		 * Returns the rows of the records holding an item of any of several
+		 * constants whose value lies in a range.
+		 *
+		 * @param keys the item field values to look up, null for items without a key; empty for any item
+		 * @param from the lowest value, inclusive
+		 * @param to the highest value, inclusive
+		 * @return a new bitmap of the matching rows, empty if the range is empty
+		 */
+		public BitSet rowsBetween(Collection<? extends E> keys, double from, double to) {
+			return repository.read(() -> {
+				BitSet result = new BitSet();
+				if (!(from <= to)) {
+					return result;
+				}
+				for (NavigableMap<Double, BitSet> map : valuesOf(keys)) {
+					for (BitSet rows : between(map, from, to).values()) {
+						result.or(rows);
+					}
+				}
+				return result;
+			});
+		}
+
+		/**
+		 * Counts, for consecutive ranges of values of a fixed width, how many
+		 * rows of a set hold an item of any of several constants in the range.
+		 * A row holding items in several ranges is counted in each of them.
+		 *
+		 * @param within the rows to count
+		 * @param keys the item field values to look up, null for items without a key; empty for any item
+		 * @param from the lowest value, inclusive
+		 * @param to the highest value, inclusive
+		 * @param bucketSize the width of each range, positive; ranges start at multiples of it
+		 * @return a new map from the lowest value of each range to its number of rows; ranges without any are left out
+		 */
+		public TreeMap<Double, Integer> countByBucket(BitSet within, Collection<? extends E> keys, double from, double to, double bucketSize) {
+			return repository.read(() -> {
+				TreeMap<Double, BitSet> buckets = new TreeMap<>();
+				if (from <= to && bucketSize > 0) {
+					for (NavigableMap<Double, BitSet> map : valuesOf(keys)) {
+						for (Map.Entry<Double, BitSet> entry : between(map, from, to).entrySet()) {
+							double bucket = Math.floor(entry.getKey() / bucketSize) * bucketSize + 0.0;
+							buckets.computeIfAbsent(bucket, value -> new BitSet()).or(entry.getValue());
+						}
+					}
+				}
+				TreeMap<Double, Integer> counts = new TreeMap<>();
+				for (Map.Entry<Double, BitSet> bucket : buckets.entrySet()) {
+					BitSet rows = bucket.getValue();
+					rows.and(within);
+					if (!rows.isEmpty()) {
+						counts.put(bucket.getKey(), rows.cardinality());
+					}
+				}
+				return counts;
+			});
+		}
+
+		/**
+		 * Returns the records holding an item of any of several constants whose
+		 * value lies in a range.
+		 *
+		 * @param keys the item field values to look up, null for items without a key; empty for any item
+		 * @param from the lowest value, inclusive
+		 * @param to the highest value, inclusive
+		 * @return a new list of matching records, in the order they were added
+		 */
+		public ArrayList<T> findBetween(Collection<? extends E> keys, double from, double to) {
+			return repository.select(rowsBetween(keys, from, to));
+		}
+
+		private List<NavigableMap<Double, BitSet>> valuesOf(Collection<? extends E> keys) {
+			if (keys.isEmpty()) {
+				return Arrays.asList(values);
+			}
+			List<NavigableMap<Double, BitSet>> maps = new ArrayList<>(keys.size());
+			for (E key : keys) {
+				maps.add(key != null ? values[key.ordinal()] : values[bitmaps.length]);
+			}
+			return maps;
+		}
+
+		private static NavigableMap<Double, BitSet> between(NavigableMap<Double, BitSet> map, double from, double to) {
+			// Adding 0.0 turns -0.0 into 0.0, which the sorted map would otherwise order below it
+			return map.subMap(from + 0.0, true, to + 0.0, true);
+		}
+
+		@Override
+		void insert(T record, int row) {
+			List<Item> items = itemsExtractor.apply(record);
+			if (items.isEmpty()) {
+				return;
+			}
+			filed.put(row, items);
+			for (Item item : items) {
+				if (item.key >= 0) {
+					bitmaps[item.key].set(row);
+				}
+				if (!Double.isNaN(item.value)) {
+					NavigableMap<Double, BitSet> map = item.key >= 0 ? values[item.key] : values[bitmaps.length];
+					map.computeIfAbsent(item.value, value -> new BitSet()).set(row);
+				}
+			}
+		}
+
+		@Override
+		void delete(int row) {
+			List<Item> items = filed.remove(row);
+			if (items == null) {
+				return;
+			}
+			for (Item item : items) {
+				if (item.key >= 0) {
+					bitmaps[item.key].clear(row);
+				}
+				NavigableMap<Double, BitSet> map = item.key >= 0 ? values[item.key] : values[bitmaps.length];
+				BitSet rows = map.get(item.value);
+				if (rows != null) {
+					rows.clear(row);
+					if (rows.isEmpty()) {
+						map.remove(item.value);
+					}
+				}
+			}
+		}
+
+		@Override
+		void update(T record, int row) {
+			List<Item> items = itemsExtractor.apply(record);
+			if (items.equals(filed.getOrDefault(row, Collections.emptyList()))) {
+				return;
+			}
+			delete(row);
+			insert(record, row);
+		}
+
+		@Override
+		void clear() {
+			for (NavigableMap<Double, BitSet> map : values) {
+				map.clear();
+			}
+			for (BitSet bitmap : bitmaps) {
+				bitmap.clear();
+			}
+			filed.clear();
+		}
+
+		/**
+		 * An item as filed: the ordinal of its key, or -1 for none, and its value.
+		 */
+		static final class Item {
+			private final int key;
+			private final double value;
+
+			Item(int key, double value) {
+				this.key = key;
+				this.value = value + 0.0;
+			}
+
+			@Override
+			public boolean equals(Object other) {
+				if (!(other instanceof Item)) {
+					return false;
+				}
+				Item item = (Item) other;
+				return this.key == item.key && Double.compare(this.value, item.value) == 0;
+			}
+
+			@Override
+			public int hashCode() {
+				return this.key * 31 + Double.hashCode(this.value);
+			}
+		}
+	}
+
+	/**
+	 * Records sharing a key, in the order they were filed. Entities do not
+	 * override {@code equals}, so the set compares them by identity.
+	 */
+	private static class Bucket<T> {
+		private final Set<T> records = new LinkedHashSet<>();
+	}
+
+	/**
+	 * The records as of a given number of writes.
+	 */
+	private static final class Snapshot<T> {
+		private final long version;
+		private final List<T> records;
+
+		private Snapshot(long version, List<T> records) {
+			this.version = version;
+			this.records = records;
+		}
+	}
+}
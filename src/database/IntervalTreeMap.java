@@ -0,0 +1,324 @@
+package database;
+
+import java.util.*;
+
+/**
+ * Map keyed by closed intervals of {@code long} values that can find every
+ * interval containing a point or overlapping a range.
+ *
+ * <p>The map is an AVL tree ordered by interval start, then end. Every node
+ * also records the largest end in its subtree, so a query skips any subtree
+ * whose intervals all end before the query range and any right subtree whose
+ * intervals all start after it. A query therefore takes O(log n + k) time for
+ * k matching intervals, where a scan takes O(n).</p>
+ *
+ * <p>The map is not thread-safe.</p>
+ *
+ * @param <V> the type of values
+ * @author BTO Management System Team
+ * @version 2.0
+ * @since 2.0
+ * @see IndexedRepository.IntervalIndex
+ */
+public class IntervalTreeMap<V> extends AbstractMap<IntervalTreeMap.Interval, V> {
+
+	private Node<V> root;
+	private int size;
+
+	/**
+	 * Returns the values of the intervals that overlap a range, in order of
+	 * interval start.
+	 *
+	 * @param from the first value of the range, inclusive
+	 * @param to the last value of the range, inclusive
+	 * @return a new list of matching values, empty if none
+	 */
+	public List<V> findOverlapping(long from, long to) {
+		List<V> result = new ArrayList<>();
+		collectOverlapping(root, from, to, result);
+		return result;
+	}
+
+	/**
+	 * Returns the values of the intervals that contain a point, in order of
+	 * interval start.
+	 *
+	 * @param point the value to look up
+	 * @return a new list of matching values, empty if none
+	 */
+	public List<V> findContaining(long point) {
+		return findOverlapping(point, point);
+	}
+
+	private static <V> void collectOverlapping(Node<V> node, long from, long to, List<V> result) {
+		if (node == null || node.maxEnd < from) {
+			return;
+		}
+		collectOverlapping(node.left, from, to, result);
+		if (node.key.start <= to) {
+			if (node.key.end >= from) {
+				result.add(node.value);
+			}
+			collectOverlapping(node.right, from, to, result);
+		}
+	}
+
+	// ============================================================================
+	// MAP OPERATIONS
+	// ============================================================================
+
+	@Override
+	public V get(Object key) {
+		if (!(key instanceof Interval)) {
+			return null;
+		}
+		Interval interval = (Interval) key;
+		Node<V> node = root;
+		while (node != null) {
+			int order = interval.compareTo(node.key);
+			if (order == 0) {
+				return node.value;
+			}
+			node = order < 0 ? node.left : node.right;
+		}
+		return null;
+	}
+
+	@Override
+	public boolean containsKey(Object key) {
+		return get(key) != null;
+	}
+
+	@Override
+	public V put(Interval key, V value) {
+		if (key == null || value == null) {
+			throw new IllegalArgumentException("IntervalTreeMap does not support null keys or values");
+		}
+		V previous = get(key);
+		if (previous != null) {
+			root = replace(root, key, value);
+		} else {
+			root = insert(root, key, value);
+			size++;
+		}
+		return previous;
+	}
+
+	@Override
+	public V remove(Object key) {
+		V previous = get(key);
+		if (previous != null) {
+			root = delete(root, (Interval) key);
+			size--;
+		}
+		return previous;
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	@Override
+	public void clear() {
+		root = null;
+		size = 0;
+	}
+
+	/**
+	 * Returns a snapshot of the mappings, in interval order.
+	 */
+	@Override
+	public Set<Map.Entry<Interval, V>> entrySet() {
+		Set<Map.Entry<Interval, V>> entries = new LinkedHashSet<>();
+		collectEntries(root, entries);
+		return entries;
+	}
+
+	private static <V> void collectEntries(Node<V> node, Set<Map.Entry<Interval, V>> entries) {
+		if (node != null) {
+			collectEntries(node.left, entries);
+			entries.add(new AbstractMap.SimpleImmutableEntry<>(node.key, node.value));
+			collectEntries(node.right, entries);
+		}
+	}
+
+	// ============================================================================
+	// TREE MAINTENANCE
+	// ============================================================================
+
+	private static <V> Node<V> replace(Node<V> node, Interval key, V value) {
+		int order = key.compareTo(node.key);
+		if (order == 0) {
+			node.value = value;
+		} else if (order < 0) {
+			replace(node.left, key, value);
+		} else {
+			replace(node.right, key, value);
+		}
+		return node;
+	}
+
+	private static <V> Node<V> insert(Node<V> node, Interval key, V value) {
+		if (node == null) {
+			return new Node<>(key, value);
+		}
+		if (key.compareTo(node.key) < 0) {
+			node.left = insert(node.left, key, value);
+		} else {
+			node.right = insert(node.right, key, value);
+		}
+		return rebalance(node);
+	}
+
+	private static <V> Node<V> delete(Node<V> node, Interval key) {
+		int order = key.compareTo(node.key);
+		if (order < 0) {
+			node.left = delete(node.left, key);
+		} else if (order > 0) {
+			node.right = delete(node.right, key);
+		} else if (node.left == null || node.right == null) {
+			return node.left != null ? node.left : node.right;
+		} else {
+			// Replace the node by its successor, the smallest node of the right subtree
+			Node<V> successor = node.right;
+			while (successor.left != null) {
+				successor = successor.left;
+			}
+			node.right = delete(node.right, successor.key);
+			successor.left = node.left;
+			successor.right = node.right;
+			node = successor;
+		}
+		return rebalance(node);
+	}
+
+	private static <V> Node<V> rebalance(Node<V> node) {
+		int balance = height(node.left) - height(node.right);
+		if (balance > 1) {
+			if (height(node.left.left) < height(node.left.right)) {
+				node.left = rotateLeft(node.left);
+			}
+			return rotateRight(node);
+		}
+		if (balance < -1) {
+			if (height(node.right.right) < height(node.right.left)) {
+				node.right = rotateRight(node.right);
+			}
+			return rotateLeft(node);
+		}
+		node.update();
+		return node;
+	}
+
+	private static <V> Node<V> rotateRight(Node<V> node) {
+		Node<V> top = node.left;
+		node.left = top.right;
+		top.right = node;
+		node.update();
+		top.update();
+		return top;
+	}
+
+	private static <V> Node<V> rotateLeft(Node<V> node) {
+		Node<V> top = node.right;
+		node.right = top.left;
+		top.left = node;
+		node.update();
+		top.update();
+		return top;
+	}
+
+	private static int height(Node<?> node) {
+		return node != null ? node.height : 0;
+	}
+
+	/**
+	 * Closed interval from {@code start} to {@code end}, ordered by start, then end.
+	 */
+	public static final class Interval implements Comparable<Interval> {
+		private final long start;
+		private final long end;
+
+		/**
+		 * Creates an interval.
+		 *
+		 * @param start the first value of the interval, inclusive
+		 * @param end the last value of the interval, inclusive
+		 */
+		public Interval(long start, long end) {
+			this.start = start;
+			this.end = end;
+		}
+
+		/**
+		 * Gets the first value of the interval.
+		 *
+		 * @return the start, inclusive
+		 */
+		public long getStart() {
+			return this.start;
+		}
+
+		/**
+		 * Gets the last value of the interval.
+		 *
+		 * @return the end, inclusive
+		 */
+		public long getEnd() {
+			return this.end;
+		}
+
+		@Override
+		public int compareTo(Interval other) {
+			int order = Long.compare(this.start, other.start);
+			return order != 0 ? order : Long.compare(this.end, other.end);
+		}
+
+		@Override
+		public boolean equals(Object other) {
+			if (!(other instanceof Interval)) {
+				return false;
+			}
+			Interval interval = (Interval) other;
+			return this.start == interval.start && this.end == interval.end;
+		}
+
+		@Override
+		public int hashCode() {
+			return Long.hashCode(this.start) * 31 + Long.hashCode(this.end);
+		}
+
+		@Override
+		public String toString() {
+			return "[" + this.start + ", " + this.end + "]";
+		}
+	}
+
+	private static final class Node<V> {
+		private final Interval key;
+		private V value;
+		private Node<V> left;
+		private Node<V> right;
+		private int height = 1;
+		private long maxEnd;
+
+		private Node(Interval key, V value) {
+			this.key = key;
+			this.value = value;
+			this.maxEnd = key.end;
+		}
+
+		private void update() {
+			this.height = Math.max(IntervalTreeMap.height(this.left), IntervalTreeMap.height(this.right)) + 1;
+			long max = this.key.end;
+			if (this.left != null && this.left.maxEnd > max) {
+				max = this.left.maxEnd;
+			}
+			if (this.right != null && this.right.maxEnd > max) {
+				max = this.right.maxEnd;
+			}
+			this.maxEnd = max;
+		}
+	}
+}
@@ -0,0 +1,225 @@
+package database;
+
+import java.util.Arrays;
+import java.util.function.LongFunction;
+
+/**
+ * Hash map from primitive {@code long} keys to values.
+ *
+ * <p>Keys are stored in a {@code long[]} and values in a parallel array, using
+ * open addressing with linear probing, so no {@code Long} or entry object is
+ * allocated per mapping. Removal shifts later entries of the probe sequence
+ * back instead of leaving tombstones. Null values are not supported; a null
+ * value slot marks a free slot.</p>
+ *
+ * <p>The map is not thread-safe.</p>
+ *
+ * @param <V> the type of values
+ * @author BTO Management System Team
+ * @version 2.0
+ * @since 2.0
+ */
+public class LongHashMap<V> {
+
+	private static final int MIN_CAPACITY = 16;
+
+	private long[] keys;
+	private Object[] values;
+	private int size;
+	private int mask;
+	private int resizeAt;
+
+	/**
+	 * Creates an empty map.
+	 */
+	public LongHashMap() {
+		allocate(MIN_CAPACITY);
+	}
+
+	/**
+	 * Returns the value mapped to a key.
+	 *
+	 * @param key the key to look up
+	 * @return the value, or null if the key is not mapped
+	 */
+	@SuppressWarnings("unchecked")
+	public V get(long key) {
+		for (int slot = slot(key); values[slot] != null; slot = (slot + 1) & mask) {
+			if (keys[slot] == key) {
+				return (V) values[slot];
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Checks whether a key is mapped.
+	 *
+	 * @param key the key to look up
+	 * @return true if the key has a value
+	 */
+	public boolean containsKey(long key) {
+		return get(key) != null;
+	}
+
+	/**
+	 * Maps a key to a value.
+	 *
+	 * @param key the key
+	 * @param value the value, not null
+	 * @return the previous value, or null if the key was not mapped
+	 */
+	@SuppressWarnings("unchecked")
+	public V put(long key, V value) {
+		if (value == null) {
+			throw new IllegalArgumentException("LongHashMap does not support null values");
+		}
+		int slot = slot(key);
+		for (; values[slot] != null; slot = (slot + 1) & mask) {
+			if (keys[slot] == key) {
+				V previous = (V) values[slot];
+				values[slot] = value;
+				return previous;
+			}
+		}
+		keys[slot] = key;
+		values[slot] = value;
+		if (++size > resizeAt) {
+			rehash(keys.length * 2);
+		}
+		return null;
+	}
+
+	/**
+	 * Removes the mapping of a key.
+	 *
+	 * @param key the key
+	 * @return the removed value, or null if the key was not mapped
+	 */
+	@SuppressWarnings("unchecked")
+	public V remove(long key) {
+		int slot = slot(key);
+		for (; values[slot] != null; slot = (slot + 1) & mask) {
+			if (keys[slot] == key) {
+				V previous = (V) values[slot];
+				shiftBack(slot);
+				size--;
+				return previous;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Returns the number of mappings.
+	 *
+	 * @return the mapping count
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Removes all mappings.
+	 */
+	public void clear() {
+		Arrays.fill(values, null);
+		size = 0;
+	}
+
+	/**
+	 * Calls an action for every mapping, in no particular order.
+	 *
+	 * @param action receives each key and value
+	 */
+	@SuppressWarnings("unchecked")
+	public void forEach(Entry<V> action) {
+		for (int slot = 0; slot < values.length; slot++) {
+			if (values[slot] != null) {
+				action.accept(keys[slot], (V) values[slot]);
+			}
+		}
+	}
+
+	/**
+	 * Returns the value mapped to a key, computing and storing it if absent.
+	 *
+	 * @param key the key
+	 * @param factory creates the value for an unmapped key
+	 * @return the existing or new value
+	 */
+	public V computeIfAbsent(long key, LongFunction<? extends V> factory) {
+		V value = get(key);
+		if (value == null) {
+			value = factory.apply(key);
+			put(key, value);
+		}
+		return value;
+	}
+
+	/**
+	 * Receives the mappings passed to {@link LongHashMap#forEach(Entry)}.
+	 *
+	 * @param <V> the type of values
+	 */
+	public interface Entry<V> {
+		void accept(long key, V value);
+	}
+
+	/**
+	 * Closes the gap left at a removed slot by moving back later entries whose
+	 * probe sequence passes through it.
+	 */
+	private void shiftBack(int gap) {
+		int slot = gap;
+		while (true) {
+			slot = (slot + 1) & mask;
+			if (values[slot] == null) {
+				break;
+			}
+			int home = slot(keys[slot]);
+			// Move the entry if its home slot is not between the gap and its current slot
+			boolean movable = gap <= slot ? (home <= gap || home > slot) : (home <= gap && home > slot);
+			if (movable) {
+				keys[gap] = keys[slot];
+				values[gap] = values[slot];
+				gap = slot;
+			}
+		}
+		values[gap] = null;
+	}
+
+	private int slot(long key) {
+		// Spread the bits of the key (the finalizer of MurmurHash3)
+		long h = key;
+		h ^= h >>> 33;
+		h *= 0xff51afd7ed558ccdL;
+		h ^= h >>> 33;
+		h *= 0xc4ceb9fe1a85ec53L;
+		h ^= h >>> 33;
+		return (int) h & mask;
+	}
+
+	private void allocate(int capacity) {
+		keys = new long[capacity];
+		values = new Object[capacity];
+		mask = capacity - 1;
+		resizeAt = capacity / 4 * 3;
+	}
+
+	private void rehash(int capacity) {
+		long[] oldKeys = keys;
+		Object[] oldValues = values;
+		allocate(capacity);
+		for (int i = 0; i < oldValues.length; i++) {
+			if (oldValues[i] != null) {
+				int slot = slot(oldKeys[i]);
+				while (values[slot] != null) {
+					slot = (slot + 1) & mask;
+				}
+				keys[slot] = oldKeys[i];
+				values[slot] = oldValues[i];
+			}
+		}
+	}
+}
@@ -3,6 +3,7 @@ package database;
 import interfaces.*;
 import java.util.*;
 import entity.*;
+import enums.*;
 
 /**
  * Database class for managing Manager entities in the system.
@@ -14,31 +15,148 @@ public class ManagerDatabase implements IDatabasePrintable {
 	/**
 	 * Collection of all managers in the system
 	 */
-	private ArrayList<Manager> managers;
+	private final IndexedRepository<Manager> managers;
+
+	/**
+	 * Indexes on the fields managers are looked up by.
+	 */
+	private final IndexedRepository.UniqueIndex<String, Manager> byName;
+	private final IndexedRepository.UniqueIndex<String, Manager> byNric;
+	private final IndexedRepository.Index<Integer, Manager> byAge;
+	private final IndexedRepository.Index<MarriageStatusEnum, Manager> byMaritalStatus;
+
+	/**
+	 * Changes to the managers since they were last written to their data file.
+	 */
+	private final ChangeTracker<Manager> changes = new ChangeTracker<>();
 
 	/**
 	 * Default constructor that initializes an empty managers collection
 	 */
 	public ManagerDatabase() {
-		this.managers = new ArrayList<>();
+		this.managers = new IndexedRepository<>();
+		this.byName = managers.addUniqueIndex(User::getName);
+		this.byNric = managers.addUniqueNricIndex(User::getNric);
+		this.byAge = managers.addIndex(User::getAge);
+		this.byMaritalStatus = managers.addIndex(User::getMaritalStatus);
 	}
 
 	/**
-	 * Sets the managers collection to a new list
+	 * Sets the managers collection to a new list.
+	 * Tracked changes are cleared, as the new collection is taken to match the data file.
 	 * 
 	 * @param managers The new list of managers to use
 	 */
 	public void setManagers(ArrayList<Manager> managers) {
-		this.managers = managers;
+		this.managers.setAll(managers);
+		this.changes.clear();
+		IdentityDirectory.registerAll(IdentityDirectory.Role.MANAGER, this.managers.snapshot());
 	}
 
 	/**
 	 * Retrieves the complete list of managers
 	 * 
-	 * @return ArrayList containing all managers in the database
+	 * @return ArrayList containing all managers in the database; a new list, so changing it does not change the database
 	 */
 	public ArrayList<Manager> getManagers() {
-		return this.managers;
+		return this.managers.getAll();
+	}
+
+	/**
+	 * Retrieves the changes to the managers since they were last written.
+	 * 
+	 * @return the change tracker of this database
+	 */
+	public ChangeTracker<Manager> getChanges() {
+		return this.changes;
+	}
+
+	/**
+	 * Adds a manager to the database, its indexes and the identity directory.
+	 * 
+	 * @param manager The manager to add
+	 * @return true if added, false if null or already in the database
+	 */
+	public boolean add(Manager manager) {
+		if (!this.managers.add(manager)) {
+			return false;
+		}
+		IdentityDirectory.register(IdentityDirectory.Role.MANAGER, manager);
+		return true;
+	}
+
+	/**
+	 * Removes a manager from the database, its indexes and the identity directory.
+	 * 
+	 * @param manager The manager to remove
+	 * @return true if removed, false if not in the database
+	 */
+	public boolean remove(Manager manager) {
+		if (!this.managers.remove(manager)) {
+			return false;
+		}
+		IdentityDirectory.unregister(manager);
+		return true;
+	}
+
+	/**
+	 * Checks whether a manager is in the database.
+	 * 
+	 * @param manager The manager to look for
+	 * @return true if this exact manager is stored
+	 */
+	public boolean contains(Manager manager) {
+		return this.managers.contains(manager);
+	}
+
+	/**
+	 * Updates the indexes and the identity directory after an indexed field of a manager has changed.
+	 * 
+	 * @param manager The changed manager
+	 */
+	public void reindex(Manager manager) {
+		this.managers.reindex(manager);
+		IdentityDirectory.rekey(manager);
+	}
+
+	/**
+	 * Finds the manager with the given name.
+	 * 
+	 * @param name The name to look up
+	 * @return The matching manager, or null if none
+	 */
+	public Manager findByName(String name) {
+		return this.byName.find(name);
+	}
+
+	/**
+	 * Finds the manager with the given NRIC.
+	 * 
+	 * @param nric The NRIC to look up
+	 * @return The matching manager, or null if none
+	 */
+	public Manager findByNric(String nric) {
+		return this.byNric.find(nric);
+	}
+
+	/**
+	 * Finds the managers with the given age.
+	 * 
+	 * @param age The age to look up
+	 * @return A new list of matching managers, in the order they were indexed
+	 */
+	public ArrayList<Manager> findByAge(int age) {
+		return this.byAge.findAll(age);
+	}
+
+	/**
+	 * Finds the managers with the given marital status.
+	 * 
+	 * @param maritalStatus The marital status to look up
+	 * @return A new list of matching managers, in the order they were indexed
+	 */
+	public ArrayList<Manager> findByMaritalStatus(MarriageStatusEnum maritalStatus) {
+		return this.byMaritalStatus.findAll(maritalStatus);
 	}
 
 	/**
@@ -48,13 +166,13 @@ public class ManagerDatabase implements IDatabasePrintable {
 	@Override
 	public void printData() {
 		System.out.println("===================== MANAGER DATABASE =====================");
-		if (managers.isEmpty()) {
+		if (managers.size() == 0) {
 			System.out.println("No managers found in the database.");
 		} else {
 			System.out.printf("%-20s %-15s %-5s %-15s %-20s\n", "Name", "NRIC", "Age", "Marital Status", "Managed Projects");
 			System.out.println("------------------------------------------------------------");
 			
-			for (Manager manager : managers) {				
+			for (Manager manager : managers.snapshot()) {				
 				System.out.printf("%-20s %-15s %-5d %-15s %-20d\n", manager.getName(), manager.getNric(), manager.getAge(), manager.getMaritalStatus(), manager.getManagedProjects().size());
 				
 				// Print managed projects if any
@@ -0,0 +1,75 @@
+package database;
+
+import java.util.*;
+import utils.NricCodec;
+
+/**
+ * Map keyed by NRIC that stores well-formed NRICs as primitive {@code long} codes.
+ *
+ * <p>Keys that {@link NricCodec} can encode go into a {@link LongHashMap}, so
+ * the map neither hashes nor holds on to the key strings. The few keys that
+ * cannot be encoded, e.g. malformed NRICs loaded from a hand-edited file, are
+ * kept in an ordinary {@link HashMap}, so the map behaves like any other
+ * {@code Map<String, V>}.</p>
+ *
+ * @param <V> the type of values
+ * @author BTO Management System Team
+ * @version 2.0
+ * @since 2.0
+ * @see NricCodec
+ */
+public class NricKeyedMap<V> extends AbstractMap<String, V> {
+
+	private final LongHashMap<V> coded = new LongHashMap<>();
+	private final Map<String, V> uncoded = new HashMap<>();
+
+	@Override
+	public V get(Object key) {
+		if (!(key instanceof String)) {
+			return null;
+		}
+		long code = NricCodec.encode((String) key);
+		return code != NricCodec.NO_CODE ? coded.get(code) : uncoded.get(key);
+	}
+
+	@Override
+	public boolean containsKey(Object key) {
+		return get(key) != null;
+	}
+
+	@Override
+	public V put(String key, V value) {
+		long code = NricCodec.encode(key);
+		return code != NricCodec.NO_CODE ? coded.put(code, value) : uncoded.put(key, value);
+	}
+
+	@Override
+	public V remove(Object key) {
+		if (!(key instanceof String)) {
+			return null;
+		}
+		long code = NricCodec.encode((String) key);
+		return code != NricCodec.NO_CODE ? coded.remove(code) : uncoded.remove(key);
+	}
+
+	@Override
+	public int size() {
+		return coded.size() + uncoded.size();
+	}
+
+	@Override
+	public void clear() {
+		coded.clear();
+		uncoded.clear();
+	}
+
+	/**
+	 * Returns a snapshot of the mappings; encoded keys are decoded back to strings.
+	 */
+	@Override
+	public Set<Map.Entry<String, V>> entrySet() {
+		Set<Map.Entry<String, V>> entries = new LinkedHashSet<>(uncoded.entrySet());
+		coded.forEach((code, value) -> entries.add(new AbstractMap.SimpleImmutableEntry<>(NricCodec.decode(code), value)));
+		return entries;
+	}
+}
@@ -3,6 +3,8 @@ package database;
 import interfaces.*;
 import java.util.*;
 import entity.*;
+import java.time.LocalDate;
+import enums.*;
 
 /**
  * Database class for storing and managing officer applications.
@@ -19,33 +21,140 @@ public class OfficerApplicationDatabase implements IDatabasePrintable {
 	/**
 	 * Collection of officer applications stored in the database.
 	 */
-	private ArrayList<OfficerApplication> applications;
+	private final IndexedRepository<OfficerApplication> applications;
+
+	/**
+	 * Indexes on the fields applications are looked up by.
+	 */
+	private final IndexedRepository.Index<LocalDate, OfficerApplication> byDate;
+	private final IndexedRepository.Index<Officer, OfficerApplication> byOfficer;
+	private final IndexedRepository.Index<Project, OfficerApplication> byProject;
+	private final IndexedRepository.EnumIndex<OfficerApplicationStatusEnum, OfficerApplication> byStatus;
+
+	/**
+	 * Changes to the applications since they were last written to their data file.
+	 */
+	private final ChangeTracker<OfficerApplication> changes = new ChangeTracker<>();
 
 	/**
 	 * Default constructor that initializes an empty officer application database.
 	 * Creates a new ArrayList to store OfficerApplication objects.
 	 */
 	public OfficerApplicationDatabase() {
-		this.applications = new ArrayList<>();
+		this.applications = new IndexedRepository<>();
+		this.byDate = applications.addIndex(OfficerApplication::getApplicationDate);
+		this.byOfficer = applications.addIndex(OfficerApplication::getOfficer);
+		this.byProject = applications.addIndex(OfficerApplication::getProject);
+		this.byStatus = applications.addEnumIndex(OfficerApplicationStatusEnum.class, OfficerApplication::getStatus);
 	}
 
 	/**
 	 * Sets the list of officer applications in the database.
 	 * Replaces the existing collection with a new collection of applications.
+	 * Tracked changes are cleared, as the new collection is taken to match the data file.
 	 * 
 	 * @param applications The ArrayList of OfficerApplication objects to set as the database content
 	 */
 	public void setApplications(ArrayList<OfficerApplication> applications) {
-		this.applications = applications;
+		this.applications.setAll(applications);
+		this.changes.clear();
 	}
 
 	/**
 	 * Retrieves the complete list of officer applications from the database.
 	 * 
-	 * @return ArrayList containing all OfficerApplication objects stored in the database
+	 * @return ArrayList containing all OfficerApplication objects stored in the database; a new list, so changing it does not change the database
 	 */
 	public ArrayList<OfficerApplication> getApplications() {
-		return this.applications;
+		return this.applications.getAll();
+	}
+
+	/**
+	 * Retrieves the changes to the applications since they were last written.
+	 * 
+	 * @return the change tracker of this database
+	 */
+	public ChangeTracker<OfficerApplication> getChanges() {
+		return this.changes;
+	}
+
+	/**
+	 * Adds an application to the database and its indexes.
+	 * 
+	 * @param application The application to add
+	 * @return true if added, false if null or already in the database
+	 */
+	public boolean add(OfficerApplication application) {
+		return this.applications.add(application);
+	}
+
+	/**
+	 * Removes an application from the database and its indexes.
+	 * 
+	 * @param application The application to remove
+	 * @return true if removed, false if not in the database
+	 */
+	public boolean remove(OfficerApplication application) {
+		return this.applications.remove(application);
+	}
+
+	/**
+	 * Checks whether an application is in the database.
+	 * 
+	 * @param application The application to look for
+	 * @return true if this exact application is stored
+	 */
+	public boolean contains(OfficerApplication application) {
+		return this.applications.contains(application);
+	}
+
+	/**
+	 * Updates the indexes after an indexed field of an application has changed.
+	 * 
+	 * @param application The changed application
+	 */
+	public void reindex(OfficerApplication application) {
+		this.applications.reindex(application);
+	}
+
+	/**
+	 * Finds the applications with the given date.
+	 * 
+	 * @param date The application date to look up
+	 * @return A new list of matching applications, in the order they were indexed
+	 */
+	public ArrayList<OfficerApplication> findByDate(LocalDate date) {
+		return this.byDate.findAll(date);
+	}
+
+	/**
+	 * Finds the applications with the given officer.
+	 * 
+	 * @param officer The officer who applied
+	 * @return A new list of matching applications, in the order they were indexed
+	 */
+	public ArrayList<OfficerApplication> findByOfficer(Officer officer) {
+		return this.byOfficer.findAll(officer);
+	}
+
+	/**
+	 * Finds the applications with the given project.
+	 * 
+	 * @param project The project applied for
+	 * @return A new list of matching applications, in the order they were indexed
+	 */
+	public ArrayList<OfficerApplication> findByProject(Project project) {
+		return this.byProject.findAll(project);
+	}
+
+	/**
+	 * Finds the applications with the given status.
+	 * 
+	 * @param status The application status to look up
+	 * @return A new list of matching applications, in the order they were indexed
+	 */
+	public ArrayList<OfficerApplication> findByStatus(OfficerApplicationStatusEnum status) {
+		return this.byStatus.findAll(status);
 	}
 
 	/**
@@ -58,13 +167,13 @@ public class OfficerApplicationDatabase implements IDatabasePrintable {
 	@Override
 	public void printData() {
 		System.out.println("===================== OFFICER APPLICATION DATABASE =====================");
-		if (applications.isEmpty()) {
+		if (applications.size() == 0) {
 			System.out.println("No officer applications found in the database.");
 		} else {
 			System.out.printf("%-15s %-20s %-20s %-15s\n", "Date", "Officer", "Project", "Status");
 			System.out.println("------------------------------------------------------------------");
 			
-			for (OfficerApplication application : applications) {
+			for (OfficerApplication application : applications.snapshot()) {
 				String officerName = application.getOfficer() != null ? application.getOfficer().getName() : "N/A";
 				String projectName = application.getProject() != null ? application.getProject().getProjectName() : "N/A";
 						
@@ -3,6 +3,7 @@ package database;
 import entity.*;
 import interfaces.*;
 import java.util.*;
+import enums.*;
 
 /**
  * Database class for storing and managing officer entities.
@@ -20,33 +21,175 @@ public class OfficerDatabase implements IDatabasePrintable {
 	/**
 	 * Collection of officers stored in the database.
 	 */
-	private ArrayList<Officer> officers;
+	private final IndexedRepository<Officer> officers;
+
+	/**
+	 * Indexes on the fields officers are looked up by.
+	 */
+	private final IndexedRepository.UniqueIndex<String, Officer> byName;
+	private final IndexedRepository.UniqueIndex<String, Officer> byNric;
+	private final IndexedRepository.Index<Integer, Officer> byAge;
+	private final IndexedRepository.EnumIndex<MarriageStatusEnum, Officer> byMaritalStatus;
+
+	/**
+	 * Changes to the officers since they were last written to their data file.
+	 */
+	private final ChangeTracker<Officer> changes = new ChangeTracker<>();
 
 	/**
 	 * Default constructor that initializes an empty officer database.
 	 * Creates a new ArrayList to store Officer objects.
 	 */
 	public OfficerDatabase() {
-		this.officers = new ArrayList<>();
+		this.officers = new IndexedRepository<>();
+		this.byName = officers.addUniqueIndex(User::getName);
+		this.byNric = officers.addUniqueNricIndex(User::getNric);
+		this.byAge = officers.addIndex(User::getAge);
+		this.byMaritalStatus = officers.addEnumIndex(MarriageStatusEnum.class, User::getMaritalStatus);
 	}
 
 	/**
 	 * Sets the list of officers in the database.
 	 * Replaces the existing collection with a new collection of officers.
+	 * Tracked changes are cleared, as the new collection is taken to match the data file.
 	 * 
 	 * @param officers The ArrayList of Officer objects to set as the database content
 	 */
 	public void setOfficers(ArrayList<Officer> officers) {
-		this.officers = officers;
+		this.officers.setAll(officers);
+		this.changes.clear();
+		IdentityDirectory.registerAll(IdentityDirectory.Role.OFFICER, this.officers.snapshot());
 	}
 
 	/**
 	 * Retrieves the complete list of officers from the database.
 	 * 
-	 * @return ArrayList containing all Officer objects stored in the database
+	 * @return ArrayList containing all Officer objects stored in the database; a new list, so changing it does not change the database
 	 */
 	public ArrayList<Officer> getOfficers() {
-		return this.officers;
+		return this.officers.getAll();
+	}
+
+	/**
+	 * Retrieves the changes to the officers since they were last written.
+	 * 
+	 * @return the change tracker of this database
+	 */
+	public ChangeTracker<Officer> getChanges() {
+		return this.changes;
+	}
+
+	/**
+	 * Adds an officer to the database, its indexes and the identity directory.
+	 * 
+	 * @param officer The officer to add
+	 * @return true if added, false if null or already in the database
+	 */
+	public boolean add(Officer officer) {
+		if (!this.officers.add(officer)) {
+			return false;
+		}
+		IdentityDirectory.register(IdentityDirectory.Role.OFFICER, officer);
+		return true;
+	}
+
+	/**
+	 * Removes an officer from the database, its indexes and the identity directory.
+	 * 
+	 * @param officer The officer to remove
+	 * @return true if removed, false if not in the database
+	 */
+	public boolean remove(Officer officer) {
+		if (!this.officers.remove(officer)) {
+			return false;
+		}
+		IdentityDirectory.unregister(officer);
+		return true;
+	}
+
+	/**
+	 * Checks whether an officer is in the database.
+	 * 
+	 * @param officer The officer to look for
+	 * @return true if this exact officer is stored
+	 */
+	public boolean contains(Officer officer) {
+		return this.officers.contains(officer);
+	}
+
+	/**
+	 * Updates the indexes and the identity directory after an indexed field of an officer has changed.
+	 * 
+	 * @param officer The changed officer
+	 */
+	public void reindex(Officer officer) {
+		this.officers.reindex(officer);
+		IdentityDirectory.rekey(officer);
+	}
+
+	/**
+	 * Finds the officer with the given name.
+	 * 
+	 * @param name The name to look up
+	 * @return The matching officer, or null if none
+	 */
+	public Officer findByName(String name) {
+		return this.byName.find(name);
+	}
+
+	/**
+	 * Finds the officer with the given NRIC.
+	 * 
+	 * @param nric The NRIC to look up
+	 * @return The matching officer, or null if none
+	 */
+	public Officer findByNric(String nric) {
+		return this.byNric.find(nric);
+	}
+
+	/**
+	 * Finds the officers with the given age.
+	 * 
+	 * @param age The age to look up
+	 * @return A new list of matching officers, in the order they were indexed
+	 */
+	public ArrayList<Officer> findByAge(int age) {
+		return this.byAge.findAll(age);
+	}
+
+	/**
+	 * Finds the officers with the given marital status.
+	 * 
+	 * @param maritalStatus The marital status to look up
+	 * @return A new list of matching officers, in the order they were indexed
+	 */
+	public ArrayList<Officer> findByMaritalStatus(MarriageStatusEnum maritalStatus) {
+		return this.byMaritalStatus.findAll(maritalStatus);
+	}
+
+	/**
+	 * Finds the officers with one of the given ages and one of the given marital statuses.
+	 * The conditions are combined as bitmaps of the age and marital status indexes.
+	 * 
+	 * @param ages The ages to accept; null or empty accepts any age
+	 * @param maritalStatuses The marital statuses to accept; null or empty accepts any status
+	 * @return A new list of matching officers, in the order they were added
+	 */
+	public ArrayList<Officer> findByAgesAndMaritalStatuses(Collection<Integer> ages, Collection<MarriageStatusEnum> maritalStatuses) {
+		return this.officers.read(() -> {
+			BitSet rows = this.officers.allRows();
+			if (ages != null && !ages.isEmpty()) {
+				BitSet ageRows = new BitSet();
+				for (Integer age : ages) {
+					ageRows.or(this.byAge.rows(age));
+				}
+				rows.and(ageRows);
+			}
+			if (maritalStatuses != null && !maritalStatuses.isEmpty()) {
+				rows.and(this.byMaritalStatus.rowsAnyOf(maritalStatuses));
+			}
+			return this.officers.select(rows);
+		});
 	}
 
 	/**
@@ -60,13 +203,13 @@ public class OfficerDatabase implements IDatabasePrintable {
 	@Override
 	public void printData() {
 		System.out.println("===================== OFFICER DATABASE =====================");
-		if (officers.isEmpty()) {
+		if (officers.size() == 0) {
 			System.out.println("No officers found in the database.");
 		} else {
 			System.out.printf("%-20s %-15s %-5s %-15s %-20s\n", "Name", "NRIC", "Age", "Marital Status", "Assigned Projects");
 			System.out.println("------------------------------------------------------------");
 			
-			for (Officer officer : officers) {
+			for (Officer officer : officers.snapshot()) {
 				System.out.printf("%-20s %-15s %-5d %-15s\n", officer.getName(), officer.getNric(), officer.getAge(), officer.getMaritalStatus());
 				
 				// Print assigned projects if any
@@ -3,6 +3,8 @@ package database;
 import interfaces.*;
 import java.util.*;
 import entity.*;
+import java.time.LocalDate;
+import enums.*;
 
 /**
  * Database management class for Project entities in the BTO system.
@@ -15,33 +17,385 @@ public class ProjectDatabase implements IDatabasePrintable {
 	/**
 	 * Collection of all housing projects in the system
 	 */
-	private ArrayList<Project> projects;
+	private final IndexedRepository<Project> projects;
+
+	/**
+	 * Indexes on the fields projects are looked up by.
+	 */
+	private final IndexedRepository.UniqueIndex<String, Project> byName;
+	private final IndexedRepository.Index<String, Project> byNeighborhood;
+	private final IndexedRepository.Index<LocalDate, Project> byApplicationStartDate;
+	private final IndexedRepository.Index<LocalDate, Project> byApplicationEndDate;
+	private final IndexedRepository.IntervalIndex<Project> byApplicationPeriod;
+	private final IndexedRepository.Index<Manager, Project> byManager;
+	private final IndexedRepository.EnumIndex<VisibilityEnum, Project> byVisibility;
+	private final IndexedRepository.EnumRangeIndex<FlatTypeEnum, Project> byFlatTypePrice;
+	private final IndexedRepository.EnumRangeIndex<FlatTypeEnum, Project> byAvailableFlatTypePrice;
+	private final EligibilityMatrix eligibility;
+
+	/**
+	 * Changes to the projects since they were last written to their data file.
+	 */
+	private final ChangeTracker<Project> changes = new ChangeTracker<>();
 
 	/**
 	 * Default constructor that initializes an empty project database.
 	 * Creates a new collection to hold project records.
 	 */
 	public ProjectDatabase() {
-		this.projects = new ArrayList<>();
+		this.projects = new IndexedRepository<>();
+		this.byName = projects.addUniqueIndex(Project::getProjectName);
+		this.byNeighborhood = projects.addIndex(Project::getNeighborhood);
+		this.byApplicationStartDate = projects.addIndex(Project::getApplicationStartDate);
+		this.byApplicationEndDate = projects.addIndex(Project::getApplicationEndDate);
+		this.byApplicationPeriod = projects.addIntervalIndex(Project::getApplicationStartDate, Project::getApplicationEndDate);
+		this.byManager = projects.addIndex(Project::getManager);
+		this.byVisibility = projects.addEnumIndex(VisibilityEnum.class, Project::getVisibility);
+		this.byFlatTypePrice = projects.addEnumRangeIndex(FlatTypeEnum.class, Project::getFlatTypes, FlatType::getType, FlatType::getSellingPrice);
+		this.byAvailableFlatTypePrice = projects.addEnumRangeIndex(FlatTypeEnum.class, ProjectDatabase::getAvailableFlatTypes, FlatType::getType, FlatType::getSellingPrice);
+		this.eligibility = projects.registerRows(new EligibilityMatrix(projects));
 	}
 
 	/**
 	 * Sets the list of projects in the database.
 	 * Replaces existing projects with the provided collection.
+	 * Tracked changes are cleared, as the new collection is taken to match the data file.
 	 * 
 	 * @param projects The list of projects to store in the database
 	 */
 	public void setProjects(ArrayList<Project> projects) {
-		this.projects = projects;
+		this.projects.setAll(projects);
+		this.changes.clear();
 	}
 
 	/**
 	 * Retrieves the list of all projects in the database.
 	 * 
-	 * @return The collection of Project objects stored in this database
+	 * @return The collection of Project objects stored in this database; a new list, so changing it does not change the database
 	 */
 	public ArrayList<Project> getProjects() {
-		return this.projects;
+		return this.projects.getAll();
+	}
+
+	/**
+	 * Retrieves the changes to the projects since they were last written.
+	 * 
+	 * @return the change tracker of this database
+	 */
+	public ChangeTracker<Project> getChanges() {
+		return this.changes;
+	}
+
+	/**
+	 * Adds a project to the database and its indexes.
+	 * 
+	 * @param project The project to add
+	 * @return true if added, false if null or already in the database
+	 */
+	public boolean add(Project project) {
+		return this.projects.add(project);
+	}
+
+	/**
+	 * Removes a project from the database and its indexes.
+	 * 
+	 * @param project The project to remove
+	 * @return true if removed, false if not in the database
+	 */
+	public boolean remove(Project project) {
+		return this.projects.remove(project);
+	}
+
+	/**
+	 * Checks whether a project is in the database.
+	 * 
+	 * @param project The project to look for
+	 * @return true if this exact project is stored
+	 */
+	public boolean contains(Project project) {
+		return this.projects.contains(project);
+	}
+
+	/**
+	 * Updates the indexes after an indexed field of a project has changed.
+	 * 
+	 * @param project The changed project
+	 */
+	public void reindex(Project project) {
+		this.projects.reindex(project);
+	}
+
+	/**
+	 * Finds the project with the given name.
+	 * 
+	 * @param projectName The project name to look up
+	 * @return The matching project, or null if none
+	 */
+	public Project findByName(String projectName) {
+		return this.byName.find(projectName);
+	}
+
+	/**
+	 * Finds the projects with the given neighborhood.
+	 * 
+	 * @param neighborhood The neighborhood to look up
+	 * @return A new list of matching projects, in the order they were indexed
+	 */
+	public ArrayList<Project> findByNeighborhood(String neighborhood) {
+		return this.byNeighborhood.findAll(neighborhood);
+	}
+
+	/**
+	 * Finds the projects with the given application start date.
+	 * 
+	 * @param startDate The application opening date to look up
+	 * @return A new list of matching projects, in the order they were indexed
+	 */
+	public ArrayList<Project> findByApplicationStartDate(LocalDate startDate) {
+		return this.byApplicationStartDate.findAll(startDate);
+	}
+
+	/**
+	 * Finds the projects with the given application end date.
+	 * 
+	 * @param endDate The application closing date to look up
+	 * @return A new list of matching projects, in the order they were indexed
+	 */
+	public ArrayList<Project> findByApplicationEndDate(LocalDate endDate) {
+		return this.byApplicationEndDate.findAll(endDate);
+	}
+
+	/**
+	 * Finds the projects whose application period includes the given date.
+	 * 
+	 * @param date The date to look up
+	 * @return A new list of matching projects, ordered by application start date
+	 */
+	public ArrayList<Project> findOpenOn(LocalDate date) {
+		return this.byApplicationPeriod.findContaining(date);
+	}
+
+	/**
+	 * Finds the projects whose application period overlaps the given dates.
+	 * 
+	 * @param from The first date of the range, inclusive
+	 * @param to The last date of the range, inclusive
+	 * @return A new list of matching projects, ordered by application start date
+	 */
+	public ArrayList<Project> findByApplicationPeriodOverlapping(LocalDate from, LocalDate to) {
+		return this.byApplicationPeriod.findOverlapping(from, to);
+	}
+
+	/**
+	 * Finds the projects open for applications on the given date that an
+	 * applicant of the given profile may apply for, using the eligibility matrix.
+	 * 
+	 * @param maritalStatus The marital status of the applicant
+	 * @param age The age of the applicant
+	 * @param date The date the application period must include
+	 * @param visibility The visibility the projects must have, or null for any
+	 * @return A new list of matching projects, in database order
+	 */
+	public ArrayList<Project> findEligibleOpenOn(MarriageStatusEnum maritalStatus, int age, LocalDate date, VisibilityEnum visibility) {
+		return this.projects.read(() -> {
+			BitSet result = this.eligibility.rows(maritalStatus, age);
+			if (visibility != null) {
+				result.and(this.byVisibility.rows(visibility));
+			}
+			if (!result.isEmpty()) {
+				result.and(this.projects.rowsOf(this.byApplicationPeriod.findContaining(date)));
+			}
+			return this.projects.select(result);
+		});
+	}
+
+	/**
+	 * Returns some of the stored projects in the order they are stored.
+	 * 
+	 * @param projects The projects to order; projects not in the database are left out
+	 * @return A new list of the projects, in database order
+	 */
+	public ArrayList<Project> inDatabaseOrder(Collection<Project> projects) {
+		return this.projects.read(() -> this.projects.select(this.projects.rowsOf(projects)));
+	}
+
+	/**
+	 * Finds the projects with the given manager.
+	 * 
+	 * @param manager The manager in charge
+	 * @return A new list of matching projects, in the order they were indexed
+	 */
+	public ArrayList<Project> findByManager(Manager manager) {
+		return this.byManager.findAll(manager);
+	}
+
+	/**
+	 * Finds the projects with the given visibility.
+	 * 
+	 * @param visibility The visibility to look up
+	 * @return A new list of matching projects, in database order
+	 */
+	public ArrayList<Project> findByVisibility(VisibilityEnum visibility) {
+		return this.byVisibility.findAll(visibility);
+	}
+
+	/**
+	 * Finds the projects offering the given flat type.
+	 * 
+	 * @param flatType The flat type to look up
+	 * @return A new list of matching projects, in database order
+	 */
+	public ArrayList<Project> findByFlatType(FlatTypeEnum flatType) {
+		return this.projects.read(() -> this.projects.select(this.byFlatTypePrice.rows(flatType)));
+	}
+
+	/**
+	 * Compiles a filter into a query plan over the indexes of this database.
+	 * The filter is read once; later changes to it do not affect the plan.
+	 * 
+	 * @param filter The search criteria
+	 * @return A plan finding the projects the filter matches
+	 */
+	public FilterPlan compile(Filter filter) {
+		return new FilterPlan(filter, null);
+	}
+
+	/**
+	 * Compiles a filter into a query plan that only finds projects with the
+	 * given visibility.
+	 * 
+	 * @param filter The search criteria
+	 * @param visibility The visibility the projects must have, or null for any
+	 * @return A plan finding the projects the filter matches
+	 */
+	public FilterPlan compile(Filter filter, VisibilityEnum visibility) {
+		return new FilterPlan(filter, visibility);
+	}
+
+	/**
+	 * Returns the flat types of a project that have units left.
+	 */
+	private static List<FlatType> getAvailableFlatTypes(Project project) {
+		List<FlatType> available = new ArrayList<>();
+		if (project.getFlatTypes() != null) {
+			for (FlatType flatType : project.getFlatTypes()) {
+				if (flatType != null && flatType.getAvailableUnits() > 0) {
+					available.add(flatType);
+				}
+			}
+		}
+		return available;
+	}
+
+	/**
+	 * Query plan for a {@link Filter}, finding the same projects as
+	 * {@link Filter#matchesProject(Project)} without checking every project.
+	 * 
+	 * <p>The flat type and price criteria are looked up together in the price
+	 * index of each selected flat type, giving the projects with a flat of one
+	 * of those types in the price range. The result is intersected with the
+	 * projects of the selected neighborhoods and with the project of the given
+	 * name, if any. A plan can be run any number of times and always reflects
+	 * the current projects.</p>
+	 * 
+	 * <p>The plan can also count the matching projects per neighborhood, flat
+	 * type and price range in the same run. The counts are read off the
+	 * bitmaps of the indexes, which are kept up to date as projects change
+	 * visibility and flat types sell out, so no project is checked again.</p>
+	 */
+	public class FilterPlan {
+
+		private final String projectName;
+		private final Set<String> neighborhoods;
+		private final Set<FlatTypeEnum> flatTypes;
+		private final double minPrice;
+		private final double maxPrice;
+		private final VisibilityEnum visibility;
+
+		private FilterPlan(Filter filter, VisibilityEnum visibility) {
+			String name = filter.getProjectName();
+			this.projectName = name != null && !name.isEmpty() ? name : null;
+			this.neighborhoods = filter.getNeighborhoodList() != null ? new LinkedHashSet<>(filter.getNeighborhoodList()) : new LinkedHashSet<>();
+			this.flatTypes = filter.getFlatTypes() != null ? new LinkedHashSet<>(filter.getFlatTypes()) : new LinkedHashSet<>();
+			this.minPrice = filter.getMinPrice();
+			this.maxPrice = filter.getMaxPrice();
+			this.visibility = visibility;
+		}
+
+		/**
+		 * Returns the rows of the matching projects.
+		 */
+		BitSet rows() {
+			BitSet result = byFlatTypePrice.rowsBetween(this.flatTypes, this.minPrice, this.maxPrice);
+			if (this.visibility != null) {
+				result.and(byVisibility.rows(this.visibility));
+			}
+			if (!this.neighborhoods.isEmpty() && !result.isEmpty()) {
+				BitSet inNeighborhoods = new BitSet();
+				for (String neighborhood : this.neighborhoods) {
+					inNeighborhoods.or(byNeighborhood.rows(neighborhood));
+				}
+				result.and(inNeighborhoods);
+			}
+			if (this.projectName != null && !result.isEmpty()) {
+				result.and(byName.rows(this.projectName));
+			}
+			return result;
+		}
+
+		/**
+		 * Finds the projects matching the filter.
+		 * 
+		 * @return A new list of matching projects, in database order
+		 */
+		public ArrayList<Project> findAll() {
+			return projects.read(() -> projects.select(rows()));
+		}
+
+		/**
+		 * Finds the projects among some candidates that match the filter.
+		 * 
+		 * @param candidates The projects to choose from; projects not in the database are left out
+		 * @return A new list of the matching candidates, in database order
+		 */
+		public ArrayList<Project> findAmong(Collection<Project> candidates) {
+			return projects.read(() -> {
+				BitSet result = rows();
+				result.and(projects.rowsOf(candidates));
+				return projects.select(result);
+			});
+		}
+
+		/**
+		 * Finds the projects among some candidates that match the filter and
+		 * counts them per neighborhood, flat type and price range.
+		 * 
+		 * @param candidates The projects to choose from; projects not in the database are left out
+		 * @param priceBucketSize The width of each price range in SGD, positive
+		 * @return The matching candidates, in database order, with their facet counts
+		 */
+		public FilterResult facetsAmong(Collection<Project> candidates, double priceBucketSize) {
+			return projects.read(() -> {
+				BitSet result = rows();
+				result.and(projects.rowsOf(candidates));
+				ArrayList<Project> matching = projects.select(result);
+
+				SortedMap<String, Integer> neighborhoodCounts = new TreeMap<>();
+				for (Project project : matching) {
+					if (project.getNeighborhood() != null) {
+						neighborhoodCounts.merge(project.getNeighborhood(), 1, Integer::sum);
+					}
+				}
+				EnumMap<FlatTypeEnum, Integer> flatTypeCounts = new EnumMap<>(FlatTypeEnum.class);
+				for (FlatTypeEnum flatType : FlatTypeEnum.values()) {
+					BitSet offering = byAvailableFlatTypePrice.rowsBetween(Collections.singleton(flatType), this.minPrice, this.maxPrice);
+					offering.and(result);
+					flatTypeCounts.put(flatType, offering.cardinality());
+				}
+				SortedMap<Double, Integer> priceBucketCounts = byAvailableFlatTypePrice.countByBucket(result, this.flatTypes, this.minPrice, this.maxPrice, priceBucketSize);
+				return new FilterResult(matching, neighborhoodCounts, flatTypeCounts, priceBucketCounts, priceBucketSize);
+			});
+		}
 	}
 
 	/**
@@ -53,14 +407,14 @@ public class ProjectDatabase implements IDatabasePrintable {
 	@Override
 	public void printData() {
 		System.out.println("===================== PROJECT DATABASE =====================");
-		if (projects.isEmpty()) {
+		if (projects.size() == 0) {
 			System.out.println("No projects found in the database.");
 		} else {
 			System.out.printf("%-25s %-15s %-15s %-15s %-15s %-10s %-10s\n", 
 					"Project Name", "Neighborhood", "Start Date", "End Date", "Manager", "Visibility", "Flat Types");
 			System.out.println("-----------------------------------------------------------------------------------");
 			
-			for (Project project : projects) {
+			for (Project project : projects.snapshot()) {
 				String managerName = project.getManager() != null ? project.getManager().getName() : "N/A";
 						
 				System.out.printf("%-25s %-15s %-15s %-15s %-15s %-10s %-10d\n", project.getProjectName(), project.getNeighborhood(), project.getApplicationStartDate(), project.getApplicationEndDate(), managerName, project.getVisibility(), project.getFlatTypes().size());
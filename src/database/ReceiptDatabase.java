@@ -3,6 +3,7 @@ package database;
 import interfaces.*;
 import java.util.*;
 import entity.*;
+import java.time.LocalDate;
 
 /**
  * Database class for storing and managing receipt records.
@@ -20,33 +21,139 @@ public class ReceiptDatabase implements IDatabasePrintable {
 	/**
 	 * Collection of receipts stored in the database.
 	 */
-	private ArrayList<Receipt> receipts;
+	private final IndexedRepository<Receipt> receipts;
+
+	/**
+	 * Indexes on the fields receipts are looked up by.
+	 */
+	private final IndexedRepository.UniqueIndex<String, Receipt> byNumber;
+	private final IndexedRepository.DateIndex<Receipt> byDate;
+	private final IndexedRepository.UniqueIndex<Booking, Receipt> byBooking;
+
+	/**
+	 * Changes to the receipts since they were last written to their data file.
+	 */
+	private final ChangeTracker<Receipt> changes = new ChangeTracker<>();
 
 	/**
 	 * Default constructor that initializes an empty receipt database.
 	 * Creates a new ArrayList to store Receipt objects.
 	 */
 	public ReceiptDatabase() {
-		this.receipts = new ArrayList<>();
+		this.receipts = new IndexedRepository<>();
+		this.byNumber = receipts.addUniqueIndex(Receipt::getReceiptNumber);
+		this.byDate = receipts.addDateIndex(Receipt::getDate);
+		this.byBooking = receipts.addUniqueIndex(Receipt::getBooking);
 	}
 
 	/**
 	 * Sets the list of receipts in the database.
 	 * Replaces the existing collection with a new collection of receipts.
+	 * Tracked changes are cleared, as the new collection is taken to match the data file.
 	 * 
 	 * @param receipts The ArrayList of Receipt objects to set as the database content
 	 */
 	public void setReceipts(ArrayList<Receipt> receipts) {
-		this.receipts = receipts;
+		this.receipts.setAll(receipts);
+		this.changes.clear();
 	}
 
 	/**
 	 * Retrieves the complete list of receipts from the database.
 	 * 
-	 * @return ArrayList containing all Receipt objects stored in the database
+	 * @return ArrayList containing all Receipt objects stored in the database; a new list, so changing it does not change the database
 	 */
 	public ArrayList<Receipt> getReceipts() {
-		return this.receipts;
+		return this.receipts.getAll();
+	}
+
+	/**
+	 * Retrieves the changes to the receipts since they were last written.
+	 * 
+	 * @return the change tracker of this database
+	 */
+	public ChangeTracker<Receipt> getChanges() {
+		return this.changes;
+	}
+
+	/**
+	 * Adds a receipt to the database and its indexes.
+	 * 
+	 * @param receipt The receipt to add
+	 * @return true if added, false if null or already in the database
+	 */
+	public boolean add(Receipt receipt) {
+		return this.receipts.add(receipt);
+	}
+
+	/**
+	 * Removes a receipt from the database and its indexes.
+	 * 
+	 * @param receipt The receipt to remove
+	 * @return true if removed, false if not in the database
+	 */
+	public boolean remove(Receipt receipt) {
+		return this.receipts.remove(receipt);
+	}
+
+	/**
+	 * Checks whether a receipt is in the database.
+	 * 
+	 * @param receipt The receipt to look for
+	 * @return true if this exact receipt is stored
+	 */
+	public boolean contains(Receipt receipt) {
+		return this.receipts.contains(receipt);
+	}
+
+	/**
+	 * Updates the indexes after an indexed field of a receipt has changed.
+	 * 
+	 * @param receipt The changed receipt
+	 */
+	public void reindex(Receipt receipt) {
+		this.receipts.reindex(receipt);
+	}
+
+	/**
+	 * Finds the receipt with the given number.
+	 * 
+	 * @param receiptNumber The receipt number to look up
+	 * @return The matching receipt, or null if none
+	 */
+	public Receipt findByNumber(String receiptNumber) {
+		return this.byNumber.find(receiptNumber);
+	}
+
+	/**
+	 * Finds the receipts with the given date.
+	 * 
+	 * @param date The receipt date to look up
+	 * @return A new list of matching receipts, in the order they were indexed
+	 */
+	public ArrayList<Receipt> findByDate(LocalDate date) {
+		return this.byDate.findOn(date);
+	}
+
+	/**
+	 * Finds the receipts issued within a date range, in date order.
+	 * 
+	 * @param from The first date of the range, inclusive; null for no lower bound
+	 * @param to The last date of the range, inclusive; null for no upper bound
+	 * @return A new list of matching receipts, ordered by date
+	 */
+	public ArrayList<Receipt> findByDateBetween(LocalDate from, LocalDate to) {
+		return this.byDate.findBetween(from, to);
+	}
+
+	/**
+	 * Finds the receipt with the given booking.
+	 * 
+	 * @param booking The booking the receipt was issued for
+	 * @return The matching receipt, or null if none
+	 */
+	public Receipt findByBooking(Booking booking) {
+		return this.byBooking.find(booking);
 	}
 
 	/**
@@ -62,13 +169,13 @@ public class ReceiptDatabase implements IDatabasePrintable {
 	@Override
 	public void printData() {
 		System.out.println("===================== RECEIPT DATABASE =====================");
-		if (receipts.isEmpty()) {
+		if (receipts.size() == 0) {
 			System.out.println("No receipts found in the database.");
 		} else {
 			System.out.printf("%-20s %-15s %-20s %-20s %-15s\n", "Receipt Number", "Date", "Applicant", "Project", "Flat Type");
 			System.out.println("------------------------------------------------------------");
 			
-			for (Receipt receipt : receipts) {
+			for (Receipt receipt : receipts.snapshot()) {
 				Booking booking = receipt.getBooking();
 				String applicantName = "N/A";
 				String projectName = "N/A";
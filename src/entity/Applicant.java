@@ -3,6 +3,7 @@ package entity;
 import database.*;
 import enums.*;
 import java.util.*;
+import utils.ApplicationConstants;
 
 /**
  * Entity class representing an Applicant in the BTO Management System.
@@ -104,7 +105,7 @@ public class Applicant extends User {
 	 * @see #setDatabase(ApplicantDatabase)
 	 * @see #getDatabase()
 	 */
-	private static ApplicantDatabase database;
+	private static volatile ApplicantDatabase database;
 
 	// ============================================================================
 	// CONSTRUCTORS
@@ -213,6 +214,23 @@ public class Applicant extends User {
 		this.bookings = bookings != null ? bookings : new ArrayList<>();
 	}
 
+	/**
+	 * Moves this applicant to its current keys in the database indexes.
+	 */
+	@Override
+	protected void reindex() {
+		if (database != null) {
+			database.reindex(this);
+		}
+		// Applications are indexed by their applicant's NRIC
+		BTOApplicationDatabase applicationDatabase = BTOApplication.getDatabase();
+		if (applicationDatabase != null && applications != null) {
+			for (BTOApplication application : applications) {
+				applicationDatabase.reindex(application);
+			}
+		}
+	}
+
 	/**
 	 * Sets the static database reference for the Applicant class.
 	 * 
@@ -352,13 +370,7 @@ public class Applicant extends User {
 		if (database == null || name == null) {
 			return null;
 		}
-		
-		for (Applicant applicant : database.getApplicants()) {
-			if (name.equals(applicant.getName())) {
-				return applicant;
-			}
-		}
-		return null;
+		return database.findByName(name);
 	}
 
 	/**
@@ -371,13 +383,7 @@ public class Applicant extends User {
 		if (database == null || nric == null) {
 			return null;
 		}
-		
-		for (Applicant applicant : database.getApplicants()) {
-			if (nric.equals(applicant.getNric())) {
-				return applicant;
-			}
-		}
-		return null;
+		return database.findByNric(nric);
 	}
 
 	/**
@@ -387,17 +393,10 @@ public class Applicant extends User {
 	 * @return ArrayList of matching Applicants
 	 */
 	public static ArrayList<Applicant> findApplicantsByAge(int age) {
-		ArrayList<Applicant> result = new ArrayList<>();
 		if (database == null) {
-			return result;
-		}
-		
-		for (Applicant applicant : database.getApplicants()) {
-			if (applicant.getAge() == age) {
-				result.add(applicant);
-			}
+			return new ArrayList<>();
 		}
-		return result;
+		return database.findByAge(age);
 	}
 
 	/**
@@ -411,6 +410,11 @@ public class Applicant extends User {
 			return null;
 		}
 		
+		// The application usually knows its applicant; scan only if it does not
+		Applicant owner = application.getApplicant();
+		if (owner != null && database.contains(owner) && owner.getApplications().contains(application)) {
+			return owner;
+		}
 		for (Applicant applicant : database.getApplicants()) {
 			ArrayList<BTOApplication> apps = applicant.getApplications();
 			if (apps.contains(application)) {
@@ -431,6 +435,11 @@ public class Applicant extends User {
 			return null;
 		}
 		
+		// The enquiry usually knows its submitter; scan only if it does not
+		Applicant owner = enquiry.getSubmittedBy();
+		if (owner != null && database.contains(owner) && owner.getEnquiries().contains(enquiry)) {
+			return owner;
+		}
 		for (Applicant applicant : database.getApplicants()) {
 			ArrayList<Enquiry> enqs = applicant.getEnquiries();
 			if (enqs.contains(enquiry)) {
@@ -447,17 +456,69 @@ public class Applicant extends User {
 	 * @return ArrayList of matching Applicants
 	 */
 	public static ArrayList<Applicant> findApplicantsByMaritalStatus(MarriageStatusEnum status) {
-		ArrayList<Applicant> result = new ArrayList<>();
 		if (database == null || status == null) {
-			return result;
+			return new ArrayList<>();
 		}
-		
-		for (Applicant applicant : database.getApplicants()) {
-			if (status.equals(applicant.getMaritalStatus())) {
-				result.add(applicant);
+		return database.findByMaritalStatus(status);
+	}
+
+	/**
+	 * Finds and returns all applicants with one of the given ages and one of the given marital statuses.
+	 * 
+	 * @param ages The ages to search for; null or empty matches any age
+	 * @param statuses The marital statuses to search for; null or empty matches any status
+	 * @return ArrayList of matching Applicants
+	 */
+	public static ArrayList<Applicant> findApplicantsByAgesAndMaritalStatuses(Collection<Integer> ages, Collection<MarriageStatusEnum> statuses) {
+		if (database == null) {
+			return new ArrayList<>();
+		}
+		return database.findByAgesAndMaritalStatuses(ages, statuses);
+	}
+
+	/**
+	 * Checks if an applicant of a given marital status and age may apply for a flat type.
+	 * 
+	 * <p>Singles must be at least {@value utils.ApplicationConstants#MIN_AGE_SINGLE_APPLICANT}
+	 * years old and can only apply for 2-room flats; married applicants must be at least
+	 * {@value utils.ApplicationConstants#MIN_AGE_MARRIED_APPLICANT} years old.</p>
+	 * 
+	 * @param maritalStatus The marital status of the applicant
+	 * @param age The age of the applicant
+	 * @param flatType The flat type to check
+	 * @return true if the applicant may apply for the flat type, false otherwise
+	 */
+	public static boolean isEligibleForFlatType(MarriageStatusEnum maritalStatus, int age, FlatTypeEnum flatType) {
+		if (maritalStatus == MarriageStatusEnum.SINGLE) {
+			return age >= ApplicationConstants.MIN_AGE_SINGLE_APPLICANT && flatType == FlatTypeEnum.TWO_ROOM;
+		}
+		if (maritalStatus == MarriageStatusEnum.MARRIED) {
+			return age >= ApplicationConstants.MIN_AGE_MARRIED_APPLICANT;
+		}
+		return true;
+	}
+
+	/**
+	 * Checks if an applicant of a given marital status and age may apply for at least
+	 * one flat type of a project. Any application requires an age of at least
+	 * {@value utils.ApplicationConstants#MIN_AGE_MARRIED_APPLICANT}. Visibility and
+	 * application period are not checked.
+	 * 
+	 * @param maritalStatus The marital status of the applicant
+	 * @param age The age of the applicant
+	 * @param project The project to check
+	 * @return true if the project offers a flat type the applicant may apply for, false otherwise
+	 */
+	public static boolean isEligibleForAnyFlatType(MarriageStatusEnum maritalStatus, int age, Project project) {
+		if (age < ApplicationConstants.MIN_AGE_MARRIED_APPLICANT || project.getFlatTypes() == null) {
+			return false;
+		}
+		for (FlatType flatType : project.getFlatTypes()) {
+			if (flatType != null && isEligibleForFlatType(maritalStatus, age, flatType.getType())) {
+				return true;
 			}
 		}
-		return result;
+		return false;
 	}
 
 	/**
@@ -473,12 +534,10 @@ public class Applicant extends User {
 			return false;
 		}
 		
-		ArrayList<Applicant> applicants = database.getApplicants();
-		if (applicants.contains(applicant)) {
+		if (!database.add(applicant)) {
 			return false; // Already in database
 		}
-		
-		applicants.add(applicant);
+		database.getChanges().markAdded(applicant);
 		return true;
 	}
 
@@ -495,8 +554,11 @@ public class Applicant extends User {
 			return false;
 		}
 		
-		ArrayList<Applicant> applicants = database.getApplicants();
-		return applicants.remove(applicant);
+		if (!database.remove(applicant)) {
+			return false;
+		}
+		database.getChanges().markRemoved(applicant);
+		return true;
 	}
 
 	/**
@@ -3,7 +3,13 @@ package entity;
 import enums.*;
 import database.*;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
 import java.time.LocalDate;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+import java.util.function.ToIntFunction;
 
 /**
  * The BTOApplication class represents an application for a BTO (Build-To-Order) flat.
@@ -41,11 +47,14 @@ public class BTOApplication {
 	/**
 	 * The withdrawal status of the application (NA, PENDING, APPROVED, etc.)
 	 */
-	private WithdrawalStatusEnum withdrawalStatus;
+	private volatile WithdrawalStatusEnum withdrawalStatus;
 	/**
 	 * Static database reference for BTOApplication persistence
 	 */
-	private static BTOApplicationDatabase database;
+	private static volatile BTOApplicationDatabase database;
+
+	private static final AtomicReferenceFieldUpdater<BTOApplication, WithdrawalStatusEnum> WITHDRAWAL_STATUS =
+			AtomicReferenceFieldUpdater.newUpdater(BTOApplication.class, WithdrawalStatusEnum.class, "withdrawalStatus");
 
 	/**
 	 * Default constructor that initializes a BTOApplication with default values.
@@ -128,6 +137,7 @@ public class BTOApplication {
 	 */
 	public void setApplicationID(String applicationID) {
 		this.applicationID = applicationID;
+		reindex();
 	}
 
 	/**
@@ -137,6 +147,7 @@ public class BTOApplication {
 	 */
 	public void setApplicationDate(LocalDate applicationDate) {
 		this.applicationDate = applicationDate;
+		reindex();
 	}
 
 	/**
@@ -146,6 +157,7 @@ public class BTOApplication {
 	 */
 	public void setApplicant(Applicant applicant) {
 		this.applicant = applicant;
+		reindex();
 	}
 
 	/**
@@ -155,6 +167,7 @@ public class BTOApplication {
 	 */
 	public void setProject(Project project) {
 		this.project = project;
+		reindex();
 	}
 
 	/**
@@ -173,6 +186,29 @@ public class BTOApplication {
 	 */
 	public void setStatus(BTOApplicationStatusEnum status) {
 		this.status = status;
+		reindex();
+	}
+
+	/**
+	 * Changes the status of the application only if it still has the expected
+	 * status. The check and the change are atomic with respect to
+	 * {@link #changeStatuses(BTOApplicationStatusEnum, Map)}, so a manager
+	 * settling an application by hand and a ballot settling it at the same
+	 * time cannot both succeed.
+	 *
+	 * @param expected The status the application must have
+	 * @param status The new status of the application
+	 * @return true if the status was changed, false if the application no longer had the expected status
+	 */
+	public boolean changeStatus(BTOApplicationStatusEnum expected, BTOApplicationStatusEnum status) {
+		if (database == null) {
+			if (this.status != expected) {
+				return false;
+			}
+			this.status = status;
+			return true;
+		}
+		return database.changeStatus(this, expected, status);
 	}
 
 	/**
@@ -184,6 +220,29 @@ public class BTOApplication {
 		this.withdrawalStatus = withdrawalStatus;
 	}
 
+	/**
+	 * Changes the withdrawal status of the application only if it still has
+	 * the expected withdrawal status. The check and the change are atomic, so
+	 * a withdrawal request is only processed once.
+	 *
+	 * @param expected The withdrawal status the application must have
+	 * @param withdrawalStatus The new withdrawal status
+	 * @return true if the withdrawal status was changed, false otherwise
+	 */
+	public boolean changeWithdrawalStatus(WithdrawalStatusEnum expected, WithdrawalStatusEnum withdrawalStatus) {
+		return WITHDRAWAL_STATUS.compareAndSet(this, expected, withdrawalStatus);
+	}
+
+	/**
+	 * Moves this application to its current keys in the database indexes
+	 * after one of its indexed fields has changed.
+	 */
+	private void reindex() {
+		if (database != null) {
+			database.reindex(this);
+		}
+	}
+
 	/**
 	 * Sets the static database reference for BTOApplication persistence.
 	 *
@@ -281,6 +340,23 @@ public class BTOApplication {
 		return false;
 	}
 
+	/**
+	 * Checks if this application still counts against the applicant's one active
+	 * application: it is pending, successful or booked and has not been withdrawn.
+	 *
+	 * @return true if the application is active, false otherwise
+	 */
+	public boolean isActive() {
+		BTOApplicationStatusEnum status = this.status;
+		WithdrawalStatusEnum withdrawalStatus = this.withdrawalStatus;
+		return (status == BTOApplicationStatusEnum.PENDING ||
+				status == BTOApplicationStatusEnum.SUCCESSFUL ||
+				status == BTOApplicationStatusEnum.BOOKED) &&
+				(withdrawalStatus == WithdrawalStatusEnum.NA ||
+				withdrawalStatus == WithdrawalStatusEnum.PENDING ||
+				withdrawalStatus == WithdrawalStatusEnum.REJECTED);
+	}
+
 	/**
 	 * Finds all applications submitted on a specific date.
 	 *
@@ -288,17 +364,24 @@ public class BTOApplication {
 	 * @return ArrayList of applications submitted on this date
 	 */
 	public static ArrayList<BTOApplication> findApplicationsByDate(LocalDate date) {
-		ArrayList<BTOApplication> result = new ArrayList<>();
 		if (database == null || date == null) {
-			return result;
+			return new ArrayList<>();
 		}
+		return database.findByDate(date);
+	}
 
-		for (BTOApplication app : database.getApplications()) {
-			if (date.equals(app.getApplicationDate())) {
-				result.add(app);
-			}
+	/**
+	 * Finds all applications submitted within a date range, ordered by date.
+	 *
+	 * @param from The first date of the range, inclusive; null for no lower bound
+	 * @param to The last date of the range, inclusive; null for no upper bound
+	 * @return ArrayList of matching BTOApplication objects, empty list if none found
+	 */
+	public static ArrayList<BTOApplication> findApplicationsBetween(LocalDate from, LocalDate to) {
+		if (database == null) {
+			return new ArrayList<>();
 		}
-		return result;
+		return database.findByDateBetween(from, to);
 	}
 
 	/**
@@ -308,17 +391,23 @@ public class BTOApplication {
 	 * @return ArrayList of applications submitted by this applicant
 	 */
 	public static ArrayList<BTOApplication> findApplicationsByApplicant(Applicant applicant) {
-		ArrayList<BTOApplication> result = new ArrayList<>();
 		if (database == null || applicant == null) {
-			return result;
+			return new ArrayList<>();
 		}
+		return database.findByApplicant(applicant);
+	}
 
-		for (BTOApplication app : database.getApplications()) {
-			if (applicant.equals(app.getApplicant())) {
-				result.add(app);
-			}
+	/**
+	 * Finds all applications submitted by applicants with a specific NRIC.
+	 *
+	 * @param nric The NRIC to search for
+	 * @return ArrayList of applications submitted under this NRIC
+	 */
+	public static ArrayList<BTOApplication> findApplicationsByApplicantNric(String nric) {
+		if (database == null || nric == null) {
+			return new ArrayList<>();
 		}
-		return result;
+		return database.findByApplicantNric(nric);
 	}
 
 	/**
@@ -331,14 +420,7 @@ public class BTOApplication {
 		if (database == null || applicationID == null) {
 			return null;
 		}
-
-		for (BTOApplication app : database.getApplications()) {
-			if (applicationID.equals(app.getApplicationID())) {
-				return app;
-			}
-		}
-
-		return null;
+		return database.findByID(applicationID);
 	}
 
 
@@ -349,17 +431,37 @@ public class BTOApplication {
 	 * @return ArrayList of applications for this project
 	 */
 	public static ArrayList<BTOApplication> findApplicationsByProject(Project project) {
-		ArrayList<BTOApplication> result = new ArrayList<>();
 		if (database == null || project == null) {
-			return result;
+			return new ArrayList<>();
 		}
+		return database.findByProject(project);
+	}
 
-		for (BTOApplication app : database.getApplications()) {
-			if (project.equals(app.getProject())) {
-				result.add(app);
-			}
+	/**
+	 * Finds all applications with a specific status.
+	 *
+	 * @param status The application status to search for
+	 * @return ArrayList of applications with this status
+	 */
+	public static ArrayList<BTOApplication> findApplicationsByStatus(BTOApplicationStatusEnum status) {
+		if (database == null || status == null) {
+			return new ArrayList<>();
+		}
+		return database.findByStatus(status);
+	}
+
+	/**
+	 * Finds all applications for a specific project that have a specific status.
+	 *
+	 * @param project The project to search for
+	 * @param status The application status to search for
+	 * @return ArrayList of applications for this project with this status
+	 */
+	public static ArrayList<BTOApplication> findApplicationsByProjectAndStatus(Project project, BTOApplicationStatusEnum status) {
+		if (database == null || project == null || status == null) {
+			return new ArrayList<>();
 		}
-		return result;
+		return database.findByProjectAndStatus(project, status);
 	}
 
 	/**
@@ -372,13 +474,7 @@ public class BTOApplication {
 		if (database == null || applicationID == null) {
 			return null;
 		}
-
-		for (BTOApplication app : database.getApplications()) {
-			if (applicationID.equals(app.getApplicationID())) {
-				return app;
-			}
-		}
-		return null;
+		return database.findByID(applicationID);
 	}
 
 	/**
@@ -405,15 +501,71 @@ public class BTOApplication {
 			return false;
 		}
 
-		ArrayList<BTOApplication> applications = database.getApplications();
-		if (applications.contains(application)) {
+		if (!database.add(application)) {
 			return false; // Already in database
 		}
-
-		applications.add(application);
+		database.getChanges().markAdded(application);
 		return true;
 	}
 
+	/**
+	 * Adds several applications to the database in one write, so a batch of
+	 * applications becomes visible, and is saved, together.
+	 *
+	 * @param applications The applications to add
+	 * @return A new list of the applications that were added; applications already in the database are left out
+	 */
+	public static ArrayList<BTOApplication> addAllToDatabase(Collection<BTOApplication> applications) {
+		if (database == null || applications == null) {
+			return new ArrayList<>();
+		}
+
+		ArrayList<BTOApplication> added = database.addAll(applications);
+		ChangeTracker<BTOApplication> changes = database.getChanges();
+		ChangeTracker.coalesce(() -> {
+			for (BTOApplication application : added) {
+				changes.markAdded(application);
+			}
+		});
+		return added;
+	}
+
+	/**
+	 * Changes the status of many applications in one write to the database,
+	 * e.g. to settle a ballot. An application is only changed if it still has
+	 * the expected status.
+	 *
+	 * @param expected The status the applications must still have
+	 * @param outcomes The applications to change, by their new status
+	 * @return A new list of the applications that were changed
+	 */
+	public static ArrayList<BTOApplication> changeStatuses(BTOApplicationStatusEnum expected, Map<BTOApplicationStatusEnum, ? extends Collection<BTOApplication>> outcomes) {
+		if (database == null || outcomes == null) {
+			return new ArrayList<>();
+		}
+		return database.changeStatuses(expected, outcomes);
+	}
+
+	/**
+	 * Settles a ballot in one write to the database, capping the successful
+	 * applications of each flat type at the units left.
+	 *
+	 * @param drawn The applications of each flat type, in the drawn order
+	 * @param unitsLeft Counts the units of a flat type not yet taken
+	 * @return The applications that were changed, by their new status
+	 * @see BTOApplicationDatabase#settleBallot(Map, ToIntFunction)
+	 */
+	public static Map<BTOApplicationStatusEnum, List<BTOApplication>> settleBallot(Map<FlatTypeEnum, ? extends List<BTOApplication>> drawn,
+			ToIntFunction<FlatTypeEnum> unitsLeft) {
+		if (database == null || drawn == null) {
+			Map<BTOApplicationStatusEnum, List<BTOApplication>> outcomes = new EnumMap<>(BTOApplicationStatusEnum.class);
+			outcomes.put(BTOApplicationStatusEnum.SUCCESSFUL, new ArrayList<>());
+			outcomes.put(BTOApplicationStatusEnum.UNSUCCESSFUL, new ArrayList<>());
+			return outcomes;
+		}
+		return database.settleBallot(drawn, unitsLeft);
+	}
+
 	/**
 	 * Removes an application from the database.
 	 *
@@ -425,8 +577,11 @@ public class BTOApplication {
 			return false;
 		}
 
-		ArrayList<BTOApplication> applications = database.getApplications();
-		return applications.remove(application);
+		if (!database.remove(application)) {
+			return false;
+		}
+		database.getChanges().markRemoved(application);
+		return true;
 	}
 
 	/**
@@ -3,6 +3,7 @@ import database.*;
 import enums.*;
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
 
 /**
  * The Booking class represents a flat booking in the BTO housing application system.
@@ -35,11 +36,14 @@ public class Booking {
 	/**
 	 * The current status of the booking (PENDING, CONFIRMED, CANCELLED)
 	 */
-	private BookingStatusEnum status;
+	private volatile BookingStatusEnum status;
 	/**
 	 * Static database reference for Booking persistence
 	 */
-	private static BookingDatabase database;
+	private static volatile BookingDatabase database;
+
+	private static final AtomicReferenceFieldUpdater<Booking, BookingStatusEnum> STATUS =
+			AtomicReferenceFieldUpdater.newUpdater(Booking.class, BookingStatusEnum.class, "status");
 
 	/**
 	 * Default constructor that initializes a Booking with default values.
@@ -116,6 +120,7 @@ public class Booking {
 	 */
 	public void setBookingDateTime(LocalDate bookingDateTime) {
 		this.bookingDateTime = bookingDateTime;
+		reindex();
 	}
 
 	/**
@@ -125,6 +130,7 @@ public class Booking {
 	 */
 	public void setApplication(BTOApplication application) {
 		this.application = application;
+		reindex();
 	}
 
 	/**
@@ -134,6 +140,7 @@ public class Booking {
 	 */
 	public void setProcessingOfficer(Officer processingOfficer) {
 		this.processingOfficer = processingOfficer;
+		reindex();
 	}
 
 	/**
@@ -143,6 +150,7 @@ public class Booking {
 	 */
 	public void setFlatType(FlatTypeEnum flatType) {
 		this.flatType = flatType;
+		reindex();
 	}
 
 	/**
@@ -152,6 +160,34 @@ public class Booking {
 	 */
 	public void setStatus(BookingStatusEnum status) {
 		this.status = status;
+		reindex();
+	}
+
+	/**
+	 * Changes the status of this booking only if it still has the expected
+	 * status. The check and the change are atomic, so when several officers
+	 * process the same booking at once only one of them moves it on.
+	 * 
+	 * @param expected The status the booking must have
+	 * @param status The new status of the booking
+	 * @return true if the status was changed, false if the booking no longer had the expected status
+	 */
+	public boolean changeStatus(BookingStatusEnum expected, BookingStatusEnum status) {
+		if (!STATUS.compareAndSet(this, expected, status)) {
+			return false;
+		}
+		reindex();
+		return true;
+	}
+
+	/**
+	 * Moves this booking to its current keys in the database indexes
+	 * after one of its indexed fields has changed.
+	 */
+	private void reindex() {
+		if (database != null) {
+			database.reindex(this);
+		}
 	}
 
 	/**
@@ -249,9 +285,7 @@ public class Booking {
 	 * @return true if the booking was cancelled successfully, false if it wasn't in pending status
 	 */
 	public boolean cancelBooking() {
-		if (this.status == BookingStatusEnum.PENDING) {
-			this.status = BookingStatusEnum.CANCELLED;
-
+		if (changeStatus(BookingStatusEnum.PENDING, BookingStatusEnum.CANCELLED)) {
 			// Update application status if applicable
 			if (this.application != null) {
 				this.application.setStatus(BTOApplicationStatusEnum.UNSUCCESSFUL);
@@ -265,33 +299,30 @@ public class Booking {
 	/**
 	 * Confirms a pending booking.
 	 * Updates the booking status to confirmed, marks the application as successful,
-	 * and decreases the available units count for the flat type.
+	 * and books a unit of the flat type through the {@link FlatInventory}.
 	 *
 	 * @return true if the booking was confirmed successfully, false if it wasn't in pending status
+	 *         or no unit of the flat type is left
 	 */
 	public boolean confirmBooking() {
-		if (this.status == BookingStatusEnum.PENDING) {
-			this.status = BookingStatusEnum.CONFIRMED;
-
-			// Update application status if applicable
-			if (this.application != null) {
-				this.application.setStatus(BTOApplicationStatusEnum.SUCCESSFUL);
-			}
-
-			// Decrease available units for this flat type in the project
-			if (this.application != null && this.application.getProject() != null) {
-				Project project = this.application.getProject();
-				for (FlatType flatType : project.getFlatTypes()) {
-					if (this.flatType == flatType.getType()) {
-						flatType.decreaseAvailableUnits();
-						break;
-					}
-				}
-			}
+		Project project = this.application != null ? this.application.getProject() : null;
+		if (project == null) {
+			// Without a project there is no unit to book
+			return changeStatus(BookingStatusEnum.PENDING, BookingStatusEnum.CONFIRMED);
+		}
 
-			return true;
+		// Reserve a unit first so the booking is only confirmed if one is left
+		if (!FlatInventory.reserve(project, this.flatType)) {
+			return false;
 		}
-		return false;
+		if (!changeStatus(BookingStatusEnum.PENDING, BookingStatusEnum.CONFIRMED)) {
+			FlatInventory.release(project, this.flatType);
+			return false;
+		}
+		FlatInventory.commit(project, this.flatType);
+
+		this.application.setStatus(BTOApplicationStatusEnum.SUCCESSFUL);
+		return true;
 	}
 
 	/**
@@ -301,17 +332,24 @@ public class Booking {
 	 * @return ArrayList of matching Bookings, empty list if none found
 	 */
 	public static ArrayList<Booking> findBookingByDate(LocalDate date) {
-		ArrayList<Booking> result = new ArrayList<>();
 		if (database == null || date == null) {
-			return result;
+			return new ArrayList<>();
 		}
+		return database.findByDate(date);
+	}
 
-		for (Booking booking : database.getBookings()) {
-			if (date.equals(booking.getBookingDateTime())) {
-				result.add(booking);
-			}
+	/**
+	 * Finds all bookings made within a date range, ordered by date.
+	 *
+	 * @param from The first date of the range, inclusive; null for no lower bound
+	 * @param to The last date of the range, inclusive; null for no upper bound
+	 * @return ArrayList of matching Booking objects, empty list if none found
+	 */
+	public static ArrayList<Booking> findBookingsBetween(LocalDate from, LocalDate to) {
+		if (database == null) {
+			return new ArrayList<>();
 		}
-		return result;
+		return database.findByDateBetween(from, to);
 	}
 
 	/**
@@ -324,13 +362,7 @@ public class Booking {
 		if (database == null || application == null) {
 			return null;
 		}
-
-		for (Booking booking : database.getBookings()) {
-			if (application.equals(booking.getApplication())) {
-				return booking;
-			}
-		}
-		return null;
+		return database.findByApplication(application);
 	}
 
 	/**
@@ -340,17 +372,10 @@ public class Booking {
 	 * @return ArrayList of matching Bookings, empty list if none found
 	 */
 	public static ArrayList<Booking> findBookingsByOfficer(Officer officer) {
-		ArrayList<Booking> result = new ArrayList<>();
 		if (database == null || officer == null) {
-			return result;
-		}
-
-		for (Booking booking : database.getBookings()) {
-			if (officer.equals(booking.getProcessingOfficer())) {
-				result.add(booking);
-			}
+			return new ArrayList<>();
 		}
-		return result;
+		return database.findByOfficer(officer);
 	}
 
 	/**
@@ -372,17 +397,10 @@ public class Booking {
 	 * @return ArrayList of matching Bookings, empty list if none found
 	 */
 	public static ArrayList<Booking> findBookingsByFlatType(FlatTypeEnum flatType) {
-		ArrayList<Booking> result = new ArrayList<>();
 		if (database == null || flatType == null) {
-			return result;
-		}
-
-		for (Booking booking : database.getBookings()) {
-			if (flatType.equals(booking.getFlatType())) {
-				result.add(booking);
-			}
+			return new ArrayList<>();
 		}
-		return result;
+		return database.findByFlatType(flatType);
 	}
 
 	/**
@@ -392,17 +410,10 @@ public class Booking {
 	 * @return ArrayList of matching Bookings, empty list if none found
 	 */
 	public static ArrayList<Booking> findBookingsByStatus(BookingStatusEnum status) {
-		ArrayList<Booking> result = new ArrayList<>();
 		if (database == null || status == null) {
-			return result;
-		}
-
-		for (Booking booking : database.getBookings()) {
-			if (status.equals(booking.getStatus())) {
-				result.add(booking);
-			}
+			return new ArrayList<>();
 		}
-		return result;
+		return database.findByStatus(status);
 	}
 
 	/**
@@ -414,11 +425,9 @@ public class Booking {
 	public static ArrayList<Booking> findPendingBookingsByProject(Project project) {
 		// Get pending bookings for the selected project
 		ArrayList<Booking> pendingBookings = new ArrayList<>();
-		ArrayList<Booking> allBookings = Booking.getAllBookings();
 		
-		for (Booking booking : allBookings) {
-			if (booking.getStatus() == BookingStatusEnum.PENDING && 
-					booking.getApplication().getProject().equals(project)) {
+		for (Booking booking : findBookingsByStatus(BookingStatusEnum.PENDING)) {
+			if (booking.getApplication().getProject().equals(project)) {
 				pendingBookings.add(booking);
 			}
 		}
@@ -436,12 +445,10 @@ public class Booking {
 			return false;
 		}
 
-		ArrayList<Booking> bookings = database.getBookings();
-		if (bookings.contains(booking)) {
+		if (!database.add(booking)) {
 			return false; // Already in database
 		}
-
-		bookings.add(booking);
+		database.getChanges().markAdded(booking);
 		return true;
 	}
 
@@ -456,8 +463,11 @@ public class Booking {
 			return false;
 		}
 
-		ArrayList<Booking> bookings = database.getBookings();
-		return bookings.remove(booking);
+		if (!database.remove(booking)) {
+			return false;
+		}
+		database.getChanges().markRemoved(booking);
+		return true;
 	}
 
 	/**
@@ -4,6 +4,7 @@ import database.*;
 import enums.*;
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Collection;
 
 /**
  * Entity class representing an enquiry in the BTO Management System.
@@ -64,7 +65,7 @@ public class Enquiry {
 	/**
 	 * Static reference to the database of all enquiries in the system
 	 */
-	private static EnquiryDatabase database;
+	private static volatile EnquiryDatabase database;
 
 	/**
 	 * Default constructor that initializes a new enquiry with current date,
@@ -125,6 +126,7 @@ public class Enquiry {
 	 */
 	public void setEnquiryID(String enquiryID) {
 		this.enquiryID = enquiryID;
+		reindex();
 	}
 
 	/**
@@ -134,6 +136,7 @@ public class Enquiry {
 	 */
 	public void setDateTime(LocalDate dateTime) {
 		this.dateTime = dateTime;
+		reindex();
 	}
 
 	/**
@@ -161,6 +164,7 @@ public class Enquiry {
 	 */
 	public void setReplyDate(LocalDate replyDate) {
 		this.replyDate = replyDate;
+		reindex();
 	}
 
 	/**
@@ -170,6 +174,7 @@ public class Enquiry {
 	 */
 	public void setSubmittedBy(Applicant submittedBy) {
 		this.submittedBy = submittedBy;
+		reindex();
 	}
 
 	/**
@@ -179,6 +184,7 @@ public class Enquiry {
 	 */
 	public void setProject(Project project) {
 		this.project = project;
+		reindex();
 	}
 
 	/**
@@ -188,6 +194,7 @@ public class Enquiry {
 	 */
 	public void setStatus(EnquiryStatusEnum status) {
 		this.status = status;
+		reindex();
 	}
 
 	/**
@@ -197,6 +204,17 @@ public class Enquiry {
 	 */
 	public void setRespondent(User respondent) {
 		this.respondent = respondent;
+		reindex();
+	}
+
+	/**
+	 * Moves this enquiry to its current keys in the database indexes
+	 * after one of its indexed fields has changed.
+	 */
+	private void reindex() {
+		if (database != null) {
+			database.reindex(this);
+		}
 	}
 
 	/**
@@ -316,6 +334,7 @@ public class Enquiry {
 		this.reply = response;
 		this.replyDate = LocalDate.now();
 		this.status = EnquiryStatusEnum.REPLIED;
+		reindex();
 		return true;
 	}
 
@@ -338,13 +357,7 @@ public class Enquiry {
 		if (database == null || enquiryID == null) {
 			return null;
 		}
-		
-		for (Enquiry enquiry : database.getEnquiries()) {
-			if (enquiryID.equals(enquiry.getEnquiryID())) {
-				return enquiry;
-			}
-		}
-		return null;
+		return database.findByID(enquiryID);
 	}
 
 	/**
@@ -354,17 +367,24 @@ public class Enquiry {
 	 * @return ArrayList of Enquiry objects submitted on the specified date
 	 */
 	public static ArrayList<Enquiry> findEnquiriesBySubmittedDate(LocalDate date) {
-		ArrayList<Enquiry> result = new ArrayList<>();
 		if (database == null || date == null) {
-			return result;
+			return new ArrayList<>();
 		}
-		
-		for (Enquiry enquiry : database.getEnquiries()) {
-			if (date.equals(enquiry.getDateTime())) {
-				result.add(enquiry);
-			}
+		return database.findBySubmittedDate(date);
+	}
+
+	/**
+	 * Finds all enquiries submitted within a date range, ordered by date.
+	 *
+	 * @param from The first date of the range, inclusive; null for no lower bound
+	 * @param to The last date of the range, inclusive; null for no upper bound
+	 * @return ArrayList of matching Enquiry objects, empty list if none found
+	 */
+	public static ArrayList<Enquiry> findEnquiriesSubmittedBetween(LocalDate from, LocalDate to) {
+		if (database == null) {
+			return new ArrayList<>();
 		}
-		return result;
+		return database.findBySubmittedDateBetween(from, to);
 	}
 
 	/**
@@ -374,17 +394,10 @@ public class Enquiry {
 	 * @return ArrayList of Enquiry objects submitted by the specified applicant
 	 */
 	public static ArrayList<Enquiry> findEnquiriesBySubmitter(Applicant submitter) {
-		ArrayList<Enquiry> result = new ArrayList<>();
 		if (database == null || submitter == null) {
-			return result;
-		}
-		
-		for (Enquiry enquiry : database.getEnquiries()) {
-			if (submitter.equals(enquiry.getSubmittedBy())) {
-				result.add(enquiry);
-			}
+			return new ArrayList<>();
 		}
-		return result;
+		return database.findBySubmitter(submitter);
 	}
 
 	/**
@@ -394,17 +407,10 @@ public class Enquiry {
 	 * @return ArrayList of Enquiry objects responded to by the specified user
 	 */
 	public static ArrayList<Enquiry> findEnquiriesByRespondent(User respondent) {
-		ArrayList<Enquiry> result = new ArrayList<>();
 		if (database == null || respondent == null) {
-			return result;
-		}
-		
-		for (Enquiry enquiry : database.getEnquiries()) {
-			if (respondent.equals(enquiry.getRespondent())) {
-				result.add(enquiry);
-			}
+			return new ArrayList<>();
 		}
-		return result;
+		return database.findByRespondent(respondent);
 	}
 
 	/**
@@ -414,17 +420,24 @@ public class Enquiry {
 	 * @return ArrayList of Enquiry objects replied to on the specified date
 	 */
 	public static ArrayList<Enquiry> findEnquiriesByReplyDate(LocalDate date) {
-		ArrayList<Enquiry> result = new ArrayList<>();
 		if (database == null || date == null) {
-			return result;
+			return new ArrayList<>();
 		}
-		
-		for (Enquiry enquiry : database.getEnquiries()) {
-			if (date.equals(enquiry.getReplyDate())) {
-				result.add(enquiry);
-			}
+		return database.findByReplyDate(date);
+	}
+
+	/**
+	 * Finds all enquiries replied to within a date range, ordered by date.
+	 *
+	 * @param from The first date of the range, inclusive; null for no lower bound
+	 * @param to The last date of the range, inclusive; null for no upper bound
+	 * @return ArrayList of matching Enquiry objects, empty list if none found
+	 */
+	public static ArrayList<Enquiry> findEnquiriesRepliedBetween(LocalDate from, LocalDate to) {
+		if (database == null) {
+			return new ArrayList<>();
 		}
-		return result;
+		return database.findByReplyDateBetween(from, to);
 	}
 
 	/**
@@ -434,17 +447,10 @@ public class Enquiry {
 	 * @return ArrayList of Enquiry objects related to the specified project
 	 */
 	public static ArrayList<Enquiry> findEnquiriesByProject(Project project) {
-		ArrayList<Enquiry> result = new ArrayList<>();
 		if (database == null || project == null) {
-			return result;
-		}
-		
-		for (Enquiry enquiry : database.getEnquiries()) {
-			if (project.equals(enquiry.getProject())) {
-				result.add(enquiry);
-			}
+			return new ArrayList<>();
 		}
-		return result;
+		return database.findByProject(project);
 	}
 
 	/**
@@ -470,12 +476,10 @@ public class Enquiry {
 			return false;
 		}
 		
-		ArrayList<Enquiry> enquiries = database.getEnquiries();
-		if (enquiries.contains(enquiry)) {
+		if (!database.add(enquiry)) {
 			return false; // Already in database
 		}
-		
-		enquiries.add(enquiry);
+		database.getChanges().markAdded(enquiry);
 		return true;
 	}
 
@@ -486,17 +490,24 @@ public class Enquiry {
 	 * @return ArrayList of Enquiry objects with the specified status
 	 */
 	public static ArrayList<Enquiry> findEnquiriesByStatus(EnquiryStatusEnum status) {
-		ArrayList<Enquiry> result = new ArrayList<>();
 		if (database == null || status == null) {
-			return result;
+			return new ArrayList<>();
 		}
-		
-		for (Enquiry enquiry : database.getEnquiries()) {
-			if (status.equals(enquiry.getStatus())) {
-				result.add(enquiry);
-			}
+		return database.findByStatus(status);
+	}
+
+	/**
+	 * Finds all enquiries about any of the given projects that have a specific status.
+	 * 
+	 * @param projects The projects to search for
+	 * @param status The EnquiryStatusEnum value to search for
+	 * @return ArrayList of Enquiry objects about these projects with the specified status
+	 */
+	public static ArrayList<Enquiry> findEnquiriesByProjectsAndStatus(Collection<Project> projects, EnquiryStatusEnum status) {
+		if (database == null || projects == null || status == null) {
+			return new ArrayList<>();
 		}
-		return result;
+		return database.findByProjectsAndStatus(projects, status);
 	}
 
 	/**
@@ -510,8 +521,11 @@ public class Enquiry {
 			return false;
 		}
 		
-		ArrayList<Enquiry> enquiries = database.getEnquiries();
-		return enquiries.remove(enquiry);
+		if (!database.remove(enquiry)) {
+			return false;
+		}
+		database.getChanges().markRemoved(enquiry);
+		return true;
 	}
 
 	/**
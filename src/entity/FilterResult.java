@@ -0,0 +1,98 @@
+package entity;
+
+import enums.*;
+import java.util.*;
+
+/**
+ * The projects matching a {@link Filter}, together with facet counts that show
+ * how the result divides up by neighborhood, flat type and price.
+ *
+ * <p>The counts let a browsing applicant see how many projects each further
+ * choice would leave before making it. The flat type and price counts only
+ * take flat types with units left into account, so flat types that have sold
+ * out are not offered as choices.</p>
+ */
+public class FilterResult {
+
+	/**
+	 * The matching projects and their facet counts
+	 */
+	private final ArrayList<Project> projects;
+	private final SortedMap<String, Integer> neighborhoodCounts;
+	private final EnumMap<FlatTypeEnum, Integer> flatTypeCounts;
+	private final SortedMap<Double, Integer> priceBucketCounts;
+	private final double priceBucketSize;
+
+	/**
+	 * Creates a filter result.
+	 *
+	 * @param projects The matching projects
+	 * @param neighborhoodCounts Number of matching projects per neighborhood
+	 * @param flatTypeCounts Number of matching projects per flat type with units left in the price range
+	 * @param priceBucketCounts Number of matching projects with units left per price range, by lowest price of the range
+	 * @param priceBucketSize Width of each price range in SGD
+	 */
+	public FilterResult(ArrayList<Project> projects, SortedMap<String, Integer> neighborhoodCounts, EnumMap<FlatTypeEnum, Integer> flatTypeCounts, SortedMap<Double, Integer> priceBucketCounts, double priceBucketSize) {
+		this.projects = projects;
+		this.neighborhoodCounts = neighborhoodCounts;
+		this.flatTypeCounts = flatTypeCounts;
+		this.priceBucketCounts = priceBucketCounts;
+		this.priceBucketSize = priceBucketSize;
+	}
+
+	/**
+	 * Gets the projects matching the filter.
+	 *
+	 * @return The matching projects, in database order
+	 */
+	public ArrayList<Project> getProjects() {
+		return this.projects;
+	}
+
+	/**
+	 * Gets the number of matching projects in each neighborhood.
+	 *
+	 * @return Project counts by neighborhood name, in name order
+	 */
+	public SortedMap<String, Integer> getNeighborhoodCounts() {
+		return this.neighborhoodCounts;
+	}
+
+	/**
+	 * Gets the number of matching projects offering each flat type with
+	 * units left within the price range of the filter.
+	 *
+	 * @return Project counts by flat type, zero for flat types none offer
+	 */
+	public EnumMap<FlatTypeEnum, Integer> getFlatTypeCounts() {
+		return this.flatTypeCounts;
+	}
+
+	/**
+	 * Gets the number of matching projects offering a flat type with units
+	 * left in each price range. A project with flat types in several ranges
+	 * is counted in each of them.
+	 *
+	 * @return Project counts by the lowest price of each range, leaving out empty ranges
+	 */
+	public SortedMap<Double, Integer> getPriceBucketCounts() {
+		return this.priceBucketCounts;
+	}
+
+	/**
+	 * Gets the width of the price ranges of {@link #getPriceBucketCounts()}.
+	 *
+	 * @return The width of each price range in SGD
+	 */
+	public double getPriceBucketSize() {
+		return this.priceBucketSize;
+	}
+
+	/**
+	 * Helper Functions
+	 */
+	@Override()
+	public String toString() {
+		return "FilterResult [projects=" + projects.size() + ", neighborhoods=" + neighborhoodCounts + ", flatTypes=" + flatTypeCounts + ", priceBuckets=" + priceBucketCounts + "]";
+	}
+}
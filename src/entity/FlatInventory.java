@@ -0,0 +1,125 @@
+package entity;
+
+import enums.*;
+
+/**
+ * Lock-free inventory of the flat units of each project, used by every
+ * operation that books a unit or gives one back.
+ *
+ * <p>Checking {@link FlatType#getAvailableUnits()} and then decreasing it lets
+ * two officers confirming bookings for the last unit both succeed. The
+ * inventory instead counts the units of each project and {@link FlatTypeEnum}
+ * with compare-and-set: a booking first {@link #reserve(Project, FlatTypeEnum)
+ * reserves} a unit, then either {@link #commit(Project, FlatTypeEnum) commits}
+ * it once the booking is confirmed or {@link #release(Project, FlatTypeEnum)
+ * releases} it if the booking could not be confirmed. A unit can only be
+ * reserved while more units are available than are reserved, so no more
+ * units are ever booked than there are.</p>
+ *
+ * <h2>Usage Example:</h2>
+ * <pre>{@code
+ * if (FlatInventory.reserve(project, FlatTypeEnum.TWO_ROOM)) {
+ *     if (booking.changeStatus(BookingStatusEnum.PENDING, BookingStatusEnum.CONFIRMED)) {
+ *         FlatInventory.commit(project, FlatTypeEnum.TWO_ROOM);
+ *     } else {
+ *         FlatInventory.release(project, FlatTypeEnum.TWO_ROOM);
+ *     }
+ * }
+ * }</pre>
+ *
+ * @author BTO Management System Team
+ * @version 2.0
+ * @since 2.0
+ * @see FlatType
+ */
+public class FlatInventory {
+
+	private FlatInventory() {
+		// Static methods only
+	}
+
+	/**
+	 * Checks if a project has a unit of a flat type that is neither booked nor reserved.
+	 *
+	 * @param project The project offering the flat type
+	 * @param type The flat type to check
+	 * @return true if a unit could be reserved right now, false otherwise
+	 */
+	public static boolean hasAvailable(Project project, FlatTypeEnum type) {
+		FlatType flatType = find(project, type);
+		return flatType != null && flatType.getAvailableUnits() > flatType.getReservedUnits();
+	}
+
+	/**
+	 * Reserves a unit of a flat type in a project for a booking being confirmed.
+	 * Every successful reservation must be followed by exactly one
+	 * {@link #commit(Project, FlatTypeEnum)} or {@link #release(Project, FlatTypeEnum)}.
+	 *
+	 * @param project The project offering the flat type
+	 * @param type The flat type to reserve
+	 * @return true if a unit was reserved, false if the project has no unit left
+	 */
+	public static boolean reserve(Project project, FlatTypeEnum type) {
+		FlatType flatType = find(project, type);
+		return flatType != null && flatType.reserveUnit();
+	}
+
+	/**
+	 * Books a unit reserved by {@link #reserve(Project, FlatTypeEnum)}, so it is
+	 * no longer available.
+	 *
+	 * @param project The project offering the flat type
+	 * @param type The flat type of the reserved unit
+	 * @throws IllegalStateException if no unit of the flat type is reserved
+	 */
+	public static void commit(Project project, FlatTypeEnum type) {
+		reserved(project, type).commitUnit();
+	}
+
+	/**
+	 * Gives back a unit reserved by {@link #reserve(Project, FlatTypeEnum)}
+	 * without booking it.
+	 *
+	 * @param project The project offering the flat type
+	 * @param type The flat type of the reserved unit
+	 * @throws IllegalStateException if no unit of the flat type is reserved
+	 */
+	public static void release(Project project, FlatTypeEnum type) {
+		reserved(project, type).releaseUnit();
+	}
+
+	/**
+	 * Makes a booked unit available again, such as after a withdrawal.
+	 *
+	 * @param project The project offering the flat type
+	 * @param type The flat type of the unit
+	 * @return true if the unit was returned, false if all units are already available
+	 */
+	public static boolean restock(Project project, FlatTypeEnum type) {
+		FlatType flatType = find(project, type);
+		return flatType != null && flatType.increaseAvailableUnits();
+	}
+
+	private static FlatType reserved(Project project, FlatTypeEnum type) {
+		FlatType flatType = find(project, type);
+		if (flatType == null) {
+			throw new IllegalStateException("No reserved unit to settle for " + type);
+		}
+		return flatType;
+	}
+
+	/**
+	 * Finds the flat type of a project with the given category.
+	 */
+	private static FlatType find(Project project, FlatTypeEnum type) {
+		if (project == null || type == null || project.getFlatTypes() == null) {
+			return null;
+		}
+		for (FlatType flatType : project.getFlatTypes()) {
+			if (flatType != null && flatType.getType() == type) {
+				return flatType;
+			}
+		}
+		return null;
+	}
+}
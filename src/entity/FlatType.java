@@ -1,12 +1,17 @@
 package entity;
 
 import enums.*;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * The FlatType class represents a specific type of flat available in a housing project.
  * It encapsulates details about the flat type including its category (2-room, 3-room, etc.),
  * total number of units, available units, and selling price.
  * This class provides functionality to manage flat inventory and track availability.
+ *
+ * <p>The available and reserved unit counts are kept together in one atomic
+ * word and only changed by compare-and-set, so concurrent bookings cannot
+ * take more units than are available; see {@link FlatInventory}.</p>
  */
 public class FlatType {
 
@@ -15,9 +20,10 @@ public class FlatType {
 	 */
 	private int numUnits;
 	/**
-	 * Number of units currently available for booking
+	 * Number of units currently available for booking in the upper 32 bits,
+	 * and how many of them are reserved by bookings being confirmed in the lower 32 bits
 	 */
-	private int availableUnits;
+	private final AtomicLong units = new AtomicLong();
 	/**
 	 * The selling price of this flat type in SGD
 	 */
@@ -26,13 +32,16 @@ public class FlatType {
 	 * The category of flat (TWO_ROOM, THREE_ROOM, etc.)
 	 */
 	private FlatTypeEnum type;
+	/**
+	 * The project offering this flat type, told when its price, category or availability changes
+	 */
+	private Project project;
 
 	/**
 	 * Default constructor that initializes a FlatType with zero values and null type.
 	 */
 	public FlatType() {
 		this.numUnits = 0;
-		this.availableUnits = 0;
 		this.sellingPrice = 0.0;
 		this.type = null;
 	}
@@ -47,7 +56,7 @@ public class FlatType {
 	 */
 	public FlatType(int numUnits, int availableUnits, double sellingPrice, FlatTypeEnum type) {
 		this.numUnits = numUnits;
-		this.availableUnits = availableUnits;
+		this.units.set(pack(availableUnits, 0));
 		this.sellingPrice = sellingPrice;
 		this.type = type;
 	}
@@ -67,7 +76,11 @@ public class FlatType {
 	 * @param availableUnits The new number of available units
 	 */
 	public void setAvailableUnits(int availableUnits) {
-		this.availableUnits = availableUnits;
+		long state;
+		do {
+			state = this.units.get();
+		} while (!this.units.compareAndSet(state, pack(availableUnits, reserved(state))));
+		availabilityChanged(available(state) > 0);
 	}
 
 	/**
@@ -77,6 +90,7 @@ public class FlatType {
 	 */
 	public void setSellingPrice(double sellingPrice) {
 		this.sellingPrice = sellingPrice;
+		changed();
 	}
 
 	/**
@@ -86,6 +100,7 @@ public class FlatType {
 	 */
 	public void setType(FlatTypeEnum type) {
 		this.type = type;
+		changed();
 	}
 
 	/**
@@ -112,7 +127,16 @@ public class FlatType {
 	 * @return The number of available units
 	 */
 	public int getAvailableUnits() {
-		return this.availableUnits;
+		return available(this.units.get());
+	}
+
+	/**
+	 * Gets the number of available units that are reserved by bookings being confirmed.
+	 * 
+	 * @return The number of reserved units
+	 */
+	public int getReservedUnits() {
+		return reserved(this.units.get());
 	}
 
 	/**
@@ -126,16 +150,20 @@ public class FlatType {
 
 	/**
 	 * Decreases the available units count by one when a flat is booked.
-	 * Only decreases if there are units available.
+	 * Only decreases if there are units available that are not reserved.
 	 * 
 	 * @return true if the count was decreased, false if no units are available
 	 */
 	public boolean decreaseAvailableUnits() {
-		if (this.availableUnits > 0) {
-			this.availableUnits--;
-			return true;
-		}
-		return false;
+		long state;
+		do {
+			state = this.units.get();
+			if (available(state) <= reserved(state)) {
+				return false;
+			}
+		} while (!this.units.compareAndSet(state, state - pack(1, 0)));
+		availabilityChanged(true);
+		return true;
 	}
 
 	/**
@@ -145,11 +173,97 @@ public class FlatType {
 	 * @return true if the count was increased, false if already at maximum
 	 */
 	public boolean increaseAvailableUnits() {
-		if (this.availableUnits < this.numUnits) {
-			this.availableUnits++;
-			return true;
+		long state;
+		do {
+			state = this.units.get();
+			if (available(state) >= this.numUnits) {
+				return false;
+			}
+		} while (!this.units.compareAndSet(state, state + pack(1, 0)));
+		availabilityChanged(available(state) > 0);
+		return true;
+	}
+
+	/**
+	 * Reserves an available unit that is not reserved yet.
+	 * 
+	 * @return true if a unit was reserved, false if none is left
+	 */
+	boolean reserveUnit() {
+		long state;
+		do {
+			state = this.units.get();
+			if (available(state) <= reserved(state)) {
+				return false;
+			}
+		} while (!this.units.compareAndSet(state, state + 1));
+		return true;
+	}
+
+	/**
+	 * Books a reserved unit, taking it from both the reserved and the available units.
+	 */
+	void commitUnit() {
+		long state;
+		do {
+			state = this.units.get();
+			if (reserved(state) == 0) {
+				throw new IllegalStateException("No reserved unit to commit for " + this.type);
+			}
+		} while (!this.units.compareAndSet(state, state - pack(1, 1)));
+		availabilityChanged(true);
+	}
+
+	/**
+	 * Gives a reserved unit back without booking it.
+	 */
+	void releaseUnit() {
+		long state;
+		do {
+			state = this.units.get();
+			if (reserved(state) == 0) {
+				throw new IllegalStateException("No reserved unit to release for " + this.type);
+			}
+		} while (!this.units.compareAndSet(state, state - 1));
+	}
+
+	private static long pack(int available, int reserved) {
+		return ((long) available << 32) | (reserved & 0xFFFFFFFFL);
+	}
+
+	private static int available(long state) {
+		return (int) (state >> 32);
+	}
+
+	private static int reserved(long state) {
+		return (int) state;
+	}
+
+	/**
+	 * Sets the project offering this flat type; called by the project.
+	 * 
+	 * @param project The project this flat type belongs to
+	 */
+	void setProject(Project project) {
+		this.project = project;
+	}
+
+	/**
+	 * Tells the project when the flat type sells out or becomes available again.
+	 */
+	private void availabilityChanged(boolean wasAvailable) {
+		if (wasAvailable != (getAvailableUnits() > 0)) {
+			changed();
+		}
+	}
+
+	/**
+	 * Tells the project that an indexed field of this flat type has changed.
+	 */
+	private void changed() {
+		if (this.project != null) {
+			this.project.flatTypeChanged();
 		}
-		return false;
 	}
 
 	/**
@@ -159,6 +273,6 @@ public class FlatType {
 	 */
 	@Override()
 	public String toString() {
-		return "FlatType [type=" + type + ", numUnits=" + numUnits + ", availableUnits=" + availableUnits + ", sellingPrice=" + sellingPrice + "]";
+		return "FlatType [type=" + type + ", numUnits=" + numUnits + ", availableUnits=" + getAvailableUnits() + ", sellingPrice=" + sellingPrice + "]";
 	}
 }
\ No newline at end of file
@@ -24,7 +24,7 @@ public class Manager extends User {
 	/**
 	 * Static reference to the database of all managers in the system
 	 */
-	private static ManagerDatabase database;
+	private static volatile ManagerDatabase database;
 
 	/**
 	 * Default constructor that initializes a new manager with default values
@@ -61,6 +61,16 @@ public class Manager extends User {
 		this.managedProjects = managedProjects;
 	}
 
+	/**
+	 * Moves this manager to its current keys in the database indexes.
+	 */
+	@Override
+	protected void reindex() {
+		if (database != null) {
+			database.reindex(this);
+		}
+	}
+
 	/**
 	 * Sets the static database reference for all Manager objects.
 	 * 
@@ -148,13 +158,7 @@ public class Manager extends User {
 		if (database == null || name == null) {
 			return null;
 		}
-		
-		for (Manager manager : database.getManagers()) {
-			if (name.equals(manager.getName())) {
-				return manager;
-			}
-		}
-		return null;
+		return database.findByName(name);
 	}
 
 	/**
@@ -167,13 +171,7 @@ public class Manager extends User {
 		if (database == null || nric == null) {
 			return null;
 		}
-		
-		for (Manager manager : database.getManagers()) {
-			if (nric.equals(manager.getNric())) {
-				return manager;
-			}
-		}
-		return null;
+		return database.findByNric(nric);
 	}
 
 	/**
@@ -183,17 +181,10 @@ public class Manager extends User {
 	 * @return ArrayList of Manager objects matching the specified age
 	 */
 	public static ArrayList<Manager> findManagersByAge(int age) {
-		ArrayList<Manager> result = new ArrayList<>();
 		if (database == null) {
-			return result;
-		}
-		
-		for (Manager manager : database.getManagers()) {
-			if (manager.getAge() == age) {
-				result.add(manager);
-			}
+			return new ArrayList<>();
 		}
-		return result;
+		return database.findByAge(age);
 	}
 
 	/**
@@ -223,17 +214,10 @@ public class Manager extends User {
 	 * @return ArrayList of Manager objects with the specified marital status
 	 */
 	public static ArrayList<Manager> findManagerByMaritalStatus(MarriageStatusEnum status) {
-		ArrayList<Manager> result = new ArrayList<>();
 		if (database == null || status == null) {
-			return result;
-		}
-		
-		for (Manager manager : database.getManagers()) {
-			if (status.equals(manager.getMaritalStatus())) {
-				result.add(manager);
-			}
+			return new ArrayList<>();
 		}
-		return result;
+		return database.findByMaritalStatus(status);
 	}
 
 	/**
@@ -247,12 +231,10 @@ public class Manager extends User {
 			return false;
 		}
 		
-		ArrayList<Manager> managers = database.getManagers();
-		if (managers.contains(manager)) {
+		if (!database.add(manager)) {
 			return false; // Already in database
 		}
-		
-		managers.add(manager);
+		database.getChanges().markAdded(manager);
 		return true;
 	}
 
@@ -267,8 +249,11 @@ public class Manager extends User {
 			return false;
 		}
 		
-		ArrayList<Manager> managers = database.getManagers();
-		return managers.remove(manager);
+		if (!database.remove(manager)) {
+			return false;
+		}
+		database.getChanges().markRemoved(manager);
+		return true;
 	}
 
 	/**
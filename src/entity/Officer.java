@@ -2,7 +2,11 @@ package entity;
 
 import database.*;
 import enums.*;
+import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.Map;
 
 /**
  * Entity class representing an Officer in the BTO Management System.
@@ -32,7 +36,11 @@ import java.util.ArrayList;
  * 
  * <h2>Conflict of Interest:</h2>
  * <p>Officers cannot apply for BTO flats in projects they are assigned to manage.
- * This is enforced in the application logic to prevent conflicts of interest.</p>
+ * This is enforced in the application logic to prevent conflicts of interest.
+ * Likewise, an officer cannot register for a project they have applied for, or
+ * one whose application period overlaps that of a project they already manage.
+ * Each officer keeps the application periods of its assigned projects in an
+ * interval tree, so these checks do not walk the officer's history.</p>
  * 
  * <h2>Usage Example:</h2>
  * <pre>{@code
@@ -82,6 +90,19 @@ public class Officer extends Applicant {
 	 */
 	private ArrayList<OfficerApplication> officerApplications;
 
+	/**
+	 * Index of the assigned projects for conflict-of-interest checks: the
+	 * application period each project is filed under (null if it has none),
+	 * and the projects by application period.
+	 * 
+	 * <p>Kept current by {@link #assignToProject(Project)},
+	 * {@link #unassignFromProject(Project)} and {@link #setAssignedProjects(ArrayList)},
+	 * and by {@link Project} when the application period of an assigned
+	 * project changes.</p>
+	 */
+	private final Map<Project, IntervalTreeMap.Interval> assignedPeriodKeys = new IdentityHashMap<>();
+	private final IntervalTreeMap<ArrayList<Project>> assignedPeriods = new IntervalTreeMap<>();
+
 	// ============================================================================
 	// STATIC VARIABLES
 	// ============================================================================
@@ -92,7 +113,7 @@ public class Officer extends Applicant {
 	 * <p>This is separate from the ApplicantDatabase to maintain
 	 * distinct collections for officers and regular applicants.</p>
 	 */
-	private static OfficerDatabase officerDatabase;
+	private static volatile OfficerDatabase officerDatabase;
 
 	/**
 	 * Default constructor that initializes an Officer with empty values.
@@ -122,6 +143,7 @@ public class Officer extends Applicant {
 	public Officer(String name, String nric, int age, String password, MarriageStatusEnum maritalStatus, Filter filter, ArrayList<BTOApplication> applications, ArrayList<Enquiry> enquiries, ArrayList<Project> assignedProjects, ArrayList<Booking> bookings) {
 		super(name, nric, age, maritalStatus, password, filter, applications, enquiries, bookings);
 		this.assignedProjects = assignedProjects != null ? assignedProjects : new ArrayList<>();
+		rebuildAssignmentIndex();
 	}
 
 	/**
@@ -131,6 +153,7 @@ public class Officer extends Applicant {
 	 */
 	public void setAssignedProjects(ArrayList<Project> assignedProjects) {
 		this.assignedProjects = assignedProjects;
+		rebuildAssignmentIndex();
 	}
 	
 	/**
@@ -147,6 +170,17 @@ public class Officer extends Applicant {
 		this.officerApplications = officerApplications != null ? officerApplications : new ArrayList<>();
 	}
 
+	/**
+	 * Moves this officer to its current keys in the database indexes.
+	 */
+	@Override
+	protected void reindex() {
+		super.reindex();
+		if (officerDatabase != null) {
+			officerDatabase.reindex(this);
+		}
+	}
+
 	/**
 	 * Sets the static database reference for Officer persistence.
 	 * 
@@ -199,6 +233,8 @@ public class Officer extends Applicant {
 
 	/**
 	 * Assigns this officer to manage a specified project.
+	 * The officer is also added to the project's assigned officers, so the
+	 * assignment is kept when the project is saved.
 	 * 
 	 * @param project The project to assign to this officer
 	 * @return true if the assignment was successful, false if already assigned or project is null
@@ -213,6 +249,10 @@ public class Officer extends Applicant {
 			return false;
 		}
 		this.assignedProjects.add(project);
+		indexAssignment(project);
+		if (!project.isOfficerAssigned(this)) {
+			project.getAssignedOfficers().add(this);
+		}
 		
 		return true;
 	}
@@ -230,6 +270,7 @@ public class Officer extends Applicant {
 		
 		if (project.unassignOfficer(this)) {
 			this.assignedProjects.remove(project);
+			unindexAssignment(project);
 			return true;
 		}
 		
@@ -243,11 +284,85 @@ public class Officer extends Applicant {
 	 * @return true if the officer is assigned to the project, false otherwise
 	 */
 	public boolean isAssignedToProject(Project project) {
-		if (project == null || this.assignedProjects == null) {
+		if (project == null) {
 			return false;
 		}
 		
-		return this.assignedProjects.contains(project);
+		return this.assignedPeriodKeys.containsKey(project);
+	}
+
+	/**
+	 * Finds the assigned projects whose application period overlaps a range of dates.
+	 * 
+	 * @param from The first date of the range, inclusive
+	 * @param to The last date of the range, inclusive
+	 * @return ArrayList of overlapping assigned projects, ordered by application start date
+	 */
+	public ArrayList<Project> findAssignedProjectsOverlapping(LocalDate from, LocalDate to) {
+		ArrayList<Project> result = new ArrayList<>();
+		if (from == null || to == null) {
+			return result;
+		}
+		for (ArrayList<Project> projects : this.assignedPeriods.findOverlapping(from.toEpochDay(), to.toEpochDay())) {
+			result.addAll(projects);
+		}
+		return result;
+	}
+
+	/**
+	 * Checks if this officer manages a project whose application period overlaps a range of dates.
+	 * 
+	 * @param from The first date of the range, inclusive
+	 * @param to The last date of the range, inclusive
+	 * @return true if an assigned project's application period overlaps the range, false otherwise
+	 */
+	public boolean hasAssignedProjectOverlapping(LocalDate from, LocalDate to) {
+		return !findAssignedProjectsOverlapping(from, to).isEmpty();
+	}
+
+	/**
+	 * Refiles an assigned project after its application period has changed.
+	 * Called by {@link Project} for each of its assigned officers.
+	 * 
+	 * @param project The project whose application period changed
+	 */
+	void assignedProjectPeriodChanged(Project project) {
+		if (this.assignedPeriodKeys.containsKey(project)) {
+			unindexAssignment(project);
+			indexAssignment(project);
+		}
+	}
+
+	private void indexAssignment(Project project) {
+		IntervalTreeMap.Interval period = null;
+		if (project.getApplicationStartDate() != null && project.getApplicationEndDate() != null) {
+			period = new IntervalTreeMap.Interval(project.getApplicationStartDate().toEpochDay(), project.getApplicationEndDate().toEpochDay());
+			this.assignedPeriods.computeIfAbsent(period, key -> new ArrayList<>()).add(project);
+		}
+		this.assignedPeriodKeys.put(project, period);
+	}
+
+	private void unindexAssignment(Project project) {
+		IntervalTreeMap.Interval period = this.assignedPeriodKeys.remove(project);
+		if (period != null) {
+			ArrayList<Project> projects = this.assignedPeriods.get(period);
+			projects.remove(project);
+			if (projects.isEmpty()) {
+				this.assignedPeriods.remove(period);
+			}
+		}
+	}
+
+	private void rebuildAssignmentIndex() {
+		this.assignedPeriodKeys.clear();
+		this.assignedPeriods.clear();
+		if (this.assignedProjects != null) {
+			for (Project project : this.assignedProjects) {
+				if (project != null && !this.assignedPeriodKeys.containsKey(project)) {
+					indexAssignment(project);
+				}
+			}
+		}
 	}
 
 	/**
@@ -260,13 +375,7 @@ public class Officer extends Applicant {
 		if (officerDatabase == null || name == null) {
 			return null;
 		}
-		
-		for (Officer officer : officerDatabase.getOfficers()) {
-			if (name.equals(officer.getName())) {
-				return officer;
-			}
-		}
-		return null;
+		return officerDatabase.findByName(name);
 	}
 
 	/**
@@ -279,13 +388,7 @@ public class Officer extends Applicant {
 		if (officerDatabase == null || nric == null) {
 			return null;
 		}
-		
-		for (Officer officer : officerDatabase.getOfficers()) {
-			if (nric.equals(officer.getNric())) {
-				return officer;
-			}
-		}
-		return null;
+		return officerDatabase.findByNric(nric);
 	}
 
 	/**
@@ -295,17 +398,10 @@ public class Officer extends Applicant {
 	 * @return ArrayList of matching Officers, empty list if none found
 	 */
 	public static ArrayList<Officer> findOfficersByAge(int age) {
-		ArrayList<Officer> result = new ArrayList<>();
 		if (officerDatabase == null) {
-			return result;
-		}
-		
-		for (Officer officer : officerDatabase.getOfficers()) {
-			if (officer.getAge() == age) {
-				result.add(officer);
-			}
+			return new ArrayList<>();
 		}
-		return result;
+		return officerDatabase.findByAge(age);
 	}
 
 	/**
@@ -319,6 +415,13 @@ public class Officer extends Applicant {
 			return null;
 		}
 		
+		// The application usually knows its applicant; scan only if it does not
+		if (application.getApplicant() instanceof Officer) {
+			Officer owner = (Officer) application.getApplicant();
+			if (officerDatabase.contains(owner) && owner.getApplications().contains(application)) {
+				return owner;
+			}
+		}
 		for (Officer officer : officerDatabase.getOfficers()) {
 			if (officer.getApplications() instanceof ArrayList) {
 				ArrayList<BTOApplication> apps = (ArrayList<BTOApplication>) officer.getApplications();
@@ -341,6 +444,13 @@ public class Officer extends Applicant {
 			return null;
 		}
 		
+		// The enquiry usually knows its submitter; scan only if it does not
+		if (enquiry.getSubmittedBy() instanceof Officer) {
+			Officer owner = (Officer) enquiry.getSubmittedBy();
+			if (officerDatabase.contains(owner) && owner.getEnquiries().contains(enquiry)) {
+				return owner;
+			}
+		}
 		for (Officer officer : officerDatabase.getOfficers()) {
 			if (officer.getEnquiries() instanceof ArrayList) {
 				ArrayList<Enquiry> enqs = (ArrayList<Enquiry>) officer.getEnquiries();
@@ -379,17 +489,24 @@ public class Officer extends Applicant {
 	 * @return ArrayList of matching Officers, empty list if none found
 	 */
 	public static ArrayList<Officer> findOfficerByMaritalStatus(MarriageStatusEnum status) {
-		ArrayList<Officer> result = new ArrayList<>();
 		if (officerDatabase == null || status == null) {
-			return result;
+			return new ArrayList<>();
 		}
-		
-		for (Officer officer : officerDatabase.getOfficers()) {
-			if (status.equals(officer.getMaritalStatus())) {
-				result.add(officer);
-			}
+		return officerDatabase.findByMaritalStatus(status);
+	}
+
+	/**
+	 * Finds all officers with one of the given ages and one of the given marital statuses.
+	 * 
+	 * @param ages The ages to search for; null or empty matches any age
+	 * @param statuses The marital statuses to search for; null or empty matches any status
+	 * @return ArrayList of matching Officers, empty list if none found
+	 */
+	public static ArrayList<Officer> findOfficersByAgesAndMaritalStatuses(Collection<Integer> ages, Collection<MarriageStatusEnum> statuses) {
+		if (officerDatabase == null) {
+			return new ArrayList<>();
 		}
-		return result;
+		return officerDatabase.findByAgesAndMaritalStatuses(ages, statuses);
 	}
 
 	/**
@@ -403,12 +520,10 @@ public class Officer extends Applicant {
 			return false;
 		}
 		
-		ArrayList<Officer> officers = officerDatabase.getOfficers();
-		if (officers.contains(officer)) {
+		if (!officerDatabase.add(officer)) {
 			return false; // Already in database
 		}
-		
-		officers.add(officer);
+		officerDatabase.getChanges().markAdded(officer);
 		return true;
 	}
 
@@ -423,8 +538,11 @@ public class Officer extends Applicant {
 			return false;
 		}
 		
-		ArrayList<Officer> officers = officerDatabase.getOfficers();
-		return officers.remove(officer);
+		if (!officerDatabase.remove(officer)) {
+			return false;
+		}
+		officerDatabase.getChanges().markRemoved(officer);
+		return true;
 	}
 
 	/**
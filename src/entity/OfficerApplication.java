@@ -43,7 +43,7 @@ public class OfficerApplication {
 	/**
 	 * Static reference to the database of all officer applications in the system
 	 */
-	private static OfficerApplicationDatabase database;
+	private static volatile OfficerApplicationDatabase database;
 
 	/**
 	 * Default constructor that initializes a new officer application with current date,
@@ -117,6 +117,7 @@ public class OfficerApplication {
 	 */
 	public void setApplicationDate(LocalDate applicationDate) {
 		this.applicationDate = applicationDate;
+		reindex();
 	}
 
 	/**
@@ -126,6 +127,7 @@ public class OfficerApplication {
 	 */
 	public void setOfficer(Officer officer) {
 		this.officer = officer;
+		reindex();
 	}
 
 	/**
@@ -135,6 +137,7 @@ public class OfficerApplication {
 	 */
 	public void setProject(Project project) {
 		this.project = project;
+		reindex();
 	}
 
 	/**
@@ -144,6 +147,17 @@ public class OfficerApplication {
 	 */
 	public void setStatus(OfficerApplicationStatusEnum status) {
 		this.status = status;
+		reindex();
+	}
+
+	/**
+	 * Moves this application to its current keys in the database indexes
+	 * after one of its indexed fields has changed.
+	 */
+	private void reindex() {
+		if (database != null) {
+			database.reindex(this);
+		}
 	}
 
 	/**
@@ -216,17 +230,10 @@ public class OfficerApplication {
 	 * @return ArrayList of OfficerApplication objects submitted on the specified date
 	 */
 	public static ArrayList<OfficerApplication> findApplicationsByDate(LocalDate date) {
-		ArrayList<OfficerApplication> result = new ArrayList<>();
 		if (database == null || date == null) {
-			return result;
-		}
-
-		for (OfficerApplication app : database.getApplications()) {
-			if (date.equals(app.getApplicationDate())) {
-				result.add(app);
-			}
+			return new ArrayList<>();
 		}
-		return result;
+		return database.findByDate(date);
 	}
 
 	/**
@@ -236,17 +243,10 @@ public class OfficerApplication {
 	 * @return ArrayList of OfficerApplication objects submitted by the specified officer
 	 */
 	public static ArrayList<OfficerApplication> findApplicationsByOfficer(Officer officer) {
-		ArrayList<OfficerApplication> result = new ArrayList<>();
 		if (database == null || officer == null) {
-			return result;
-		}
-
-		for (OfficerApplication app : database.getApplications()) {
-			if (officer.equals(app.getOfficer())) {
-				result.add(app);
-			}
+			return new ArrayList<>();
 		}
-		return result;
+		return database.findByOfficer(officer);
 	}
 
 	/**
@@ -256,17 +256,10 @@ public class OfficerApplication {
 	 * @return ArrayList of OfficerApplication objects for the specified project
 	 */
 	public static ArrayList<OfficerApplication> findApplicationsByProject(Project project) {
-		ArrayList<OfficerApplication> result = new ArrayList<>();
 		if (database == null || project == null) {
-			return result;
-		}
-
-		for (OfficerApplication app : database.getApplications()) {
-			if (project.equals(app.getProject())) {
-				result.add(app);
-			}
+			return new ArrayList<>();
 		}
-		return result;
+		return database.findByProject(project);
 	}
 
 	/**
@@ -276,17 +269,10 @@ public class OfficerApplication {
 	 * @return ArrayList of OfficerApplication objects with the specified status
 	 */
 	public static ArrayList<OfficerApplication> findApplicationsByStatus(enums.OfficerApplicationStatusEnum status) {
-		ArrayList<OfficerApplication> result = new ArrayList<>();
 		if (database == null || status == null) {
-			return result;
-		}
-
-		for (OfficerApplication app : database.getApplications()) {
-			if (status.equals(app.getStatus())) {
-				result.add(app);
-			}
+			return new ArrayList<>();
 		}
-		return result;
+		return database.findByStatus(status);
 	}
 
 	/**
@@ -300,12 +286,10 @@ public class OfficerApplication {
 			return false;
 		}
 
-		ArrayList<OfficerApplication> applications = database.getApplications();
-		if (applications.contains(application)) {
+		if (!database.add(application)) {
 			return false; // Already in database
 		}
-
-		applications.add(application);
+		database.getChanges().markAdded(application);
 		return true;
 	}
 
@@ -320,8 +304,11 @@ public class OfficerApplication {
 			return false;
 		}
 
-		ArrayList<OfficerApplication> applications = database.getApplications();
-		return applications.remove(application);
+		if (!database.remove(application)) {
+			return false;
+		}
+		database.getChanges().markRemoved(application);
+		return true;
 	}
 
 	/**
@@ -31,7 +31,7 @@ public class Project {
 	/**
 	 * Static database reference for Project persistence
 	 */
-	private static ProjectDatabase database;
+	private static volatile ProjectDatabase database;
 
 	/**
 	 * Default constructor that initializes a Project with empty/default values.
@@ -90,6 +90,7 @@ public class Project {
 	 */
 	public void setProjectName(String projectName) {
 		this.projectName = projectName;
+		reindex();
 	}
 
 	/**
@@ -99,6 +100,7 @@ public class Project {
 	 */
 	public void setNeighborhood(String neighborhood) {
 		this.neighborhood = neighborhood;
+		reindex();
 	}
 
 	/**
@@ -108,6 +110,8 @@ public class Project {
 	 */
 	public void setApplicationStartDate(LocalDate applicationStartDate) {
 		this.applicationStartDate = applicationStartDate;
+		reindex();
+		refileAssignedOfficers();
 	}
 
 	/**
@@ -117,6 +121,8 @@ public class Project {
 	 */
 	public void setApplicationEndDate(LocalDate applicationEndDate) {
 		this.applicationEndDate = applicationEndDate;
+		reindex();
+		refileAssignedOfficers();
 	}
 
 	/**
@@ -137,6 +143,7 @@ public class Project {
 		}
 		
 		this.manager = manager;
+		reindex();
 	}
 
 	/**
@@ -155,6 +162,7 @@ public class Project {
 	 */
 	public void setVisibility(VisibilityEnum visibility) {
 		this.visibility = visibility;
+		reindex();
 	}
 
 	/**
@@ -164,6 +172,8 @@ public class Project {
 	 */
 	public void setFlatTypes(ArrayList<FlatType> flatTypes) {
 		this.flatTypes = flatTypes;
+		adoptFlatTypes();
+		reindex();
 	}
 
 	/**
@@ -175,6 +185,51 @@ public class Project {
 		this.assignedOfficers = assignedOfficers;
 	}
 
+	/**
+	 * Lets the assigned officers refile this project after its application
+	 * period has changed, for their conflict-of-interest checks.
+	 */
+	private void refileAssignedOfficers() {
+		if (this.assignedOfficers != null) {
+			for (Officer officer : this.assignedOfficers) {
+				officer.assignedProjectPeriodChanged(this);
+			}
+		}
+	}
+
+	/**
+	 * Makes the flat types report their changes to this project. Only a stored
+	 * project has indexes to update, so the constructor leaves this to
+	 * {@link #addToDatabase(Project)}, and this escapes no half-built project.
+	 */
+	private void adoptFlatTypes() {
+		if (this.flatTypes != null) {
+			for (FlatType flatType : this.flatTypes) {
+				if (flatType != null) {
+					flatType.setProject(this);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Refiles this project after the price, category or availability of one
+	 * of its flat types has changed.
+	 */
+	void flatTypeChanged() {
+		reindex();
+	}
+
+	/**
+	 * Moves this project to its current keys in the database indexes
+	 * after one of its indexed fields has changed.
+	 */
+	private void reindex() {
+		if (database != null) {
+			database.reindex(this);
+		}
+	}
+
 	/**
 	 * Sets the static database reference for Project persistence.
 	 * 
@@ -291,6 +346,8 @@ public class Project {
 		if (flatType != null && this.flatTypes != null) {
 			if (!this.flatTypes.contains(flatType)){
 				this.flatTypes.add(flatType);
+				flatType.setProject(this);
+				reindex();
 			}
 		}
 	}
@@ -377,13 +434,7 @@ public class Project {
 		if (database == null || projectName == null) {
 			return null;
 		}
-		
-		for (Project project : database.getProjects()) {
-			if (projectName.equals(project.getProjectName())) {
-				return project;
-			}
-		}
-		return null;
+		return database.findByName(projectName);
 	}
 
 	/**
@@ -393,17 +444,10 @@ public class Project {
 	 * @return A list of Projects in the specified neighborhood
 	 */
 	public static ArrayList<Project> findProjectsByNeighborhood(String neighborhood) {
-		ArrayList<Project> result = new ArrayList<>();
 		if (database == null || neighborhood == null) {
-			return result;
-		}
-		
-		for (Project project : database.getProjects()) {
-			if (neighborhood.equals(project.getNeighborhood())) {
-				result.add(project);
-			}
+			return new ArrayList<>();
 		}
-		return result;
+		return database.findByNeighborhood(neighborhood);
 	}
 
 	/**
@@ -413,17 +457,10 @@ public class Project {
 	 * @return A list of Projects with the matching application start date
 	 */
 	public static ArrayList<Project> findProjectsByApplicationStartDate(LocalDate startDate) {
-		ArrayList<Project> result = new ArrayList<>();
 		if (database == null || startDate == null) {
-			return result;
-		}
-		
-		for (Project project : database.getProjects()) {
-			if (startDate.equals(project.getApplicationStartDate())) {
-				result.add(project);
-			}
+			return new ArrayList<>();
 		}
-		return result;
+		return database.findByApplicationStartDate(startDate);
 	}
 
 	/**
@@ -433,17 +470,67 @@ public class Project {
 	 * @return A list of Projects with the matching application end date
 	 */
 	public static ArrayList<Project> findProjectsByApplicationEndDate(LocalDate endDate) {
-		ArrayList<Project> result = new ArrayList<>();
 		if (database == null || endDate == null) {
-			return result;
+			return new ArrayList<>();
 		}
-		
-		for (Project project : database.getProjects()) {
-			if (endDate.equals(project.getApplicationEndDate())) {
-				result.add(project);
-			}
+		return database.findByApplicationEndDate(endDate);
+	}
+
+	/**
+	 * Finds all projects whose application period includes a specific date.
+	 * 
+	 * @param date The date to search for
+	 * @return A list of Projects open for applications on that date, ordered by application start date
+	 */
+	public static ArrayList<Project> findProjectsOpenOn(LocalDate date) {
+		if (database == null || date == null) {
+			return new ArrayList<>();
 		}
-		return result;
+		return database.findOpenOn(date);
+	}
+
+	/**
+	 * Finds all projects whose application period overlaps a range of dates.
+	 * 
+	 * @param from The first date of the range, inclusive
+	 * @param to The last date of the range, inclusive
+	 * @return A list of Projects with an overlapping application period, ordered by application start date
+	 */
+	public static ArrayList<Project> findProjectsWithApplicationPeriodOverlapping(LocalDate from, LocalDate to) {
+		if (database == null || from == null || to == null) {
+			return new ArrayList<>();
+		}
+		return database.findByApplicationPeriodOverlapping(from, to);
+	}
+
+	/**
+	 * Finds all projects open for applications on a specific date that an applicant
+	 * of a given marital status and age may apply for.
+	 * 
+	 * @param maritalStatus The marital status of the applicant
+	 * @param age The age of the applicant
+	 * @param date The date the application period must include
+	 * @param visibility The visibility the projects must have, or null for any
+	 * @return A list of matching Projects, in database order
+	 */
+	public static ArrayList<Project> findEligibleProjectsOpenOn(MarriageStatusEnum maritalStatus, int age, LocalDate date, VisibilityEnum visibility) {
+		if (database == null || date == null) {
+			return new ArrayList<>();
+		}
+		return database.findEligibleOpenOn(maritalStatus, age, date, visibility);
+	}
+
+	/**
+	 * Puts projects in the order they are stored in the database.
+	 * 
+	 * @param projects The projects to order
+	 * @return A new list of the projects in database order, leaving out projects not in the database
+	 */
+	public static ArrayList<Project> inDatabaseOrder(Collection<Project> projects) {
+		if (database == null || projects == null) {
+			return new ArrayList<>();
+		}
+		return database.inDatabaseOrder(projects);
 	}
 
 	/**
@@ -453,20 +540,58 @@ public class Project {
 	 * @return A list of Projects offering the specified flat type
 	 */
 	public static ArrayList<Project> findProjectsByFlatType(enums.FlatTypeEnum flatType) {
-		ArrayList<Project> result = new ArrayList<>();
 		if (database == null || flatType == null) {
-			return result;
+			return new ArrayList<>();
 		}
-		
-		for (Project project : database.getProjects()) {
-			for (FlatType ft : project.getFlatTypes()) {
-				if (flatType.equals(ft.getType())) {
-					result.add(project);
-					break; // Found a match, move to next project
-				}
-			}
+		return database.findByFlatType(flatType);
+	}
+
+	/**
+	 * Finds all projects matching a filter, using the database indexes
+	 * instead of checking every project against the filter.
+	 * 
+	 * @param filter The search criteria
+	 * @return A list of Projects for which {@link Filter#matchesProject(Project)} holds, in database order
+	 */
+	public static ArrayList<Project> findProjectsMatching(Filter filter) {
+		if (database == null || filter == null) {
+			return new ArrayList<>();
 		}
-		return result;
+		return database.compile(filter).findAll();
+	}
+
+	/**
+	 * Finds the projects among some candidates that have a given visibility
+	 * and match a filter, using the database indexes.
+	 * 
+	 * @param filter The search criteria
+	 * @param visibility The visibility the projects must have, or null for any
+	 * @param candidates The projects to choose from
+	 * @return A list of the matching candidates, in database order
+	 */
+	public static ArrayList<Project> findProjectsMatching(Filter filter, VisibilityEnum visibility, Collection<Project> candidates) {
+		if (database == null || filter == null || candidates == null) {
+			return new ArrayList<>();
+		}
+		return database.compile(filter, visibility).findAmong(candidates);
+	}
+
+	/**
+	 * Finds the projects among some candidates that have a given visibility
+	 * and match a filter, and counts them per neighborhood, flat type and
+	 * price range.
+	 * 
+	 * @param filter The search criteria
+	 * @param visibility The visibility the projects must have, or null for any
+	 * @param candidates The projects to choose from
+	 * @param priceBucketSize The width of each price range in SGD
+	 * @return The matching candidates, in database order, with their facet counts
+	 */
+	public static FilterResult findProjectsMatchingWithFacets(Filter filter, VisibilityEnum visibility, Collection<Project> candidates, double priceBucketSize) {
+		if (database == null || filter == null || candidates == null) {
+			return new FilterResult(new ArrayList<>(), new TreeMap<>(), new EnumMap<>(FlatTypeEnum.class), new TreeMap<>(), priceBucketSize);
+		}
+		return database.compile(filter, visibility).facetsAmong(candidates, priceBucketSize);
 	}
 
 	/**
@@ -476,17 +601,10 @@ public class Project {
 	 * @return A list of Projects managed by the specified manager
 	 */
 	public static ArrayList<Project> findProjectsByManager(Manager manager) {
-		ArrayList<Project> result = new ArrayList<>();
 		if (database == null || manager == null) {
-			return result;
-		}
-		
-		for (Project project : database.getProjects()) {
-			if (manager.equals(project.getManager())) {
-				result.add(project);
-			}
+			return new ArrayList<>();
 		}
-		return result;
+		return database.findByManager(manager);
 	}
 
 	/**
@@ -516,17 +634,10 @@ public class Project {
 	 * @return A list of Projects with the specified visibility status
 	 */
 	public static ArrayList<Project> findProjectsByVisibility(VisibilityEnum visibility) {
-		ArrayList<Project> result = new ArrayList<>();
 		if (database == null || visibility == null) {
-			return result;
-		}
-		
-		for (Project project : database.getProjects()) {
-			if (visibility.equals(project.getVisibility())) {
-				result.add(project);
-			}
+			return new ArrayList<>();
 		}
-		return result;
+		return database.findByVisibility(visibility);
 	}
 
 	/**
@@ -540,12 +651,11 @@ public class Project {
 			return false;
 		}
 		
-		ArrayList<Project> projects = database.getProjects();
-		if (projects.contains(project)) {
+		project.adoptFlatTypes();
+		if (!database.add(project)) {
 			return false; // Already in database
 		}
-		
-		projects.add(project);
+		database.getChanges().markAdded(project);
 		return true;
 	}
 
@@ -560,8 +670,11 @@ public class Project {
 			return false;
 		}
 		
-		ArrayList<Project> projects = database.getProjects();
-		return projects.remove(project);
+		if (!database.remove(project)) {
+			return false;
+		}
+		database.getChanges().markRemoved(project);
+		return true;
 	}
 
 	/**
@@ -33,7 +33,7 @@ public class Receipt {
 	/**
 	 * Static reference to the database of all receipts in the system
 	 */
-	private static ReceiptDatabase database;
+	private static volatile ReceiptDatabase database;
 
 	/**
 	 * Default constructor that initializes a new receipt with current date,
@@ -66,6 +66,7 @@ public class Receipt {
 	 */
 	public void setReceiptNumber(String receiptNumber) {
 		this.receiptNumber = receiptNumber;
+		reindex();
 	}
 
 	/**
@@ -75,6 +76,7 @@ public class Receipt {
 	 */
 	public void setDate(LocalDate date) {
 		this.date = date;
+		reindex();
 	}
 
 	/**
@@ -84,6 +86,17 @@ public class Receipt {
 	 */
 	public void setBooking(Booking booking) {
 		this.booking = booking;
+		reindex();
+	}
+
+	/**
+	 * Moves this receipt to its current keys in the database indexes
+	 * after one of its indexed fields has changed.
+	 */
+	private void reindex() {
+		if (database != null) {
+			database.reindex(this);
+		}
 	}
 
 	/**
@@ -152,13 +165,7 @@ public class Receipt {
 		if (database == null || receiptNumber == null) {
 			return null;
 		}
-		
-		for (Receipt receipt : database.getReceipts()) {
-			if (receiptNumber.equals(receipt.getReceiptNumber())) {
-				return receipt;
-			}
-		}
-		return null;
+		return database.findByNumber(receiptNumber);
 	}
 
 	/**
@@ -168,17 +175,24 @@ public class Receipt {
 	 * @return ArrayList of Receipt objects generated on the specified date
 	 */
 	public static ArrayList<Receipt> findReceiptByDate(LocalDate date) {
-		ArrayList<Receipt> result = new ArrayList<>();
 		if (database == null || date == null) {
-			return result;
+			return new ArrayList<>();
 		}
-		
-		for (Receipt receipt : database.getReceipts()) {
-			if (date.equals(receipt.getDate())) {
-				result.add(receipt);
-			}
+		return database.findByDate(date);
+	}
+
+	/**
+	 * Finds all receipts generated within a date range, ordered by date.
+	 *
+	 * @param from The first date of the range, inclusive; null for no lower bound
+	 * @param to The last date of the range, inclusive; null for no upper bound
+	 * @return ArrayList of matching Receipt objects, empty list if none found
+	 */
+	public static ArrayList<Receipt> findReceiptsBetween(LocalDate from, LocalDate to) {
+		if (database == null) {
+			return new ArrayList<>();
 		}
-		return result;
+		return database.findByDateBetween(from, to);
 	}
 
 	/**
@@ -191,13 +205,7 @@ public class Receipt {
 		if (database == null || booking == null) {
 			return null;
 		}
-		
-		for (Receipt receipt : database.getReceipts()) {
-			if (booking.equals(receipt.getBooking())) {
-				return receipt;
-			}
-		}
-		return null;
+		return database.findByBooking(booking);
 	}
 
 	/**
@@ -211,12 +219,10 @@ public class Receipt {
 			return false;
 		}
 		
-		ArrayList<Receipt> receipts = database.getReceipts();
-		if (receipts.contains(receipt)) {
+		if (!database.add(receipt)) {
 			return false; // Already in database
 		}
-		
-		receipts.add(receipt);
+		database.getChanges().markAdded(receipt);
 		return true;
 	}
 
@@ -231,8 +237,11 @@ public class Receipt {
 			return false;
 		}
 		
-		ArrayList<Receipt> receipts = database.getReceipts();
-		return receipts.remove(receipt);
+		if (!database.remove(receipt)) {
+			return false;
+		}
+		database.getChanges().markRemoved(receipt);
+		return true;
 	}
 
 	/**
@@ -132,6 +132,7 @@ public abstract class User {
 	 */
 	public void setName(String name) {
 		this.name = name;
+		reindex();
 	}
 
 	/**
@@ -141,6 +142,7 @@ public abstract class User {
 	 */
 	public void setNric(String nric) {
 		this.nric = nric;
+		reindex();
 	}
 
 	/**
@@ -150,6 +152,7 @@ public abstract class User {
 	 */
 	public void setAge(int age) {
 		this.age = age;
+		reindex();
 	}
 
 	/**
@@ -168,6 +171,7 @@ public abstract class User {
 	 */
 	public void setMaritalStatus(MarriageStatusEnum maritalStatus) {
 		this.maritalStatus = maritalStatus;
+		reindex();
 	}
 
 	/**
@@ -179,6 +183,13 @@ public abstract class User {
 		this.filter = filter;
 	}
 
+	/**
+	 * Called after the name, NRIC, age or marital status has changed, so that
+	 * subclasses kept in a database can update its indexes.
+	 */
+	protected void reindex() {
+	}
+
 	/**
 	 * Getters for accessing user attributes
 	 */
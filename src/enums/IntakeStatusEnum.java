@@ -0,0 +1,14 @@
+package enums;
+
+/**
+ * Represents the progress of an application submitted through the application intake.
+ * Tracks a submission from the intake queue until it is stored or turned down.
+ */
+public enum IntakeStatusEnum {
+	/** Submission is waiting in the intake queue to be validated and stored */
+	QUEUED,
+	/** Submission has been stored as a pending BTO application */
+	ACCEPTED,
+	/** Submission was turned down and no application was created */
+	REJECTED
+}
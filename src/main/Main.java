@@ -3,8 +3,12 @@ package main;
 import boundary.*;
 import database.*;
 import entity.*;
+import utils.ApplicationConstants;
+import utils.AutoSaveScheduler;
 import utils.DisplayMenu;
 import utils.FileHandler;
+import utils.Journal;
+import utils.SnapshotHandler;
 
 /**
  * Main entry point for the BTO Management System application.
@@ -27,6 +31,9 @@ import utils.FileHandler;
  *   <li>Create database instances for all entity types</li>
  *   <li>Attach databases to entity classes (Active Record pattern)</li>
  *   <li>Configure FileHandler with database references</li>
+ *   <li>Load data from the binary snapshot, or from the CSV files if it is out of date</li>
+ *   <li>Replay the journal of changes made since the data files were last written</li>
+ *   <li>Start saving further changes in the background</li>
  *   <li>Display main menu for user interaction</li>
  * </ol>
  * 
@@ -89,13 +96,15 @@ public class Main {
 	 * </ol>
 	 * 
 	 * <p>The application continues running until the user chooses to exit
-	 * from the main menu.</p>
+	 * from the main menu. Pending changes are then saved before the program ends.</p>
 	 * 
 	 * @param args command line arguments (not used in current implementation)
 	 */
 	public static void main(String[] args) {
 		initialize();
 		DisplayMenu.displayMenu(mainMenuView);
+		AutoSaveScheduler.shutdown();
+		Journal.close();
 	}
 
 	// ============================================================================
@@ -132,15 +141,47 @@ public class Main {
 	 * <p>Configures the FileHandler with all database references to enable
 	 * data persistence through CSV file operations.</p>
 	 * 
+	 * <h3>5. Data Loading</h3>
+	 * <p>Loads the data from the binary snapshot when every CSV file still has the
+	 * size and modification time recorded in it, and otherwise reads the CSV files
+	 * and writes a fresh snapshot for the next start. The time taken by either path is printed so the two can be compared.
+	 * The journal is then replayed on top and kept open to record further changes,
+	 * and the autosave is started to write them to the data files.</p>
+	 * 
 	 * <p><strong>Note:</strong> This method must be called before any user interaction
 	 * or database operations can occur.</p>
 	 * 
 	 * @see FileHandler
 	 */
 	public static void initialize() {
+		initialize(true);
+	}
+
+	/**
+	 * Initializes the application as {@link #initialize()} does.
+	 * 
+	 * @param shutdownHook whether the autosave registers its own shutdown hook;
+	 *        false if the caller saves pending changes from its own hook
+	 * @see AutoSaveScheduler#shutdown()
+	 */
+	public static void initialize(boolean shutdownHook) {
 		// Create main views
 		mainMenuView = new MainMenuView();
 
+		initializeDatabases();
+		
+		loadData(ApplicationConstants.DEFAULT_DATA_PATH, shutdownHook);
+		
+		System.out.println("BTO Management System initialized successfully.");
+	}
+
+	/**
+	 * Creates empty databases and attaches them to the entity classes and the
+	 * {@link FileHandler}, without loading any data.
+	 * 
+	 * <p>Used by {@link #initialize()} and by tools that load their own data folder.</p>
+	 */
+	public static void initializeDatabases() {
 		// Initialize database classes
 		ApplicantDatabase applicantDatabase = new ApplicantDatabase();
 		OfficerDatabase officerDatabase = new OfficerDatabase();
@@ -173,7 +214,28 @@ public class Main {
 		FileHandler.setBookingDatabase(bookingDatabase);
 		FileHandler.setReceiptDatabase(receiptDatabase);
 		FileHandler.setEnquiryDatabase(enquiryDatabase);
-		
-		System.out.println("BTO Management System initialized successfully.");
 	}
-}
\ No newline at end of file
+
+	/**
+	 * Loads all data from the snapshot if it is current, otherwise from the CSV files,
+	 * then replays the journal and starts the autosave.
+	 * 
+	 * @param dataPath the folder containing the data files
+	 * @param shutdownHook whether the autosave registers its own shutdown hook
+	 * @see SnapshotHandler
+	 */
+	private static void loadData(String dataPath, boolean shutdownHook) {
+		long start = System.nanoTime();
+		if (SnapshotHandler.isSnapshotCurrent(dataPath) && SnapshotHandler.readSnapshot(dataPath)) {
+			System.out.println("Loaded data from snapshot in " + (System.nanoTime() - start) / 1_000_000 + " ms.");
+		} else if (FileHandler.readAllData(dataPath)) {
+			System.out.println("Loaded data from CSV files in " + (System.nanoTime() - start) / 1_000_000 + " ms.");
+			if (SnapshotHandler.writeSnapshot(dataPath)) {
+				System.out.println("Saved a snapshot for faster loading on the next start.");
+			}
+		}
+
+		Journal.open(dataPath);
+		AutoSaveScheduler.start(dataPath, ApplicationConstants.AUTOSAVE_WINDOW_MILLIS, ApplicationConstants.AUTOSAVE_MAX_PENDING_CHANGES, shutdownHook);
+	}
+}
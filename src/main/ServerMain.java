@@ -0,0 +1,56 @@
+package main;
+
+import boundary.api.ApiServer;
+import java.io.IOException;
+import utils.ApplicationConstants;
+import utils.AutoSaveScheduler;
+import utils.Journal;
+
+/**
+ * Entry point that serves the BTO Management System over HTTP instead of the console.
+ *
+ * <p>Loads the data the same way as {@link Main}, then starts an {@link ApiServer}
+ * on {@link ApplicationConstants#API_PORT} and keeps running until the process is
+ * stopped. On shutdown the server finishes running requests, the application
+ * intake stores the submissions it has accepted, and only then are pending
+ * changes saved and the journal closed, as when the console application exits.
+ * These steps run in order from a single shutdown hook, since the JVM runs
+ * separate hooks at the same time.</p>
+ *
+ * <h2>Usage Example:</h2>
+ * <pre>{@code
+ * java -Dbto.api.port=8080 -cp bin main.ServerMain
+ * }</pre>
+ *
+ * @author BTO Management System Team
+ * @version 2.0
+ * @since 2.0
+ * @see ApiServer
+ */
+public class ServerMain {
+
+	/**
+	 * Seconds running requests are given to finish when the server stops.
+	 */
+	private static final int SHUTDOWN_DELAY_SECONDS = 5;
+
+	/**
+	 * Starts the HTTP API server.
+	 *
+	 * @param args command line arguments (not used in current implementation)
+	 * @throws IOException if the port cannot be bound
+	 */
+	public static void main(String[] args) throws IOException {
+		// The autosave is stopped from the hook below, after the last change is made
+		Main.initialize(false);
+		ApiServer server = new ApiServer(ApplicationConstants.API_PORT, ApplicationConstants.API_SESSION_TIMEOUT_MILLIS);
+		Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+			// Stops accepting requests, waits for running ones and drains the intake
+			server.stop(SHUTDOWN_DELAY_SECONDS);
+			AutoSaveScheduler.shutdown();
+			Journal.close();
+		}, "server-shutdown"));
+		server.start();
+		System.out.println("BTO Management System API listening on port " + server.getPort());
+	}
+}
@@ -146,6 +146,85 @@ public final class ApplicationConstants {
      */
     public static final String ENQUIRY_FILE = "EnquiryList.csv";
     
+    /**
+     * Filename for the binary snapshot of all data files.
+     * Loaded at startup instead of the CSV files while they are unchanged since it was written.
+     */
+    public static final String SNAPSHOT_FILE = "snapshot.bin";
+    
+    /**
+     * Filename for the journal of changes made since the data files were last written.
+     */
+    public static final String JOURNAL_FILE = "journal.log";
+    
+    /**
+     * Filename for the manifest recording the last committed state of the data files.
+     */
+    public static final String MANIFEST_FILE = "manifest.csv";
+    
+    /**
+     * Number of journal records after which the journal is folded back into the data files.
+     */
+    public static final int JOURNAL_COMPACTION_THRESHOLD = 500;
+    
+    /**
+     * Time in milliseconds during which changes are collected before the autosave
+     * writes them together. Can be set with the {@code bto.autosave.window} system
+     * property; 0 turns the autosave off.
+     */
+    public static final long AUTOSAVE_WINDOW_MILLIS = Long.getLong("bto.autosave.window", 2000);
+    
+    /**
+     * Number of unsaved changes at which further changes wait for the autosave to catch up.
+     */
+    public static final int AUTOSAVE_MAX_PENDING_CHANGES = 1000;
+    
+    /**
+     * Size in bytes from which the applicant and BTO application files are imported
+     * with the memory-mapped parallel parser instead of the streaming reader.
+     */
+    public static final long PARALLEL_IMPORT_MIN_BYTES = 8L * 1024 * 1024;
+    
+    /**
+     * Width in SGD of the price ranges projects are counted in when browsing with a filter.
+     */
+    public static final double PRICE_FACET_BUCKET_SIZE = 100000;
+
+    /**
+     * Port the HTTP API server listens on. Can be set with the {@code bto.api.port}
+     * system property.
+     */
+    public static final int API_PORT = Integer.getInteger("bto.api.port", 8080);
+
+    /**
+     * Time in milliseconds after which an HTTP API session that has not been used expires.
+     */
+    public static final long API_SESSION_TIMEOUT_MILLIS = 30L * 60 * 1000;
+
+    /**
+     * Number of submissions the application intake queues before it turns further
+     * submissions away as busy.
+     */
+    public static final int INTAKE_QUEUE_CAPACITY = 10000;
+
+    /**
+     * Largest number of validated applications the application intake stores
+     * and journals together.
+     */
+    public static final int INTAKE_BATCH_SIZE = 256;
+
+    /**
+     * Time in milliseconds the application intake waits for more validated
+     * applications before storing a batch that is not full.
+     */
+    public static final long INTAKE_BATCH_WAIT_MILLIS = 10;
+
+    /**
+     * Time in milliseconds the application intake keeps an accepted or rejected
+     * ticket for its submitter to look up before dropping it.
+     */
+    public static final long INTAKE_TICKET_RETENTION_MILLIS = 15L * 60 * 1000;
+
     // ============================================================================
     // ID PREFIXES - Used for generating unique identifiers
     // ============================================================================
@@ -180,6 +259,12 @@ public final class ApplicationConstants {
      */
     public static final String ENQUIRY_ID_PREFIX = "ENQ-";
     
+    /**
+     * Prefix for application intake ticket IDs.
+     * Format: TKT-{timestamp}-{sequence}
+     */
+    public static final String INTAKE_TICKET_ID_PREFIX = "TKT-";
+    
     // ============================================================================
     // NRIC VALIDATION
     // ============================================================================
@@ -1,5 +1,6 @@
 package utils;
 
+import database.IdentityDirectory;
 import entity.User;
 import java.util.ArrayList;
 
@@ -12,11 +13,14 @@ import java.util.ArrayList;
  * 
  * <h2>Authentication Process:</h2>
  * <ol>
- *   <li>Iterate through the provided list of users</li>
- *   <li>Compare NRIC (case-sensitive) and password</li>
- *   <li>Return the matching user or null if not found</li>
+ *   <li>Look up the accounts registered under the NRIC in the {@link IdentityDirectory}</li>
+ *   <li>Compare the password of each account, in login order</li>
+ *   <li>Return the matching account, with its role, or null if not found</li>
  * </ol>
  * 
+ * <p>The list-based {@link #authenticate(ArrayList, String, String)} is kept for
+ * callers that check a specific list of users.</p>
+ * 
  * <h2>Usage Example:</h2>
  * <pre>{@code
  * ArrayList<Applicant> applicants = Applicant.getAllApplicants();
@@ -76,4 +80,48 @@ public class Auth {
         }
         return null;
     }
+
+    /**
+     * Authenticates a user of any role with a single directory lookup.
+     * 
+     * @param nric     the NRIC to look up in the identity directory
+     * @param password the password to verify against the stored password
+     * @return the authenticated account, whose role selects the view to open,
+     *         or {@code null} if the credentials do not match
+     * 
+     * @see IdentityDirectory#lookup(String)
+     */
+    public static IdentityDirectory.Account authenticate(String nric, String password) {
+        if (nric == null || password == null) {
+            return null;
+        }
+        
+        for (IdentityDirectory.Account account : IdentityDirectory.lookup(nric)) {
+            if (password.equals(account.getUser().getPassword())) {
+                return account;
+            }
+        }
+        return null;
+    }
+    
+    /**
+     * Authenticates a user registered with a specific role.
+     * 
+     * @param role     the role the user must be registered with
+     * @param nric     the NRIC to look up in the identity directory
+     * @param password the password to verify against the stored password
+     * @return the authenticated User object if credentials match, {@code null} otherwise
+     */
+    public static User authenticate(IdentityDirectory.Role role, String nric, String password) {
+        if (role == null || nric == null || password == null) {
+            return null;
+        }
+        
+        for (IdentityDirectory.Account account : IdentityDirectory.lookup(nric)) {
+            if (account.getRole() == role && password.equals(account.getUser().getPassword())) {
+                return account.getUser();
+            }
+        }
+        return null;
+    }
 }
@@ -0,0 +1,216 @@
+package utils;
+
+import database.ChangeTracker;
+
+/**
+ * Background scheduler that saves changes to the data files shortly after they are made.
+ *
+ * <p>Every change tracked by the databases' {@link ChangeTracker}s is reported
+ * here. The first change opens a coalescing window; when the window closes, all
+ * changes made in the meantime are saved together on the {@code autosave} thread
+ * through {@link Journal#checkpoint(String, boolean)}, so the console never waits
+ * for file I/O.</p>
+ *
+ * <h2>Backpressure:</h2>
+ * <p>If {@link ApplicationConstants#AUTOSAVE_MAX_PENDING_CHANGES} changes pile up
+ * before they are saved, e.g. because the disk is slow, the thread making the next
+ * change starts the save at once and waits until it has finished.</p>
+ *
+ * <h2>Shutdown:</h2>
+ * <p>{@link #shutdown()} saves any pending changes before the scheduler stops. It
+ * is called when the main menu exits and is also registered as a shutdown hook,
+ * so pending changes are saved when the program is interrupted. A program that
+ * has more to stop first, such as {@code ServerMain}, starts the scheduler without
+ * the hook and calls {@link #shutdown()} from its own hook once the last change
+ * has been made.</p>
+ *
+ * @author BTO Management System Team
+ * @version 2.0
+ * @since 2.0
+ * @see Journal
+ * @see FileHandler#writeChangedFiles(String)
+ */
+public class AutoSaveScheduler {
+
+	private static final Object lock = new Object();
+	private static String dataPath;
+	private static long windowMillis;
+	private static int maxPendingChanges;
+	private static Thread worker;
+	private static boolean running;
+
+	/**
+	 * Time at which the next save is due, or 0 if no save is scheduled.
+	 */
+	private static long saveDueAt;
+	private static int pendingChanges;
+	private static boolean saving;
+	private static long savesCompleted;
+
+	/**
+	 * Private constructor to prevent instantiation of this utility class.
+	 */
+	private AutoSaveScheduler() {
+	}
+
+	// ============================================================================
+	// LIFECYCLE
+	// ============================================================================
+
+	/**
+	 * Starts saving changes in the background and registers {@link #shutdown()}
+	 * as a shutdown hook. Must be called after the data has been loaded and the
+	 * journal opened.
+	 *
+	 * @param path the data folder
+	 * @param window the coalescing window in milliseconds; 0 or less disables the autosave
+	 * @param maxPending the number of pending changes at which changes wait for the save
+	 * @return true if the scheduler is running
+	 */
+	public static boolean start(String path, long window, int maxPending) {
+		return start(path, window, maxPending, true);
+	}
+
+	/**
+	 * Starts saving changes in the background. Must be called after the data has
+	 * been loaded and the journal opened.
+	 *
+	 * @param path the data folder
+	 * @param window the coalescing window in milliseconds; 0 or less disables the autosave
+	 * @param maxPending the number of pending changes at which changes wait for the save
+	 * @param shutdownHook whether to register {@link #shutdown()} as a shutdown hook;
+	 *        false if the caller calls it from its own hook
+	 * @return true if the scheduler is running
+	 */
+	public static boolean start(String path, long window, int maxPending, boolean shutdownHook) {
+		synchronized (lock) {
+			if (running) {
+				return true;
+			}
+			if (window <= 0) {
+				return false;
+			}
+			dataPath = path;
+			windowMillis = window;
+			maxPendingChanges = Math.max(1, maxPending);
+			saveDueAt = 0;
+			pendingChanges = 0;
+			running = true;
+
+			worker = new Thread(AutoSaveScheduler::run, "autosave");
+			worker.setDaemon(true);
+			worker.start();
+		}
+		ChangeTracker.setChangeListener(AutoSaveScheduler::changed);
+		if (shutdownHook) {
+			Runtime.getRuntime().addShutdownHook(new Thread(AutoSaveScheduler::shutdown, "autosave-shutdown"));
+		}
+		return true;
+	}
+
+	/**
+	 * Stops the scheduler, saving any pending changes first. Waits for a save
+	 * that is already running. Does nothing if the scheduler is not running.
+	 */
+	public static void shutdown() {
+		Thread stopping;
+		synchronized (lock) {
+			if (!running) {
+				return;
+			}
+			running = false;
+			stopping = worker;
+			lock.notifyAll();
+		}
+		ChangeTracker.setChangeListener(null);
+		try {
+			stopping.join();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+
+		boolean pending;
+		synchronized (lock) {
+			pending = saveDueAt != 0;
+			saveDueAt = 0;
+			pendingChanges = 0;
+		}
+		if (pending) {
+			save();
+		}
+	}
+
+	// ============================================================================
+	// SCHEDULING
+	// ============================================================================
+
+	/**
+	 * Records that a change has been made, scheduling a save if none is pending.
+	 * Blocks while the save catches up if too many changes are pending.
+	 */
+	static void changed() {
+		synchronized (lock) {
+			if (!running) {
+				return;
+			}
+			pendingChanges++;
+			if (saveDueAt == 0) {
+				saveDueAt = System.currentTimeMillis() + windowMillis;
+				lock.notifyAll();
+			}
+			if (pendingChanges < maxPendingChanges || Thread.currentThread() == worker) {
+				return;
+			}
+
+			// Backpressure: save now, and wait for a save that includes this change
+			saveDueAt = System.currentTimeMillis();
+			long target = savesCompleted + (saving ? 2 : 1);
+			lock.notifyAll();
+			while (running && savesCompleted < target) {
+				try {
+					lock.wait();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					return;
+				}
+			}
+		}
+	}
+
+	private static void run() {
+		while (true) {
+			synchronized (lock) {
+				while (running && (saveDueAt == 0 || saveDueAt > System.currentTimeMillis())) {
+					try {
+						lock.wait(saveDueAt == 0 ? 0 : Math.max(1, saveDueAt - System.currentTimeMillis()));
+					} catch (InterruptedException e) {
+						return;
+					}
+				}
+				if (!running) {
+					return;
+				}
+				saveDueAt = 0;
+				pendingChanges = 0;
+				saving = true;
+			}
+			try {
+				save();
+			} finally {
+				synchronized (lock) {
+					saving = false;
+					savesCompleted++;
+					lock.notifyAll();
+				}
+			}
+		}
+	}
+
+	private static void save() {
+		try {
+			Journal.checkpoint(dataPath, false);
+		} catch (Exception e) {
+			System.out.println("Error saving data: " + e.getMessage());
+		}
+	}
+}
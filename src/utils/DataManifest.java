@@ -0,0 +1,494 @@
+package utils;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+import java.util.zip.CRC32;
+
+/**
+ * Commit protocol that keeps the nine CSV data files consistent with each other.
+ *
+ * <p>The manifest ({@code manifest.csv} in the data folder) names the committed
+ * generation of the data files. For every file it records the committed length
+ * and a checksum of the bytes just before that length, and for files rewritten
+ * by the commit the temporary file holding the new contents.</p>
+ *
+ * <h2>Commit Steps:</h2>
+ * <ol>
+ *   <li>Rewritten files are written to temporary files; added rows are collected
+ *       in memory</li>
+ *   <li>If rows are to be appended, the current manifest is rewritten with an
+ *       {@code append} record for each such file, giving its length before and
+ *       after the append, and the rows are then appended to the live files</li>
+ *   <li>All written files are synced to disk as one group</li>
+ *   <li>The new manifest is written to a temporary file, synced, and atomically
+ *       moved over the old one - this is the commit point</li>
+ *   <li>The temporary files are renamed over the live files</li>
+ * </ol>
+ *
+ * <p>{@link #recover(String)} brings the folder back to the committed generation
+ * before it is read. Renames that a commit did not finish are completed, bytes
+ * appended by a commit that never reached its commit point are cut off, and the
+ * temporary files of such a commit are deleted. A file is only cut off if an
+ * {@code append} record names it, it is no longer than the record says, and the
+ * bytes before the append still match the recorded checksum. A data file that
+ * was extended or replaced by hand is left alone, with a warning if it is longer
+ * than its committed length.</p>
+ *
+ * <pre>
+ * generation,7
+ * ApplicantList.csv,412,2739815034,
+ * ApplicationList.csv,318,1182930211,ApplicationList.csv.7.tmp
+ * append,EnquiryList.csv,1204,1377,3120938816
+ * </pre>
+ *
+ * @author BTO Management System Team
+ * @version 2.0
+ * @since 2.0
+ * @see FileHandler#writeChangedFiles(String)
+ * @see FileHandler#readAllData(String)
+ */
+class DataManifest {
+
+	/**
+	 * Number of bytes before the committed length covered by the checksum.
+	 */
+	private static final int CHECKSUM_WINDOW = 4096;
+
+	private static final String GENERATION = "generation";
+
+	private static final String APPEND = "append";
+
+	private final String dataPath;
+	private final long generation;
+	private final Map<String, Entry> entries = new LinkedHashMap<>();
+	private final Map<String, Append> appends = new LinkedHashMap<>();
+
+	/**
+	 * Committed state of one data file.
+	 */
+	private static class Entry {
+		final long length;
+		final long checksum;
+		final String pending;
+
+		Entry(long length, long checksum, String pending) {
+			this.length = length;
+			this.checksum = checksum;
+			this.pending = pending;
+		}
+	}
+
+	/**
+	 * Rows being appended to one data file by a commit that has not reached
+	 * its commit point.
+	 */
+	private static class Append {
+		final long from;
+		final long to;
+		final long checksum;
+
+		Append(long from, long to, long checksum) {
+			this.from = from;
+			this.to = to;
+			this.checksum = checksum;
+		}
+	}
+
+	private DataManifest(String dataPath, long generation) {
+		this.dataPath = dataPath;
+		this.generation = generation;
+	}
+
+	// ============================================================================
+	// RECOVERY
+	// ============================================================================
+
+	/**
+	 * Restores the committed generation of the data files in a folder. Does nothing
+	 * if the folder has no manifest, i.e. the files have never been committed.
+	 *
+	 * @param dataPath the data folder
+	 * @throws IOException if the files cannot be restored
+	 */
+	static synchronized void recover(String dataPath) throws IOException {
+		DataManifest manifest = read(dataPath);
+		if (manifest == null) {
+			return;
+		}
+		for (Map.Entry<String, Entry> e : manifest.entries.entrySet()) {
+			Path live = Paths.get(dataPath, e.getKey());
+			Entry entry = e.getValue();
+			if (entry.pending != null) {
+				Path pending = Paths.get(dataPath, entry.pending);
+				if (Files.exists(pending)) {
+					move(pending, live);
+				}
+			}
+			if (!manifest.appends.containsKey(e.getKey()) && Files.exists(live) && Files.size(live) > entry.length) {
+				System.out.println("Warning: " + e.getKey() + " is longer than when it was last saved; it was left as it is.");
+			}
+		}
+		for (Map.Entry<String, Append> e : manifest.appends.entrySet()) {
+			Path live = Paths.get(dataPath, e.getKey());
+			Append append = e.getValue();
+			if (!Files.exists(live) || Files.size(live) <= append.from) {
+				continue;
+			}
+			if (Files.size(live) <= append.to && checksum(live, append.from) == append.checksum) {
+				try (FileChannel channel = FileChannel.open(live, StandardOpenOption.WRITE)) {
+					channel.truncate(append.from);
+				}
+				System.out.println("Discarded an incomplete write to " + e.getKey() + ".");
+			} else {
+				System.out.println("Warning: " + e.getKey() + " was changed after an incomplete write; it was left as it is.");
+			}
+		}
+		deleteTemporaryFiles(dataPath, manifest.entries.keySet());
+	}
+
+	// ============================================================================
+	// COMMIT
+	// ============================================================================
+
+	/**
+	 * Writes files to a folder as one commit. If writing fails, everything written
+	 * so far is discarded and the abort actions registered with the commit are run.
+	 * Commits to the same folder run one at a time.
+	 *
+	 * @param dataPath the data folder
+	 * @param fileNames the names of all data files in the folder
+	 * @param writes writes the changed files through the commit
+	 * @return the value returned by the writes
+	 * @throws IOException if the commit failed
+	 */
+	static synchronized int commit(String dataPath, Collection<String> fileNames, CommitWrites writes) throws IOException {
+		DataManifest current = read(dataPath);
+		Commit commit = new Commit(dataPath, current);
+		try {
+			int result = writes.write(commit);
+			if (!commit.rewritten.isEmpty() || !commit.appended.isEmpty()) {
+				commit.complete(fileNames);
+			}
+			return result;
+		} catch (IOException | RuntimeException e) {
+			if (!commit.committed) {
+				commit.abort();
+			}
+			throw e;
+		}
+	}
+
+	/**
+	 * The file writes that make up a commit.
+	 */
+	@FunctionalInterface
+	interface CommitWrites {
+		int write(Commit commit) throws IOException;
+	}
+
+	/**
+	 * A set of file changes that become visible together.
+	 */
+	static class Commit {
+
+		private final DataManifest current;
+		private final DataManifest next;
+		private final Map<String, Path> rewritten = new LinkedHashMap<>();
+		private final Map<String, StringWriter> appended = new LinkedHashMap<>();
+		private final Map<String, Long> appendedFrom = new LinkedHashMap<>();
+		private final List<Runnable> abortActions = new ArrayList<>();
+		private boolean appendsRecorded;
+		private boolean committed;
+
+		private Commit(String dataPath, DataManifest current) {
+			this.current = current;
+			this.next = new DataManifest(dataPath, current != null ? current.generation + 1 : 1);
+		}
+
+		/**
+		 * Returns the data folder the commit writes to.
+		 *
+		 * @return the data folder
+		 */
+		String getDataPath() {
+			return next.dataPath;
+		}
+
+		/**
+		 * Opens a writer for the new contents of a data file.
+		 *
+		 * @param fileName the name of the data file
+		 * @return a writer to a temporary file, to be closed by the caller
+		 * @throws IOException if the temporary file cannot be created
+		 */
+		BufferedWriter rewrite(String fileName) throws IOException {
+			Path temp = Paths.get(next.dataPath, fileName + "." + next.generation + ".tmp");
+			rewritten.put(fileName, temp);
+			return new BufferedWriter(new FileWriter(temp.toFile()));
+		}
+
+		/**
+		 * Opens a writer for rows to append to a data file. The rows are held
+		 * until the commit completes, when the append is recorded in the manifest
+		 * before the rows are written to the live file.
+		 *
+		 * @param fileName the name of the data file
+		 * @return a writer collecting the rows, to be closed by the caller
+		 */
+		BufferedWriter append(String fileName) {
+			StringWriter rows = new StringWriter();
+			appended.put(fileName, rows);
+			return new BufferedWriter(rows);
+		}
+
+		/**
+		 * Registers an action to run if the commit is aborted, e.g. to keep the
+		 * changes that were being written for the next commit.
+		 *
+		 * @param action the action to run on abort
+		 */
+		void onAbort(Runnable action) {
+			abortActions.add(action);
+		}
+
+		/**
+		 * Syncs every written file, swaps in the new manifest and moves the
+		 * rewritten files into place. Files not written by this commit keep
+		 * their current contents.
+		 */
+		private void complete(Collection<String> fileNames) throws IOException {
+			for (Path temp : rewritten.values()) {
+				sync(temp);
+			}
+			if (!appended.isEmpty()) {
+				appendRows();
+			}
+
+			for (String fileName : fileNames) {
+				Path temp = rewritten.get(fileName);
+				Path written = temp != null ? temp : Paths.get(next.dataPath, fileName);
+				if (!Files.exists(written)) {
+					continue;
+				}
+				long length = Files.size(written);
+				next.entries.put(fileName, new Entry(length, checksum(written, length), temp != null ? temp.getFileName().toString() : null));
+			}
+			next.write();
+			committed = true;
+
+			// Committed: a crash from here on is completed by the next recovery
+			for (Map.Entry<String, Path> e : rewritten.entrySet()) {
+				move(e.getValue(), Paths.get(next.dataPath, e.getKey()));
+			}
+		}
+
+		/**
+		 * Records the pending appends in the current manifest, then appends the
+		 * collected rows to the live files and syncs them. A line break is written
+		 * first if a file does not end with one.
+		 */
+		private void appendRows() throws IOException {
+			DataManifest recorded = new DataManifest(next.dataPath, current != null ? current.generation : 0);
+			if (current != null) {
+				recorded.entries.putAll(current.entries);
+			}
+			Map<String, byte[]> rows = new LinkedHashMap<>();
+			for (Map.Entry<String, StringWriter> e : appended.entrySet()) {
+				Path live = Paths.get(next.dataPath, e.getKey());
+				long length = Files.size(live);
+				String text = length > 0 && !endsWithLineBreak(live, length) ? "\n" + e.getValue() : e.getValue().toString();
+				// Encoded like the file writers of the rewritten files
+				byte[] bytes = text.getBytes(Charset.defaultCharset());
+				rows.put(e.getKey(), bytes);
+				recorded.appends.put(e.getKey(), new Append(length, length + bytes.length, checksum(live, length)));
+			}
+			recorded.write();
+			appendsRecorded = true;
+
+			for (Map.Entry<String, byte[]> e : rows.entrySet()) {
+				appendedFrom.put(e.getKey(), recorded.appends.get(e.getKey()).from);
+				try (FileChannel channel = FileChannel.open(Paths.get(next.dataPath, e.getKey()), StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+					ByteBuffer buffer = ByteBuffer.wrap(e.getValue());
+					while (buffer.hasRemaining()) {
+						channel.write(buffer);
+					}
+					channel.force(true);
+				}
+			}
+		}
+
+		/**
+		 * Discards the changes written so far and runs the registered abort actions.
+		 */
+		private void abort() {
+			for (Path temp : rewritten.values()) {
+				try {
+					Files.deleteIfExists(temp);
+				} catch (IOException e) {
+					// Left for the next recovery to delete
+				}
+			}
+			for (Map.Entry<String, Long> e : appendedFrom.entrySet()) {
+				try (FileChannel channel = FileChannel.open(Paths.get(next.dataPath, e.getKey()), StandardOpenOption.WRITE)) {
+					channel.truncate(e.getValue());
+				} catch (IOException ex) {
+					// Left for the next recovery to cut off
+				}
+			}
+			if (appendsRecorded) {
+				try {
+					// Puts back the manifest without the append records
+					if (current != null) {
+						current.write();
+					} else {
+						Files.deleteIfExists(Paths.get(next.dataPath, ApplicationConstants.MANIFEST_FILE));
+					}
+				} catch (IOException ex) {
+					// The next recovery cuts off what the records still cover
+				}
+			}
+			for (Runnable action : abortActions) {
+				action.run();
+			}
+		}
+	}
+
+	// ============================================================================
+	// PRIVATE HELPER METHODS
+	// ============================================================================
+
+	private static DataManifest read(String dataPath) throws IOException {
+		File file = new File(dataPath, ApplicationConstants.MANIFEST_FILE);
+		if (!file.exists()) {
+			return null;
+		}
+		try (CsvTokenizer tokenizer = CsvTokenizer.open(file)) {
+			if (!tokenizer.nextRecord() || tokenizer.getFieldCount() < 2 || !GENERATION.equals(tokenizer.getField(0))) {
+				throw new IOException("Malformed " + ApplicationConstants.MANIFEST_FILE);
+			}
+			DataManifest manifest = new DataManifest(dataPath, Long.parseLong(tokenizer.getField(1)));
+			while (tokenizer.nextRecord()) {
+				if (APPEND.equals(tokenizer.getField(0)) && tokenizer.getFieldCount() >= 5) {
+					manifest.appends.put(tokenizer.getField(1), new Append(Long.parseLong(tokenizer.getField(2)),
+							Long.parseLong(tokenizer.getField(3)), Long.parseLong(tokenizer.getField(4))));
+					continue;
+				}
+				if (tokenizer.getFieldCount() < 4) {
+					continue;
+				}
+				String pending = tokenizer.getField(3);
+				manifest.entries.put(tokenizer.getField(0), new Entry(Long.parseLong(tokenizer.getField(1)),
+						Long.parseLong(tokenizer.getField(2)), pending.isEmpty() ? null : pending));
+			}
+			return manifest;
+		} catch (NumberFormatException e) {
+			throw new IOException("Malformed " + ApplicationConstants.MANIFEST_FILE, e);
+		}
+	}
+
+	/**
+	 * Writes the manifest to a temporary file, syncs it and moves it into place.
+	 */
+	private void write() throws IOException {
+		Path target = Paths.get(dataPath, ApplicationConstants.MANIFEST_FILE);
+		Path temp = Paths.get(dataPath, ApplicationConstants.MANIFEST_FILE + ".tmp");
+		try (BufferedWriter writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+			writer.write(GENERATION + "," + generation + "\n");
+			for (Map.Entry<String, Entry> e : entries.entrySet()) {
+				Entry entry = e.getValue();
+				writer.write(CsvTokenizer.escape(e.getKey()) + "," + entry.length + "," + entry.checksum + ","
+						+ (entry.pending != null ? CsvTokenizer.escape(entry.pending) : "") + "\n");
+			}
+			for (Map.Entry<String, Append> e : appends.entrySet()) {
+				Append append = e.getValue();
+				writer.write(APPEND + "," + CsvTokenizer.escape(e.getKey()) + "," + append.from + "," + append.to + "," + append.checksum + "\n");
+			}
+		}
+		sync(temp);
+		move(temp, target);
+		syncDirectory(dataPath);
+	}
+
+	/**
+	 * Computes the checksum of the bytes just before the given length.
+	 */
+	private static long checksum(Path path, long length) throws IOException {
+		int window = (int) Math.min(length, CHECKSUM_WINDOW);
+		ByteBuffer buffer = ByteBuffer.allocate(window);
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+			long position = length - window;
+			while (buffer.hasRemaining()) {
+				int read = channel.read(buffer, position + buffer.position());
+				if (read < 0) {
+					break;
+				}
+			}
+		}
+		CRC32 crc = new CRC32();
+		crc.update(buffer.array(), 0, buffer.position());
+		return crc.getValue();
+	}
+
+	private static boolean endsWithLineBreak(Path path, long length) throws IOException {
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+			ByteBuffer last = ByteBuffer.allocate(1);
+			channel.read(last, length - 1);
+			return last.get(0) == '\n';
+		}
+	}
+
+	private static void sync(Path path) throws IOException {
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+			channel.force(true);
+		}
+	}
+
+	/**
+	 * Syncs the folder so that renames within it are durable. Not every platform
+	 * allows a directory to be opened, in which case the rename is left to the
+	 * file system.
+	 */
+	private static void syncDirectory(String dataPath) {
+		try (FileChannel channel = FileChannel.open(Paths.get(dataPath), StandardOpenOption.READ)) {
+			channel.force(true);
+		} catch (IOException e) {
+			// Directory sync is not supported here
+		}
+	}
+
+	private static void move(Path source, Path target) throws IOException {
+		try {
+			Files.move(source, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		} catch (AtomicMoveNotSupportedException e) {
+			Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+		}
+	}
+
+	/**
+	 * Deletes temporary files left behind by commits that never reached their commit point.
+	 */
+	private static void deleteTemporaryFiles(String dataPath, Collection<String> fileNames) throws IOException {
+		File[] files = new File(dataPath).listFiles();
+		if (files == null) {
+			return;
+		}
+		for (File file : files) {
+			String name = file.getName();
+			if (!name.endsWith(".tmp")) {
+				continue;
+			}
+			for (String fileName : fileNames) {
+				if (name.startsWith(fileName + ".")) {
+					Files.deleteIfExists(file.toPath());
+					break;
+				}
+			}
+		}
+		Files.deleteIfExists(Paths.get(dataPath, ApplicationConstants.MANIFEST_FILE + ".tmp"));
+	}
+}
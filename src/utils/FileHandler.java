@@ -7,6 +7,12 @@ import java.io.*;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.IntSupplier;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
 
 public class FileHandler {
 
@@ -19,6 +25,16 @@ public class FileHandler {
 	private static final String BOOKING_FILE = "BookingList.csv";
 	private static final String RECEIPT_FILE = "ReceiptList.csv";
 	private static final String ENQUIRY_FILE = "EnquiryList.csv";
+	private static final List<String> DATA_FILES = List.of(APPLICANT_FILE, OFFICER_FILE, MANAGER_FILE, PROJECT_FILE,
+			BTO_APPLICATION_FILE, OFFICER_APPLICATION_FILE, BOOKING_FILE, RECEIPT_FILE, ENQUIRY_FILE);
+
+	private static final String USER_HEADER = "Name,NRIC,Age,Marital Status,Password";
+	private static final String PROJECT_HEADER = "Project Name,Neighborhood,Type 1,Number of units for Type 1,Selling price for Type 1,Type 2,Number of units for Type 2,Selling price for Type 2,Application opening date,Application closing date,Manager,Officer Slot,Officer";
+	private static final String BTO_APPLICATION_HEADER = "Application ID,Application Date,Applicant Name,Project Name,Flat Type,Status,Withdrawal Status";
+	private static final String OFFICER_APPLICATION_HEADER = "Officer Application ID,Application Date,Officer Name,Project Name,Application Status";
+	private static final String BOOKING_HEADER = "Booking ID,Booking Date,BTO Application ID,Processing Officer,Flat Type,Booking Status";
+	private static final String RECEIPT_HEADER = "Receipt Number,Date,Booking ID";
+	private static final String ENQUIRY_HEADER = "Enquiry ID,Date,Content,Reply,Reply Date,Submitted By,Project,Status,Respondent";
 
 	private static ApplicantDatabase applicantDatabase;
 	private static OfficerDatabase officerDatabase;
@@ -30,6 +46,21 @@ public class FileHandler {
 	private static ReceiptDatabase receiptDatabase;
 	private static EnquiryDatabase enquiryDatabase;
 
+	/**
+	 * Cross-references collected while {@link #readAllData(String)} is running, or null otherwise
+	 */
+	private static volatile Queue<Runnable> pendingLinks;
+
+	/**
+	 * Symbol table shared by the readers while {@link #readAllData(String)} is running, or null otherwise
+	 */
+	private static volatile LoadSymbolTable loadSymbols;
+
+	/**
+	 * The folder the databases were last loaded from as a whole, or null if none
+	 */
+	private static volatile String dataFolder;
+
 	/**
 	 *
 	 * @param applicantDatabase
@@ -155,36 +186,28 @@ public class FileHandler {
 				applicantDatabase = new ApplicantDatabase();
 			}
 
-			BufferedReader reader = new BufferedReader(new FileReader(file));
-			String line;
+			ArrayList<Applicant> applicants;
+			if (file.length() >= ApplicationConstants.PARALLEL_IMPORT_MIN_BYTES) {
+				applicants = ParallelCsvImporter.importRecords(file, (row, offset, recordNumber) -> applicantFromRow(row));
+			} else {
+				CsvTokenizer tokenizer = CsvTokenizer.open(file);
 
-			// Skip header line
-			reader.readLine();
-
-			// Read each applicant record
-			ArrayList<Applicant> applicants = new ArrayList<>();
-			while ((line = reader.readLine()) != null) {
-				String[] data = line.split(",(?=(?:[^\"]*\"[^\"]*\")*[^\"]*$)", -1);
-				if (data.length >= 5) {
-					String name = data[0].trim();
-					String nric = data[1].trim();
-					int age = Integer.parseInt(data[2].trim());
-					MarriageStatusEnum maritalStatus = parseMaritalStatus(data[3].trim());
-					String password = data[4].trim();
-
-					Applicant applicant = new Applicant();
-					applicant.setName(name);
-					applicant.setNric(nric);
-					applicant.setAge(age);
-					applicant.setMaritalStatus(maritalStatus);
-					applicant.setPassword(password);
-
-					applicants.add(applicant);
+				// Skip header line
+				tokenizer.nextRecord();
+
+				// Read each applicant record
+				applicants = new ArrayList<>();
+				while (tokenizer.nextRecord()) {
+					Applicant applicant = applicantFromRow(tokenizer.getFields());
+					if (applicant != null) {
+						applicants.add(applicant);
+					}
 				}
+				tokenizer.close();
 			}
 
 			applicantDatabase.setApplicants(applicants);
-			reader.close();
+			registerSymbols(symbols -> symbols.registerApplicants(applicants));
 
 			System.out.println("Read " + applicants.size() + " applicants from " + filePath);
 			return true;
@@ -212,22 +235,20 @@ public class FileHandler {
 				officerDatabase = new OfficerDatabase();
 			}
 
-			BufferedReader reader = new BufferedReader(new FileReader(file));
-			String line;
+			CsvTokenizer tokenizer = CsvTokenizer.open(file);
 
 			// Skip header line
-			reader.readLine();
+			tokenizer.nextRecord();
 
 			// Read each officer record
 			ArrayList<Officer> officers = new ArrayList<>();
-			while ((line = reader.readLine()) != null) {
-				String[] data = line.split(",(?=(?:[^\"]*\"[^\"]*\")*[^\"]*$)", -1);
-				if (data.length >= 5) {
-					String name = data[0].trim();
-					String nric = data[1].trim();
-					int age = Integer.parseInt(data[2].trim());
-					MarriageStatusEnum maritalStatus = parseMaritalStatus(data[3].trim());
-					String password = data[4].trim();
+			while (tokenizer.nextRecord()) {
+				if (tokenizer.getFieldCount() >= 5) {
+					String name = tokenizer.getField(0).trim();
+					String nric = tokenizer.getField(1).trim();
+					int age = Integer.parseInt(tokenizer.getField(2).trim());
+					MarriageStatusEnum maritalStatus = parseMaritalStatus(tokenizer.getField(3).trim());
+					String password = tokenizer.getField(4).trim();
 
 					Officer officer = new Officer();
 					officer.setName(name);
@@ -241,7 +262,8 @@ public class FileHandler {
 			}
 
 			officerDatabase.setOfficers(officers);
-			reader.close();
+			registerSymbols(symbols -> symbols.registerOfficers(officers));
+			tokenizer.close();
 
 			System.out.println("Read " + officers.size() + " officers from " + filePath);
 			return true;
@@ -269,22 +291,20 @@ public class FileHandler {
 				managerDatabase = new ManagerDatabase();
 			}
 
-			BufferedReader reader = new BufferedReader(new FileReader(file));
-			String line;
+			CsvTokenizer tokenizer = CsvTokenizer.open(file);
 
 			// Skip header line
-			reader.readLine();
+			tokenizer.nextRecord();
 
 			// Read each manager record
 			ArrayList<Manager> managers = new ArrayList<>();
-			while ((line = reader.readLine()) != null) {
-				String[] data = line.split(",(?=(?:[^\"]*\"[^\"]*\")*[^\"]*$)", -1);
-				if (data.length >= 5) {
-					String name = data[0].trim();
-					String nric = data[1].trim();
-					int age = Integer.parseInt(data[2].trim());
-					MarriageStatusEnum maritalStatus = parseMaritalStatus(data[3].trim());
-					String password = data[4].trim();
+			while (tokenizer.nextRecord()) {
+				if (tokenizer.getFieldCount() >= 5) {
+					String name = tokenizer.getField(0).trim();
+					String nric = tokenizer.getField(1).trim();
+					int age = Integer.parseInt(tokenizer.getField(2).trim());
+					MarriageStatusEnum maritalStatus = parseMaritalStatus(tokenizer.getField(3).trim());
+					String password = tokenizer.getField(4).trim();
 
 					Manager manager = new Manager();
 					manager.setName(name);
@@ -298,7 +318,8 @@ public class FileHandler {
 			}
 
 			managerDatabase.setManagers(managers);
-			reader.close();
+			registerSymbols(symbols -> symbols.registerManagers(managers));
+			tokenizer.close();
 
 			System.out.println("Read " + managers.size() + " managers from " + filePath);
 			return true;
@@ -332,30 +353,29 @@ public class FileHandler {
 				return false;
 			}
 
-			BufferedReader reader = new BufferedReader(new FileReader(file));
-			String line;
+			CsvTokenizer tokenizer = CsvTokenizer.open(file);
 
 			// Skip header line
-			reader.readLine();
+			tokenizer.nextRecord();
 
 			// Read each project record
 			ArrayList<Project> projects = new ArrayList<>();
+			LoadSymbolTable symbols = symbols();
 			DateTimeFormatter dateFormatter = DateTimeFormatter.ofPattern("yyyy-MM-dd");
 
-			while ((line = reader.readLine()) != null) {
-				String[] data = line.split(",(?=(?:[^\"]*\"[^\"]*\")*[^\"]*$)", -1);
-				if (data.length >= 13) {
-					String projectName = data[0].trim();
-					String neighborhood = data[1].trim();
+			while (tokenizer.nextRecord()) {
+				if (tokenizer.getFieldCount() >= 13) {
+					String projectName = tokenizer.getField(0).trim();
+					String neighborhood = tokenizer.getField(1).trim();
 
 					// Read flat types (could be multiple)
 					ArrayList<FlatType> flatTypes = new ArrayList<>();
 
 					// First flat type
-					if (!data[2].trim().equals("") && !data[3].trim().equals("")){
-						FlatTypeEnum type1 = parseFlatType(data[2].trim());
-						int numUnits1 = Integer.parseInt(data[3].trim());
-						double price1 = Double.parseDouble(data[4].trim());
+					if (!tokenizer.getField(2).trim().equals("") && !tokenizer.getField(3).trim().equals("")){
+						FlatTypeEnum type1 = parseFlatType(tokenizer.getField(2).trim());
+						int numUnits1 = Integer.parseInt(tokenizer.getField(3).trim());
+						double price1 = Double.parseDouble(tokenizer.getField(4).trim());
 						FlatType flatType1 = new FlatType();
 						flatType1.setType(type1);
 						flatType1.setNumUnits(numUnits1);
@@ -365,10 +385,10 @@ public class FileHandler {
 					}
 
 					// Second flat type
-					if (!data[5].trim().equals("") && !data[6].trim().equals("")){
-						FlatTypeEnum type2 = parseFlatType(data[5].trim());
-						int numUnits2 = Integer.parseInt(data[6].trim());
-						double price2 = Double.parseDouble(data[7].trim());
+					if (!tokenizer.getField(5).trim().equals("") && !tokenizer.getField(6).trim().equals("")){
+						FlatTypeEnum type2 = parseFlatType(tokenizer.getField(5).trim());
+						int numUnits2 = Integer.parseInt(tokenizer.getField(6).trim());
+						double price2 = Double.parseDouble(tokenizer.getField(7).trim());
 						FlatType flatType2 = new FlatType();
 						flatType2.setType(type2);
 						flatType2.setNumUnits(numUnits2);
@@ -378,32 +398,25 @@ public class FileHandler {
 					}
 
 					// Application dates
-					LocalDate startDate = LocalDate.parse(data[8].trim(), dateFormatter);
-					LocalDate endDate = LocalDate.parse(data[9].trim(), dateFormatter);
+					LocalDate startDate = LocalDate.parse(tokenizer.getField(8).trim(), dateFormatter);
+					LocalDate endDate = LocalDate.parse(tokenizer.getField(9).trim(), dateFormatter);
 
 					// Manager
-					String managerName = data[10].trim();
-					Manager manager = null;
-					for (Manager m : managerDatabase.getManagers()) {
-						if (m.getName().equals(managerName)) {
-							manager = m;
-							break;
-						}
-					}
+					String managerName = tokenizer.getField(10).trim();
+					Manager manager = managerName.isEmpty() ? null
+							: symbols.track(symbols.manager(managerName), file.getName(), tokenizer.getRecordNumber(), "manager", managerName);
 
 					// Officer slots
-					int officerSlots = Integer.parseInt(data[11].trim());
+					int officerSlots = Integer.parseInt(tokenizer.getField(11).trim());
 
 					// Assigned officers
 					ArrayList<Officer> assignedOfficers = new ArrayList<>();
-					if (data.length > 12 && !data[12].isEmpty()) {
-						String[] officerNames = data[12].replaceAll("^\"|\"$", "").split(",");
+					if (tokenizer.getFieldCount() > 12 && !tokenizer.getField(12).isEmpty()) {
+						String[] officerNames = tokenizer.getField(12).split(",");
 						for (String officerName : officerNames) {
-							for (Officer o : officerDatabase.getOfficers()) {
-								if (o.getName().equals(officerName.trim())) {
-									assignedOfficers.add(o);
-									break;
-								}
+							Officer o = symbols.track(symbols.officer(officerName.trim()), file.getName(), tokenizer.getRecordNumber(), "officer", officerName.trim());
+							if (o != null) {
+								assignedOfficers.add(o);
 							}
 						}
 					}
@@ -424,26 +437,33 @@ public class FileHandler {
 
 					// Update Manager's managed projects list
 					if (manager != null) {
-						ArrayList<Project> managerProjects = manager.getManagedProjects();
-						if (managerProjects == null) {
-							managerProjects = new ArrayList<>();
-							manager.setManagedProjects(managerProjects);
-						}
-						managerProjects.add(project);
+						Manager projectManager = manager;
+						link(() -> {
+							ArrayList<Project> managerProjects = projectManager.getManagedProjects();
+							if (managerProjects == null) {
+								managerProjects = new ArrayList<>();
+								projectManager.setManagedProjects(managerProjects);
+							}
+							managerProjects.add(project);
+						});
 					}
 
 					// Update each Officer's attached projects list
-					for (Officer officer : assignedOfficers) {
-						ArrayList<Project> officerProjects = officer.getAssignedProjects();
-						if (officerProjects == null || !officerProjects.contains(project)) {
-							officer.assignToProject(project);
+					link(() -> {
+						for (Officer officer : assignedOfficers) {
+							ArrayList<Project> officerProjects = officer.getAssignedProjects();
+							if (officerProjects == null || !officerProjects.contains(project)) {
+								officer.assignToProject(project);
+							}
 						}
-					}
+					});
 				}
 			}
 
 			projectDatabase.setProjects(projects);
-			reader.close();
+			symbols.registerProjects(projects);
+			tokenizer.close();
+			finishSymbols(symbols);
 
 			System.out.println("Read " + projects.size() + " projects from " + filePath);
 			return true;
@@ -471,44 +491,36 @@ public class FileHandler {
 				btoApplicationDatabase = new BTOApplicationDatabase();
 			}
 
-			BufferedReader reader = new BufferedReader(new FileReader(file));
-			String line;
+			ArrayList<BTOApplication> applications;
+			LoadSymbolTable symbols = symbols();
+			if (file.length() >= ApplicationConstants.PARALLEL_IMPORT_MIN_BYTES) {
+				applications = ParallelCsvImporter.importRecords(file,
+						(row, offset, recordNumber) -> btoApplicationFromRow(row, symbols, file.getName(), offset, recordNumber));
+			} else {
+				CsvTokenizer tokenizer = CsvTokenizer.open(file);
 
-			// Skip header line
-			reader.readLine();
-
-			// Read each bto application record
-			ArrayList<BTOApplication> applications = new ArrayList<>();
-			while ((line = reader.readLine()) != null) {
-				String[] data = line.split(",(?=(?:[^\"]*\"[^\"]*\")*[^\"]*$)", -1);
-				if (data.length >= 7) {
-					String applicationID = data[0].trim();
-					LocalDate date = LocalDate.parse(data[1].trim());
-					String applicantName = data[2].trim();
-					String projectName = data[3].trim();
-					FlatTypeEnum flatType = parseFlatType(data[4].trim());
-					BTOApplicationStatusEnum status = BTOApplicationStatusEnum.valueOf(data[5].trim());
-					WithdrawalStatusEnum withdrawalStatus = WithdrawalStatusEnum.valueOf(data[6].trim());
-
-					Applicant applicant = Applicant.findApplicantByName(applicantName);
-					Project project = Project.findProjectByName(projectName);
-
-					if (applicant == null || project == null) return false;
-
-					BTOApplication application = new BTOApplication(applicationID, applicant, project, flatType);
-					application.setApplicationDate(date);
-					application.setStatus(status);
-					application.setWithdrawalStatus(withdrawalStatus);
-
-					applications.add(application);
-					
-					// link application to the applicant
-					applicant.addApplication(application);
+				// Skip header line
+				tokenizer.nextRecord();
+
+				// Read each bto application record
+				applications = new ArrayList<>();
+				while (tokenizer.nextRecord()) {
+					BTOApplication application = btoApplicationFromRow(tokenizer.getFields(), symbols, file.getName(), ParallelCsvImporter.RecordOffset.NONE, tokenizer.getRecordNumber());
+					if (application != null) {
+						applications.add(application);
+					}
 				}
+				tokenizer.close();
+			}
+
+			// link applications to their applicants, in file order
+			for (BTOApplication application : applications) {
+				link(() -> application.getApplicant().addApplication(application));
 			}
 
 			btoApplicationDatabase.setApplications(applications);
-			reader.close();
+			symbols.registerApplications(applications);
+			finishSymbols(symbols);
 
 			System.out.println("Read " + applications.size() + " BTO Applications from " + filePath);
 
@@ -539,37 +551,37 @@ public class FileHandler {
 				officerApplicationDatabase = new OfficerApplicationDatabase();
 			}
 
-			BufferedReader reader = new BufferedReader(new FileReader(file));
-			String line;
+			CsvTokenizer tokenizer = CsvTokenizer.open(file);
 
 			// Skip header line
-			reader.readLine();
+			tokenizer.nextRecord();
 
 			// read each officer applications record
 			ArrayList<OfficerApplication> officerApplications = new ArrayList<>();
-			while ((line = reader.readLine()) != null) {
-				String[] data = line.split(",(?=(?:[^\"]*\"[^\"]*\")*[^\"]*$)", -1);
-				if (data.length >= 5) {
-					String officerApplicationID = data[0].trim();
-					LocalDate date = LocalDate.parse(data[1].trim());
-					String officerName = data[2].trim();
-					String projectName = data[3].trim();
-					OfficerApplicationStatusEnum status = OfficerApplicationStatusEnum.valueOf(data[4].trim());
+			LoadSymbolTable symbols = symbols();
+			while (tokenizer.nextRecord()) {
+				if (tokenizer.getFieldCount() >= 5) {
+					String officerApplicationID = tokenizer.getField(0).trim();
+					LocalDate date = LocalDate.parse(tokenizer.getField(1).trim());
+					String officerName = tokenizer.getField(2).trim();
+					String projectName = tokenizer.getField(3).trim();
+					OfficerApplicationStatusEnum status = OfficerApplicationStatusEnum.valueOf(tokenizer.getField(4).trim());
 
-					Officer officer = Officer.findOfficerByName(officerName);
-					Project project = Project.findProjectByName(projectName);
+					Officer officer = symbols.track(symbols.officer(officerName), file.getName(), tokenizer.getRecordNumber(), "officer", officerName);
+					Project project = symbols.track(symbols.project(projectName), file.getName(), tokenizer.getRecordNumber(), "project", projectName);
 
-					if (officer == null || project == null) return false;
+					if (officer == null || project == null) continue;
 
 					OfficerApplication officerApplication = new OfficerApplication(officerApplicationID, date, officer, project, status);
 
 					officerApplications.add(officerApplication);
-					officer.addOfficerApplication(officerApplication); // link application to the officer
+					link(() -> officer.addOfficerApplication(officerApplication)); // link application to the officer
 				}
 			}
 
 			officerApplicationDatabase.setApplications(officerApplications);
-			reader.close();
+			tokenizer.close();
+			finishSymbols(symbols);
 
 			System.out.println("Read " + officerApplications.size() + " Officer Applications from " + filePath);
 			return true;
@@ -598,38 +610,42 @@ public class FileHandler {
 				bookingDatabase = new BookingDatabase();
 			}
 
-			BufferedReader reader = new BufferedReader(new FileReader(file));
-			String line;
+			CsvTokenizer tokenizer = CsvTokenizer.open(file);
 
 			// Skip header line
-			reader.readLine();
+			tokenizer.nextRecord();
 
 			// Read each booking record
 			ArrayList<Booking> bookings = new ArrayList<>();
-			while ((line = reader.readLine()) != null) {
-				String[] data = line.split(",(?=(?:[^\"]*\"[^\"]*\")*[^\"]*$)", -1);
-				if (data.length >= 6) {
+			LoadSymbolTable symbols = symbols();
+			while (tokenizer.nextRecord()) {
+				if (tokenizer.getFieldCount() >= 6) {
 
-					String bookingID = data[0].trim();
-					LocalDate bookingDateTime = LocalDate.parse(data[1].trim());
-					String applicationID = data[2].trim();
-					String processingOfficer = data[3].trim();
-					FlatTypeEnum flatType = parseFlatType(data[4].trim());
-					BookingStatusEnum status = BookingStatusEnum.valueOf(data[5].trim());
+					String bookingID = tokenizer.getField(0).trim();
+					LocalDate bookingDateTime = LocalDate.parse(tokenizer.getField(1).trim());
+					String applicationID = tokenizer.getField(2).trim();
+					String processingOfficer = tokenizer.getField(3).trim();
+					FlatTypeEnum flatType = parseFlatType(tokenizer.getField(4).trim());
+					BookingStatusEnum status = BookingStatusEnum.valueOf(tokenizer.getField(5).trim());
 
-					BTOApplication bookingApplication = BTOApplication.findApplicationByID(applicationID);
+					BTOApplication bookingApplication = symbols.track(symbols.application(applicationID), file.getName(), tokenizer.getRecordNumber(), "BTO application", applicationID);
+					if (bookingApplication == null) continue;
 
-					Officer officer = Officer.findOfficerByName(processingOfficer);
+					Officer officer = processingOfficer.isEmpty() || processingOfficer.equals("null") ? null
+							: symbols.track(symbols.officer(processingOfficer), file.getName(), tokenizer.getRecordNumber(), "officer", processingOfficer);
 
 					Booking booking = new Booking(bookingID, bookingDateTime, bookingApplication, officer, flatType, status);
 
 					bookings.add(booking);
-					bookingApplication.getApplicant().addBooking(booking); // link booking to the applicant
+					Applicant bookingApplicant = bookingApplication.getApplicant();
+					link(() -> bookingApplicant.addBooking(booking)); // link booking to the applicant
 				}
 			}
 
 			bookingDatabase.setBookings(bookings);
-			reader.close();
+			symbols.registerBookings(bookings);
+			tokenizer.close();
+			finishSymbols(symbols);
 
 			System.out.println("Read " + bookings.size() + " bookings from " + filePath);
 
@@ -659,22 +675,21 @@ public class FileHandler {
 				receiptDatabase = new ReceiptDatabase();
 			}
 
-			BufferedReader reader = new BufferedReader(new FileReader(file));
-			String line;
+			CsvTokenizer tokenizer = CsvTokenizer.open(file);
 
 			// Skip header line
-			reader.readLine();
+			tokenizer.nextRecord();
 
 			// Reach each receipt record
 			ArrayList<Receipt> receipts = new ArrayList<>();
-			while ((line = reader.readLine()) != null) {
-				String[] data = line.split(",(?=(?:[^\"]*\"[^\"]*\")*[^\"]*$)", -1);
-				if (data.length >= 3) {
-					String receiptNumber = data[0].trim();
-					LocalDate date = LocalDate.parse(data[1].trim());
-					String btoApplicationID = data[2].trim();
-					BTOApplication btoApplication = BTOApplication.findApplicationByID(btoApplicationID);
-					Booking theBooking = Booking.findBookingByApplication(btoApplication);
+			LoadSymbolTable symbols = symbols();
+			while (tokenizer.nextRecord()) {
+				if (tokenizer.getFieldCount() >= 3) {
+					String receiptNumber = tokenizer.getField(0).trim();
+					LocalDate date = LocalDate.parse(tokenizer.getField(1).trim());
+					String btoApplicationID = tokenizer.getField(2).trim();
+					Booking theBooking = symbols.track(symbols.bookingForApplication(btoApplicationID), file.getName(), tokenizer.getRecordNumber(), "booking for application", btoApplicationID);
+					if (theBooking == null) continue;
 
 					Receipt receipt = new Receipt(receiptNumber, date, theBooking);
 					receipts.add(receipt);
@@ -682,7 +697,8 @@ public class FileHandler {
 			}
 
 			receiptDatabase.setReceipts(receipts);
-			reader.close();
+			tokenizer.close();
+			finishSymbols(symbols);
 
 			System.out.println("Read " + receipts.size() + " receipts from " + filePath);
 
@@ -712,47 +728,45 @@ public class FileHandler {
 				enquiryDatabase = new EnquiryDatabase();
 			}
 
-			BufferedReader reader = new BufferedReader(new FileReader(file));
-			String line;
+			CsvTokenizer tokenizer = CsvTokenizer.open(file);
 
 			// Skip header line
-			reader.readLine();
+			tokenizer.nextRecord();
 
 			ArrayList<Enquiry> enquiries = new ArrayList<>();
-			while ((line = reader.readLine()) != null) {
-				String[] data = line.split(",(?=(?:[^\"]*\"[^\"]*\")*[^\"]*$)", -1);
-				if (data.length >= 9) {
-					String enquiryID = data[0].trim();
-					LocalDate date = LocalDate.parse(data[1].trim());
-					String content = data[2].trim();
-					String reply = data[3].trim();
-					LocalDate replyDate = LocalDate.parse(data[4].trim());
-					String submittedBy = data[5].trim();
-					Applicant applicantSubmit = Applicant.findApplicantByName(submittedBy);
-
-					String projectName = data[6].trim();
-					Project project = Project.findProjectByName(projectName);
-
-					EnquiryStatusEnum status = EnquiryStatusEnum.valueOf(data[7].trim());
-					String respondent = data[8].trim();
-					Manager isManager = Manager.findManagerByName(respondent);
-					User userRespondent = null;
-					if (isManager == null) {
-						Officer isOfficer = Officer.findOfficerByName(respondent);
-						userRespondent = (User) isOfficer;
-					} else {
-						userRespondent = (User) isManager;
-					}
-
-					Enquiry enquiry = new Enquiry(enquiryID, date, content, reply, replyDate, applicantSubmit, project, status, userRespondent);
+			LoadSymbolTable symbols = symbols();
+			while (tokenizer.nextRecord()) {
+				if (tokenizer.getFieldCount() >= 9) {
+					String enquiryID = tokenizer.getField(0).trim();
+					LocalDate date = LocalDate.parse(tokenizer.getField(1).trim());
+					String content = tokenizer.getField(2).trim();
+					String reply = tokenizer.getField(3).trim();
+					LocalDate replyDate = parseOptionalDate(tokenizer.getField(4).trim());
+					String submittedBy = tokenizer.getField(5).trim();
+					Applicant applicantSubmit = symbols.track(symbols.applicant(submittedBy), file.getName(), tokenizer.getRecordNumber(), "applicant", submittedBy);
+
+					String projectName = tokenizer.getField(6).trim();
+					Project project = symbols.track(symbols.project(projectName), file.getName(), tokenizer.getRecordNumber(), "project", projectName);
+
+					if (applicantSubmit == null || project == null) continue;
+
+					EnquiryStatusEnum status = EnquiryStatusEnum.valueOf(tokenizer.getField(7).trim());
+					String respondent = tokenizer.getField(8).trim();
+					User userRespondent = respondent.isEmpty() || respondent.equals("null") || respondent.equals("NA") ? null
+							: symbols.track(symbols.respondent(respondent), file.getName(), tokenizer.getRecordNumber(), "respondent", respondent);
+
+					// The submitter is set afterwards so the constructor does not link it a second time
+					Enquiry enquiry = new Enquiry(enquiryID, date, content, reply, replyDate, null, project, status, userRespondent);
+					enquiry.setSubmittedBy(applicantSubmit);
 
 					enquiries.add(enquiry);
-					applicantSubmit.addEnquiry(enquiry); // link enquiry to the applicant
+					link(() -> applicantSubmit.addEnquiry(enquiry)); // link enquiry to the applicant
 				}
 			}
 
 			enquiryDatabase.setEnquiries(enquiries);
-			reader.close();
+			tokenizer.close();
+			finishSymbols(symbols);
 
 			System.out.println("Read " + enquiries.size() + " enquiries from " + filePath);
 			return true;
@@ -776,21 +790,7 @@ public class FileHandler {
 				return false;
 			}
 
-			int recordsWritten = 0;
-			try (FileWriter writer = new FileWriter(filePath)) {
-				// Write header
-				writer.write("Name,NRIC,Age,Marital Status,Password\n");
-
-				// Write each applicant
-				for (Applicant applicant : applicantDatabase.getApplicants()) {
-					writer.write(applicant.getName() + ",");
-					writer.write(applicant.getNric() + ",");
-					writer.write(applicant.getAge() + ",");
-					writer.write(applicant.getMaritalStatus().name() + ",");
-					writer.write(applicant.getPassword() + "\n");
-					recordsWritten++;
-				}
-			}
+			int recordsWritten = writeData(filePath, APPLICANT_FILE, USER_HEADER, applicantDatabase::getApplicants, FileHandler::formatUserRow, applicantDatabase.getChanges());
 
 			System.out.println("Successfully wrote " + recordsWritten + " applicant records to " + filePath);
 			return true;
@@ -813,21 +813,7 @@ public class FileHandler {
 				return false;
 			}
 
-			int recordsWritten = 0;
-			try (FileWriter writer = new FileWriter(filePath)) {
-				// Write header
-				writer.write("Name,NRIC,Age,Marital Status,Password\n");
-
-				// Write each officer
-				for (Officer officer : officerDatabase.getOfficers()) {
-					writer.write(officer.getName() + ",");
-					writer.write(officer.getNric() + ",");
-					writer.write(officer.getAge() + ",");
-					writer.write(officer.getMaritalStatus().name() + ",");
-					writer.write(officer.getPassword() + "\n");
-					recordsWritten++;
-				}
-			}
+			int recordsWritten = writeData(filePath, OFFICER_FILE, USER_HEADER, officerDatabase::getOfficers, FileHandler::formatUserRow, officerDatabase.getChanges());
 
 			System.out.println("Successfully wrote " + recordsWritten + " officer records to " + filePath);
 			return true;
@@ -850,22 +836,9 @@ public class FileHandler {
 				return false;
 			}
 
-			FileWriter writer = new FileWriter(filePath);
-
-			// Write header
-			writer.write("Name,NRIC,Age,Marital Status,Password\n");
+			int recordsWritten = writeData(filePath, MANAGER_FILE, USER_HEADER, managerDatabase::getManagers, FileHandler::formatUserRow, managerDatabase.getChanges());
 
-			// Write each manager
-			for (Manager manager : managerDatabase.getManagers()) {
-				writer.write(manager.getName() + ",");
-				writer.write(manager.getNric() + ",");
-				writer.write(manager.getAge() + ",");
-				writer.write(manager.getMaritalStatus().name() + ",");
-				writer.write(manager.getPassword() + "\n");
-			}
-
-			writer.close();
-			System.out.println("Successfully wrote " + managerDatabase.getManagers().size() + " managers to " + filePath);
+			System.out.println("Successfully wrote " + recordsWritten + " managers to " + filePath);
 			return true;
 		} catch (Exception e) {
 			System.out.println("Error writing manager data: " + e.getMessage());
@@ -886,69 +859,9 @@ public class FileHandler {
 				return false;
 			}
 
-			FileWriter writer = new FileWriter(filePath);
-
-			// Write header
-			writer.write("Project Name,Neighborhood,Type 1,Number of units for Type 1,Selling price for Type 1,Type 2,Number of units for Type 2,Selling price for Type 2,Application opening date,Application closing date,Manager,Officer Slot,Officer\n");
-
-			// Write each project
-			for (Project project : projectDatabase.getProjects()) {
-				writer.write(project.getProjectName() + ",");
-				writer.write(project.getNeighborhood() + ",");
-
-				// Write flat types
-				ArrayList<FlatType> flatTypes = project.getFlatTypes();
-				if (flatTypes.size() >= 1) {
-					FlatType type1 = flatTypes.get(0);
-					writer.write(formatFlatType(type1.getType()) + ",");
-					writer.write(type1.getNumUnits() + ",");
-					writer.write(type1.getSellingPrice() + ",");
-				} else {
-					writer.write(",,,");
-				}
-
-				if (flatTypes.size() >= 2) {
-					FlatType type2 = flatTypes.get(1);
-					writer.write(formatFlatType(type2.getType()) + ",");
-					writer.write(type2.getNumUnits() + ",");
-					writer.write(type2.getSellingPrice() + ",");
-				} else {
-					writer.write(",,,");
-				}
-
-				// Write dates
-				DateTimeFormatter dateFormatter = DateTimeFormatter.ofPattern("yyyy-MM-dd");
-				writer.write(project.getApplicationStartDate().format(dateFormatter) + ",");
-				writer.write(project.getApplicationEndDate().format(dateFormatter) + ",");
-
-				// Write manager
-				if (project.getManager() != null) {
-					writer.write(project.getManager().getName() + ",");
-				} else {
-					writer.write(",");
-				}
-
-				// Write officer slots
-				writer.write(project.getOfficerSlots() + ",");
-
-				// Write assigned officers
-				ArrayList<Officer> officers = project.getAssignedOfficers();
-				if (officers != null && !officers.isEmpty()) {
-					writer.write("\"");
-					for (int i = 0; i < officers.size(); i++) {
-						writer.write(officers.get(i).getName());
-						if (i < officers.size() - 1) {
-							writer.write(",");
-						}
-					}
-					writer.write("\"");
-				}
-
-				writer.write("\n");
-			}
+			int recordsWritten = writeData(filePath, PROJECT_FILE, PROJECT_HEADER, projectDatabase::getProjects, FileHandler::formatProjectRow, projectDatabase.getChanges());
 
-			writer.close();
-			System.out.println("Successfully wrote " + projectDatabase.getProjects().size() + " projects to " + filePath);
+			System.out.println("Successfully wrote " + recordsWritten + " projects to " + filePath);
 			return true;
 		} catch (Exception e) {
 			System.out.println("Error writing project data: " + e.getMessage());
@@ -964,21 +877,9 @@ public class FileHandler {
 				return false;
 			}
 
-			FileWriter writer = new FileWriter(filePath);
-			writer.write("Application ID,Application Date,Applicant Name,Project Name,Flat Type,Status,Withdrawal Status\n");
-
-			for (BTOApplication app : btoApplicationDatabase.getApplications()) {
-				writer.write(app.getApplicationID() + ",");
-				writer.write(app.getApplicationDate() + ",");
-				writer.write(app.getApplicant().getName() + ",");
-				writer.write(app.getProject().getProjectName() + ",");
-				writer.write(app.getFlatType().name() + ",");
-				writer.write(app.getStatus().name() + ",");
-				writer.write(app.getWithdrawalStatus().name() + "\n");
-			}
-			writer.close();
+			int recordsWritten = writeData(filePath, BTO_APPLICATION_FILE, BTO_APPLICATION_HEADER, btoApplicationDatabase::getApplications, FileHandler::formatBTOApplicationRow, btoApplicationDatabase.getChanges());
 
-			System.out.println("Successfully wrote " + btoApplicationDatabase.getApplications().size() + " BTO applications to " + filePath);
+			System.out.println("Successfully wrote " + recordsWritten + " BTO applications to " + filePath);
 			return true;
 		} catch (Exception e) {
 			System.out.println("Error writing BTO Application data: " + e.getMessage());
@@ -994,19 +895,7 @@ public class FileHandler {
 				return false;
 			}
 
-			int recordsWritten = 0;
-			try (FileWriter writer = new FileWriter(filePath)) {
-				writer.write("Officer Application ID,Application Date,Officer Name,Project Name,Application Status\n");
-
-				for (OfficerApplication app : officerApplicationDatabase.getApplications()) {
-					writer.write(app.getOfficerApplicationID() + "," +
-							app.getApplicationDate() + "," +
-							app.getOfficer().getName() + "," +
-							app.getProject().getProjectName() + "," +
-							app.getStatus().name() + "\n");
-					recordsWritten++;
-				}
-			}
+			int recordsWritten = writeData(filePath, OFFICER_APPLICATION_FILE, OFFICER_APPLICATION_HEADER, officerApplicationDatabase::getApplications, FileHandler::formatOfficerApplicationRow, officerApplicationDatabase.getChanges());
 
 			System.out.println("Successfully wrote " + recordsWritten + " Officer applications to " + filePath);
 			return true;
@@ -1024,20 +913,7 @@ public class FileHandler {
 				return false;
 			}
 
-			int recordsWritten = 0;
-			try (FileWriter writer = new FileWriter(filePath)) {
-				writer.write("Booking ID,Booking Date,BTO Application ID,Processing Officer,Flat Type,Booking Status\n");
-
-				for (Booking booking : bookingDatabase.getBookings()) {
-					writer.write(booking.getBookingID() + "," +
-							booking.getBookingDateTime() + "," +
-							booking.getApplication().getApplicationID() + "," +
-							booking.getProcessingOfficer().getName() + "," +
-							booking.getFlatType().name() + "," +
-							booking.getStatus().name() + "\n");
-					recordsWritten++;
-				}
-			}
+			int recordsWritten = writeData(filePath, BOOKING_FILE, BOOKING_HEADER, bookingDatabase::getBookings, FileHandler::formatBookingRow, bookingDatabase.getChanges());
 
 			System.out.println("Successfully wrote " + recordsWritten + " bookings to " + filePath);
 			return true;
@@ -1055,17 +931,7 @@ public class FileHandler {
 				return false;
 			}
 
-			int recordsWritten = 0;
-			try (FileWriter writer = new FileWriter(filePath)) {
-				writer.write("Receipt Number,Date,Booking ID\n");
-
-				for (Receipt receipt : receiptDatabase.getReceipts()) {
-					writer.write(receipt.getReceiptNumber() + "," +
-							receipt.getDate() + "," +
-							receipt.getBooking().getApplication().getApplicationID() + "\n");
-					recordsWritten++;
-				}
-			}
+			int recordsWritten = writeData(filePath, RECEIPT_FILE, RECEIPT_HEADER, receiptDatabase::getReceipts, FileHandler::formatReceiptRow, receiptDatabase.getChanges());
 
 			System.out.println("Successfully wrote " + recordsWritten + " receipts to " + filePath);
 			return true;
@@ -1083,23 +949,7 @@ public class FileHandler {
 				return false;
 			}
 
-			int recordsWritten = 0;
-			try (FileWriter writer = new FileWriter(filePath)) {
-				writer.write("Enquiry ID,Date,Content,Reply,Reply Date,Submitted By,Project,Status,Respondent\n");
-
-				for (Enquiry enquiry : enquiryDatabase.getEnquiries()) {
-					writer.write(enquiry.getEnquiryID() + "," +
-							enquiry.getDateTime() + "," +
-							enquiry.getContent() + "," +
-							enquiry.getReply() + "," +
-							enquiry.getReplyDate() + "," +
-							enquiry.getSubmittedBy().getName() + "," +
-							enquiry.getProject().getProjectName() + "," +
-							enquiry.getStatus().name() + "," +
-							enquiry.getRespondent().getName() + "\n");
-					recordsWritten++;
-				}
-			}
+			int recordsWritten = writeData(filePath, ENQUIRY_FILE, ENQUIRY_HEADER, enquiryDatabase::getEnquiries, FileHandler::formatEnquiryRow, enquiryDatabase.getChanges());
 
 			System.out.println("Successfully wrote " + recordsWritten + " enquiries to " + filePath);
 			return true;
@@ -1111,10 +961,335 @@ public class FileHandler {
 		}
 	}
 
+	/**
+	 * Writes all nine data files as one commit, without printing progress, for
+	 * background persistence. Databases that have not been set are skipped.
+	 *
+	 * @param dataPath The folder to write the data files to
+	 * @throws IOException if the files cannot be committed
+	 * @see DataManifest
+	 */
+	static void writeAllFiles(String dataPath) throws IOException {
+		writeFiles(dataPath, true);
+	}
+
+	/**
+	 * Writes only what changed since the data files were last read or written, as
+	 * one commit. Files whose database has not changed are left alone, files that
+	 * only gained records (typically receipts and enquiries) have the new rows
+	 * appended, and the remaining changed files are rewritten.
+	 *
+	 * @param dataPath The folder to write the data files to
+	 * @return the number of files written to
+	 * @throws IOException if the files cannot be committed
+	 * @see DataManifest
+	 */
+	static int writeChangedFiles(String dataPath) throws IOException {
+		return writeFiles(dataPath, false);
+	}
+
+	private static int writeFiles(String dataPath, boolean rewriteAll) throws IOException {
+		return DataManifest.commit(dataPath, DATA_FILES, commit -> {
+			int filesWritten = 0;
+			if (applicantDatabase != null) filesWritten += saveRows(commit, APPLICANT_FILE, USER_HEADER, applicantDatabase.getApplicants(), FileHandler::formatUserRow, applicantDatabase.getChanges(), rewriteAll);
+			if (officerDatabase != null) filesWritten += saveRows(commit, OFFICER_FILE, USER_HEADER, officerDatabase.getOfficers(), FileHandler::formatUserRow, officerDatabase.getChanges(), rewriteAll);
+			if (managerDatabase != null) filesWritten += saveRows(commit, MANAGER_FILE, USER_HEADER, managerDatabase.getManagers(), FileHandler::formatUserRow, managerDatabase.getChanges(), rewriteAll);
+			if (projectDatabase != null) filesWritten += saveRows(commit, PROJECT_FILE, PROJECT_HEADER, projectDatabase.getProjects(), FileHandler::formatProjectRow, projectDatabase.getChanges(), rewriteAll);
+			if (btoApplicationDatabase != null) filesWritten += saveRows(commit, BTO_APPLICATION_FILE, BTO_APPLICATION_HEADER, btoApplicationDatabase.getApplications(), FileHandler::formatBTOApplicationRow, btoApplicationDatabase.getChanges(), rewriteAll);
+			if (officerApplicationDatabase != null) filesWritten += saveRows(commit, OFFICER_APPLICATION_FILE, OFFICER_APPLICATION_HEADER, officerApplicationDatabase.getApplications(), FileHandler::formatOfficerApplicationRow, officerApplicationDatabase.getChanges(), rewriteAll);
+			if (bookingDatabase != null) filesWritten += saveRows(commit, BOOKING_FILE, BOOKING_HEADER, bookingDatabase.getBookings(), FileHandler::formatBookingRow, bookingDatabase.getChanges(), rewriteAll);
+			if (receiptDatabase != null) filesWritten += saveRows(commit, RECEIPT_FILE, RECEIPT_HEADER, receiptDatabase.getReceipts(), FileHandler::formatReceiptRow, receiptDatabase.getChanges(), rewriteAll);
+			if (enquiryDatabase != null) filesWritten += saveRows(commit, ENQUIRY_FILE, ENQUIRY_HEADER, enquiryDatabase.getEnquiries(), FileHandler::formatEnquiryRow, enquiryDatabase.getChanges(), rewriteAll);
+			return filesWritten;
+		});
+	}
+
+	/**
+	 * Writes one data file for the individual write methods, as a commit to the
+	 * folder it is in, so the file is replaced atomically and the folder's
+	 * manifest records its new length. Without the manifest entry, the next
+	 * recovery of a live folder could cut the file back to its previous length.
+	 *
+	 * <p>If it is the data file of the folder the databases were loaded from, it
+	 * now holds every tracked change of its database, so the changes are drained
+	 * first; a later save would otherwise append the added rows a second time.
+	 * Written anywhere else, the changes are kept for the next save.</p>
+	 *
+	 * @return the number of rows written
+	 * @see DataManifest
+	 */
+	private static <T> int writeData(String filePath, String dataFileName, String header, Supplier<List<T>> items,
+			Function<T, String> formatter, ChangeTracker<T> changes) throws IOException {
+		File file = new File(filePath).getAbsoluteFile();
+		boolean tracked = isLoadedDataFile(file, dataFileName);
+		return DataManifest.commit(file.getParent(), DATA_FILES, commit -> {
+			if (tracked) {
+				changes.drain();
+				commit.onAbort(changes::markStale);
+			}
+			try (BufferedWriter writer = commit.rewrite(file.getName())) {
+				return writeRows(writer, header, items.get(), formatter);
+			}
+		});
+	}
+
+	/**
+	 * Checks whether a file is the given data file of the folder the databases were loaded from.
+	 */
+	private static boolean isLoadedDataFile(File file, String dataFileName) {
+		String folder = dataFolder;
+		File parent = file.getAbsoluteFile().getParentFile();
+		if (folder == null || parent == null || !file.getName().equals(dataFileName)) {
+			return false;
+		}
+		try {
+			return parent.getCanonicalFile().equals(new File(folder).getCanonicalFile());
+		} catch (IOException e) {
+			return parent.equals(new File(folder).getAbsoluteFile());
+		}
+	}
+
+	/**
+	 * Records the folder the databases were just loaded from, whose data files
+	 * the tracked changes are relative to.
+	 *
+	 * @param dataPath the data folder
+	 */
+	static void setDataFolder(String dataPath) {
+		dataFolder = dataPath;
+	}
+
+	/**
+	 * Writes a header line followed by one formatted line per item.
+	 *
+	 * @return the number of rows written
+	 */
+	private static <T> int writeRows(BufferedWriter writer, String header, List<T> items, Function<T, String> formatter) throws IOException {
+		int recordsWritten = 0;
+		if (header != null) {
+			writer.write(header);
+			writer.write("\n");
+		}
+		for (T item : items) {
+			writer.write(formatter.apply(item));
+			writer.write("\n");
+			recordsWritten++;
+		}
+		return recordsWritten;
+	}
+
+	/**
+	 * Writes the tracked changes of one database as part of a commit: nothing if
+	 * it is unchanged, the added rows if records were only added, and the whole
+	 * file otherwise. The changes are drained first, so changes made during the
+	 * write are kept for the next save; if the commit fails, the file is marked
+	 * for rewriting.
+	 *
+	 * @return 1 if the file was written to, 0 otherwise
+	 */
+	private static <T> int saveRows(DataManifest.Commit commit, String fileName, String header, List<T> items,
+			Function<T, String> formatter, ChangeTracker<T> changes, boolean rewriteAll) throws IOException {
+		ChangeTracker.Changes<T> pending = changes.drain();
+		if (pending.isEmpty() && !rewriteAll) {
+			return 0;
+		}
+		commit.onAbort(changes::markStale);
+
+		if (rewriteAll || pending.requiresRewrite() || !new File(commit.getDataPath(), fileName).exists()) {
+			try (BufferedWriter writer = commit.rewrite(fileName)) {
+				writeRows(writer, header, new ArrayList<>(items), formatter);
+			}
+		} else {
+			try (BufferedWriter writer = commit.append(fileName)) {
+				writeRows(writer, null, pending.getAdded(), formatter);
+			}
+		}
+		return 1;
+	}
+
+	// ============================================================================
+	// ROW PARSING - shared by the readers and the parallel importer
+	// ============================================================================
+
+	/**
+	 * Builds an applicant from a row of the applicant file.
+	 *
+	 * @return the applicant, or null if the row has too few fields
+	 */
+	static Applicant applicantFromRow(String[] row) {
+		if (row.length < 5) {
+			return null;
+		}
+		Applicant applicant = new Applicant();
+		applicant.setName(row[0].trim());
+		applicant.setNric(row[1].trim());
+		applicant.setAge(Integer.parseInt(row[2].trim()));
+		applicant.setMaritalStatus(parseMaritalStatus(row[3].trim()));
+		applicant.setPassword(row[4].trim());
+		return applicant;
+	}
+
+	/**
+	 * Builds a BTO application from a row of the application file. The application
+	 * is not added to its applicant's list; the caller links it.
+	 *
+	 * @return the application, or null if the row has too few fields or refers to
+	 *         an unknown applicant or project
+	 */
+	static BTOApplication btoApplicationFromRow(String[] row, LoadSymbolTable symbols, String fileName, ParallelCsvImporter.RecordOffset offset, long recordNumber) {
+		if (row.length < 7) {
+			return null;
+		}
+		String applicationID = row[0].trim();
+		LocalDate date = LocalDate.parse(row[1].trim());
+		String applicantName = row[2].trim();
+		String projectName = row[3].trim();
+		FlatTypeEnum flatType = parseFlatType(row[4].trim());
+		BTOApplicationStatusEnum status = BTOApplicationStatusEnum.valueOf(row[5].trim());
+		WithdrawalStatusEnum withdrawalStatus = WithdrawalStatusEnum.valueOf(row[6].trim());
+
+		Applicant applicant = symbols.track(symbols.applicant(applicantName), fileName, offset, recordNumber, "applicant", applicantName);
+		Project project = symbols.track(symbols.project(projectName), fileName, offset, recordNumber, "project", projectName);
+		if (applicant == null || project == null) {
+			return null;
+		}
+
+		// The applicant is set afterwards so the constructor does not link it a second time
+		BTOApplication application = new BTOApplication(applicationID, null, project, flatType);
+		application.setApplicant(applicant);
+		application.setApplicationDate(date);
+		application.setStatus(status);
+		application.setWithdrawalStatus(withdrawalStatus);
+		return application;
+	}
+
+	// ============================================================================
+	// ROW FORMATTING - shared by the file writers and the journal
+	// ============================================================================
+
+	/**
+	 * Formats an applicant, officer or manager as a row of the user files.
+	 */
+	static String formatUserRow(User user) {
+		return user.getName() + "," +
+				user.getNric() + "," +
+				user.getAge() + "," +
+				user.getMaritalStatus().name() + "," +
+				user.getPassword();
+	}
+
+	/**
+	 * Formats a project as a row of the project file.
+	 */
+	static String formatProjectRow(Project project) {
+		StringBuilder row = new StringBuilder();
+		row.append(project.getProjectName()).append(",");
+		row.append(project.getNeighborhood()).append(",");
+
+		// Write flat types
+		ArrayList<FlatType> flatTypes = project.getFlatTypes();
+		for (int i = 0; i < 2; i++) {
+			if (flatTypes.size() > i) {
+				FlatType flatType = flatTypes.get(i);
+				row.append(formatFlatType(flatType.getType())).append(",");
+				row.append(flatType.getNumUnits()).append(",");
+				row.append(flatType.getSellingPrice()).append(",");
+			} else {
+				row.append(",,,");
+			}
+		}
+
+		// Write dates
+		row.append(project.getApplicationStartDate()).append(",");
+		row.append(project.getApplicationEndDate()).append(",");
+
+		// Write manager and officer slots
+		row.append(nameOf(project.getManager())).append(",");
+		row.append(project.getOfficerSlots()).append(",");
+
+		// Write assigned officers
+		ArrayList<Officer> officers = project.getAssignedOfficers();
+		if (officers != null && !officers.isEmpty()) {
+			row.append("\"");
+			for (int i = 0; i < officers.size(); i++) {
+				row.append(officers.get(i).getName());
+				if (i < officers.size() - 1) {
+					row.append(",");
+				}
+			}
+			row.append("\"");
+		}
+		return row.toString();
+	}
+
+	/**
+	 * Formats a BTO application as a row of the application file.
+	 */
+	static String formatBTOApplicationRow(BTOApplication app) {
+		return app.getApplicationID() + "," +
+				app.getApplicationDate() + "," +
+				app.getApplicant().getName() + "," +
+				app.getProject().getProjectName() + "," +
+				app.getFlatType().name() + "," +
+				app.getStatus().name() + "," +
+				app.getWithdrawalStatus().name();
+	}
+
+	/**
+	 * Formats an officer application as a row of the officer application file.
+	 */
+	static String formatOfficerApplicationRow(OfficerApplication app) {
+		return app.getOfficerApplicationID() + "," +
+				app.getApplicationDate() + "," +
+				app.getOfficer().getName() + "," +
+				app.getProject().getProjectName() + "," +
+				app.getStatus().name();
+	}
+
+	/**
+	 * Formats a booking as a row of the booking file. Pending bookings have no processing officer yet.
+	 */
+	static String formatBookingRow(Booking booking) {
+		return booking.getBookingID() + "," +
+				booking.getBookingDateTime() + "," +
+				booking.getApplication().getApplicationID() + "," +
+				nameOf(booking.getProcessingOfficer()) + "," +
+				booking.getFlatType().name() + "," +
+				booking.getStatus().name();
+	}
+
+	/**
+	 * Formats a receipt as a row of the receipt file.
+	 */
+	static String formatReceiptRow(Receipt receipt) {
+		return receipt.getReceiptNumber() + "," +
+				receipt.getDate() + "," +
+				receipt.getBooking().getApplication().getApplicationID();
+	}
+
+	/**
+	 * Formats an enquiry as a row of the enquiry file. Pending enquiries have no reply yet.
+	 */
+	static String formatEnquiryRow(Enquiry enquiry) {
+		return enquiry.getEnquiryID() + "," +
+				enquiry.getDateTime() + "," +
+				CsvTokenizer.escape(enquiry.getContent()) + "," +
+				CsvTokenizer.escape(enquiry.getReply() != null ? enquiry.getReply() : "") + "," +
+				(enquiry.getReplyDate() != null ? enquiry.getReplyDate() : "") + "," +
+				enquiry.getSubmittedBy().getName() + "," +
+				enquiry.getProject().getProjectName() + "," +
+				enquiry.getStatus().name() + "," +
+				nameOf(enquiry.getRespondent());
+	}
+
+	private static String nameOf(User user) {
+		return user != null ? user.getName() : "";
+	}
+
 	/**
 	 * Helper method to parse marital status string to enum
 	 */
-	private static MarriageStatusEnum parseMaritalStatus(String statusStr) {
+	static MarriageStatusEnum parseMaritalStatus(String statusStr) {
 		if (statusStr.equalsIgnoreCase("Married")) {
 			return MarriageStatusEnum.MARRIED;
 		} else {
@@ -1125,7 +1300,7 @@ public class FileHandler {
 	/**
 	 * Helper method to parse flat type string to enum
 	 */
-	private static FlatTypeEnum parseFlatType(String typeStr) {
+	static FlatTypeEnum parseFlatType(String typeStr) {
 		if (typeStr.equalsIgnoreCase("2-Room")) {
 			return FlatTypeEnum.TWO_ROOM;
 		} else if (typeStr.equalsIgnoreCase("3-Room")) {
@@ -1136,6 +1311,16 @@ public class FileHandler {
 		}
 	}
 
+	/**
+	 * Helper method to parse a date that may be absent, written as empty, "null" or "NA"
+	 */
+	static LocalDate parseOptionalDate(String dateStr) {
+		if (dateStr.isEmpty() || dateStr.equals("null") || dateStr.equals("NA")) {
+			return null;
+		}
+		return LocalDate.parse(dateStr);
+	}
+
 	/**
 	 * Helper method to format flat type enum to string
 	 */
@@ -1150,13 +1335,22 @@ public class FileHandler {
 	}
 
 	/**
-	 * Method to read all data files at once
+	 * Method to read all data files at once.
+	 *
+	 * <p>The nine files form a dependency graph: users have no dependencies,
+	 * projects need managers and officers, and the remaining files need the
+	 * users and projects they refer to. Each file is loaded as soon as the files
+	 * it depends on have finished, so independent files load concurrently.
+	 * Back-references from users to their applications, bookings and enquiries
+	 * are collected while the stages run and applied once every stage is done.</p>
+	 *
+	 * <p>Before reading, the files are brought back to the generation named by the
+	 * data manifest, so an interrupted save never yields a mix of old and new files.</p>
+	 *
 	 * @param dataPath The path to the data files
 	 * @return True if all files were read successfully, false otherwise
 	 */
 	public static boolean readAllData(String dataPath) {
-		boolean success = true;
-
 		// Ensure data path ends with a separator if needed
 		if (!dataPath.endsWith(File.separator) && !dataPath.isEmpty()) {
 			dataPath = dataPath + File.separator;
@@ -1170,132 +1364,202 @@ public class FileHandler {
 			dataPath = "";
 		}
 
-		// Manager data
-		File managerFile = new File(dataPath + MANAGER_FILE);
-		if (!managerFile.exists()) {
-			System.out.println("Warning: Manager data file not found: " + managerFile.getPath());
-		} else {
-			if (!readManagerData(managerFile.getPath())) {
-				System.out.println("Failed to read manager data. Some data dependencies may fail.");
-				success = false;
-			} else {
-				int managerCount = Manager.getAllManagers().size();
-				System.out.println(managerCount + " Manager(s) loaded successfully.");
-			}
+		// Bring the files back to the last committed generation before reading them
+		try {
+			DataManifest.recover(dataPath);
+		} catch (IOException e) {
+			System.out.println("Error recovering data files: " + e.getMessage());
 		}
 
-		// Officer data
-		File officerFile = new File(dataPath + OFFICER_FILE);
-		if (!officerFile.exists()) {
-			System.out.println("Warning: Officer data file not found: " + officerFile.getPath());
-		} else {
-			if (!readOfficerData(officerFile.getPath())) {
-				System.out.println("Failed to read officer data. Some data dependencies may fail.");
-				success = false;
-			} else {
-				int officerCount = Officer.getAllOfficers().size();
-				System.out.println(officerCount + " Officer(s) loaded successfully.");
+		ArrayList<LoadStage> stages = new ArrayList<>();
+		stages.add(new LoadStage("Manager", MANAGER_FILE, FileHandler::readManagerData, () -> Manager.getAllManagers().size()));
+		stages.add(new LoadStage("Officer", OFFICER_FILE, FileHandler::readOfficerData, () -> Officer.getAllOfficers().size()));
+		stages.add(new LoadStage("Applicant", APPLICANT_FILE, FileHandler::readApplicantData, () -> Applicant.getAllApplicants().size()));
+		stages.add(new LoadStage("Project", PROJECT_FILE, FileHandler::readProjectData, () -> Project.getAllProjects().size(),
+				"Manager", "Officer"));
+		stages.add(new LoadStage("BTO Application", BTO_APPLICATION_FILE, FileHandler::readBTOApplicationData, () -> BTOApplication.getAllApplications().size(),
+				"Applicant", "Project"));
+		stages.add(new LoadStage("Officer Application", OFFICER_APPLICATION_FILE, FileHandler::readOfficerApplicationData, () -> OfficerApplication.getAllApplications().size(),
+				"Officer", "Project"));
+		stages.add(new LoadStage("Booking", BOOKING_FILE, FileHandler::readBookingData, () -> Booking.getAllBookings().size(),
+				"BTO Application", "Officer"));
+		stages.add(new LoadStage("Receipt", RECEIPT_FILE, FileHandler::readReceiptData, () -> Receipt.getAllReceipts().size(),
+				"Booking"));
+		stages.add(new LoadStage("Enquiry", ENQUIRY_FILE, FileHandler::readEnquiryData, () -> Enquiry.getAllEnquiries().size(),
+				"Applicant", "Project", "Manager", "Officer"));
+
+		int threads = Math.min(stages.size(), Math.max(1, Runtime.getRuntime().availableProcessors()));
+		ExecutorService executor = Executors.newFixedThreadPool(threads, runnable -> {
+			Thread thread = new Thread(runnable, "data-loader");
+			thread.setDaemon(true);
+			return thread;
+		});
+
+		long wallStart = System.nanoTime();
+		pendingLinks = new ConcurrentLinkedQueue<>();
+		LoadSymbolTable symbols = new LoadSymbolTable();
+		loadSymbols = symbols;
+		try {
+			// Stages are declared after their dependencies, so every future a stage waits on already exists
+			Map<String, CompletableFuture<Void>> futures = new LinkedHashMap<>();
+			for (LoadStage stage : stages) {
+				CompletableFuture<?>[] dependencies = new CompletableFuture<?>[stage.dependencies.length];
+				for (int i = 0; i < dependencies.length; i++) {
+					dependencies[i] = futures.get(stage.dependencies[i]);
+				}
+				String path = dataPath;
+				futures.put(stage.name, CompletableFuture.allOf(dependencies).thenRunAsync(() -> stage.run(path), executor));
 			}
-		}
+			CompletableFuture.allOf(futures.values().toArray(new CompletableFuture<?>[0])).join();
 
-		// Project data
-		File projectFile = new File(dataPath + PROJECT_FILE);
-		if (!projectFile.exists()) {
-			System.out.println("Warning: Project data file not found: " + projectFile.getPath());
-		} else {
-			if (!readProjectData(projectFile.getPath())) {
-				System.out.println("Failed to read project data.");
-				success = false;
-			} else {
-				int projectCount = Project.getAllProjects().size();
-				System.out.println(projectCount + " Project(s) loaded successfully.");
+			// Resolve cross-references now that every file has been read
+			for (Runnable link : pendingLinks) {
+				link.run();
 			}
+		} finally {
+			pendingLinks = null;
+			loadSymbols = null;
+			executor.shutdown();
 		}
+		long wallMillis = (System.nanoTime() - wallStart) / 1_000_000;
 
-		// Applicant data
-		File applicantFile = new File(dataPath + APPLICANT_FILE);
-		if (!applicantFile.exists()) {
-			System.out.println("Warning: Applicant data file not found: " + applicantFile.getPath());
-		} else {
-			if (!readApplicantData(applicantFile.getPath())) {
-				System.out.println("Failed to read applicant data.");
-				success = false;
-			} else {
-				int applicantCount = Applicant.getAllApplicants().size();
-				System.out.println(applicantCount + " Applicant(s) loaded successfully.");
-			}
+		boolean success = true;
+		long stageMillis = 0;
+		System.out.println("===================== DATA LOAD SUMMARY =====================");
+		System.out.printf("%-22s %-10s %-10s %-10s\n", "File", "Records", "Time (ms)", "Status");
+		for (LoadStage stage : stages) {
+			System.out.printf("%-22s %-10s %-10d %-10s\n", stage.name, stage.loaded ? String.valueOf(stage.records) : "-", stage.millis, stage.status);
+			stageMillis += stage.millis;
+			success &= stage.succeeded;
 		}
+		dataFolder = dataPath;
+		System.out.println("Loaded in " + wallMillis + " ms wall-clock (" + stageMillis + " ms across all files).");
+		symbols.printReport();
+		System.out.println("=============================================================");
 
-		// BTO applications
-		File btoAppFile = 	new File(dataPath + BTO_APPLICATION_FILE);
-		if (!btoAppFile.exists()) {
-			System.out.println("Warning: BTO Application data file not found: " + btoAppFile.getPath());
+		return success;
+	}
+
+	/**
+	 * Applies a cross-reference between loaded entities. While {@link #readAllData(String)}
+	 * is running the link is deferred until every file has been read, so concurrent
+	 * stages never mutate the same entity lists; otherwise it is applied immediately.
+	 *
+	 * @param link the back-reference to apply
+	 */
+	private static void link(Runnable link) {
+		Queue<Runnable> links = pendingLinks;
+		if (links != null) {
+			links.add(link);
 		} else {
-			if (!readBTOApplicationData(btoAppFile.getPath())) {
-				System.out.println("Failed to read BTO application data.");
-				success = false;
-			} else {
-				int btoAppCount = BTOApplication.getAllApplications().size();
-				System.out.println(btoAppCount + " BTO Application(s) loaded successfully.");
-			}
+			link.run();
 		}
+	}
 
-		// Officer applications
-		File officerAppFile = new File(dataPath + OFFICER_APPLICATION_FILE);
-		if (!officerAppFile.exists()) {
-			System.out.println("Warning: Officer Application data file not found: " + officerAppFile.getPath());
-		} else {
-			if (!readOfficerApplicationData(officerAppFile.getPath())) {
-				System.out.println("Failed to read officer application data.");
-				success = false;
-			} else {
-				int officerAppCount = OfficerApplication.getAllApplications().size();
-				System.out.println(officerAppCount + " Officer Application(s) loaded successfully.");
-			}
+	/**
+	 * Returns the symbol table the readers resolve references against. During
+	 * {@link #readAllData(String)} this is the shared load-session table; a reader
+	 * called on its own gets a table built from the data already loaded.
+	 *
+	 * @return the symbol table to use for the current read
+	 */
+	static LoadSymbolTable symbols() {
+		LoadSymbolTable session = loadSymbols;
+		if (session != null) {
+			return session;
 		}
+		LoadSymbolTable symbols = new LoadSymbolTable();
+		if (managerDatabase != null) symbols.registerManagers(managerDatabase.getManagers());
+		if (officerDatabase != null) symbols.registerOfficers(officerDatabase.getOfficers());
+		if (applicantDatabase != null) symbols.registerApplicants(applicantDatabase.getApplicants());
+		if (projectDatabase != null) symbols.registerProjects(projectDatabase.getProjects());
+		if (btoApplicationDatabase != null) symbols.registerApplications(btoApplicationDatabase.getApplications());
+		if (bookingDatabase != null) symbols.registerBookings(bookingDatabase.getBookings());
+		if (officerApplicationDatabase != null) symbols.registerOfficerApplications(officerApplicationDatabase.getApplications());
+		if (receiptDatabase != null) symbols.registerReceipts(receiptDatabase.getReceipts());
+		if (enquiryDatabase != null) symbols.registerEnquiries(enquiryDatabase.getEnquiries());
+		return symbols;
+	}
 
-		// Bookings
-		File bookingFile = new File(dataPath + BOOKING_FILE);
-		if (!bookingFile.exists()) {
-			System.out.println("Warning: Booking data file not found: " + bookingFile.getPath());
-		} else {
-			if (!readBookingData(bookingFile.getPath())) {
-				System.out.println("Failed to read booking data.");
-				success = false;
-			} else {
-				int bookingCount = Booking.getAllBookings().size();
-				System.out.println(bookingCount + " Booking(s) loaded successfully.");
-			}
+	/**
+	 * Registers freshly loaded entities with the load-session symbol table, if any.
+	 *
+	 * @param registration the registration to apply
+	 */
+	private static void registerSymbols(Consumer<LoadSymbolTable> registration) {
+		LoadSymbolTable session = loadSymbols;
+		if (session != null) {
+			registration.accept(session);
 		}
+	}
 
-		// Receipts
-		File receiptFile = new File(dataPath + RECEIPT_FILE);
-		if (!receiptFile.exists()) {
-			System.out.println("Warning: Receipt data file not found: " + receiptFile.getPath());
-		} else {
-			if (!readReceiptData(receiptFile.getPath())) {
-				System.out.println("Failed to read receipt data.");
-				success = false;
-			} else {
-				int receiptCount = Receipt.getAllReceipts().size();
-				System.out.println(receiptCount + " Receipt(s) loaded successfully.");
-			}
+	/**
+	 * Reports unresolved references straight away for a reader called on its own;
+	 * the load-session table is reported once by {@link #readAllData(String)}.
+	 *
+	 * @param symbols the table the reader used
+	 */
+	private static void finishSymbols(LoadSymbolTable symbols) {
+		if (symbols != loadSymbols) {
+			symbols.printReport();
 		}
+	}
 
-		// Enquiries
-		File enquiryFile = new File(dataPath + ENQUIRY_FILE);
-		if (!enquiryFile.exists()) {
-			System.out.println("Warning: Enquiry data file not found: " + enquiryFile.getPath());
-		} else {
-			if (!readEnquiryData(enquiryFile.getPath())) {
-				System.out.println("Failed to read enquiry data.");
-				success = false;
+	/**
+	 * One node of the load dependency graph: a data file, the reader that loads it,
+	 * and the names of the stages that must finish first.
+	 */
+	private static class LoadStage {
+		private final String name;
+		private final String fileName;
+		private final Predicate<String> reader;
+		private final IntSupplier counter;
+		private final String[] dependencies;
+
+		private boolean loaded;
+		private boolean succeeded = true;
+		private int records;
+		private long millis;
+		private String status = "Skipped";
+
+		LoadStage(String name, String fileName, Predicate<String> reader, IntSupplier counter, String... dependencies) {
+			this.name = name;
+			this.fileName = fileName;
+			this.reader = reader;
+			this.counter = counter;
+			this.dependencies = dependencies;
+		}
+
+		/**
+		 * Reads the stage's file and records its timing and outcome.
+		 */
+		void run(String dataPath) {
+			File file = new File(dataPath + fileName);
+			if (!file.exists()) {
+				System.out.println("Warning: " + name + " data file not found: " + file.getPath());
+				status = "Missing";
+				return;
+			}
+
+			long start = System.nanoTime();
+			boolean ok;
+			try {
+				ok = reader.test(file.getPath());
+			} catch (RuntimeException e) {
+				System.out.println("Error reading " + name + " data: " + e.getMessage());
+				ok = false;
+			}
+			millis = (System.nanoTime() - start) / 1_000_000;
+
+			if (ok) {
+				loaded = true;
+				records = counter.getAsInt();
+				status = "Loaded";
 			} else {
-				int enquiryCount = Enquiry.getAllEnquiries().size();
-				System.out.println(enquiryCount + " Enquiry(s) loaded successfully.");
+				System.out.println("Failed to read " + name + " data. Some data dependencies may fail.");
+				succeeded = false;
+				status = "Failed";
 			}
 		}
-
-		return success;
 	}
-}
\ No newline at end of file
+}
@@ -0,0 +1,735 @@
+package utils;
+
+import entity.*;
+import enums.*;
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.Supplier;
+
+/**
+ * Append-only journal of the changes made through the controllers.
+ *
+ * <p>Instead of rewriting whole CSV files after every change, each controller
+ * mutation appends one record per changed entity to {@code journal.log} in the
+ * data folder. At startup the journal is replayed on top of the data loaded from
+ * the CSV files or the snapshot, and a background task periodically folds the
+ * journal back into the full files.</p>
+ *
+ * <h2>Record Format:</h2>
+ * <p>Each record is one CSV line: the record type, the operation, the key of the
+ * entity, and for {@code PUT} records the entity's row in the same layout as its
+ * data file. Project records additionally carry the available units of both flat
+ * types and the visibility, which the project file does not store.</p>
+ * <pre>
+ * BTO_APPLICATION,PUT,BTO-APP-1,BTO-APP-1,2025-03-15,Grace,test1,TWO_ROOM,SUCCESSFUL,NA
+ * ENQUIRY,DELETE,ENQ-1
+ * </pre>
+ *
+ * <p>A {@code PUT} record carries the full current state of the entity, so
+ * replaying a record that is already reflected in the data files is harmless.
+ * The key is the one the entity had before the change, which lets a record
+ * describe a renamed project or a changed NRIC.</p>
+ *
+ * <h2>Compaction:</h2>
+ * <p>Recording a change also marks the entity as changed in its database. When
+ * {@link AutoSaveScheduler} saves, or once the journal reaches
+ * {@link ApplicationConstants#JOURNAL_COMPACTION_THRESHOLD} records, the journal is
+ * renamed to {@code journal.log.old}, the changed data files and the snapshot are
+ * written, and the old journal is deleted. If the program
+ * stops before that finishes, the old journal is replayed before the current one
+ * on the next start.</p>
+ *
+ * @author BTO Management System Team
+ * @version 2.0
+ * @since 2.0
+ * @see FileHandler
+ * @see SnapshotHandler
+ */
+public class Journal {
+
+	/**
+	 * Kinds of entity a journal record can describe.
+	 */
+	private enum RecordType {
+		APPLICANT, OFFICER, MANAGER, PROJECT, BTO_APPLICATION, OFFICER_APPLICATION, BOOKING, RECEIPT, ENQUIRY
+	}
+
+	private static final String PUT = "PUT";
+	private static final String DELETE = "DELETE";
+
+	private static final Object lock = new Object();
+	private static final Object checkpointLock = new Object();
+	private static String dataPath;
+	private static Writer writer;
+	private static int recordCount;
+	private static ExecutorService compactor;
+	private static Future<?> pendingCompaction;
+
+	/**
+	 * Private constructor to prevent instantiation of this utility class.
+	 */
+	private Journal() {
+	}
+
+	// ============================================================================
+	// LIFECYCLE
+	// ============================================================================
+
+	/**
+	 * Replays any existing journal on top of the loaded data and starts appending to it.
+	 * Must be called after the databases have been loaded.
+	 *
+	 * @param path the data folder holding the journal
+	 * @return true if the journal is open for appending
+	 */
+	public static boolean open(String path) {
+		int replayed = 0;
+		synchronized (lock) {
+			if (writer != null) {
+				return true;
+			}
+			dataPath = path;
+			try {
+				LoadSymbolTable symbols = FileHandler.symbols();
+				replayed += replay(oldJournalFile(), symbols);
+				replayed += replay(journalFile(), symbols);
+				symbols.printReport();
+				if (replayed > 0) {
+					System.out.println("Replayed " + replayed + " journal records.");
+				}
+
+				writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(journalFile(), true), StandardCharsets.UTF_8));
+				recordCount = replayed;
+				compactor = Executors.newSingleThreadExecutor(runnable -> {
+					Thread thread = new Thread(runnable, "journal-compactor");
+					thread.setDaemon(true);
+					return thread;
+				});
+			} catch (Exception e) {
+				System.out.println("Error opening journal: " + e.getMessage());
+				writer = null;
+				return false;
+			}
+		}
+		if (replayed > 0) {
+			compact(true);
+		}
+		return true;
+	}
+
+	/**
+	 * Flushes and closes the journal, waiting for a running compaction to finish.
+	 */
+	public static void close() {
+		Future<?> compaction;
+		synchronized (lock) {
+			if (writer == null) {
+				return;
+			}
+			try {
+				writer.close();
+			} catch (IOException e) {
+				System.out.println("Error closing journal: " + e.getMessage());
+			}
+			writer = null;
+			compaction = pendingCompaction;
+			compactor.shutdown();
+		}
+		if (compaction != null) {
+			try {
+				compaction.get();
+			} catch (Exception e) {
+				// Compaction reports its own failures; the old journal is replayed next time
+			}
+		}
+	}
+
+	// ============================================================================
+	// RECORDING
+	// ============================================================================
+
+	/**
+	 * Records the current state of one or more entities and marks them as changed
+	 * in their databases. Nothing is appended if the journal has not been opened.
+	 *
+	 * @param entities the changed entities
+	 */
+	public static void recordPut(Object... entities) {
+		for (Object entity : entities) {
+			if (entity != null) {
+				markModified(entity);
+			}
+		}
+		if (writer == null) {
+			return;
+		}
+		int count = 0;
+		for (Object entity : entities) {
+			if (entity != null) {
+				count++;
+			}
+		}
+		append(count, () -> {
+			StringBuilder records = new StringBuilder();
+			for (Object entity : entities) {
+				if (entity != null) {
+					records.append(typeOf(entity)).append(',').append(PUT).append(',')
+							.append(CsvTokenizer.escape(keyOf(entity))).append(',').append(rowOf(entity)).append('\n');
+				}
+			}
+			return records.toString();
+		});
+	}
+
+	/**
+	 * Records the current state of a user or project whose NRIC or name may have
+	 * changed. The files that refer to it by name are marked for rewriting.
+	 *
+	 * @param previousKey the key before the change
+	 * @param entity the changed entity
+	 */
+	public static void recordRename(String previousKey, Object entity) {
+		markModified(entity);
+		markReferencesStale(entity);
+		if (writer == null) {
+			return;
+		}
+		append(1, () -> typeOf(entity) + "," + PUT + "," + CsvTokenizer.escape(previousKey) + "," + rowOf(entity) + "\n");
+	}
+
+	/**
+	 * Records that an entity has been removed.
+	 *
+	 * @param entity the removed entity
+	 */
+	public static void recordDelete(Object entity) {
+		if (writer == null) {
+			return;
+		}
+		append(1, () -> typeOf(entity) + "," + DELETE + "," + CsvTokenizer.escape(keyOf(entity)) + "\n");
+	}
+
+	/**
+	 * Folds the journal back into the data files on the background thread, writing
+	 * only the files that changed. Does nothing if a compaction is already running.
+	 */
+	public static void compact() {
+		compact(false);
+	}
+
+	/**
+	 * Folds the journal back into the data files on the background thread.
+	 * Replayed records are not tracked as changes, so after a replay every
+	 * file is rewritten.
+	 */
+	private static void compact(boolean rewriteAll) {
+		synchronized (lock) {
+			if (writer == null || (pendingCompaction != null && !pendingCompaction.isDone())) {
+				return;
+			}
+			String path = dataPath;
+			pendingCompaction = compactor.submit(() -> {
+				try {
+					checkpoint(path, rewriteAll);
+				} catch (Exception e) {
+					System.out.println("Error compacting journal: " + e.getMessage());
+				}
+			});
+		}
+	}
+
+	/**
+	 * Writes the changed data files and the snapshot on the calling thread, then
+	 * discards the journal records they cover. Checkpoints never overlap.
+	 *
+	 * @param path the data folder
+	 * @param rewriteAll whether to rewrite every data file rather than only the changed ones
+	 * @throws IOException if the data files cannot be written; the journal is then kept
+	 */
+	static void checkpoint(String path, boolean rewriteAll) throws IOException {
+		synchronized (checkpointLock) {
+			boolean rotated = false;
+			synchronized (lock) {
+				if (writer != null && (recordCount > 0 || oldJournalFile().exists())) {
+					rotate();
+					rotated = true;
+				}
+			}
+			if (rewriteAll) {
+				FileHandler.writeAllFiles(path);
+			} else {
+				FileHandler.writeChangedFiles(path);
+			}
+			SnapshotHandler.writeSnapshot(path);
+			if (rotated) {
+				Files.deleteIfExists(new File(path, ApplicationConstants.JOURNAL_FILE + ".old").toPath());
+			}
+		}
+	}
+
+	private static void append(int count, Supplier<String> records) {
+		if (count == 0) {
+			return;
+		}
+		boolean compactNow;
+		synchronized (lock) {
+			if (writer == null) {
+				return;
+			}
+			try {
+				// Built under the lock, so the last record of an entity holds its latest state
+				writer.write(records.get());
+				writer.flush();
+			} catch (IOException e) {
+				System.out.println("Error writing journal: " + e.getMessage());
+				return;
+			}
+			recordCount += count;
+			compactNow = recordCount >= ApplicationConstants.JOURNAL_COMPACTION_THRESHOLD;
+		}
+		if (compactNow) {
+			compact();
+		}
+	}
+
+	/**
+	 * Moves the current journal aside and starts a new one. If an earlier
+	 * compaction left an old journal behind, the current one is appended to it.
+	 * Must be called while holding the lock.
+	 */
+	private static void rotate() throws IOException {
+		writer.close();
+		File current = journalFile();
+		File old = oldJournalFile();
+		if (old.exists()) {
+			Files.write(old.toPath(), Files.readAllBytes(current.toPath()), StandardOpenOption.APPEND);
+			Files.delete(current.toPath());
+		} else {
+			Files.move(current.toPath(), old.toPath(), StandardCopyOption.ATOMIC_MOVE);
+		}
+		writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(current, true), StandardCharsets.UTF_8));
+		recordCount = 0;
+	}
+
+	private static File journalFile() {
+		return new File(dataPath, ApplicationConstants.JOURNAL_FILE);
+	}
+
+	private static File oldJournalFile() {
+		return new File(dataPath, ApplicationConstants.JOURNAL_FILE + ".old");
+	}
+
+	// ============================================================================
+	// ENTITY MAPPING
+	// ============================================================================
+
+	private static String typeOf(Object entity) {
+		// Officer extends Applicant, so it must be checked first
+		if (entity instanceof Officer) return RecordType.OFFICER.name();
+		if (entity instanceof Applicant) return RecordType.APPLICANT.name();
+		if (entity instanceof Manager) return RecordType.MANAGER.name();
+		if (entity instanceof Project) return RecordType.PROJECT.name();
+		if (entity instanceof BTOApplication) return RecordType.BTO_APPLICATION.name();
+		if (entity instanceof OfficerApplication) return RecordType.OFFICER_APPLICATION.name();
+		if (entity instanceof Booking) return RecordType.BOOKING.name();
+		if (entity instanceof Receipt) return RecordType.RECEIPT.name();
+		if (entity instanceof Enquiry) return RecordType.ENQUIRY.name();
+		throw new IllegalArgumentException("Cannot journal " + entity.getClass().getSimpleName());
+	}
+
+	private static String keyOf(Object entity) {
+		if (entity instanceof User) return ((User) entity).getNric();
+		if (entity instanceof Project) return ((Project) entity).getProjectName();
+		if (entity instanceof BTOApplication) return ((BTOApplication) entity).getApplicationID();
+		if (entity instanceof OfficerApplication) return ((OfficerApplication) entity).getOfficerApplicationID();
+		if (entity instanceof Booking) return ((Booking) entity).getBookingID();
+		if (entity instanceof Receipt) return ((Receipt) entity).getReceiptNumber();
+		return ((Enquiry) entity).getEnquiryID();
+	}
+
+	private static void markModified(Object entity) {
+		if (entity instanceof Officer) {
+			if (Officer.getOfficerDatabase() != null) Officer.getOfficerDatabase().getChanges().markModified((Officer) entity);
+		} else if (entity instanceof Applicant) {
+			if (Applicant.getDatabase() != null) Applicant.getDatabase().getChanges().markModified((Applicant) entity);
+		} else if (entity instanceof Manager) {
+			if (Manager.getDatabase() != null) Manager.getDatabase().getChanges().markModified((Manager) entity);
+		} else if (entity instanceof Project) {
+			if (Project.getDatabase() != null) Project.getDatabase().getChanges().markModified((Project) entity);
+		} else if (entity instanceof BTOApplication) {
+			if (BTOApplication.getDatabase() != null) BTOApplication.getDatabase().getChanges().markModified((BTOApplication) entity);
+		} else if (entity instanceof OfficerApplication) {
+			if (OfficerApplication.getDatabase() != null) OfficerApplication.getDatabase().getChanges().markModified((OfficerApplication) entity);
+		} else if (entity instanceof Booking) {
+			if (Booking.getDatabase() != null) Booking.getDatabase().getChanges().markModified((Booking) entity);
+		} else if (entity instanceof Receipt) {
+			if (Receipt.getDatabase() != null) Receipt.getDatabase().getChanges().markModified((Receipt) entity);
+		} else if (entity instanceof Enquiry) {
+			if (Enquiry.getDatabase() != null) Enquiry.getDatabase().getChanges().markModified((Enquiry) entity);
+		}
+	}
+
+	/**
+	 * Marks the files whose rows name the given user or project for rewriting.
+	 */
+	private static void markReferencesStale(Object entity) {
+		if (entity instanceof User) {
+			if (Project.getDatabase() != null) Project.getDatabase().getChanges().markStale();
+			if (Booking.getDatabase() != null) Booking.getDatabase().getChanges().markStale();
+		}
+		if (entity instanceof User || entity instanceof Project) {
+			if (BTOApplication.getDatabase() != null) BTOApplication.getDatabase().getChanges().markStale();
+			if (OfficerApplication.getDatabase() != null) OfficerApplication.getDatabase().getChanges().markStale();
+			if (Enquiry.getDatabase() != null) Enquiry.getDatabase().getChanges().markStale();
+		}
+	}
+
+	private static String rowOf(Object entity) {
+		if (entity instanceof User) return FileHandler.formatUserRow((User) entity);
+		if (entity instanceof Project) {
+			Project project = (Project) entity;
+			ArrayList<FlatType> flatTypes = project.getFlatTypes();
+			return FileHandler.formatProjectRow(project) + "," +
+					(flatTypes.size() > 0 ? flatTypes.get(0).getAvailableUnits() : "") + "," +
+					(flatTypes.size() > 1 ? flatTypes.get(1).getAvailableUnits() : "") + "," +
+					(project.getVisibility() != null ? project.getVisibility().name() : "");
+		}
+		if (entity instanceof BTOApplication) return FileHandler.formatBTOApplicationRow((BTOApplication) entity);
+		if (entity instanceof OfficerApplication) return FileHandler.formatOfficerApplicationRow((OfficerApplication) entity);
+		if (entity instanceof Booking) return FileHandler.formatBookingRow((Booking) entity);
+		if (entity instanceof Receipt) return FileHandler.formatReceiptRow((Receipt) entity);
+		return FileHandler.formatEnquiryRow((Enquiry) entity);
+	}
+
+	// ============================================================================
+	// REPLAY
+	// ============================================================================
+
+	/**
+	 * Applies every record of a journal file to the databases.
+	 *
+	 * @return the number of records applied
+	 */
+	private static int replay(File file, LoadSymbolTable symbols) throws IOException {
+		if (!file.exists()) {
+			return 0;
+		}
+		int applied = 0;
+		try (CsvTokenizer tokenizer = new CsvTokenizer(new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8))) {
+			while (tokenizer.nextRecord()) {
+				if (tokenizer.getFieldCount() < 3) {
+					continue; // blank or torn final line
+				}
+				String[] row = new String[tokenizer.getFieldCount() - 3];
+				for (int i = 0; i < row.length; i++) {
+					row[i] = tokenizer.getField(i + 3).trim();
+				}
+				try {
+					RecordType type = RecordType.valueOf(tokenizer.getField(0).trim());
+					boolean delete = DELETE.equals(tokenizer.getField(1).trim());
+					apply(type, delete, tokenizer.getField(2).trim(), row, symbols, file.getName(), tokenizer.getRecordNumber());
+					applied++;
+				} catch (RuntimeException e) {
+					System.out.println("Skipping journal record " + tokenizer.getRecordNumber() + " of " + file.getName() + ": " + e.getMessage());
+				}
+			}
+		}
+		return applied;
+	}
+
+	private static void apply(RecordType type, boolean delete, String key, String[] row, LoadSymbolTable symbols, String fileName, long recordNumber) {
+		switch (type) {
+			case APPLICANT:
+			case OFFICER:
+			case MANAGER:
+				applyUser(type, delete, key, row, symbols);
+				break;
+			case PROJECT:
+				applyProject(delete, key, row, symbols, fileName, recordNumber);
+				break;
+			case BTO_APPLICATION:
+				applyBTOApplication(delete, key, row, symbols, fileName, recordNumber);
+				break;
+			case OFFICER_APPLICATION:
+				applyOfficerApplication(delete, key, row, symbols, fileName, recordNumber);
+				break;
+			case BOOKING:
+				applyBooking(delete, key, row, symbols, fileName, recordNumber);
+				break;
+			case RECEIPT:
+				applyReceipt(delete, key, row, symbols, fileName, recordNumber);
+				break;
+			case ENQUIRY:
+				applyEnquiry(delete, key, row, symbols, fileName, recordNumber);
+				break;
+		}
+	}
+
+	private static void applyUser(RecordType type, boolean delete, String key, String[] row, LoadSymbolTable symbols) {
+		User user = userOfType(type, symbols.user(key));
+		if (user == null && !delete) {
+			user = userOfType(type, symbols.user(row[1]));
+		}
+
+		if (delete) {
+			if (user != null) {
+				symbols.forgetUser(user);
+				if (user instanceof Officer) Officer.removeFromDatabase((Officer) user);
+				else if (user instanceof Manager) Manager.removeFromDatabase((Manager) user);
+				else Applicant.removeFromDatabase((Applicant) user);
+			}
+			return;
+		}
+
+		if (user == null) {
+			if (type == RecordType.OFFICER) {
+				user = new Officer();
+				Officer.addToDatabase((Officer) user);
+			} else if (type == RecordType.MANAGER) {
+				user = new Manager();
+				Manager.addToDatabase((Manager) user);
+			} else {
+				user = new Applicant();
+				Applicant.addToDatabase((Applicant) user);
+			}
+		} else {
+			symbols.forgetUser(user);
+		}
+		user.setName(row[0]);
+		user.setNric(row[1]);
+		user.setAge(Integer.parseInt(row[2]));
+		user.setMaritalStatus(FileHandler.parseMaritalStatus(row[3]));
+		user.setPassword(row[4]);
+
+		if (user instanceof Officer) symbols.registerOfficers(List.of((Officer) user));
+		else if (user instanceof Manager) symbols.registerManagers(List.of((Manager) user));
+		else symbols.registerApplicants(List.of((Applicant) user));
+	}
+
+	private static User userOfType(RecordType type, User user) {
+		if (user == null) return null;
+		switch (type) {
+			case OFFICER: return user instanceof Officer ? user : null;
+			case MANAGER: return user instanceof Manager ? user : null;
+			default: return user instanceof Applicant && !(user instanceof Officer) ? user : null;
+		}
+	}
+
+	private static void applyProject(boolean delete, String key, String[] row, LoadSymbolTable symbols, String fileName, long recordNumber) {
+		Project project = symbols.project(key);
+		if (project == null && !delete) {
+			project = symbols.project(row[0]);
+		}
+
+		if (delete) {
+			if (project != null) {
+				symbols.forgetProject(project);
+				Project.removeFromDatabase(project);
+			}
+			return;
+		}
+
+		if (project == null) {
+			project = new Project();
+			Project.addToDatabase(project);
+		} else {
+			symbols.forgetProject(project);
+		}
+		project.setProjectName(row[0]);
+		project.setNeighborhood(row[1]);
+
+		ArrayList<FlatType> flatTypes = new ArrayList<>();
+		for (int i = 0; i < 2; i++) {
+			if (!row[2 + i * 3].isEmpty() && !row[3 + i * 3].isEmpty()) {
+				FlatType flatType = new FlatType();
+				flatType.setType(FileHandler.parseFlatType(row[2 + i * 3]));
+				flatType.setNumUnits(Integer.parseInt(row[3 + i * 3]));
+				flatType.setSellingPrice(Double.parseDouble(row[4 + i * 3]));
+				String available = row.length > 13 + i ? row[13 + i] : "";
+				flatType.setAvailableUnits(available.isEmpty() ? flatType.getNumUnits() : Integer.parseInt(available));
+				flatTypes.add(flatType);
+			}
+		}
+		project.setFlatTypes(flatTypes);
+		project.setApplicationStartDate(LocalDate.parse(row[8]));
+		project.setApplicationEndDate(LocalDate.parse(row[9]));
+
+		Manager manager = row[10].isEmpty() ? null : symbols.track(symbols.manager(row[10]), fileName, recordNumber, "manager", row[10]);
+		project.setManager(manager);
+		if (manager != null && !manager.getManagedProjects().contains(project)) {
+			manager.getManagedProjects().add(project);
+		}
+		project.setOfficerSlots(Integer.parseInt(row[11]));
+
+		// Bring the assigned officers in line with the record, keeping both sides linked
+		ArrayList<Officer> officers = new ArrayList<>();
+		if (row.length > 12 && !row[12].isEmpty()) {
+			for (String officerName : row[12].split(",")) {
+				Officer officer = symbols.track(symbols.officer(officerName.trim()), fileName, recordNumber, "officer", officerName.trim());
+				if (officer != null) {
+					officers.add(officer);
+				}
+			}
+		}
+		for (Officer officer : new ArrayList<>(project.getAssignedOfficers())) {
+			if (!officers.contains(officer)) {
+				officer.unassignFromProject(project);
+				project.unassignOfficer(officer);
+			}
+		}
+		for (Officer officer : officers) {
+			officer.assignToProject(project);
+		}
+
+		if (row.length > 15 && !row[15].isEmpty()) {
+			project.setVisibility(VisibilityEnum.valueOf(row[15]));
+		}
+		symbols.registerProjects(List.of(project));
+	}
+
+	private static void applyBTOApplication(boolean delete, String key, String[] row, LoadSymbolTable symbols, String fileName, long recordNumber) {
+		BTOApplication application = symbols.application(key);
+		if (delete) {
+			if (application != null) {
+				symbols.forgetApplication(application);
+				BTOApplication.removeFromDatabase(application);
+				if (application.getApplicant() != null) {
+					application.getApplicant().getApplications().remove(application);
+				}
+			}
+			return;
+		}
+
+		if (application == null) {
+			Applicant applicant = symbols.track(symbols.applicant(row[2]), fileName, recordNumber, "applicant", row[2]);
+			Project project = symbols.track(symbols.project(row[3]), fileName, recordNumber, "project", row[3]);
+			if (applicant == null || project == null) return;
+
+			application = new BTOApplication(row[0], null, project, FlatTypeEnum.valueOf(row[4]));
+			application.setApplicant(applicant);
+			applicant.addApplication(application);
+			BTOApplication.addToDatabase(application);
+			symbols.registerApplications(List.of(application));
+		}
+		application.setApplicationDate(LocalDate.parse(row[1]));
+		application.setFlatType(FlatTypeEnum.valueOf(row[4]));
+		application.setStatus(BTOApplicationStatusEnum.valueOf(row[5]));
+		application.setWithdrawalStatus(WithdrawalStatusEnum.valueOf(row[6]));
+	}
+
+	private static void applyOfficerApplication(boolean delete, String key, String[] row, LoadSymbolTable symbols, String fileName, long recordNumber) {
+		OfficerApplication officerApplication = symbols.officerApplication(key);
+		if (delete) {
+			if (officerApplication != null) {
+				symbols.forgetOfficerApplication(officerApplication);
+				OfficerApplication.removeFromDatabase(officerApplication);
+				if (officerApplication.getOfficer() != null) {
+					officerApplication.getOfficer().getOfficerApplications().remove(officerApplication);
+				}
+			}
+			return;
+		}
+
+		if (officerApplication == null) {
+			Officer officer = symbols.track(symbols.officer(row[2]), fileName, recordNumber, "officer", row[2]);
+			Project project = symbols.track(symbols.project(row[3]), fileName, recordNumber, "project", row[3]);
+			if (officer == null || project == null) return;
+
+			officerApplication = new OfficerApplication(row[0], LocalDate.parse(row[1]), officer, project, OfficerApplicationStatusEnum.valueOf(row[4]));
+			officer.addOfficerApplication(officerApplication);
+			OfficerApplication.addToDatabase(officerApplication);
+			symbols.registerOfficerApplications(List.of(officerApplication));
+		}
+		officerApplication.setApplicationDate(LocalDate.parse(row[1]));
+		officerApplication.setStatus(OfficerApplicationStatusEnum.valueOf(row[4]));
+	}
+
+	private static void applyBooking(boolean delete, String key, String[] row, LoadSymbolTable symbols, String fileName, long recordNumber) {
+		Booking booking = symbols.booking(key);
+		if (delete) {
+			if (booking != null) {
+				symbols.forgetBooking(booking);
+				Booking.removeFromDatabase(booking);
+				if (booking.getApplication() != null && booking.getApplication().getApplicant() != null) {
+					booking.getApplication().getApplicant().getBookings().remove(booking);
+				}
+			}
+			return;
+		}
+
+		if (booking == null) {
+			BTOApplication application = symbols.track(symbols.application(row[2]), fileName, recordNumber, "BTO application", row[2]);
+			if (application == null) return;
+
+			booking = new Booking(row[0], LocalDate.parse(row[1]), application, null, FlatTypeEnum.valueOf(row[4]), BookingStatusEnum.valueOf(row[5]));
+			if (application.getApplicant() != null) {
+				application.getApplicant().addBooking(booking);
+			}
+			Booking.addToDatabase(booking);
+			symbols.registerBookings(List.of(booking));
+		}
+		booking.setBookingDateTime(LocalDate.parse(row[1]));
+		booking.setProcessingOfficer(row[3].isEmpty() ? null : symbols.track(symbols.officer(row[3]), fileName, recordNumber, "officer", row[3]));
+		booking.setFlatType(FlatTypeEnum.valueOf(row[4]));
+		booking.setStatus(BookingStatusEnum.valueOf(row[5]));
+	}
+
+	private static void applyReceipt(boolean delete, String key, String[] row, LoadSymbolTable symbols, String fileName, long recordNumber) {
+		Receipt receipt = symbols.receipt(key);
+		if (delete) {
+			if (receipt != null) {
+				symbols.forgetReceipt(receipt);
+				Receipt.removeFromDatabase(receipt);
+			}
+			return;
+		}
+
+		if (receipt == null) {
+			Booking booking = symbols.track(symbols.bookingForApplication(row[2]), fileName, recordNumber, "booking for application", row[2]);
+			if (booking == null) return;
+
+			receipt = new Receipt(row[0], LocalDate.parse(row[1]), booking);
+			Receipt.addToDatabase(receipt);
+			symbols.registerReceipts(List.of(receipt));
+		}
+		receipt.setDate(LocalDate.parse(row[1]));
+	}
+
+	private static void applyEnquiry(boolean delete, String key, String[] row, LoadSymbolTable symbols, String fileName, long recordNumber) {
+		Enquiry enquiry = symbols.enquiry(key);
+		if (delete) {
+			if (enquiry != null) {
+				symbols.forgetEnquiry(enquiry);
+				Enquiry.removeFromDatabase(enquiry);
+				if (enquiry.getSubmittedBy() != null) {
+					enquiry.getSubmittedBy().getEnquiries().remove(enquiry);
+				}
+			}
+			return;
+		}
+
+		if (enquiry == null) {
+			Applicant submittedBy = symbols.track(symbols.applicant(row[5]), fileName, recordNumber, "applicant", row[5]);
+			Project project = symbols.track(symbols.project(row[6]), fileName, recordNumber, "project", row[6]);
+			if (submittedBy == null || project == null) return;
+
+			enquiry = new Enquiry();
+			enquiry.setEnquiryID(row[0]);
+			enquiry.setSubmittedBy(submittedBy);
+			enquiry.setProject(project);
+			submittedBy.addEnquiry(enquiry);
+			Enquiry.addToDatabase(enquiry);
+			symbols.registerEnquiries(List.of(enquiry));
+		}
+		enquiry.setDateTime(LocalDate.parse(row[1]));
+		enquiry.setContent(row[2]);
+		enquiry.setReply(row[3]);
+		enquiry.setReplyDate(FileHandler.parseOptionalDate(row[4]));
+		enquiry.setStatus(EnquiryStatusEnum.valueOf(row[7]));
+		enquiry.setRespondent(row[8].isEmpty() ? null : symbols.track(symbols.respondent(row[8]), fileName, recordNumber, "respondent", row[8]));
+	}
+}
@@ -0,0 +1,328 @@
+package utils;
+
+import entity.*;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Symbol table used while loading the CSV data files.
+ *
+ * <p>The CSV files refer to each other by manager, officer and applicant name,
+ * by project name and by BTO application ID. Instead of scanning the loaded
+ * lists for every reference, each reader registers the entities it produced here
+ * once, and later readers resolve their references with hash lookups.</p>
+ *
+ * <p>The first entity registered under a key wins, matching the first-match
+ * behaviour of the entity finders. References that cannot be resolved are
+ * collected and reported once loading finishes.</p>
+ *
+ * <p>The maps are concurrent because independent files are loaded on separate
+ * threads by {@link FileHandler#readAllData(String)}. {@link Journal} replay
+ * uses the same table to find the entities its records refer to, and keeps it
+ * up to date with the forget methods when keys change.</p>
+ *
+ * @author BTO Management System Team
+ * @version 2.0
+ * @since 2.0
+ * @see FileHandler
+ */
+class LoadSymbolTable {
+
+	private final Map<String, Manager> managersByName = new ConcurrentHashMap<>();
+	private final Map<String, Officer> officersByName = new ConcurrentHashMap<>();
+	private final Map<String, Applicant> applicantsByName = new ConcurrentHashMap<>();
+	private final Map<String, User> usersByNric = new ConcurrentHashMap<>();
+	private final Map<String, Project> projectsByName = new ConcurrentHashMap<>();
+	private final Map<String, BTOApplication> applicationsByID = new ConcurrentHashMap<>();
+	private final Map<String, Booking> bookingsByApplicationID = new ConcurrentHashMap<>();
+	private final Map<String, Booking> bookingsByID = new ConcurrentHashMap<>();
+	private final Map<String, OfficerApplication> officerApplicationsByID = new ConcurrentHashMap<>();
+	private final Map<String, Receipt> receiptsByNumber = new ConcurrentHashMap<>();
+	private final Map<String, Enquiry> enquiriesByID = new ConcurrentHashMap<>();
+	private final Queue<Unresolved> unresolved = new ConcurrentLinkedQueue<>();
+
+	// ============================================================================
+	// REGISTRATION
+	// ============================================================================
+
+	void registerManagers(Collection<Manager> managers) {
+		for (Manager manager : managers) {
+			putIfPresent(managersByName, manager.getName(), manager);
+			putIfPresent(usersByNric, manager.getNric(), manager);
+		}
+	}
+
+	void registerOfficers(Collection<Officer> officers) {
+		for (Officer officer : officers) {
+			putIfPresent(officersByName, officer.getName(), officer);
+			putIfPresent(usersByNric, officer.getNric(), officer);
+		}
+	}
+
+	void registerApplicants(Collection<Applicant> applicants) {
+		for (Applicant applicant : applicants) {
+			putIfPresent(applicantsByName, applicant.getName(), applicant);
+			putIfPresent(usersByNric, applicant.getNric(), applicant);
+		}
+	}
+
+	void registerProjects(Collection<Project> projects) {
+		for (Project project : projects) {
+			putIfPresent(projectsByName, project.getProjectName(), project);
+		}
+	}
+
+	void registerApplications(Collection<BTOApplication> applications) {
+		for (BTOApplication application : applications) {
+			putIfPresent(applicationsByID, application.getApplicationID(), application);
+		}
+	}
+
+	void registerBookings(Collection<Booking> bookings) {
+		for (Booking booking : bookings) {
+			putIfPresent(bookingsByID, booking.getBookingID(), booking);
+			if (booking.getApplication() != null) {
+				putIfPresent(bookingsByApplicationID, booking.getApplication().getApplicationID(), booking);
+			}
+		}
+	}
+
+	void registerOfficerApplications(Collection<OfficerApplication> officerApplications) {
+		for (OfficerApplication officerApplication : officerApplications) {
+			putIfPresent(officerApplicationsByID, officerApplication.getOfficerApplicationID(), officerApplication);
+		}
+	}
+
+	void registerReceipts(Collection<Receipt> receipts) {
+		for (Receipt receipt : receipts) {
+			putIfPresent(receiptsByNumber, receipt.getReceiptNumber(), receipt);
+		}
+	}
+
+	void registerEnquiries(Collection<Enquiry> enquiries) {
+		for (Enquiry enquiry : enquiries) {
+			putIfPresent(enquiriesByID, enquiry.getEnquiryID(), enquiry);
+		}
+	}
+
+	/**
+	 * Removes a user from the name and NRIC maps, e.g. before its name or NRIC changes.
+	 * Entries that belong to other users are left untouched.
+	 */
+	void forgetUser(User user) {
+		removeIfMapped(managersByName, user.getName(), user);
+		removeIfMapped(officersByName, user.getName(), user);
+		removeIfMapped(applicantsByName, user.getName(), user);
+		removeIfMapped(usersByNric, user.getNric(), user);
+	}
+
+	/**
+	 * Removes a project from the name map, e.g. before it is renamed.
+	 */
+	void forgetProject(Project project) {
+		removeIfMapped(projectsByName, project.getProjectName(), project);
+	}
+
+	void forgetApplication(BTOApplication application) {
+		removeIfMapped(applicationsByID, application.getApplicationID(), application);
+	}
+
+	void forgetOfficerApplication(OfficerApplication officerApplication) {
+		removeIfMapped(officerApplicationsByID, officerApplication.getOfficerApplicationID(), officerApplication);
+	}
+
+	void forgetBooking(Booking booking) {
+		removeIfMapped(bookingsByID, booking.getBookingID(), booking);
+		if (booking.getApplication() != null) {
+			removeIfMapped(bookingsByApplicationID, booking.getApplication().getApplicationID(), booking);
+		}
+	}
+
+	void forgetReceipt(Receipt receipt) {
+		removeIfMapped(receiptsByNumber, receipt.getReceiptNumber(), receipt);
+	}
+
+	void forgetEnquiry(Enquiry enquiry) {
+		removeIfMapped(enquiriesByID, enquiry.getEnquiryID(), enquiry);
+	}
+
+	// ============================================================================
+	// LOOKUPS
+	// ============================================================================
+
+	Manager manager(String name) {
+		return name == null ? null : managersByName.get(name);
+	}
+
+	Officer officer(String name) {
+		return name == null ? null : officersByName.get(name);
+	}
+
+	/**
+	 * Resolves the submitter of an application or enquiry. Officers can also apply
+	 * as applicants but are kept in their own file, so they are checked second.
+	 */
+	Applicant applicant(String name) {
+		if (name == null) {
+			return null;
+		}
+		Applicant applicant = applicantsByName.get(name);
+		return applicant != null ? applicant : officersByName.get(name);
+	}
+
+	/**
+	 * Resolves the respondent of an enquiry, who may be a manager or an officer.
+	 */
+	User respondent(String name) {
+		if (name == null) {
+			return null;
+		}
+		Manager manager = managersByName.get(name);
+		return manager != null ? manager : officersByName.get(name);
+	}
+
+	User user(String nric) {
+		return nric == null ? null : usersByNric.get(nric);
+	}
+
+	Project project(String name) {
+		return name == null ? null : projectsByName.get(name);
+	}
+
+	BTOApplication application(String applicationID) {
+		return applicationID == null ? null : applicationsByID.get(applicationID);
+	}
+
+	Booking bookingForApplication(String applicationID) {
+		return applicationID == null ? null : bookingsByApplicationID.get(applicationID);
+	}
+
+	Booking booking(String bookingID) {
+		return bookingID == null ? null : bookingsByID.get(bookingID);
+	}
+
+	OfficerApplication officerApplication(String officerApplicationID) {
+		return officerApplicationID == null ? null : officerApplicationsByID.get(officerApplicationID);
+	}
+
+	Receipt receipt(String receiptNumber) {
+		return receiptNumber == null ? null : receiptsByNumber.get(receiptNumber);
+	}
+
+	Enquiry enquiry(String enquiryID) {
+		return enquiryID == null ? null : enquiriesByID.get(enquiryID);
+	}
+
+	// ============================================================================
+	// UNRESOLVED REFERENCES
+	// ============================================================================
+
+	/**
+	 * Records a reference that could not be resolved.
+	 *
+	 * @param fileName the file containing the reference
+	 * @param recordNumber the record number within the file, counting the header
+	 * @param kind what the reference points to, e.g. "project"
+	 * @param key the unresolved key
+	 */
+	void unresolved(String fileName, long recordNumber, String kind, String key) {
+		unresolved(fileName, ParallelCsvImporter.RecordOffset.NONE, recordNumber, kind, key);
+	}
+
+	/**
+	 * Records a reference that could not be resolved, in a chunk of a file that
+	 * is being imported in parallel. The record number within the file is worked
+	 * out when the report is printed, as the offset is only known by then.
+	 *
+	 * @param fileName the file containing the reference
+	 * @param offset the number of records in the file before the chunk
+	 * @param recordNumber the record number within the chunk
+	 * @param kind what the reference points to, e.g. "project"
+	 * @param key the unresolved key
+	 */
+	void unresolved(String fileName, ParallelCsvImporter.RecordOffset offset, long recordNumber, String kind, String key) {
+		unresolved.add(new Unresolved(fileName, offset, recordNumber, kind, key));
+	}
+
+	/**
+	 * Passes a lookup result through, recording it as unresolved when it is null.
+	 *
+	 * @param value the lookup result
+	 * @param fileName the file containing the reference
+	 * @param recordNumber the record number within the file, counting the header
+	 * @param kind what the reference points to, e.g. "project"
+	 * @param key the key that was looked up
+	 * @return the lookup result
+	 */
+	<T> T track(T value, String fileName, long recordNumber, String kind, String key) {
+		return track(value, fileName, ParallelCsvImporter.RecordOffset.NONE, recordNumber, kind, key);
+	}
+
+	/**
+	 * Passes a lookup result through, recording it as unresolved when it is null.
+	 *
+	 * @param value the lookup result
+	 * @param fileName the file containing the reference
+	 * @param offset the number of records in the file before the record's chunk
+	 * @param recordNumber the record number within the chunk
+	 * @param kind what the reference points to, e.g. "project"
+	 * @param key the key that was looked up
+	 * @return the lookup result
+	 */
+	<T> T track(T value, String fileName, ParallelCsvImporter.RecordOffset offset, long recordNumber, String kind, String key) {
+		if (value == null) {
+			unresolved(fileName, offset, recordNumber, kind, key);
+		}
+		return value;
+	}
+
+	/**
+	 * Prints every unresolved reference collected so far.
+	 */
+	void printReport() {
+		if (unresolved.isEmpty()) {
+			return;
+		}
+		System.out.println("Unresolved references (" + unresolved.size() + "):");
+		for (Unresolved entry : unresolved) {
+			System.out.println("  " + entry);
+		}
+	}
+
+	/**
+	 * A reference that could not be resolved.
+	 */
+	private static final class Unresolved {
+		private final String fileName;
+		private final ParallelCsvImporter.RecordOffset offset;
+		private final long recordNumber;
+		private final String kind;
+		private final String key;
+
+		Unresolved(String fileName, ParallelCsvImporter.RecordOffset offset, long recordNumber, String kind, String key) {
+			this.fileName = fileName;
+			this.offset = offset;
+			this.recordNumber = recordNumber;
+			this.kind = kind;
+			this.key = key;
+		}
+
+		@Override
+		public String toString() {
+			return fileName + " record " + (offset.get() + recordNumber) + ": unknown " + kind + " '" + key + "'";
+		}
+	}
+
+	private static <V> void removeIfMapped(Map<String, V> map, String key, Object value) {
+		if (key != null) {
+			map.remove(key, value);
+		}
+	}
+
+	private static <V> void putIfPresent(Map<String, V> map, String key, V value) {
+		if (key != null) {
+			map.putIfAbsent(key, value);
+		}
+	}
+}
@@ -0,0 +1,121 @@
+package utils;
+
+/**
+ * Packs an NRIC into a {@code long} so that it can be hashed and stored
+ * without a {@code String}.
+ *
+ * <p>An NRIC that passes {@link NricInputValidation} consists of a prefix
+ * letter, seven digits and a checksum letter. The codec numbers the prefix
+ * (S, T, F or G, in either case), the digits and the checksum letter (A-Z or
+ * a-z) and combines them into a single number below 2<sup>32</sup>. The
+ * encoding is exact, so two NRICs have the same code only if the strings are
+ * equal, and {@link #decode(long)} gives back the original string.</p>
+ *
+ * <p>Strings that do not pass validation, or that use non-ASCII digits or
+ * letters, have no code; {@link #encode(String)} returns {@link #NO_CODE} and
+ * callers keep using the string for those.</p>
+ *
+ * <h2>Usage Example:</h2>
+ * <pre>{@code
+ * long code = NricCodec.encode("S1234567A");
+ * if (code != NricCodec.NO_CODE) {
+ *     String nric = NricCodec.decode(code); // "S1234567A"
+ * }
+ * }</pre>
+ *
+ * @author BTO Management System Team
+ * @version 2.0
+ * @since 2.0
+ * @see NricInputValidation
+ * @see database.NricKeyedMap
+ */
+public class NricCodec {
+
+    /**
+     * Returned by {@link #encode(String)} for strings that cannot be encoded.
+     */
+    public static final long NO_CODE = -1L;
+
+    /**
+     * Prefix letters in the order they are numbered, upper case first.
+     */
+    private static final String PREFIXES = ApplicationConstants.VALID_NRIC_PREFIXES
+            + ApplicationConstants.VALID_NRIC_PREFIXES.toLowerCase();
+
+    private static final int DIGITS = 7;
+    private static final long DIGIT_RANGE = 10_000_000L;
+    private static final int SUFFIX_RANGE = 52;
+
+    private static final NricInputValidation validation = new NricInputValidation();
+
+    /**
+     * Private constructor to prevent instantiation of this utility class.
+     */
+    private NricCodec() {
+    }
+
+    /**
+     * Encodes an NRIC.
+     *
+     * @param nric the NRIC to encode
+     * @return the code, or {@link #NO_CODE} if the NRIC is invalid or not plain ASCII
+     */
+    public static long encode(String nric) {
+        if (!validation.validateInput(nric)) {
+            return NO_CODE;
+        }
+
+        int prefix = PREFIXES.indexOf(nric.charAt(0));
+        if (prefix < 0) {
+            return NO_CODE;
+        }
+
+        long digits = 0;
+        for (int i = 1; i <= DIGITS; i++) {
+            char c = nric.charAt(i);
+            if (c < '0' || c > '9') {
+                return NO_CODE;
+            }
+            digits = digits * 10 + (c - '0');
+        }
+
+        char last = nric.charAt(DIGITS + 1);
+        int suffix;
+        if (last >= 'A' && last <= 'Z') {
+            suffix = last - 'A';
+        } else if (last >= 'a' && last <= 'z') {
+            suffix = 26 + (last - 'a');
+        } else {
+            return NO_CODE;
+        }
+
+        return (prefix * DIGIT_RANGE + digits) * SUFFIX_RANGE + suffix;
+    }
+
+    /**
+     * Decodes a code produced by {@link #encode(String)}.
+     *
+     * @param code the code to decode
+     * @return the NRIC
+     * @throws IllegalArgumentException if the value is not a valid code
+     */
+    public static String decode(long code) {
+        if (code < 0 || code >= PREFIXES.length() * DIGIT_RANGE * SUFFIX_RANGE) {
+            throw new IllegalArgumentException("Not an NRIC code: " + code);
+        }
+
+        int suffix = (int) (code % SUFFIX_RANGE);
+        long rest = code / SUFFIX_RANGE;
+        long digits = rest % DIGIT_RANGE;
+        int prefix = (int) (rest / DIGIT_RANGE);
+
+        char[] chars = new char[ApplicationConstants.NRIC_LENGTH];
+        chars[0] = PREFIXES.charAt(prefix);
+        for (int i = DIGITS; i >= 1; i--) {
+            chars[i] = (char) ('0' + digits % 10);
+            digits /= 10;
+        }
+        chars[DIGITS + 1] = (char) (suffix < 26 ? 'A' + suffix : 'a' + (suffix - 26));
+        return new String(chars);
+    }
+}
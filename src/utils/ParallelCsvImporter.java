@@ -0,0 +1,337 @@
+package utils;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Parallel importer for very large CSV data files.
+ *
+ * <p>Bulk onboarding can produce applicant and application files of several
+ * gigabytes, which the streaming readers would parse on a single core. This
+ * importer memory-maps the file with a {@link FileChannel}, splits it into
+ * chunks on record boundaries and parses the chunks on the fork-join pool.</p>
+ *
+ * <h2>Splitting:</h2>
+ * <p>A line break only ends a record outside quoted fields, so a chunk boundary
+ * cannot be found by looking for the next line break alone. The importer first
+ * counts the quote characters of every nominal chunk in parallel; the running
+ * parity of those counts tells whether each nominal split point lies inside a
+ * quoted field. Each split point is then moved forward to just after the next
+ * LF that is outside quotes. Files using bare CR line endings therefore end up
+ * in a single chunk, which is still parsed correctly.</p>
+ *
+ * <h2>Parsing:</h2>
+ * <p>Each chunk is tokenized by its own {@link CsvTokenizer}, so quoting rules
+ * are exactly those of the streaming readers. Rows are turned into entities by
+ * the same row mapper the reader uses as soon as they are tokenized, so only
+ * the entities of a chunk are held rather than all of its rows. Until every
+ * chunk has been counted, a row's record number is only known within its
+ * chunk; the mapper is given the chunk's {@link RecordOffset}, which is filled
+ * in from the record counts of the earlier chunks once all chunks are parsed.
+ * The entities are returned in file order.</p>
+ *
+ * @author BTO Management System Team
+ * @version 2.0
+ * @since 2.0
+ * @see FileHandler#readApplicantData(String)
+ * @see FileHandler#readBTOApplicationData(String)
+ */
+class ParallelCsvImporter {
+
+	/**
+	 * Smallest and largest nominal chunk sizes. Chunks are mapped one at a time,
+	 * so the largest size also keeps every mapping well below the 2 GB limit.
+	 */
+	private static final long MIN_CHUNK_SIZE = 1024 * 1024;
+	private static final long MAX_CHUNK_SIZE = 64L * 1024 * 1024;
+
+	/**
+	 * Number of chunks per worker, so that uneven chunks still keep all workers busy.
+	 */
+	private static final int CHUNKS_PER_WORKER = 4;
+
+	private static final int SCAN_BUFFER_SIZE = 8 * 1024;
+
+	/**
+	 * Turns one row of the file into an entity.
+	 *
+	 * @param <T> the type of entity produced
+	 */
+	interface RowMapper<T> {
+
+		/**
+		 * @param row the fields of the row
+		 * @param offset the number of records in the file before the row's chunk,
+		 *               only known once the import has finished
+		 * @param recordNumber the one-based record number within the chunk,
+		 *                     counting the header in the first chunk
+		 * @return the entity, or null to skip the row
+		 */
+		T map(String[] row, RecordOffset offset, long recordNumber);
+	}
+
+	/**
+	 * Number of records in a file before a chunk. Adding it to a record number
+	 * within the chunk gives the record number within the file.
+	 */
+	static final class RecordOffset {
+
+		/**
+		 * The offset of a file read as a whole, whose record numbers are already file-relative.
+		 */
+		static final RecordOffset NONE = new RecordOffset();
+
+		private volatile long value;
+
+		/**
+		 * Returns the number of records before the chunk; 0 until the import has counted them.
+		 *
+		 * @return the number of records before the chunk
+		 */
+		long get() {
+			return value;
+		}
+	}
+
+	/**
+	 * Private constructor to prevent instantiation of this utility class.
+	 */
+	private ParallelCsvImporter() {
+	}
+
+	/**
+	 * Imports every record after the header of a CSV file and reports the
+	 * throughput achieved.
+	 *
+	 * @param file the file to import
+	 * @param mapper turns each row into an entity; must be safe to call from several threads
+	 * @return the entities in file order, without skipped rows
+	 * @throws IOException if the file cannot be read
+	 */
+	static <T> ArrayList<T> importRecords(File file, RowMapper<T> mapper) throws IOException {
+		long startTime = System.nanoTime();
+		ArrayList<T> records = new ArrayList<>();
+		long size;
+
+		try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+			size = channel.size();
+			long[] bounds = split(channel, size);
+
+			// Tokenize and map the chunks in parallel
+			List<ChunkTask<T>> tasks = new ArrayList<>();
+			for (int i = 0; i + 1 < bounds.length; i++) {
+				tasks.add(new ChunkTask<>(channel, bounds[i], bounds[i + 1], i == 0, mapper));
+			}
+			ForkJoinPool.commonPool().invoke(new RecursiveTask<Void>() {
+				@Override
+				protected Void compute() {
+					ForkJoinTask.invokeAll(tasks);
+					return null;
+				}
+			});
+
+			// Number the chunks from the start of the file
+			long recordsBefore = 0;
+			for (ChunkTask<T> task : tasks) {
+				task.offset.value = recordsBefore;
+				recordsBefore += task.recordCount;
+				records.addAll(task.join());
+			}
+		} catch (RuntimeException e) {
+			if (e.getCause() instanceof IOException) {
+				throw (IOException) e.getCause();
+			}
+			throw e;
+		}
+
+		double seconds = Math.max(System.nanoTime() - startTime, 1) / 1e9;
+		double megabytes = size / (1024.0 * 1024.0);
+		System.out.println(String.format("Imported %d records from %s: %.1f MB in %.2f s (%.1f MB/s)",
+				records.size(), file.getPath(), megabytes, seconds, megabytes / seconds));
+		return records;
+	}
+
+	// ============================================================================
+	// SPLITTING
+	// ============================================================================
+
+	/**
+	 * Finds the chunk boundaries of a file.
+	 *
+	 * @return the ascending start offsets of the chunks, followed by the file size
+	 */
+	private static long[] split(FileChannel channel, long size) throws IOException {
+		int workers = ForkJoinPool.commonPool().getParallelism();
+		long chunkSize = Math.min(MAX_CHUNK_SIZE, Math.max(MIN_CHUNK_SIZE, size / ((long) workers * CHUNKS_PER_WORKER)));
+		int count = (int) Math.max(1, (size + chunkSize - 1) / chunkSize);
+
+		// Count the quotes of each nominal chunk in parallel
+		List<RecursiveTask<Long>> counts = new ArrayList<>();
+		for (int i = 0; i < count; i++) {
+			long start = i * chunkSize;
+			long end = Math.min(size, start + chunkSize);
+			counts.add(new RecursiveTask<Long>() {
+				@Override
+				protected Long compute() {
+					try {
+						MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, start, end - start);
+						long quotes = 0;
+						while (buffer.hasRemaining()) {
+							if (buffer.get() == '"') {
+								quotes++;
+							}
+						}
+						return quotes;
+					} catch (IOException e) {
+						throw new UncheckedIOException(e);
+					}
+				}
+			});
+		}
+		ForkJoinPool.commonPool().invoke(new RecursiveTask<Void>() {
+			@Override
+			protected Void compute() {
+				ForkJoinTask.invokeAll(counts);
+				return null;
+			}
+		});
+
+		// Move each split point past the next line break outside quotes
+		List<Long> bounds = new ArrayList<>();
+		bounds.add(0L);
+		boolean inQuotes = false;
+		for (int i = 1; i < count; i++) {
+			inQuotes ^= (counts.get(i - 1).join() & 1) == 1;
+			long boundary = nextRecordStart(channel, i * chunkSize, inQuotes, size);
+			if (boundary > bounds.get(bounds.size() - 1) && boundary < size) {
+				bounds.add(boundary);
+			}
+		}
+		bounds.add(size);
+
+		long[] result = new long[bounds.size()];
+		for (int i = 0; i < result.length; i++) {
+			result[i] = bounds.get(i);
+		}
+		return result;
+	}
+
+	/**
+	 * Finds the first record starting at or after the given offset.
+	 *
+	 * @param inQuotes whether the offset lies inside a quoted field
+	 * @return the offset just after the next LF outside quotes, or the file size
+	 */
+	private static long nextRecordStart(FileChannel channel, long position, boolean inQuotes, long size) throws IOException {
+		ByteBuffer buffer = ByteBuffer.allocate(SCAN_BUFFER_SIZE);
+		while (position < size) {
+			buffer.clear();
+			int read = channel.read(buffer, position);
+			if (read <= 0) {
+				break;
+			}
+			for (int i = 0; i < read; i++) {
+				byte b = buffer.get(i);
+				if (b == '"') {
+					inQuotes = !inQuotes;
+				} else if (b == '\n' && !inQuotes) {
+					return position + i + 1;
+				}
+			}
+			position += read;
+		}
+		return size;
+	}
+
+	// ============================================================================
+	// PARSING
+	// ============================================================================
+
+	/**
+	 * Tokenizes one chunk and maps its rows into entities.
+	 */
+	@SuppressWarnings("serial") // Never serialized
+	private static class ChunkTask<T> extends RecursiveTask<List<T>> {
+		private final FileChannel channel;
+		private final long start;
+		private final long end;
+		private final boolean skipsHeader;
+		private final RowMapper<T> mapper;
+		private final RecordOffset offset = new RecordOffset();
+
+		private long recordCount;
+
+		ChunkTask(FileChannel channel, long start, long end, boolean skipsHeader, RowMapper<T> mapper) {
+			this.channel = channel;
+			this.start = start;
+			this.end = end;
+			this.skipsHeader = skipsHeader;
+			this.mapper = mapper;
+		}
+
+		@Override
+		protected List<T> compute() {
+			try {
+				MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, start, end - start);
+				// Decode with the same charset as the streaming readers' FileReader
+				CsvTokenizer tokenizer = new CsvTokenizer(new InputStreamReader(new ByteBufferInputStream(buffer), Charset.defaultCharset()));
+				List<T> mapped = new ArrayList<>();
+				if (skipsHeader && tokenizer.nextRecord()) {
+					recordCount++;
+				}
+				while (tokenizer.nextRecord()) {
+					T record = mapper.map(tokenizer.getFields(), offset, ++recordCount);
+					if (record != null) {
+						mapped.add(record);
+					}
+				}
+				tokenizer.close();
+				return mapped;
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}
+	}
+
+	/**
+	 * Input stream over the remaining bytes of a buffer.
+	 */
+	private static class ByteBufferInputStream extends InputStream {
+		private final ByteBuffer buffer;
+
+		ByteBufferInputStream(ByteBuffer buffer) {
+			this.buffer = buffer;
+		}
+
+		@Override
+		public int read() {
+			return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+		}
+
+		@Override
+		public int read(byte[] bytes, int offset, int length) {
+			if (length == 0) {
+				return 0;
+			}
+			if (!buffer.hasRemaining()) {
+				return -1;
+			}
+			int count = Math.min(length, buffer.remaining());
+			buffer.get(bytes, offset, count);
+			return count;
+		}
+
+		@Override
+		public int available() {
+			return buffer.remaining();
+		}
+	}
+}
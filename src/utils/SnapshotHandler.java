@@ -0,0 +1,717 @@
+package utils;
+
+import entity.*;
+import enums.*;
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.time.LocalDate;
+import java.util.*;
+
+/**
+ * Reads and writes a compact binary snapshot of all nine databases.
+ *
+ * <p>Loading the CSV files means tokenizing text, parsing dates and numbers and
+ * resolving every cross-reference by name. The snapshot stores the same object
+ * graph in a form that can be decoded in a single pass over one byte array:</p>
+ * <ul>
+ *   <li>Integers are written as variable-length integers (7 bits per byte)</li>
+ *   <li>Every distinct string is stored once in a string table and referred to by index</li>
+ *   <li>Dates are stored as epoch days</li>
+ *   <li>NRICs are stored as their {@link NricCodec} code; only NRICs without a
+ *       code go through the string table</li>
+ *   <li>References between entities are stored as indices into the earlier sections</li>
+ * </ul>
+ *
+ * <h2>File Layout:</h2>
+ * <pre>
+ * magic "BTOS", format version
+ * CSV state: (size + 1, or 0 if missing; last-modified time) per CSV file
+ * string table: count, then (UTF-8 length, bytes) per string
+ * managers, officers, applicants, projects, BTO applications,
+ * officer applications, bookings, receipts, enquiries: count, then records
+ * </pre>
+ *
+ * <p>Back-references (an applicant's applications, a manager's projects, ...) are
+ * not stored; they are rebuilt from the forward references after decoding, the
+ * same way {@link FileHandler} links the CSV data. The snapshot only speeds up
+ * loading the CSV files, so it holds nothing the CSV files lack: like the CSV
+ * loader, it starts every flat type with all units available and every project
+ * visible, and the journal replayed afterwards brings both up to date.</p>
+ *
+ * <p>The snapshot is written next to the CSV files and records the size and
+ * last-modified time each CSV file had when it was written. It is only used while
+ * every CSV file still has exactly that size and time; see
+ * {@link #isSnapshotCurrent(String)}. Comparing for equality, rather than checking
+ * that the snapshot is newer, also catches a CSV file changed within the same
+ * timestamp tick as the snapshot on file systems with coarse timestamps.</p>
+ *
+ * @author BTO Management System Team
+ * @version 2.0
+ * @since 2.0
+ * @see FileHandler
+ */
+public class SnapshotHandler {
+
+	private static final byte[] MAGIC = { 'B', 'T', 'O', 'S' };
+	private static final int FORMAT_VERSION = 4;
+
+	/**
+	 * Bytes read to check the CSV state recorded in a snapshot; the header is
+	 * at most 4 + 5 + 9 * (10 + 10) bytes long.
+	 */
+	private static final int HEADER_BYTES = 256;
+
+	private static final String[] CSV_FILES = {
+		ApplicationConstants.APPLICANT_FILE, ApplicationConstants.OFFICER_FILE, ApplicationConstants.MANAGER_FILE,
+		ApplicationConstants.PROJECT_FILE, ApplicationConstants.BTO_APPLICATION_FILE, ApplicationConstants.OFFICER_APPLICATION_FILE,
+		ApplicationConstants.BOOKING_FILE, ApplicationConstants.RECEIPT_FILE, ApplicationConstants.ENQUIRY_FILE
+	};
+
+	/**
+	 * Private constructor to prevent instantiation of this utility class.
+	 */
+	private SnapshotHandler() {
+	}
+
+	// ============================================================================
+	// PUBLIC API
+	// ============================================================================
+
+	/**
+	 * Checks whether the snapshot in the data folder exists and was written from the
+	 * CSV files as they are now: every CSV file must still have the size and
+	 * last-modified time recorded in the snapshot. The CSV files are first brought
+	 * back to their last committed generation, since finishing an interrupted
+	 * commit changes them.
+	 *
+	 * @param dataPath the data folder
+	 * @return true if the snapshot can be loaded instead of the CSV files
+	 */
+	public static boolean isSnapshotCurrent(String dataPath) {
+		try {
+			DataManifest.recover(dataPath);
+		} catch (IOException e) {
+			// The CSV files are recovered again, and the error reported, when they are read
+			return false;
+		}
+		File snapshot = new File(dataPath, ApplicationConstants.SNAPSHOT_FILE);
+		if (!snapshot.isFile()) {
+			return false;
+		}
+		try (InputStream stream = new FileInputStream(snapshot)) {
+			Input in = new Input(stream.readNBytes(HEADER_BYTES));
+			readPreamble(in);
+			return Arrays.equals(readCsvState(in), csvState(dataPath));
+		} catch (IOException | RuntimeException e) {
+			// Unreadable, truncated or of an older format
+			return false;
+		}
+	}
+
+	/**
+	 * Writes the current contents of all databases to the snapshot file.
+	 * The snapshot is written to a temporary file first and then moved into place.
+	 *
+	 * @param dataPath the data folder
+	 * @return true if the snapshot was written
+	 */
+	public static boolean writeSnapshot(String dataPath) {
+		try {
+			// Taken before encoding, so a CSV file changed meanwhile makes the snapshot stale
+			long[] csvState = csvState(dataPath);
+			byte[] bytes = encode(csvState);
+			Path target = Paths.get(dataPath, ApplicationConstants.SNAPSHOT_FILE);
+			Path temp = Paths.get(dataPath, ApplicationConstants.SNAPSHOT_FILE + ".tmp");
+			Files.write(temp, bytes);
+			try {
+				Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+			} catch (AtomicMoveNotSupportedException e) {
+				Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+			}
+			return true;
+		} catch (Exception e) {
+			System.out.println("Error writing snapshot: " + e.getMessage());
+			return false;
+		}
+	}
+
+	/**
+	 * Replaces the contents of all databases with the snapshot file.
+	 * Nothing is replaced if the snapshot cannot be decoded.
+	 *
+	 * @param dataPath the data folder
+	 * @return true if the snapshot was loaded
+	 */
+	public static boolean readSnapshot(String dataPath) {
+		try {
+			byte[] bytes = Files.readAllBytes(Paths.get(dataPath, ApplicationConstants.SNAPSHOT_FILE));
+			decode(bytes);
+			FileHandler.setDataFolder(dataPath);
+			return true;
+		} catch (Exception e) {
+			System.out.println("Error reading snapshot: " + e.getMessage());
+			return false;
+		}
+	}
+
+	// ============================================================================
+	// ENCODING
+	// ============================================================================
+
+	/**
+	 * Returns the size + 1 (0 if missing) and last-modified time of each CSV file.
+	 */
+	private static long[] csvState(String dataPath) {
+		long[] state = new long[CSV_FILES.length * 2];
+		for (int i = 0; i < CSV_FILES.length; i++) {
+			File csv = new File(dataPath, CSV_FILES[i]);
+			state[2 * i] = csv.isFile() ? csv.length() + 1 : 0;
+			state[2 * i + 1] = csv.isFile() ? csv.lastModified() : 0;
+		}
+		return state;
+	}
+
+	private static byte[] encode(long[] csvState) {
+		// Copies, as the autosave encodes while the controllers keep changing the lists
+		ArrayList<Manager> managers = new ArrayList<>(Manager.getAllManagers());
+		ArrayList<Officer> officers = new ArrayList<>(Officer.getAllOfficers());
+		ArrayList<Applicant> applicants = new ArrayList<>(Applicant.getAllApplicants());
+		ArrayList<Project> projects = new ArrayList<>(Project.getAllProjects());
+		ArrayList<BTOApplication> applications = new ArrayList<>(BTOApplication.getAllApplications());
+		ArrayList<OfficerApplication> officerApplications = new ArrayList<>(OfficerApplication.getAllApplications());
+		ArrayList<Booking> bookings = new ArrayList<>(Booking.getAllBookings());
+		ArrayList<Receipt> receipts = new ArrayList<>(Receipt.getAllReceipts());
+		ArrayList<Enquiry> enquiries = new ArrayList<>(Enquiry.getAllEnquiries());
+
+		Map<Object, Integer> managerIndex = indexOf(managers);
+		Map<Object, Integer> officerIndex = indexOf(officers);
+		Map<Object, Integer> applicantIndex = indexOf(applicants);
+		Map<Object, Integer> projectIndex = indexOf(projects);
+		Map<Object, Integer> applicationIndex = indexOf(applications);
+		Map<Object, Integer> bookingIndex = indexOf(bookings);
+
+		Output body = new Output();
+
+		body.writeVarInt(managers.size());
+		for (Manager manager : managers) {
+			writeUser(body, manager);
+		}
+		body.writeVarInt(officers.size());
+		for (Officer officer : officers) {
+			writeUser(body, officer);
+		}
+		body.writeVarInt(applicants.size());
+		for (Applicant applicant : applicants) {
+			writeUser(body, applicant);
+		}
+
+		body.writeVarInt(projects.size());
+		for (Project project : projects) {
+			body.writeString(project.getProjectName());
+			body.writeString(project.getNeighborhood());
+			body.writeDate(project.getApplicationStartDate());
+			body.writeDate(project.getApplicationEndDate());
+			body.writeRef(managerIndex, project.getManager());
+			body.writeVarInt(project.getOfficerSlots());
+			body.writeVarInt(project.getFlatTypes().size());
+			for (FlatType flatType : project.getFlatTypes()) {
+				body.writeEnum(flatType.getType());
+				body.writeVarInt(flatType.getNumUnits());
+				body.writeDouble(flatType.getSellingPrice());
+			}
+			body.writeVarInt(project.getAssignedOfficers().size());
+			for (Officer officer : project.getAssignedOfficers()) {
+				body.writeRef(officerIndex, officer);
+			}
+		}
+
+		body.writeVarInt(applications.size());
+		for (BTOApplication application : applications) {
+			body.writeString(application.getApplicationID());
+			body.writeDate(application.getApplicationDate());
+			writeApplicantRef(body, applicantIndex, officerIndex, application.getApplicant());
+			body.writeRef(projectIndex, application.getProject());
+			body.writeEnum(application.getFlatType());
+			body.writeEnum(application.getStatus());
+			body.writeEnum(application.getWithdrawalStatus());
+		}
+
+		body.writeVarInt(officerApplications.size());
+		for (OfficerApplication officerApplication : officerApplications) {
+			body.writeString(officerApplication.getOfficerApplicationID());
+			body.writeDate(officerApplication.getApplicationDate());
+			body.writeRef(officerIndex, officerApplication.getOfficer());
+			body.writeRef(projectIndex, officerApplication.getProject());
+			body.writeEnum(officerApplication.getStatus());
+		}
+
+		body.writeVarInt(bookings.size());
+		for (Booking booking : bookings) {
+			body.writeString(booking.getBookingID());
+			body.writeDate(booking.getBookingDateTime());
+			body.writeRef(applicationIndex, booking.getApplication());
+			body.writeRef(officerIndex, booking.getProcessingOfficer());
+			body.writeEnum(booking.getFlatType());
+			body.writeEnum(booking.getStatus());
+		}
+
+		body.writeVarInt(receipts.size());
+		for (Receipt receipt : receipts) {
+			body.writeString(receipt.getReceiptNumber());
+			body.writeDate(receipt.getDate());
+			body.writeRef(bookingIndex, receipt.getBooking());
+		}
+
+		body.writeVarInt(enquiries.size());
+		for (Enquiry enquiry : enquiries) {
+			body.writeString(enquiry.getEnquiryID());
+			body.writeDate(enquiry.getDateTime());
+			body.writeString(enquiry.getContent());
+			body.writeString(enquiry.getReply());
+			body.writeDate(enquiry.getReplyDate());
+			writeApplicantRef(body, applicantIndex, officerIndex, enquiry.getSubmittedBy());
+			body.writeRef(projectIndex, enquiry.getProject());
+			body.writeEnum(enquiry.getStatus());
+			// Respondents are managers (tag 0) or officers (tag 1)
+			User respondent = enquiry.getRespondent();
+			if (respondent instanceof Manager && managerIndex.containsKey(respondent)) {
+				body.writeVarInt((managerIndex.get(respondent) << 1) + 1);
+			} else if (respondent instanceof Officer && officerIndex.containsKey(respondent)) {
+				body.writeVarInt((officerIndex.get(respondent) << 1 | 1) + 1);
+			} else {
+				body.writeVarInt(0);
+			}
+		}
+
+		Output file = new Output();
+		file.writeBytes(MAGIC, MAGIC.length);
+		file.writeVarInt(FORMAT_VERSION);
+		for (long value : csvState) {
+			file.writeVarLong(value);
+		}
+		file.writeVarInt(body.strings.size());
+		for (String string : body.strings) {
+			byte[] utf8 = string.getBytes(StandardCharsets.UTF_8);
+			file.writeVarInt(utf8.length);
+			file.writeBytes(utf8, utf8.length);
+		}
+		file.writeBytes(body.bytes, body.size);
+		return Arrays.copyOf(file.bytes, file.size);
+	}
+
+	private static void writeUser(Output out, User user) {
+		out.writeString(user.getName());
+		out.writeNric(user.getNric());
+		out.writeVarInt(user.getAge());
+		out.writeEnum(user.getMaritalStatus());
+		out.writeString(user.getPassword());
+	}
+
+	/**
+	 * Applicant references may point at an applicant (tag 0) or an officer applying as one (tag 1).
+	 */
+	private static void writeApplicantRef(Output out, Map<Object, Integer> applicantIndex, Map<Object, Integer> officerIndex, Applicant applicant) {
+		if (applicant instanceof Officer && officerIndex.containsKey(applicant)) {
+			out.writeVarInt((officerIndex.get(applicant) << 1 | 1) + 1);
+		} else if (applicant != null && applicantIndex.containsKey(applicant)) {
+			out.writeVarInt((applicantIndex.get(applicant) << 1) + 1);
+		} else {
+			out.writeVarInt(0);
+		}
+	}
+
+	private static Map<Object, Integer> indexOf(List<?> list) {
+		Map<Object, Integer> index = new IdentityHashMap<>(list.size() * 2);
+		for (int i = 0; i < list.size(); i++) {
+			index.put(list.get(i), i);
+		}
+		return index;
+	}
+
+	// ============================================================================
+	// DECODING
+	// ============================================================================
+
+	private static void readPreamble(Input in) throws IOException {
+		for (byte b : MAGIC) {
+			if (in.readByte() != b) {
+				throw new IOException("Not a snapshot file");
+			}
+		}
+		int version = in.readVarInt();
+		if (version != FORMAT_VERSION) {
+			throw new IOException("Unsupported snapshot version " + version);
+		}
+	}
+
+	private static long[] readCsvState(Input in) {
+		long[] state = new long[CSV_FILES.length * 2];
+		for (int i = 0; i < state.length; i++) {
+			state[i] = in.readVarLong();
+		}
+		return state;
+	}
+
+	private static void decode(byte[] bytes) throws IOException {
+		Input in = new Input(bytes);
+		readPreamble(in);
+		readCsvState(in);
+		int stringCount = in.readVarInt();
+		in.strings = new String[stringCount];
+		for (int i = 0; i < stringCount; i++) {
+			int length = in.readVarInt();
+			in.strings[i] = new String(bytes, in.position, length, StandardCharsets.UTF_8);
+			in.position += length;
+		}
+
+		MarriageStatusEnum[] maritalStatuses = MarriageStatusEnum.values();
+
+		ArrayList<Manager> managers = new ArrayList<>();
+		for (int i = 0, n = in.readVarInt(); i < n; i++) {
+			Manager manager = new Manager();
+			readUser(in, manager, maritalStatuses);
+			managers.add(manager);
+		}
+		ArrayList<Officer> officers = new ArrayList<>();
+		for (int i = 0, n = in.readVarInt(); i < n; i++) {
+			Officer officer = new Officer();
+			readUser(in, officer, maritalStatuses);
+			officers.add(officer);
+		}
+		ArrayList<Applicant> applicants = new ArrayList<>();
+		for (int i = 0, n = in.readVarInt(); i < n; i++) {
+			Applicant applicant = new Applicant();
+			readUser(in, applicant, maritalStatuses);
+			applicants.add(applicant);
+		}
+
+		FlatTypeEnum[] flatTypeValues = FlatTypeEnum.values();
+		ArrayList<Project> projects = new ArrayList<>();
+		for (int i = 0, n = in.readVarInt(); i < n; i++) {
+			Project project = new Project();
+			project.setProjectName(in.readString());
+			project.setNeighborhood(in.readString());
+			project.setApplicationStartDate(in.readDate());
+			project.setApplicationEndDate(in.readDate());
+			project.setManager(in.readRef(managers));
+			project.setOfficerSlots(in.readVarInt());
+			project.setVisibility(VisibilityEnum.VISIBLE);
+			ArrayList<FlatType> flatTypes = new ArrayList<>();
+			for (int j = 0, m = in.readVarInt(); j < m; j++) {
+				FlatType flatType = new FlatType();
+				flatType.setType(in.readEnum(flatTypeValues));
+				flatType.setNumUnits(in.readVarInt());
+				flatType.setAvailableUnits(flatType.getNumUnits());
+				flatType.setSellingPrice(in.readDouble());
+				flatTypes.add(flatType);
+			}
+			project.setFlatTypes(flatTypes);
+			ArrayList<Officer> assignedOfficers = new ArrayList<>();
+			for (int j = 0, m = in.readVarInt(); j < m; j++) {
+				Officer officer = in.readRef(officers);
+				if (officer != null) {
+					assignedOfficers.add(officer);
+				}
+			}
+			project.setAssignedOfficers(assignedOfficers);
+			projects.add(project);
+		}
+
+		BTOApplicationStatusEnum[] applicationStatuses = BTOApplicationStatusEnum.values();
+		WithdrawalStatusEnum[] withdrawalStatuses = WithdrawalStatusEnum.values();
+		ArrayList<BTOApplication> applications = new ArrayList<>();
+		for (int i = 0, n = in.readVarInt(); i < n; i++) {
+			BTOApplication application = new BTOApplication();
+			application.setApplicationID(in.readString());
+			application.setApplicationDate(in.readDate());
+			application.setApplicant(in.readApplicantRef(applicants, officers));
+			application.setProject(in.readRef(projects));
+			application.setFlatType(in.readEnum(flatTypeValues));
+			application.setStatus(in.readEnum(applicationStatuses));
+			application.setWithdrawalStatus(in.readEnum(withdrawalStatuses));
+			applications.add(application);
+		}
+
+		OfficerApplicationStatusEnum[] officerApplicationStatuses = OfficerApplicationStatusEnum.values();
+		ArrayList<OfficerApplication> officerApplications = new ArrayList<>();
+		for (int i = 0, n = in.readVarInt(); i < n; i++) {
+			String id = in.readString();
+			LocalDate date = in.readDate();
+			Officer officer = in.readRef(officers);
+			Project project = in.readRef(projects);
+			OfficerApplicationStatusEnum status = in.readEnum(officerApplicationStatuses);
+			officerApplications.add(new OfficerApplication(id, date, officer, project, status));
+		}
+
+		BookingStatusEnum[] bookingStatuses = BookingStatusEnum.values();
+		ArrayList<Booking> bookings = new ArrayList<>();
+		for (int i = 0, n = in.readVarInt(); i < n; i++) {
+			String id = in.readString();
+			LocalDate date = in.readDate();
+			BTOApplication application = in.readRef(applications);
+			Officer officer = in.readRef(officers);
+			FlatTypeEnum flatType = in.readEnum(flatTypeValues);
+			BookingStatusEnum status = in.readEnum(bookingStatuses);
+			bookings.add(new Booking(id, date, application, officer, flatType, status));
+		}
+
+		ArrayList<Receipt> receipts = new ArrayList<>();
+		for (int i = 0, n = in.readVarInt(); i < n; i++) {
+			String number = in.readString();
+			LocalDate date = in.readDate();
+			receipts.add(new Receipt(number, date, in.readRef(bookings)));
+		}
+
+		EnquiryStatusEnum[] enquiryStatuses = EnquiryStatusEnum.values();
+		ArrayList<Enquiry> enquiries = new ArrayList<>();
+		for (int i = 0, n = in.readVarInt(); i < n; i++) {
+			Enquiry enquiry = new Enquiry();
+			enquiry.setEnquiryID(in.readString());
+			enquiry.setDateTime(in.readDate());
+			enquiry.setContent(in.readString());
+			enquiry.setReply(in.readString());
+			enquiry.setReplyDate(in.readDate());
+			enquiry.setSubmittedBy(in.readApplicantRef(applicants, officers));
+			enquiry.setProject(in.readRef(projects));
+			enquiry.setStatus(in.readEnum(enquiryStatuses));
+			int respondent = in.readVarInt() - 1;
+			if (respondent >= 0) {
+				enquiry.setRespondent((respondent & 1) == 0 ? managers.get(respondent >>> 1) : officers.get(respondent >>> 1));
+			}
+			enquiries.add(enquiry);
+		}
+
+		// Rebuild back-references from the forward references
+		for (Project project : projects) {
+			if (project.getManager() != null) {
+				project.getManager().getManagedProjects().add(project);
+			}
+			for (Officer officer : project.getAssignedOfficers()) {
+				officer.assignToProject(project);
+			}
+		}
+		for (BTOApplication application : applications) {
+			if (application.getApplicant() != null) {
+				application.getApplicant().getApplications().add(application);
+			}
+		}
+		for (OfficerApplication officerApplication : officerApplications) {
+			if (officerApplication.getOfficer() != null) {
+				officerApplication.getOfficer().getOfficerApplications().add(officerApplication);
+			}
+		}
+		for (Booking booking : bookings) {
+			if (booking.getApplication() != null && booking.getApplication().getApplicant() != null) {
+				booking.getApplication().getApplicant().getBookings().add(booking);
+			}
+		}
+		for (Enquiry enquiry : enquiries) {
+			if (enquiry.getSubmittedBy() != null) {
+				enquiry.getSubmittedBy().getEnquiries().add(enquiry);
+			}
+		}
+
+		Manager.getDatabase().setManagers(managers);
+		Officer.getOfficerDatabase().setOfficers(officers);
+		Applicant.getDatabase().setApplicants(applicants);
+		Project.getDatabase().setProjects(projects);
+		BTOApplication.getDatabase().setApplications(applications);
+		OfficerApplication.getDatabase().setApplications(officerApplications);
+		Booking.getDatabase().setBookings(bookings);
+		Receipt.getDatabase().setReceipts(receipts);
+		Enquiry.getDatabase().setEnquiries(enquiries);
+	}
+
+	private static void readUser(Input in, User user, MarriageStatusEnum[] maritalStatuses) {
+		user.setName(in.readString());
+		user.setNric(in.readNric());
+		user.setAge(in.readVarInt());
+		user.setMaritalStatus(in.readEnum(maritalStatuses));
+		user.setPassword(in.readString());
+	}
+
+	// ============================================================================
+	// BYTE-LEVEL ENCODING
+	// ============================================================================
+
+	/**
+	 * Growable output buffer that interns strings into the string table.
+	 */
+	private static class Output {
+		private byte[] bytes = new byte[8192];
+		private int size;
+		private final Map<String, Integer> stringIndex = new HashMap<>();
+		private final ArrayList<String> strings = new ArrayList<>();
+
+		void writeByte(int b) {
+			if (size == bytes.length) {
+				bytes = Arrays.copyOf(bytes, size * 2);
+			}
+			bytes[size++] = (byte) b;
+		}
+
+		void writeBytes(byte[] source, int length) {
+			if (size + length > bytes.length) {
+				bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, size + length));
+			}
+			System.arraycopy(source, 0, bytes, size, length);
+			size += length;
+		}
+
+		void writeVarInt(int value) {
+			while ((value & ~0x7F) != 0) {
+				writeByte((value & 0x7F) | 0x80);
+				value >>>= 7;
+			}
+			writeByte(value);
+		}
+
+		void writeVarLong(long value) {
+			while ((value & ~0x7FL) != 0) {
+				writeByte((int) (value & 0x7F) | 0x80);
+				value >>>= 7;
+			}
+			writeByte((int) value);
+		}
+
+		/** Strings are written as table index + 1; 0 means null. */
+		void writeString(String value) {
+			if (value == null) {
+				writeVarInt(0);
+				return;
+			}
+			Integer index = stringIndex.get(value);
+			if (index == null) {
+				index = strings.size();
+				stringIndex.put(value, index);
+				strings.add(value);
+			}
+			writeVarInt(index + 1);
+		}
+
+		/** NRICs are written as code + 1, or 0 followed by the string for NRICs without a code. */
+		void writeNric(String nric) {
+			long code = NricCodec.encode(nric);
+			writeVarLong(code + 1);
+			if (code == NricCodec.NO_CODE) {
+				writeString(nric);
+			}
+		}
+
+		/** Dates are written as zig-zag encoded epoch day + 1; 0 means null. */
+		void writeDate(LocalDate date) {
+			if (date == null) {
+				writeVarLong(0);
+				return;
+			}
+			long epochDay = date.toEpochDay();
+			writeVarLong(((epochDay << 1) ^ (epochDay >> 63)) + 1);
+		}
+
+		/** Enums are written as ordinal + 1; 0 means null. */
+		void writeEnum(Enum<?> value) {
+			writeVarInt(value == null ? 0 : value.ordinal() + 1);
+		}
+
+		/** References are written as section index + 1; 0 means null or not in the section. */
+		void writeRef(Map<Object, Integer> index, Object value) {
+			Integer position = value == null ? null : index.get(value);
+			writeVarInt(position == null ? 0 : position + 1);
+		}
+
+		void writeDouble(double value) {
+			long bits = Double.doubleToLongBits(value);
+			for (int shift = 0; shift < 64; shift += 8) {
+				writeByte((int) (bits >>> shift));
+			}
+		}
+	}
+
+	/**
+	 * Cursor over the snapshot bytes.
+	 */
+	private static class Input {
+		private final byte[] bytes;
+		private int position;
+		private String[] strings;
+
+		Input(byte[] bytes) {
+			this.bytes = bytes;
+		}
+
+		byte readByte() throws EOFException {
+			if (position >= bytes.length) {
+				throw new EOFException("Snapshot is truncated");
+			}
+			return bytes[position++];
+		}
+
+		int readVarInt() {
+			int value = 0;
+			for (int shift = 0; ; shift += 7) {
+				byte b = bytes[position++];
+				value |= (b & 0x7F) << shift;
+				if (b >= 0) {
+					return value;
+				}
+			}
+		}
+
+		long readVarLong() {
+			long value = 0;
+			for (int shift = 0; ; shift += 7) {
+				byte b = bytes[position++];
+				value |= (long) (b & 0x7F) << shift;
+				if (b >= 0) {
+					return value;
+				}
+			}
+		}
+
+		String readString() {
+			int index = readVarInt();
+			return index == 0 ? null : strings[index - 1];
+		}
+
+		String readNric() {
+			long code = readVarLong() - 1;
+			return code == NricCodec.NO_CODE ? readString() : NricCodec.decode(code);
+		}
+
+		LocalDate readDate() {
+			long encoded = readVarLong();
+			if (encoded == 0) {
+				return null;
+			}
+			encoded--;
+			return LocalDate.ofEpochDay((encoded >>> 1) ^ -(encoded & 1));
+		}
+
+		<E> E readEnum(E[] values) {
+			int ordinal = readVarInt();
+			return ordinal == 0 ? null : values[ordinal - 1];
+		}
+
+		<T> T readRef(List<T> section) {
+			int index = readVarInt();
+			return index == 0 ? null : section.get(index - 1);
+		}
+
+		Applicant readApplicantRef(List<Applicant> applicants, List<Officer> officers) {
+			int encoded = readVarInt() - 1;
+			if (encoded < 0) {
+				return null;
+			}
+			return (encoded & 1) == 0 ? applicants.get(encoded >>> 1) : officers.get(encoded >>> 1);
+		}
+
+		double readDouble() {
+			long bits = 0;
+			for (int shift = 0; shift < 64; shift += 8) {
+				bits |= (long) (bytes[position++] & 0xFF) << shift;
+			}
+			return Double.longBitsToDouble(bits);
+		}
+	}
+}